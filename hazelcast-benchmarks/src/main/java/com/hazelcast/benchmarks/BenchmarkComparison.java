@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.internal.json.Json;
+import com.hazelcast.internal.json.JsonObject;
+import com.hazelcast.internal.json.JsonValue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares two JMH result files written in JSON format, e.g. the results
+ * of two commits written by {@link BenchmarkRunner}.
+ * <p>
+ * Prints the score of each benchmark present in both files and the
+ * relative change. A change is marked as significant when the difference
+ * of the scores is larger than the sum of their error margins; whether it
+ * is an improvement or a regression depends on the benchmark mode.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <current.json>}
+ */
+public final class BenchmarkComparison {
+
+    private static final double PERCENT = 100;
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json>");
+            System.exit(1);
+        }
+        Map<String, Score> baseline = readScores(args[0]);
+        Map<String, Score> current = readScores(args[1]);
+
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score baselineScore = baseline.get(entry.getKey());
+            if (baselineScore != null) {
+                print(entry.getKey(), baselineScore, entry.getValue());
+            }
+        }
+    }
+
+    private static void print(String benchmark, Score baseline, Score current) {
+        double change = (current.score - baseline.score) / baseline.score * PERCENT;
+        String verdict = "";
+        if (Math.abs(current.score - baseline.score) > baseline.error + current.error) {
+            boolean higherIsBetter = "thrpt".equals(current.mode);
+            verdict = (current.score > baseline.score) == higherIsBetter ? "  improvement" : "  REGRESSION";
+        }
+        System.out.printf("%-90s %14.3f %14.3f %+8.2f%% %s%s%n", benchmark, baseline.score, current.score, change,
+                current.unit, verdict);
+    }
+
+    static Map<String, Score> readScores(String path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), UTF_8)) {
+            for (JsonValue value : Json.parse(reader).asArray()) {
+                JsonObject result = value.asObject();
+                JsonObject metric = result.get("primaryMetric").asObject();
+                Score score = new Score(result.get("mode").asString(), metric.get("score").asDouble(),
+                        errorOf(metric), metric.get("scoreUnit").asString());
+                scores.put(nameOf(result), score);
+            }
+        }
+        return scores;
+    }
+
+    private static String nameOf(JsonObject result) {
+        StringBuilder name = new StringBuilder(result.get("benchmark").asString());
+        JsonValue params = result.get("params");
+        if (params != null) {
+            JsonObject paramsObject = params.asObject();
+            for (String param : paramsObject.names()) {
+                name.append(' ').append(param).append('=').append(paramsObject.get(param).asString());
+            }
+        }
+        return name.toString();
+    }
+
+    private static double errorOf(JsonObject metric) {
+        JsonValue error = metric.get("scoreError");
+        // the error is "NaN" if there were not enough iterations to compute it
+        return error == null || !error.isNumber() ? 0 : error.asDouble();
+    }
+
+    static final class Score {
+
+        final String mode;
+        final double score;
+        final double error;
+        final String unit;
+
+        Score(String mode, double score, double error, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+}
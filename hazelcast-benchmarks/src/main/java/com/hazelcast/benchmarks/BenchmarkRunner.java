@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.instance.BuildInfoProvider;
+import org.openjdk.jmh.Main;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks, the main class of the benchmarks jar.
+ * <p>
+ * Accepts the usual JMH command line options. Unless the result format or
+ * file is given explicitly, the results are written in JSON format to
+ * {@code jmh-results/<commit id>.json} so that the results of different
+ * commits can be compared with {@link BenchmarkComparison}. The directory
+ * can be changed with the {@value #RESULTS_DIR_PROPERTY} system property.
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * The system property which defines the directory of the result files.
+     */
+    public static final String RESULTS_DIR_PROPERTY = "hazelcast.benchmarks.results.dir";
+
+    private static final String DEFAULT_RESULTS_DIR = "jmh-results";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Main.main(withDefaultResultFile(args));
+    }
+
+    static String[] withDefaultResultFile(String[] args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (arguments.contains("-h") || arguments.contains("-l") || arguments.contains("-lp")) {
+            return args;
+        }
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+        }
+        if (!arguments.contains("-rff")) {
+            File directory = new File(System.getProperty(RESULTS_DIR_PROPERTY, DEFAULT_RESULTS_DIR));
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IllegalStateException("Cannot create the results directory " + directory);
+            }
+            String commitId = BuildInfoProvider.getBuildInfo().getCommitId();
+            String fileName = (commitId == null || commitId.isEmpty() ? "unknown" : commitId) + ".json";
+            arguments.add("-rff");
+            arguments.add(new File(directory, fileName).getPath());
+        }
+        return arguments.toArray(new String[0]);
+    }
+}
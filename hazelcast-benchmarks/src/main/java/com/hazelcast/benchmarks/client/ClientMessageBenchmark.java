@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.client;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.ClientMessageReader;
+import com.hazelcast.client.impl.protocol.ClientMessageWriter;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Encoding and decoding of a {@code Map.put} request, and writing it to
+ * and reading it from a byte buffer the way the client connections do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientMessageBenchmark {
+
+    private static final String MAP_NAME = "map";
+    private static final long THREAD_ID = 1;
+    private static final long TTL = -1;
+
+    @Param({"16", "1024", "65536"})
+    int valueSize;
+
+    private Data key;
+    private Data value;
+    private ClientMessage message;
+    private ByteBuffer buffer;
+    private final ClientMessageWriter writer = new ClientMessageWriter();
+    private final ClientMessageReader reader = new ClientMessageReader(-1);
+
+    @Setup
+    public void setup() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        key = serializationService.toData("key");
+        value = serializationService.toData(new byte[valueSize]);
+        message = MapPutCodec.encodeRequest(MAP_NAME, key, value, THREAD_ID, TTL);
+        buffer = ByteBuffer.allocate(message.getFrameLength());
+    }
+
+    @Benchmark
+    public ClientMessage encode() {
+        return MapPutCodec.encodeRequest(MAP_NAME, key, value, THREAD_ID, TTL);
+    }
+
+    @Benchmark
+    public MapPutCodec.RequestParameters decode() {
+        return MapPutCodec.decodeRequest(message);
+    }
+
+    @Benchmark
+    public ClientMessage writeAndRead() {
+        buffer.clear();
+        writer.writeTo(buffer, message);
+        buffer.flip();
+        reader.readFrom(buffer, true);
+        ClientMessage read = reader.getClientMessage();
+        reader.reset();
+        return read;
+    }
+}
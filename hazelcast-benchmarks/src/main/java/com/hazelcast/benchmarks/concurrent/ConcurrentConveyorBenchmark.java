@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.concurrent;
+
+import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static com.hazelcast.internal.util.concurrent.ConcurrentConveyor.concurrentConveyor;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Submitters offering to their own queues of a {@link ConcurrentConveyor}
+ * and a single drainer draining all the queues, the way the conveyor is
+ * used by the Hot Restart and the Jet receivers.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentConveyorBenchmark {
+
+    static final int SUBMITTER_COUNT = 4;
+    static final int QUEUE_CAPACITY = 1024;
+
+    private static final Object ITEM = new Object();
+    private static final Object SUBMITTER_GONE = new Object();
+
+    private ConcurrentConveyor<Object> conveyor;
+    private final AtomicInteger nextQueueIndex = new AtomicInteger();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        QueuedPipe<Object>[] queues = new QueuedPipe[SUBMITTER_COUNT];
+        for (int i = 0; i < SUBMITTER_COUNT; i++) {
+            queues[i] = new OneToOneConcurrentArrayQueue<>(QUEUE_CAPACITY);
+        }
+        conveyor = concurrentConveyor(SUBMITTER_GONE, queues);
+        conveyor.drainerArrived();
+    }
+
+    @Benchmark
+    @Group("conveyor")
+    @GroupThreads(SUBMITTER_COUNT)
+    public void submit(Submitter submitter, Control control) {
+        while (!conveyor.offer(submitter.queue, ITEM) && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Benchmark
+    @Group("conveyor")
+    @GroupThreads(1)
+    public int drain(Drainer drainer) {
+        int drained = 0;
+        for (int i = 0; i < SUBMITTER_COUNT; i++) {
+            drained += conveyor.drain(i, drainer);
+        }
+        return drained;
+    }
+
+    /**
+     * Assigns a queue of the conveyor to each submitter thread.
+     */
+    @State(Scope.Thread)
+    public static class Submitter {
+
+        QueuedPipe<Object> queue;
+
+        @Setup
+        public void setup(ConcurrentConveyorBenchmark benchmark) {
+            int index = benchmark.nextQueueIndex.getAndIncrement() % SUBMITTER_COUNT;
+            queue = benchmark.conveyor.queue(index);
+        }
+    }
+
+    /**
+     * Counts the drained items.
+     */
+    @State(Scope.Thread)
+    public static class Drainer implements Predicate<Object> {
+
+        long count;
+
+        @Override
+        public boolean test(Object item) {
+            count++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.concurrent;
+
+import com.hazelcast.internal.util.concurrent.MPSCQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Producers offering to and a single consumer polling from an {@link
+ * MPSCQueue}, the queue of the partition operation threads. The producers
+ * back off while the queue holds more than {@value #MAX_SIZE} items, so
+ * the queue doesn't grow without bounds when the consumer falls behind.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MPSCQueueBenchmark {
+
+    static final int MAX_SIZE = 1 << 16;
+
+    private static final Object ITEM = new Object();
+
+    private MPSCQueue<Object> queue;
+
+    @Setup
+    public void setup() {
+        queue = new MPSCQueue<>(null);
+    }
+
+    @Benchmark
+    @Group("oneProducer")
+    @GroupThreads(1)
+    public void oneProducerOffer(Control control) {
+        offer(control);
+    }
+
+    @Benchmark
+    @Group("oneProducer")
+    @GroupThreads(1)
+    public Object oneProducerPoll(Control control) {
+        return poll(control);
+    }
+
+    @Benchmark
+    @Group("fourProducers")
+    @GroupThreads(4)
+    public void fourProducersOffer(Control control) {
+        offer(control);
+    }
+
+    @Benchmark
+    @Group("fourProducers")
+    @GroupThreads(1)
+    public Object fourProducersPoll(Control control) {
+        return poll(control);
+    }
+
+    private void offer(Control control) {
+        while (queue.size() >= MAX_SIZE && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+        queue.offer(ITEM);
+    }
+
+    private Object poll(Control control) {
+        Object item;
+        while ((item = queue.poll()) == null && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+        return item;
+    }
+}
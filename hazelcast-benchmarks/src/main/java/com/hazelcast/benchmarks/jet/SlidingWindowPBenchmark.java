@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.jet;
+
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.function.ToLongFunctionEx;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.TimestampKind;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.core.SlidingWindowPolicy.slidingWinPolicy;
+import static com.hazelcast.jet.core.processor.Processors.accumulateByFrameP;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Accumulation of items into the frames of the {@code SlidingWindowP}
+ * processor, comparing {@code counting()}, whose frames are kept in
+ * primitive tables, with an equivalent aggregate operation that isn't
+ * recognized and keeps one {@link LongAccumulator} per key and frame. The
+ * items are spread over {@value #FRAME_COUNT} frames and {@code keyCount}
+ * keys.
+ * <p>
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlidingWindowPBenchmark {
+
+    static final int BATCH_SIZE = 1024;
+    static final int FRAME_COUNT = 4;
+    static final long FRAME_SIZE = 10;
+
+    @Param({"1000", "100000"})
+    public int keyCount;
+
+    @Param
+    public Accumulator accumulator;
+
+    private Processor processor;
+    private List<Entry<Long, Long>> items;
+    private TestInbox inbox;
+    private int batchIndex;
+
+    @Setup
+    public void setup() throws Exception {
+        FunctionEx<Entry<Long, Long>, Long> keyFn = Entry::getValue;
+        ToLongFunctionEx<Entry<Long, Long>> timestampFn = Entry::getKey;
+        processor = accumulateByFrameP(
+                singletonList(keyFn),
+                singletonList(timestampFn),
+                TimestampKind.FRAME,
+                slidingWinPolicy(FRAME_SIZE, FRAME_SIZE),
+                accumulator.aggrOp
+        ).get();
+        processor.init(new TestOutbox(BATCH_SIZE), new TestProcessorContext());
+
+        Random random = new Random(42);
+        items = new ArrayList<>();
+        for (int i = 0; i < 64 * BATCH_SIZE; i++) {
+            items.add(entry(random.nextInt(FRAME_COUNT) * FRAME_SIZE, (long) random.nextInt(keyCount)));
+        }
+        inbox = new TestInbox();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void accumulate() {
+        int offset = batchIndex++ % (items.size() / BATCH_SIZE) * BATCH_SIZE;
+        inbox.addAll(items.subList(offset, offset + BATCH_SIZE));
+        processor.process(0, inbox);
+    }
+
+    /**
+     * The aggregate operations of the benchmark.
+     */
+    public enum Accumulator {
+        PRIMITIVE(counting()),
+        BOXED(AggregateOperation
+                .withCreate(LongAccumulator::new)
+                .andAccumulate((LongAccumulator acc, Object item) -> acc.add(1))
+                .andCombine(LongAccumulator::add)
+                .andDeduct(LongAccumulator::subtract)
+                .andExportFinish(LongAccumulator::get));
+
+        final AggregateOperation1<Object, LongAccumulator, Long> aggrOp;
+
+        Accumulator(AggregateOperation1<Object, LongAccumulator, Long> aggrOp) {
+            this.aggrOp = aggrOp;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.nearcache;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCacheConfig.AdmissionPolicy;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.READ_UPDATE;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Gets of a full Near Cache, comparing the sampling eviction alone with the
+ * TinyLFU admission policy. A miss populates the Near Cache the way
+ * {@code DefaultNearCache} does for a remote get. The {@code hits} and
+ * {@code misses} counters give the hit ratio of the workload:
+ * <ul>
+ *     <li>{@code ZIPF}: keys with a Zipfian popularity distribution</li>
+ *     <li>{@code ZIPF_WITH_SCAN}: every second get is a key of a scan
+ *     through a key space much larger than the Near Cache</li>
+ * </ul>
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class NearCacheBenchmark {
+
+    static final int MAX_SIZE = 10_000;
+    static final int KEY_COUNT = 20 * MAX_SIZE;
+
+    private static final double ZIPF_EXPONENT = 0.99;
+    private static final int SCAN_KEY_OFFSET = KEY_COUNT;
+    private static final int SCAN_START_BOUND = 1 << 28;
+
+    @Param
+    public AdmissionPolicy admissionPolicy;
+
+    @Param
+    public Workload workload;
+
+    private NearCacheRecordStore<Integer, byte[]> store;
+    private double[] cumulativeProbabilities;
+    private byte[] value;
+
+    @Setup
+    public void setup() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        NearCacheConfig nearCacheConfig = new NearCacheConfig("nearCache")
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setAdmissionPolicy(admissionPolicy)
+                .setEvictionConfig(new EvictionConfig().setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT).setSize(MAX_SIZE));
+        store = new NearCacheDataRecordStore<>(nearCacheConfig.getName(), nearCacheConfig, serializationService, null);
+        store.initialize();
+
+        cumulativeProbabilities = new double[KEY_COUNT];
+        double sum = 0;
+        for (int i = 0; i < KEY_COUNT; i++) {
+            sum += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+            cumulativeProbabilities[i] = sum;
+        }
+        for (int i = 0; i < KEY_COUNT; i++) {
+            cumulativeProbabilities[i] /= sum;
+        }
+        value = new byte[100];
+    }
+
+    @Benchmark
+    public byte[] get(Counters counters) {
+        Integer key = workload == Workload.ZIPF_WITH_SCAN && counters.ops++ % 2 == 0
+                ? SCAN_KEY_OFFSET + counters.scanPosition++
+                : zipfKey();
+        byte[] cached = store.get(key);
+        if (cached != null) {
+            counters.hits++;
+            return cached;
+        }
+        counters.misses++;
+        store.doEviction(false);
+        long reservationId = store.tryReserveForUpdate(key, null, READ_UPDATE);
+        if (reservationId != NOT_RESERVED) {
+            store.tryPublishReserved(key, value, reservationId, false);
+        }
+        return value;
+    }
+
+    private int zipfKey() {
+        int index = Arrays.binarySearch(cumulativeProbabilities, ThreadLocalRandom.current().nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, KEY_COUNT - 1);
+    }
+
+    /**
+     * The hits and misses of a thread, reported as events per iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long hits;
+        public long misses;
+
+        long ops;
+        // the threads scan different keys
+        int scanPosition = ThreadLocalRandom.current().nextInt(SCAN_START_BOUND);
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * The access patterns of the benchmark.
+     */
+    public enum Workload {
+        ZIPF,
+        ZIPF_WITH_SCAN
+    }
+}
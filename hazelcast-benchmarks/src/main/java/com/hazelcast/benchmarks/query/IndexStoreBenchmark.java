@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.BPlusTreeIndexStore;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.IndexCopyBehavior;
+import com.hazelcast.query.impl.IndexStore;
+import com.hazelcast.query.impl.OrderedIndexStore;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.UnorderedIndexStore;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.internal.monitor.impl.IndexOperationStats.EMPTY;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Point lookups, range queries and updates of the single value index
+ * stores, through the methods used by the predicate based queries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexStoreBenchmark {
+
+    private static final int ENTRY_COUNT = 100_000;
+    private static final int RANGE_WIDTH = 100;
+
+    @Param({"ORDERED", "BPLUS_TREE", "UNORDERED"})
+    StoreType storeType;
+
+    private IndexStore store;
+    private CachedQueryEntry<?, ?>[] entries;
+
+    @Setup
+    public void setup() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        Extractors extractors = Extractors.newBuilder(serializationService).build();
+        Random random = new Random(42);
+        entries = new CachedQueryEntry[ENTRY_COUNT];
+        store = storeType.newStore();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries[i] = new CachedQueryEntry<>(serializationService, serializationService.toData(i),
+                    random.nextInt(ENTRY_COUNT), extractors);
+            store.insert(entries[i].getValue(), entries[i], entries[i], EMPTY);
+        }
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> pointLookup() {
+        return store.getRecords(randomValue());
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> rangeQuery() {
+        int from = randomValue();
+        return store.getRecords(from, true, from + RANGE_WIDTH, false);
+    }
+
+    @Benchmark
+    public void removeAndInsert() {
+        CachedQueryEntry<?, ?> entry = entries[ThreadLocalRandom.current().nextInt(ENTRY_COUNT)];
+        store.remove(entry.getValue(), entry, EMPTY);
+        store.insert(entry.getValue(), entry, entry, EMPTY);
+    }
+
+    private static int randomValue() {
+        return ThreadLocalRandom.current().nextInt(ENTRY_COUNT);
+    }
+
+    /**
+     * The benchmarked index stores.
+     */
+    public enum StoreType {
+        ORDERED {
+            @Override
+            IndexStore newStore() {
+                return new OrderedIndexStore(IndexCopyBehavior.NEVER);
+            }
+        },
+        BPLUS_TREE {
+            @Override
+            IndexStore newStore() {
+                return new BPlusTreeIndexStore(IndexCopyBehavior.NEVER);
+            }
+        },
+        UNORDERED {
+            @Override
+            IndexStore newStore() {
+                return new UnorderedIndexStore(IndexCopyBehavior.NEVER);
+            }
+        };
+
+        abstract IndexStore newStore();
+    }
+}
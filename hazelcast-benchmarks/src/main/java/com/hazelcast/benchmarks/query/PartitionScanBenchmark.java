@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceProxy;
+import com.hazelcast.internal.util.IterationType;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.query.PartitionScanRunner;
+import com.hazelcast.map.impl.query.QueryResult;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Full scans of all partitions of a map by the {@link PartitionScanRunner}
+ * with a range predicate of the given selectivity. The values are Compact
+ * serialized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionScanBenchmark {
+
+    private static final String MAP_NAME = "trades";
+    private static final int ENTRY_COUNT = 100_000;
+    private static final int PUT_BATCH_SIZE = 10_000;
+
+    @Param({"BINARY", "OBJECT"})
+    InMemoryFormat inMemoryFormat;
+
+    @Param({"1", "50"})
+    int selectivityPercent;
+
+    private HazelcastInstance instance;
+    private NodeEngineImpl nodeEngine;
+    private PartitionScanRunner runner;
+    private Predicate<Long, Trade> predicate;
+    private int partitionCount;
+
+    @Setup
+    public void setup() {
+        Config config = new Config();
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getMapConfig(MAP_NAME).setInMemoryFormat(inMemoryFormat);
+        instance = Hazelcast.newHazelcastInstance(config);
+
+        IMap<Long, Trade> map = instance.getMap(MAP_NAME);
+        Map<Long, Trade> batch = new HashMap<>();
+        for (long id = 0; id < ENTRY_COUNT; id++) {
+            batch.put(id, new Trade(id, (int) (id % 100)));
+            if (batch.size() == PUT_BATCH_SIZE) {
+                map.putAll(batch);
+                batch.clear();
+            }
+        }
+        map.putAll(batch);
+
+        nodeEngine = ((HazelcastInstanceProxy) instance).getOriginal().node.nodeEngine;
+        MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+        runner = new PartitionScanRunner(mapService.getMapServiceContext());
+        predicate = Predicates.lessThan("quantity", selectivityPercent);
+        partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.shutdown();
+    }
+
+    @Benchmark
+    public int scan() {
+        int size = 0;
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            QueryResult result = new QueryResult(IterationType.ENTRY, null, nodeEngine.getSerializationService(),
+                    Long.MAX_VALUE, false);
+            runner.run(MAP_NAME, predicate, partitionId, result);
+            size += result.size();
+        }
+        return size;
+    }
+
+    /**
+     * The map values, serialized with the zero-config Compact serializer.
+     */
+    public static class Trade {
+
+        private long id;
+        private int quantity;
+
+        public Trade() {
+        }
+
+        Trade(long id, int quantity) {
+            this.id = id;
+            this.quantity = quantity;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
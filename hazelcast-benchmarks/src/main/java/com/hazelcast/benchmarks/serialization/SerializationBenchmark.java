@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.internal.serialization.impl.compact.SchemaService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Serialization and deserialization of the same object in the Compact,
+ * {@link IdentifiedDataSerializable} and {@link Portable} formats. The
+ * Compact format is measured both with an explicit serializer and with
+ * the reflective serializer used for zero-config classes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int FACTORY_ID = 1;
+    private static final int CLASS_ID = 1;
+
+    @Param({"COMPACT", "ZERO_CONFIG_COMPACT", "IDENTIFIED", "PORTABLE"})
+    Format format;
+
+    private InternalSerializationService serializationService;
+    private Object object;
+    private Data data;
+
+    @Setup
+    public void setup() {
+        SerializationConfig config = new SerializationConfig();
+        config.getCompactSerializationConfig().addSerializer(new CompactOrderSerializer());
+        config.addDataSerializableFactory(FACTORY_ID, classId -> new IdentifiedOrder());
+        config.addPortableFactory(FACTORY_ID, classId -> new PortableOrder());
+        serializationService = new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .setSchemaService(new LocalSchemaService())
+                .build();
+        object = format.newOrder();
+        data = serializationService.toData(object);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data serialize() {
+        return serializationService.toData(object);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializationService.toObject(data);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return serializationService.toObject(serializationService.toData(object));
+    }
+
+    /**
+     * The serialization formats.
+     */
+    public enum Format {
+        COMPACT {
+            @Override
+            Object newOrder() {
+                return new CompactOrder().init();
+            }
+        },
+        ZERO_CONFIG_COMPACT {
+            @Override
+            Object newOrder() {
+                return new ZeroConfigOrder().init();
+            }
+        },
+        IDENTIFIED {
+            @Override
+            Object newOrder() {
+                return new IdentifiedOrder().init();
+            }
+        },
+        PORTABLE {
+            @Override
+            Object newOrder() {
+                return new PortableOrder().init();
+            }
+        };
+
+        abstract Object newOrder();
+    }
+
+    /**
+     * The fields of the serialized object.
+     */
+    abstract static class Order<T extends Order<T>> {
+
+        long id;
+        int quantity;
+        double price;
+        String symbol;
+        boolean buy;
+
+        @SuppressWarnings("unchecked")
+        T init() {
+            id = 42;
+            quantity = 1000;
+            price = 123.45;
+            symbol = "HZ";
+            buy = true;
+            return (T) this;
+        }
+    }
+
+    static final class CompactOrder extends Order<CompactOrder> {
+    }
+
+    /**
+     * Serialized by the reflective Compact serializer, there is no serializer
+     * registered for it.
+     */
+    static final class ZeroConfigOrder extends Order<ZeroConfigOrder> {
+    }
+
+    static final class CompactOrderSerializer implements CompactSerializer<CompactOrder> {
+
+        @Nonnull
+        @Override
+        public CompactOrder read(@Nonnull CompactReader reader) {
+            CompactOrder order = new CompactOrder();
+            order.id = reader.readInt64("id");
+            order.quantity = reader.readInt32("quantity");
+            order.price = reader.readFloat64("price");
+            order.symbol = reader.readString("symbol");
+            order.buy = reader.readBoolean("buy");
+            return order;
+        }
+
+        @Override
+        public void write(@Nonnull CompactWriter writer, @Nonnull CompactOrder order) {
+            writer.writeInt64("id", order.id);
+            writer.writeInt32("quantity", order.quantity);
+            writer.writeFloat64("price", order.price);
+            writer.writeString("symbol", order.symbol);
+            writer.writeBoolean("buy", order.buy);
+        }
+
+        @Nonnull
+        @Override
+        public String getTypeName() {
+            return "order";
+        }
+
+        @Nonnull
+        @Override
+        public Class<CompactOrder> getCompactClass() {
+            return CompactOrder.class;
+        }
+    }
+
+    static final class IdentifiedOrder extends Order<IdentifiedOrder> implements IdentifiedDataSerializable {
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeInt(quantity);
+            out.writeDouble(price);
+            out.writeString(symbol);
+            out.writeBoolean(buy);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            quantity = in.readInt();
+            price = in.readDouble();
+            symbol = in.readString();
+            buy = in.readBoolean();
+        }
+    }
+
+    static final class PortableOrder extends Order<PortableOrder> implements Portable {
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeLong("id", id);
+            writer.writeInt("quantity", quantity);
+            writer.writeDouble("price", price);
+            writer.writeString("symbol", symbol);
+            writer.writeBoolean("buy", buy);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            id = reader.readLong("id");
+            quantity = reader.readInt("quantity");
+            price = reader.readDouble("price");
+            symbol = reader.readString("symbol");
+            buy = reader.readBoolean("buy");
+        }
+    }
+
+    /**
+     * Keeps the Compact schemas in memory, there is no cluster to replicate them to.
+     */
+    static final class LocalSchemaService implements SchemaService {
+
+        private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+
+        @Override
+        public Schema get(long schemaId) {
+            return schemas.get(schemaId);
+        }
+
+        @Override
+        public void put(Schema schema) {
+            schemas.putIfAbsent(schema.getSchemaId(), schema);
+        }
+
+        @Override
+        public void putLocal(Schema schema) {
+            put(schema);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.spi;
+
+import com.hazelcast.internal.util.collection.StripedLong2ObjectHashMap;
+import com.hazelcast.spi.impl.operationservice.impl.InvocationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Registration, lookup and deregistration of pending invocations by their
+ * call IDs, comparing the map of the {@link InvocationRegistry} with the
+ * {@link ConcurrentHashMap} it used before. Every thread keeps a window of
+ * {@value #PENDING_PER_THREAD} pending call IDs taken from a shared
+ * sequence, like the invoking threads of a member do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class InvocationRegistryBenchmark {
+
+    static final int PENDING_PER_THREAD = 64;
+
+    private static final Object INVOCATION = new Object();
+    private static final int STRIPE_COUNT = 16;
+    private static final int INITIAL_CAPACITY = 1000;
+
+    @Param
+    public MapType mapType;
+
+    private final AtomicLong callIdSequence = new AtomicLong();
+    private Registry registry;
+
+    @Setup
+    public void setup() {
+        registry = mapType.create();
+    }
+
+    @Benchmark
+    public Object registerAndDeregister(PendingCalls pending) {
+        long callId = callIdSequence.getAndIncrement();
+        registry.put(callId, INVOCATION);
+        long completedCallId = pending.replaceOldest(callId);
+        if (completedCallId < 0) {
+            return null;
+        }
+        // a response arrives for the oldest pending call
+        Object invocation = registry.get(completedCallId);
+        registry.remove(completedCallId);
+        return invocation;
+    }
+
+    @State(Scope.Thread)
+    public static class PendingCalls {
+        private final long[] callIds = new long[PENDING_PER_THREAD];
+        private int index;
+        private int size;
+
+        long replaceOldest(long callId) {
+            long oldest = size == PENDING_PER_THREAD ? callIds[index] : -1;
+            callIds[index] = callId;
+            index = (index + 1) % PENDING_PER_THREAD;
+            size = Math.min(size + 1, PENDING_PER_THREAD);
+            return oldest;
+        }
+    }
+
+    interface Registry {
+        void put(long callId, Object invocation);
+
+        Object get(long callId);
+
+        void remove(long callId);
+    }
+
+    public enum MapType {
+        CONCURRENT_HASH_MAP {
+            @Override
+            Registry create() {
+                ConcurrentMap<Long, Object> map = new ConcurrentHashMap<>(INITIAL_CAPACITY, 0.75f, STRIPE_COUNT);
+                return new Registry() {
+                    @Override
+                    public void put(long callId, Object invocation) {
+                        map.put(callId, invocation);
+                    }
+
+                    @Override
+                    public Object get(long callId) {
+                        return map.get(callId);
+                    }
+
+                    @Override
+                    public void remove(long callId) {
+                        map.remove(callId);
+                    }
+                };
+            }
+        },
+        STRIPED {
+            @Override
+            Registry create() {
+                StripedLong2ObjectHashMap<Object> map = new StripedLong2ObjectHashMap<>(STRIPE_COUNT, INITIAL_CAPACITY);
+                return new Registry() {
+                    @Override
+                    public void put(long callId, Object invocation) {
+                        map.put(callId, invocation);
+                    }
+
+                    @Override
+                    public Object get(long callId) {
+                        return map.get(callId);
+                    }
+
+                    @Override
+                    public void remove(long callId) {
+                        map.remove(callId);
+                    }
+                };
+            }
+        };
+
+        abstract Registry create();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.benchmarks.spi;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceProxy;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Invocations of operations on a single member, i.e. the local invocation
+ * path of the {@link OperationService} without any networking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationServiceBenchmark {
+
+    private static final String SERVICE_NAME = "benchmark";
+
+    private HazelcastInstance instance;
+    private OperationService operationService;
+    private Address thisAddress;
+    private int partitionCount;
+
+    @Setup
+    public void setup() {
+        Config config = new Config();
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        instance = Hazelcast.newHazelcastInstance(config);
+
+        NodeEngineImpl nodeEngine = ((HazelcastInstanceProxy) instance).getOriginal().node.nodeEngine;
+        operationService = nodeEngine.getOperationService();
+        thisAddress = nodeEngine.getThisAddress();
+        partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+        // assign the partitions before the measurements start
+        nodeEngine.getPartitionService().firstArrangement();
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.shutdown();
+    }
+
+    @Benchmark
+    public Object invokeOnPartition() {
+        return operationService.invokeOnPartition(SERVICE_NAME, new NoOpOperation(), randomPartition()).join();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object invokeOnPartitionConcurrently() {
+        return operationService.invokeOnPartition(SERVICE_NAME, new NoOpOperation(), randomPartition()).join();
+    }
+
+    @Benchmark
+    public Object invokeOnTarget() {
+        return operationService.invokeOnTarget(SERVICE_NAME, new NoOpOperation(), thisAddress).join();
+    }
+
+    private int randomPartition() {
+        return ThreadLocalRandom.current().nextInt(partitionCount);
+    }
+
+    /**
+     * An operation which does nothing but respond.
+     */
+    static final class NoOpOperation extends Operation {
+
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public Object getResponse() {
+            return Boolean.TRUE;
+        }
+    }
+}
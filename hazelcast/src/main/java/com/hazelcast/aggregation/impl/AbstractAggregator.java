@@ -55,6 +55,14 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
         this.attributePath = attributePath;
     }
 
+    /**
+     * @return the attribute path the accumulated values are extracted from,
+     * {@code null} if the values of the entries are accumulated
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     @Override
     public final void accumulate(I entry) {
 
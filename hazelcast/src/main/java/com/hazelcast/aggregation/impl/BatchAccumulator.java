@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Implemented by aggregators which can accumulate a batch of primitive
+ * values extracted from their attribute path at once, without boxing the
+ * values and without a virtual call per value.
+ * <p>
+ * Accumulating a batch has the same effect as accumulating the values one
+ * by one, except that floating point values may be added in a different
+ * order. Batches never contain {@code null} values.
+ * <p>
+ * Whether a batch is accepted depends only on the type of its values, so
+ * callers may probe an aggregator with an empty batch of a type.
+ */
+public interface BatchAccumulator {
+
+    /**
+     * Accumulates a batch of integral values.
+     *
+     * @param type   the type of the extracted values: {@code Byte}, {@code Short},
+     *               {@code Integer} or {@code Long}
+     * @param values the values
+     * @param length the number of values to accumulate from the start of the array
+     * @return {@code true} if the values have been accumulated, {@code false} if
+     * the aggregator can't accumulate values of the given type in a batch, nothing
+     * is accumulated in this case
+     */
+    boolean accumulateBatch(Class<? extends Number> type, long[] values, int length);
+
+    /**
+     * Accumulates a batch of floating point values.
+     *
+     * @param type   the type of the extracted values: {@code Float} or {@code Double}
+     * @param values the values
+     * @param length the number of values to accumulate from the start of the array
+     * @return {@code true} if the values have been accumulated, {@code false} if
+     * the aggregator can't accumulate values of the given type in a batch, nothing
+     * is accumulated in this case
+     */
+    boolean accumulateBatch(Class<? extends Number> type, double[] values, int length);
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Reductions over primitive arrays used by the {@link BatchAccumulator}
+ * implementations.
+ * <p>
+ * The loops are unrolled over four independent accumulators, which breaks
+ * the dependency chain of the reduction so the JIT can keep several lanes
+ * in flight or vectorize the loop.
+ */
+final class BatchArithmetic {
+
+    private static final int LANES = 4;
+
+    private BatchArithmetic() {
+    }
+
+    static boolean isIntRepresentable(Class<? extends Number> type) {
+        return type == Integer.class || type == Short.class || type == Byte.class;
+    }
+
+    static long sum(long[] values, int length) {
+        long s0 = 0;
+        long s1 = 0;
+        long s2 = 0;
+        long s3 = 0;
+        int i = 0;
+        for (int bound = length - LANES + 1; i < bound; i += LANES) {
+            s0 += values[i];
+            s1 += values[i + 1];
+            s2 += values[i + 2];
+            s3 += values[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += values[i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    static double sum(double[] values, int length) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (int bound = length - LANES + 1; i < bound; i += LANES) {
+            s0 += values[i];
+            s1 += values[i + 1];
+            s2 += values[i + 2];
+            s3 += values[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += values[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * @param length the number of values, must be positive
+     */
+    static long max(long[] values, int length) {
+        long m0 = values[0];
+        long m1 = m0;
+        long m2 = m0;
+        long m3 = m0;
+        int i = 1;
+        for (int bound = length - LANES + 1; i < bound; i += LANES) {
+            m0 = Math.max(m0, values[i]);
+            m1 = Math.max(m1, values[i + 1]);
+            m2 = Math.max(m2, values[i + 2]);
+            m3 = Math.max(m3, values[i + 3]);
+        }
+        for (; i < length; i++) {
+            m0 = Math.max(m0, values[i]);
+        }
+        return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    /**
+     * @param length the number of values, must be positive
+     */
+    static long min(long[] values, int length) {
+        long m0 = values[0];
+        long m1 = m0;
+        long m2 = m0;
+        long m3 = m0;
+        int i = 1;
+        for (int bound = length - LANES + 1; i < bound; i += LANES) {
+            m0 = Math.min(m0, values[i]);
+            m1 = Math.min(m1, values[i + 1]);
+            m2 = Math.min(m2, values[i + 2]);
+            m3 = Math.min(m3, values[i + 3]);
+        }
+        for (; i < length; i++) {
+            m0 = Math.min(m0, values[i]);
+        }
+        return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    /**
+     * Finds the maximum in the order of {@link Double#compare}, which is
+     * the order the boxed values are compared in.
+     *
+     * @param length the number of values, must be positive
+     */
+    static double max(double[] values, int length) {
+        double max = values[0];
+        for (int i = 1; i < length; i++) {
+            if (Double.compare(values[i], max) > 0) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Finds the minimum in the order of {@link Double#compare}, which is
+     * the order the boxed values are compared in.
+     *
+     * @param length the number of values, must be positive
+     */
+    static double min(double[] values, int length) {
+        double min = values[0];
+        for (int i = 1; i < length; i++) {
+            if (Double.compare(values[i], min) < 0) {
+                min = values[i];
+            }
+        }
+        return min;
+    }
+
+    static Number box(Class<? extends Number> type, long value) {
+        if (type == Long.class) {
+            return value;
+        } else if (type == Integer.class) {
+            return (int) value;
+        } else if (type == Short.class) {
+            return (short) value;
+        } else if (type == Byte.class) {
+            return (byte) value;
+        }
+        throw new IllegalArgumentException("Not an integral type: " + type);
+    }
+
+    static Number box(Class<? extends Number> type, double value) {
+        if (type == Double.class) {
+            return value;
+        } else if (type == Float.class) {
+            return (float) value;
+        }
+        throw new IllegalArgumentException("Not a floating point type: " + type);
+    }
+}
@@ -24,7 +24,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 import java.util.Objects;
 
-public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long> implements IdentifiedDataSerializable {
+public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long>
+        implements IdentifiedDataSerializable, BatchAccumulator {
     private long count;
 
     public CountAggregator() {
@@ -40,6 +41,18 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, long[] values, int length) {
+        count += length;
+        return true;
+    }
+
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, double[] values, int length) {
+        count += length;
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAccumulator {
 
     private double sum;
 
@@ -46,6 +46,18 @@ public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Numb
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, long[] values, int length) {
+        return false;
+    }
+
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, double[] values, int length) {
+        count += length;
+        sum += BatchArithmetic.sum(values, length);
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleAverageAggregator doubleAverageAggregator = (DoubleAverageAggregator) aggregator;
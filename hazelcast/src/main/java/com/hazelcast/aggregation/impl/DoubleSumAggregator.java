@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAccumulator {
 
     private double sum;
 
@@ -43,6 +43,17 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, long[] values, int length) {
+        return false;
+    }
+
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, double[] values, int length) {
+        sum += BatchArithmetic.sum(values, length);
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
@@ -24,7 +24,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 import java.util.Objects;
 
-public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long> implements IdentifiedDataSerializable {
+public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long>
+        implements IdentifiedDataSerializable, BatchAccumulator {
 
     private long sum;
 
@@ -41,6 +42,17 @@ public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, L
         sum += value.longValue();
     }
 
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, long[] values, int length) {
+        sum += BatchArithmetic.sum(values, length);
+        return true;
+    }
+
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, double[] values, int length) {
+        return false;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FixedSumAggregator longSumAggregator = (FixedSumAggregator) aggregator;
@@ -25,7 +25,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class FloatingPointSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAccumulator {
 
     private double sum;
 
@@ -42,6 +42,17 @@ public final class FloatingPointSumAggregator<I> extends AbstractAggregator<I, N
         sum += value.doubleValue();
     }
 
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, long[] values, int length) {
+        return false;
+    }
+
+    @Override
+    public boolean accumulateBatch(Class<? extends Number> type, double[] values, int length) {
+        sum += BatchArithmetic.sum(values, length);
+        return true;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FloatingPointSumAggregator longSumAggregator = (FloatingPointSumAggregator) aggregator;
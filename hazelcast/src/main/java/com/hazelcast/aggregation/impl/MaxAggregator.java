@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class MaxAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAccumulator {
 
     private R max;
 
@@ -52,6 +52,24 @@ public final class MaxAggregator<I, R extends Comparable> extends AbstractAggreg
         return max == null || Comparables.compare(max, otherValue) < 0;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean accumulateBatch(Class<? extends Number> type, long[] values, int length) {
+        if (length > 0) {
+            accumulateExtracted(null, (R) BatchArithmetic.box(type, BatchArithmetic.max(values, length)));
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean accumulateBatch(Class<? extends Number> type, double[] values, int length) {
+        if (length > 0) {
+            accumulateExtracted(null, (R) BatchArithmetic.box(type, BatchArithmetic.max(values, length)));
+        }
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void combine(Aggregator aggregator) {
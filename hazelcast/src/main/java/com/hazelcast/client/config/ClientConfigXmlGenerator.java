@@ -607,6 +607,7 @@ public final class ClientConfigXmlGenerator {
                 .node("time-to-live-seconds", nearCache.getTimeToLiveSeconds())
                 .node("max-idle-seconds", nearCache.getMaxIdleSeconds())
                 .node("local-update-policy", nearCache.getLocalUpdatePolicy())
+                .node("admission-policy", nearCache.getAdmissionPolicy())
                 .node("eviction", null, "size", eviction.getSize(),
                         "max-size-policy", eviction.getMaxSizePolicy(),
                         "eviction-policy", eviction.getEvictionPolicy(),
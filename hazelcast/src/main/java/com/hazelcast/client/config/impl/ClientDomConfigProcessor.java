@@ -303,6 +303,9 @@ public class ClientDomConfigProcessor extends AbstractDomConfigProcessor {
                 nearCacheConfig.setInvalidateOnChange(Boolean.parseBoolean(getTextContent(child)));
             } else if (matches("local-update-policy", nodeName)) {
                 nearCacheConfig.setLocalUpdatePolicy(NearCacheConfig.LocalUpdatePolicy.valueOf(getTextContent(child)));
+            } else if (matches("admission-policy", nodeName)) {
+                nearCacheConfig.setAdmissionPolicy(
+                        NearCacheConfig.AdmissionPolicy.valueOf(upperCaseInternal(getTextContent(child))));
             } else if (matches("eviction", nodeName)) {
                 nearCacheConfig.setEvictionConfig(getEvictionConfig(child));
             } else if (matches("preloader", nodeName)) {
@@ -45,6 +45,7 @@ import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.services.CoreService;
 import com.hazelcast.internal.services.ManagedService;
+import com.hazelcast.internal.tpc.TpcClientRoutingMetrics;
 import com.hazelcast.internal.tpcengine.iobuffer.ConcurrentIOBufferAllocator;
 import com.hazelcast.internal.tpcengine.iobuffer.IOBufferAllocator;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
@@ -123,6 +124,7 @@ public class ClientEngineImpl implements ClientEngine, CoreService,
     private final AddressChecker addressChecker;
     private final IOBufferAllocator responseBufAllocator = new ConcurrentIOBufferAllocator(4096, true);
     private final boolean tpcEnabled;
+    private final TpcClientRoutingMetrics tpcRoutingMetrics;
 
     // not final for the testing purposes
     private ClientEndpointStatisticsManager endpointStatisticsManager;
@@ -146,6 +148,7 @@ public class ClientEngineImpl implements ClientEngine, CoreService,
         this.endpointStatisticsManager = PhoneHome.isPhoneHomeEnabled(node)
                 ? new ClientEndpointStatisticsManagerImpl() : new NoOpClientEndpointStatisticsManager();
         this.tpcEnabled = nodeEngine.getTpcServerBootstrap().isEnabled();
+        this.tpcRoutingMetrics = nodeEngine.getTpcServerBootstrap().getClientRoutingMetrics();
     }
 
     private ClientExceptionFactory initClientExceptionFactory() {
@@ -237,7 +240,7 @@ public class ClientEngineImpl implements ClientEngine, CoreService,
         if (isUrgent(messageTask)) {
             operationService.execute((UrgentMessageTask) messageTask);
         } else if (messageTask instanceof AbstractPartitionMessageTask) {
-            operationService.execute((AbstractPartitionMessageTask) messageTask);
+            executePartitionTask((AbstractPartitionMessageTask) messageTask, clientMessage, operationService);
         } else if (isQuery(messageTask)) {
             queryExecutor.execute(messageTask);
         } else if (messageTask instanceof TransactionalMessageTask) {
@@ -249,6 +252,24 @@ public class ClientEngineImpl implements ClientEngine, CoreService,
         }
     }
 
+    private void executePartitionTask(AbstractPartitionMessageTask messageTask,
+                                      ClientMessage clientMessage,
+                                      OperationServiceImpl operationService) {
+        if (!tpcEnabled || clientMessage.getAsyncSocket() == null) {
+            operationService.execute(messageTask);
+            return;
+        }
+
+        // The message was received on a TPC reactor. If the reactor owns the partition,
+        // the task is run inline and there is no thread hop.
+        long startNanos = System.nanoTime();
+        if (operationService.getOperationExecutor().runInlineOrExecute(messageTask)) {
+            tpcRoutingMetrics.inline(startNanos);
+        } else {
+            tpcRoutingMetrics.hop();
+        }
+    }
+
     private boolean isUrgent(MessageTask messageTask) {
         if (messageTask instanceof AuthenticationBaseMessageTask) {
             return node.securityContext == null;
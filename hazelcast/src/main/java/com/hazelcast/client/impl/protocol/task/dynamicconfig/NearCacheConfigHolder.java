@@ -16,7 +16,9 @@
 
 package com.hazelcast.client.impl.protocol.task.dynamicconfig;
 
+import com.hazelcast.config.InvalidConfigurationException;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCacheConfig.AdmissionPolicy;
 import com.hazelcast.config.NearCacheConfig.LocalUpdatePolicy;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.serialization.SerializationService;
@@ -109,6 +111,11 @@ public class NearCacheConfigHolder {
         if (config == null) {
             return null;
         }
+        if (config.getAdmissionPolicy() != AdmissionPolicy.ALWAYS) {
+            // the client protocol doesn't carry the admission policy
+            throw new InvalidConfigurationException("The Near Cache admission policy "
+                    + config.getAdmissionPolicy() + " can't be added by a client as dynamic configuration");
+        }
         return new NearCacheConfigHolder(config.getName(), config.getInMemoryFormat().name(), config.isSerializeKeys(),
                 config.isInvalidateOnChange(), config.getTimeToLiveSeconds(), config.getMaxIdleSeconds(),
                 EvictionConfigHolder.of(config.getEvictionConfig(), serializationService),
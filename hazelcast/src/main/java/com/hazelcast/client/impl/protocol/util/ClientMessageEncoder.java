@@ -42,6 +42,11 @@ public class ClientMessageEncoder extends OutboundHandler<Supplier<ClientMessage
         initDstBuffer();
     }
 
+    @Override
+    public boolean isDstReplaceable() {
+        return true;
+    }
+
     @Override
     public HandlerStatus onWrite() {
         compactOrClear(dst);
@@ -16,10 +16,12 @@
 
 package com.hazelcast.config;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.config.ConfigDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -33,7 +35,7 @@ import static com.hazelcast.internal.util.Preconditions.isNotNull;
  * Contains the configuration for a Near Cache.
  */
 @SuppressWarnings("checkstyle:methodcount")
-public class NearCacheConfig implements IdentifiedDataSerializable, Serializable, NamedConfig {
+public class NearCacheConfig implements IdentifiedDataSerializable, Versioned, Serializable, NamedConfig {
 
     /**
      * Default value for the in-memory format.
@@ -55,6 +57,11 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
      */
     public static final LocalUpdatePolicy DEFAULT_LOCAL_UPDATE_POLICY = LocalUpdatePolicy.INVALIDATE;
 
+    /**
+     * @see AdmissionPolicy#ALWAYS
+     */
+    public static final AdmissionPolicy DEFAULT_ADMISSION_POLICY = AdmissionPolicy.ALWAYS;
+
     /**
      * Default value of the time to live in seconds.
      */
@@ -87,6 +94,30 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         CACHE_ON_UPDATE
     }
 
+    /**
+     * Defines which new entries are admitted to the Near Cache once it
+     * reached its maximum size.
+     *
+     * @since 5.4
+     */
+    public enum AdmissionPolicy {
+        /**
+         * Every new entry is admitted, an existing entry
+         * is evicted according to the eviction policy.
+         */
+        ALWAYS,
+
+        /**
+         * A new entry is only admitted if its key is accessed
+         * more frequently than the key of the entry which would
+         * be evicted for it. The access frequencies are estimated
+         * by a compact count-min sketch which is aged over time.
+         * This keeps one-hit wonders, e.g. of a scan-like workload,
+         * from evicting the frequently accessed entries.
+         */
+        TINY_LFU
+    }
+
     private boolean cacheLocalEntries;
     private boolean serializeKeys = DEFAULT_SERIALIZE_KEYS;
     private boolean invalidateOnChange = DEFAULT_INVALIDATE_ON_CHANGE;
@@ -96,6 +127,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
     private EvictionConfig evictionConfig = new EvictionConfig();
     private InMemoryFormat inMemoryFormat = DEFAULT_MEMORY_FORMAT;
     private LocalUpdatePolicy localUpdatePolicy = DEFAULT_LOCAL_UPDATE_POLICY;
+    private AdmissionPolicy admissionPolicy = DEFAULT_ADMISSION_POLICY;
     private NearCachePreloaderConfig preloaderConfig = new NearCachePreloaderConfig();
 
     public NearCacheConfig() {
@@ -115,6 +147,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         this.evictionConfig = config.evictionConfig;
         this.cacheLocalEntries = config.cacheLocalEntries;
         this.localUpdatePolicy = config.localUpdatePolicy;
+        this.admissionPolicy = config.admissionPolicy;
         this.preloaderConfig = config.preloaderConfig;
     }
 
@@ -362,6 +395,37 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         return this;
     }
 
+    /**
+     * Returns the {@link AdmissionPolicy} of this Near Cache.
+     *
+     * @return the {@link AdmissionPolicy} of this Near Cache
+     * @since 5.4
+     */
+    public AdmissionPolicy getAdmissionPolicy() {
+        return admissionPolicy;
+    }
+
+    /**
+     * Sets the {@link AdmissionPolicy} of this Near Cache.
+     * <p>
+     * The admission policy only has an effect when eviction is enabled and
+     * it's only implemented for the on-heap in-memory formats ({@code BINARY}
+     * and {@code OBJECT}).
+     * <p>
+     * The client protocol doesn't transfer the admission policy, therefore a
+     * map config having a Near Cache with an admission policy other than
+     * {@link AdmissionPolicy#ALWAYS} can't be added as dynamic configuration
+     * from a client. It can be configured on the members instead.
+     *
+     * @param admissionPolicy the {@link AdmissionPolicy} of this Near Cache
+     * @return this Near Cache config instance
+     * @since 5.4
+     */
+    public NearCacheConfig setAdmissionPolicy(AdmissionPolicy admissionPolicy) {
+        this.admissionPolicy = checkNotNull(admissionPolicy, "Admission policy cannot be null!");
+        return this;
+    }
+
     /**
      * Returns the {@link NearCachePreloaderConfig} of this Near Cache.
      *
@@ -403,6 +467,9 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         out.writeInt(localUpdatePolicy.ordinal());
         out.writeObject(evictionConfig);
         out.writeObject(preloaderConfig);
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            out.writeInt(admissionPolicy.ordinal());
+        }
     }
 
     @Override
@@ -416,6 +483,9 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         localUpdatePolicy = LocalUpdatePolicy.values()[in.readInt()];
         evictionConfig = in.readObject();
         preloaderConfig = in.readObject();
+        if (in.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            admissionPolicy = AdmissionPolicy.values()[in.readInt()];
+        }
     }
 
     @Override
@@ -429,6 +499,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
                 + ", evictionConfig=" + evictionConfig
                 + ", cacheLocalEntries=" + cacheLocalEntries
                 + ", localUpdatePolicy=" + localUpdatePolicy
+                + ", admissionPolicy=" + admissionPolicy
                 + ", preloaderConfig=" + preloaderConfig
                 + '}';
     }
@@ -472,6 +543,9 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         if (localUpdatePolicy != that.localUpdatePolicy) {
             return false;
         }
+        if (admissionPolicy != that.admissionPolicy) {
+            return false;
+        }
         return Objects.equals(preloaderConfig, that.preloaderConfig);
     }
 
@@ -487,6 +561,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         result = 31 * result + (evictionConfig != null ? evictionConfig.hashCode() : 0);
         result = 31 * result + (cacheLocalEntries ? 1 : 0);
         result = 31 * result + (localUpdatePolicy != null ? localUpdatePolicy.hashCode() : 0);
+        result = 31 * result + (admissionPolicy != null ? admissionPolicy.hashCode() : 0);
         result = 31 * result + (preloaderConfig != null ? preloaderConfig.hashCode() : 0);
         return result;
     }
@@ -2024,6 +2024,9 @@ public class MemberDomConfigProcessor extends AbstractDomConfigProcessor {
             } else if (matches("local-update-policy", nodeName)) {
                 NearCacheConfig.LocalUpdatePolicy policy = NearCacheConfig.LocalUpdatePolicy.valueOf(getTextContent(child));
                 nearCacheConfig.setLocalUpdatePolicy(policy);
+            } else if (matches("admission-policy", nodeName)) {
+                nearCacheConfig.setAdmissionPolicy(
+                        NearCacheConfig.AdmissionPolicy.valueOf(upperCaseInternal(getTextContent(child))));
             } else if (matches("eviction", nodeName)) {
                 nearCacheConfig.setEvictionConfig(getEvictionConfig(child, true, false));
             }
@@ -760,7 +760,8 @@ public final class DynamicConfigXmlGenerator {
                     .node("time-to-live-seconds", n.getTimeToLiveSeconds())
                     .node("max-idle-seconds", n.getMaxIdleSeconds())
                     .node("serialize-keys", n.isSerializeKeys())
-                    .node("cache-local-entries", n.isCacheLocalEntries());
+                    .node("cache-local-entries", n.isCacheLocalEntries())
+                    .node("admission-policy", n.getAdmissionPolicy());
 
             evictionConfigXmlGenerator(gen, n.getEvictionConfig());
             gen.close();
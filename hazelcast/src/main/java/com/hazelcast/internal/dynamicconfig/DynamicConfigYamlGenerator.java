@@ -1413,6 +1413,8 @@ public class DynamicConfigYamlGenerator {
                 nearCacheConfig.isSerializeKeys());
         addNonNullToMap(nearCacheConfigAsMap, "cache-local-entries",
                 nearCacheConfig.isCacheLocalEntries());
+        addNonNullToMap(nearCacheConfigAsMap, "admission-policy",
+                nearCacheConfig.getAdmissionPolicy().name());
         addNonNullToMap(nearCacheConfigAsMap, "eviction",
                 getEvictionConfigAsMap(nearCacheConfig.getEvictionConfig()));
 
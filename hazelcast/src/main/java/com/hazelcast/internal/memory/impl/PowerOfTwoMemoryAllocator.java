@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.GlobalMemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.util.collection.Long2LongHashMap;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.internal.util.QuickMath.isPowerOfTwo;
+import static com.hazelcast.internal.util.QuickMath.log2;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A {@link MemoryAllocator} which serves native memory in power-of-two
+ * sized blocks carved out of fixed size slabs.
+ * <p>
+ * Each block size class has its own intrusive free list: the address of
+ * the next free block is kept in the first 8 bytes of a free block, so
+ * freeing and reusing blocks needs no heap allocation. Blocks larger than
+ * the slab size are allocated and freed directly.
+ * <p>
+ * Slabs are never returned to the operating system before {@link
+ * #dispose()}. The memory committed by all allocators sharing the same
+ * {@code committedMemory} counter is limited by {@code maxCommittedMemory};
+ * {@link NativeOutOfMemoryError} is thrown when the limit would be
+ * exceeded.
+ * <p>
+ * Not thread-safe, an instance is expected to be used by a single thread
+ * (e.g. a partition thread) at a time.
+ */
+public final class PowerOfTwoMemoryAllocator implements MemoryAllocator {
+
+    /**
+     * Default size of the slabs blocks are carved from.
+     */
+    public static final int DEFAULT_SLAB_SIZE = 1 << 14;
+
+    private static final int NEXT_POINTER_SIZE = 8;
+    private static final int INITIAL_SLAB_ARRAY_LENGTH = 8;
+
+    private final int minBlockSizeShift;
+    private final int slabSize;
+    private final AtomicLong committedMemory;
+    private final long maxCommittedMemory;
+    private final GlobalMemoryAccessor mem = MEM;
+
+    private final long[] freeListHeads;
+    private final long[] slabCursors;
+    private final long[] slabLimits;
+    private final Long2LongHashMap largeBlocks = new Long2LongHashMap(NULL_ADDRESS);
+    private long[] slabs = new long[INITIAL_SLAB_ARRAY_LENGTH];
+    private int slabCount;
+    private long usedMemory;
+
+    /**
+     * @param minBlockSize       size of the smallest block, a power of two not smaller than 8
+     * @param slabSize           size of the slabs, a power of two not smaller than {@code minBlockSize}
+     * @param committedMemory    counter of the committed memory, possibly shared by several allocators
+     * @param maxCommittedMemory upper limit of the {@code committedMemory}
+     */
+    public PowerOfTwoMemoryAllocator(int minBlockSize, int slabSize, AtomicLong committedMemory,
+                                     long maxCommittedMemory) {
+        checkTrue(UnsafeUtil.UNSAFE_AVAILABLE && MEM_AVAILABLE, "Native memory access is not available");
+        checkTrue(isPowerOfTwo(minBlockSize) && minBlockSize >= NEXT_POINTER_SIZE,
+                "Minimum block size must be a power of two not smaller than " + NEXT_POINTER_SIZE);
+        checkTrue(isPowerOfTwo(slabSize) && slabSize >= minBlockSize,
+                "Slab size must be a power of two not smaller than the minimum block size");
+        checkPositive("maxCommittedMemory", maxCommittedMemory);
+        this.minBlockSizeShift = log2(minBlockSize);
+        this.slabSize = slabSize;
+        this.committedMemory = committedMemory;
+        this.maxCommittedMemory = maxCommittedMemory;
+
+        int sizeClassCount = log2(slabSize) - minBlockSizeShift + 1;
+        this.freeListHeads = new long[sizeClassCount];
+        this.slabCursors = new long[sizeClassCount];
+        this.slabLimits = new long[sizeClassCount];
+    }
+
+    @Override
+    public long allocate(long size) {
+        checkPositive("size", size);
+        if (size > slabSize) {
+            long address = allocateLargeBlock(size);
+            usedMemory += size;
+            return address;
+        }
+
+        int sizeClass = sizeClass(size);
+        long address = freeListHeads[sizeClass];
+        if (address != NULL_ADDRESS) {
+            freeListHeads[sizeClass] = mem.getLong(address);
+        } else {
+            address = carveBlock(sizeClass);
+        }
+        long blockSize = blockSize(sizeClass);
+        mem.setMemory(address, blockSize, (byte) 0);
+        usedMemory += blockSize;
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        if (currentSize <= slabSize && newSize <= slabSize && sizeClass(currentSize) == sizeClass(newSize)) {
+            if (newSize > currentSize) {
+                mem.setMemory(address + currentSize, newSize - currentSize, (byte) 0);
+            }
+            return address;
+        }
+        long newAddress = allocate(newSize);
+        mem.copyMemory(address, newAddress, Math.min(currentSize, newSize));
+        free(address, currentSize);
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        if (address == NULL_ADDRESS) {
+            return;
+        }
+        if (size > slabSize) {
+            long blockSize = largeBlocks.remove(address);
+            assert blockSize == size : "Invalid large block free, address: " + address + ", size: " + size;
+            UNSAFE.freeMemory(address);
+            committedMemory.addAndGet(-size);
+            usedMemory -= size;
+        } else {
+            int sizeClass = sizeClass(size);
+            mem.putLong(address, freeListHeads[sizeClass]);
+            freeListHeads[sizeClass] = address;
+            usedMemory -= blockSize(sizeClass);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (int i = 0; i < slabCount; i++) {
+            UNSAFE.freeMemory(slabs[i]);
+        }
+        committedMemory.addAndGet(-(long) slabCount * slabSize);
+        slabCount = 0;
+
+        Long2LongHashMap.LongLongCursor cursor = largeBlocks.cursor();
+        while (cursor.advance()) {
+            UNSAFE.freeMemory(cursor.key());
+            committedMemory.addAndGet(-cursor.value());
+        }
+        largeBlocks.clear();
+
+        Arrays.fill(freeListHeads, NULL_ADDRESS);
+        Arrays.fill(slabCursors, NULL_ADDRESS);
+        Arrays.fill(slabLimits, NULL_ADDRESS);
+        usedMemory = 0;
+    }
+
+    /**
+     * @return the size of the blocks currently allocated from this allocator,
+     * including the rounding up to the size class
+     */
+    public long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * @return the native memory reserved by this allocator for slabs and large blocks
+     */
+    public long getCommittedMemory() {
+        long committed = (long) slabCount * slabSize;
+        Long2LongHashMap.LongLongCursor cursor = largeBlocks.cursor();
+        while (cursor.advance()) {
+            committed += cursor.value();
+        }
+        return committed;
+    }
+
+    private long carveBlock(int sizeClass) {
+        long blockSize = blockSize(sizeClass);
+        if (slabCursors[sizeClass] == slabLimits[sizeClass]) {
+            long slab = allocateSlab();
+            slabCursors[sizeClass] = slab;
+            slabLimits[sizeClass] = slab + slabSize;
+        }
+        long address = slabCursors[sizeClass];
+        slabCursors[sizeClass] += blockSize;
+        return address;
+    }
+
+    private long allocateSlab() {
+        long slab = allocateMemory(slabSize);
+        if (slabCount == slabs.length) {
+            slabs = Arrays.copyOf(slabs, slabCount << 1);
+        }
+        slabs[slabCount++] = slab;
+        return slab;
+    }
+
+    private long allocateLargeBlock(long size) {
+        long address = allocateMemory(size);
+        mem.setMemory(address, size, (byte) 0);
+        largeBlocks.put(address, size);
+        return address;
+    }
+
+    private long allocateMemory(long size) {
+        long committed = committedMemory.addAndGet(size);
+        if (committed > maxCommittedMemory) {
+            committedMemory.addAndGet(-size);
+            throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes of native memory, committed: "
+                    + (committed - size) + ", limit: " + maxCommittedMemory);
+        }
+        try {
+            return UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            committedMemory.addAndGet(-size);
+            throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes of native memory", e);
+        }
+    }
+
+    private int sizeClass(long size) {
+        int shift = size <= 1 ? 0 : log2(nextPowerOfTwo(size));
+        return Math.max(shift - minBlockSizeShift, 0);
+    }
+
+    private long blockSize(int sizeClass) {
+        return 1L << (sizeClass + minBlockSizeShift);
+    }
+}
@@ -121,6 +121,8 @@ public final class MetricDescriptorConstants {
     public static final String EVENT_METRIC_EVENT_SERVICE_SYNC_DELIVERY_FAILURE_COUNT = "syncDeliveryFailureCount";
     public static final String EVENT_METRIC_EVENT_SERVICE_EVENT_QUEUE_SIZE = "eventQueueSize";
     public static final String EVENT_METRIC_EVENT_SERVICE_EVENTS_PROCESSED = "eventsProcessed";
+    public static final String EVENT_METRIC_EVENT_SERVICE_BATCHES_SENT = "batchesSent";
+    public static final String EVENT_METRIC_EVENT_SERVICE_BATCHED_EVENTS_SENT = "batchedEventsSent";
     public static final String EVENT_METRIC_EVENT_SERVICE_SEGMENT_LISTENER_COUNT = "listenerCount";
     public static final String EVENT_METRIC_EVENT_SERVICE_SEGMENT_PUBLICATION_COUNT = "publicationCount";
     // ===[/EVENT]======================================================
@@ -334,12 +336,16 @@ public final class MetricDescriptorConstants {
             "priorityWriteQueuePendingBytes";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED = "scheduled";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_COUNT = "writeCount";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_GATHERING_WRITE_COUNT = "gatheringWriteCount";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE = "framesPerWrite";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT = "processCount";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID = "ownerId";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS = "startedMigrations";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_COMPLETED_MIGRATIONS = "completedMigrations";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OPS_INTERESTED = "opsInterested";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OPS_READY = "opsReady";
+    public static final String NETWORKING_METRIC_NIO_PIPELINE_CPU_TIME_NANOS = "cpuTimeNanos";
     public static final String NETWORKING_METRIC_NIO_THREAD_IO_THREAD_ID = "ioThreadId";
     public static final String NETWORKING_METRIC_NIO_THREAD_BYTES_TRANSCEIVED = "bytesTransceived";
     public static final String NETWORKING_METRIC_NIO_THREAD_FRAMES_TRANSCEIVED = "framesTransceived";
@@ -353,6 +359,8 @@ public final class MetricDescriptorConstants {
     public static final String NETWORKING_METRIC_NIO_THREAD_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String NETWORKING_METRIC_NIO_IO_BALANCER_IMBALANCE_DETECTED_COUNT = "imbalanceDetectedCount";
     public static final String NETWORKING_METRIC_NIO_IO_BALANCER_MIGRATION_COMPLETED_COUNT = "migrationCompletedCount";
+    public static final String NETWORKING_METRIC_NIO_IO_BALANCER_INPUT_IMBALANCE_PERCENT = "inputImbalancePercent";
+    public static final String NETWORKING_METRIC_NIO_IO_BALANCER_OUTPUT_IMBALANCE_PERCENT = "outputImbalancePercent";
     // ===[/NETWORKING]=================================================
 
     // ===[OPERATION]===================================================
@@ -560,6 +568,14 @@ public final class MetricDescriptorConstants {
     public static final String TCP_METRIC_TEXT_COUNT = "textCount";
     // ===[/TCP]========================================================
 
+    // ===[TPC]=========================================================
+    public static final String TPC_PREFIX_CLIENT_ROUTING = "tpc.clientRouting";
+    public static final String TPC_METRIC_CLIENT_ROUTING_INLINE_COUNT = "inlineCount";
+    public static final String TPC_METRIC_CLIENT_ROUTING_HOP_COUNT = "hopCount";
+    public static final String TPC_METRIC_CLIENT_ROUTING_INLINE_LATENCY_AVG_MICROS = "inlineLatencyAvgMicros";
+    public static final String TPC_METRIC_CLIENT_ROUTING_INLINE_LATENCY_MAX_MICROS = "inlineLatencyMaxMicros";
+    // ===[/TPC]========================================================
+
     // ===[TOPIC]=======================================================
     public static final String TOPIC_PREFIX = "topic";
     public static final String TOPIC_METRIC_CREATION_TIME = "creationTime";
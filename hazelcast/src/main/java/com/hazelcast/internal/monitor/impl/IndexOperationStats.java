@@ -75,4 +75,15 @@ public interface IndexOperationStats {
      */
     void onEntryRemoved(Object removedValue);
 
+    /**
+     * Invoked by the associated index if the memory cost of its internal
+     * structures changed independently of the added and removed values,
+     * e.g. if a bitmap index changed the representation of its bit sets.
+     *
+     * @param memoryCostDelta the memory cost delta.
+     */
+    default void onMemoryCostChanged(long memoryCostDelta) {
+        // do nothing by default
+    }
+
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.admission;
+
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A count-min sketch estimating the access frequency of the Near Cache keys,
+ * used by the TinyLFU admission policy.
+ * <p>
+ * Each {@code long} of the table holds sixteen 4-bit counters, so the
+ * frequency of an item saturates at {@value #MAX_FREQUENCY}. An item is
+ * mapped to four counters in four different table entries and its
+ * frequency is the minimum of them. To let the sketch adapt to a changing
+ * workload, all counters are halved once the number of increments reaches
+ * ten times the maximum size of the Near Cache.
+ * <p>
+ * The sketch is not thread-safe, but tolerates concurrent access: racing
+ * increments may get lost, which only makes the estimations slightly less
+ * accurate.
+ * <p>
+ * Adapted from the {@code FrequencySketch} of the Caffeine project
+ * (https://github.com/ben-manes/caffeine), licensed under the Apache
+ * License, Version 2.0.
+ */
+public final class FrequencySketch {
+
+    /**
+     * The maximum frequency which can be estimated.
+     */
+    public static final int MAX_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    // 32 MB, enough for ~64M counters
+    private static final int MAX_TABLE_SIZE = 1 << 22;
+    private static final int SAMPLE_SIZE_FACTOR = 10;
+    private static final int COUNTER_BITS = 4;
+    private static final long COUNTER_MASK = 0xfL;
+    private static final int SPREAD_SHIFT = 16;
+    private static final int SPREAD_MULTIPLIER = 0x45d9f3b;
+    private static final int HASH_SHIFT = 32;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * @param maximumSize the maximum number of entries of the Near Cache
+     */
+    public FrequencySketch(int maximumSize) {
+        int maximum = Math.min(Math.max(maximumSize, 1), MAX_TABLE_SIZE);
+        this.table = new long[nextPowerOfTwo(maximum)];
+        this.tableMask = table.length - 1;
+        this.sampleSize = maximum * SAMPLE_SIZE_FACTOR <= 0 ? Integer.MAX_VALUE : maximum * SAMPLE_SIZE_FACTOR;
+    }
+
+    /**
+     * Returns the estimated number of accesses of the item, up to {@value #MAX_FREQUENCY}.
+     *
+     * @param hashCode the hash code of the item
+     * @return the estimated frequency of the item
+     */
+    public int frequency(int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int counter = (start + i) * COUNTER_BITS;
+            int count = (int) ((table[indexOf(hash, i)] >>> counter) & COUNTER_MASK);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the estimated number of accesses of the item.
+     *
+     * @param hashCode the hash code of the item
+     */
+    public void increment(int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    // just for testing
+    int sampleSize() {
+        return sampleSize;
+    }
+
+    private boolean incrementAt(int index, int counterIndex) {
+        int counter = counterIndex * COUNTER_BITS;
+        long mask = COUNTER_MASK << counter;
+        long value = table[index];
+        if ((value & mask) != mask) {
+            table[index] = value + (1L << counter);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halves all counters, so the old accesses fade out over time.
+     */
+    private void reset() {
+        int oddCount = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCount += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = Math.max((size >>> 1) - (oddCount >>> 2), 0);
+    }
+
+    private int indexOf(int hash, int i) {
+        long value = (hash + SEEDS[i]) * SEEDS[i];
+        value += value >>> HASH_SHIFT;
+        return ((int) value) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> SPREAD_SHIFT) ^ x) * SPREAD_MULTIPLIER;
+        x = ((x >>> SPREAD_SHIFT) ^ x) * SPREAD_MULTIPLIER;
+        return (x >>> SPREAD_SHIFT) ^ x;
+    }
+}
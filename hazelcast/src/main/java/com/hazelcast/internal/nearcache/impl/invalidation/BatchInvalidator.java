@@ -26,6 +26,8 @@ import com.hazelcast.spi.impl.executionservice.ExecutionService;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +39,7 @@ import java.util.function.Predicate;
 
 import static com.hazelcast.core.LifecycleEvent.LifecycleState.SHUTTING_DOWN;
 import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -60,15 +63,22 @@ public class BatchInvalidator extends Invalidator {
 
     private final int batchSize;
     private final int batchFrequencySeconds;
+    private final boolean compactionEnabled;
     private final UUID nodeShutdownListenerId;
     private final AtomicBoolean runningBackgroundTask = new AtomicBoolean(false);
 
     public BatchInvalidator(String serviceName, int batchSize, int batchFrequencySeconds,
                             Predicate<EventRegistration> eventFilter, NodeEngine nodeEngine) {
+        this(serviceName, batchSize, batchFrequencySeconds, false, eventFilter, nodeEngine);
+    }
+
+    public BatchInvalidator(String serviceName, int batchSize, int batchFrequencySeconds, boolean compactionEnabled,
+                            Predicate<EventRegistration> eventFilter, NodeEngine nodeEngine) {
         super(serviceName, eventFilter, nodeEngine);
 
         this.batchSize = batchSize;
         this.batchFrequencySeconds = batchFrequencySeconds;
+        this.compactionEnabled = compactionEnabled;
         this.nodeShutdownListenerId = registerNodeShutdownListener();
         this.invalidationExecutorName = serviceName + getClass();
     }
@@ -129,7 +139,67 @@ public class BatchInvalidator extends Invalidator {
             invalidations.add(invalidation);
         }
 
-        return invalidations;
+        return compactionEnabled ? compact(invalidations) : invalidations;
+    }
+
+    /**
+     * Removes the invalidations of a batch which are superseded by a later
+     * invalidation of the same key.
+     * <p>
+     * The invalidation with the lowest sequence of each partition is always
+     * kept, and the one with the highest sequence is always the latest one of
+     * its key, so the remaining invalidations still span the sequence range the
+     * batch covers for each partition. {@link RepairingHandler} relies on this
+     * to treat the gaps inside a batch as compacted instead of missed. The
+     * returned invalidations are grouped by partition, which lets
+     * {@link BatchNearCacheInvalidation} share the partition UUID and a base
+     * sequence between the invalidations of the same partition.
+     *
+     * @param invalidations the invalidations in the order they were polled
+     * @return the compacted invalidations
+     */
+    static List<Invalidation> compact(List<Invalidation> invalidations) {
+        int size = invalidations.size();
+        if (size < 2) {
+            return invalidations;
+        }
+
+        Map<Data, Invalidation> latestPerKey = createHashMap(size);
+        Map<UUID, Invalidation> firstPerPartition = new HashMap<>();
+        for (Invalidation invalidation : invalidations) {
+            Data key = invalidation.getKey();
+            if (key != null) {
+                latestPerKey.merge(key, invalidation, BatchInvalidator::latest);
+            }
+            firstPerPartition.merge(invalidation.getPartitionUuid(), invalidation, BatchInvalidator::first);
+        }
+
+        Map<UUID, List<Invalidation>> partitionGroups = new LinkedHashMap<>();
+        int compactedSize = 0;
+        for (Invalidation invalidation : invalidations) {
+            Data key = invalidation.getKey();
+            UUID partitionUuid = invalidation.getPartitionUuid();
+            if (key == null || latestPerKey.get(key) == invalidation || firstPerPartition.get(partitionUuid) == invalidation) {
+                partitionGroups.computeIfAbsent(partitionUuid, uuid -> new ArrayList<>()).add(invalidation);
+                compactedSize++;
+            }
+        }
+
+        List<Invalidation> compacted = new ArrayList<>(compactedSize);
+        for (List<Invalidation> partitionGroup : partitionGroups.values()) {
+            compacted.addAll(partitionGroup);
+        }
+        return compacted;
+    }
+
+    private static Invalidation latest(Invalidation polledBefore, Invalidation polledAfter) {
+        // a changed partition UUID restarts the sequences, so the later polled one wins
+        boolean samePartitionUuid = polledBefore.getPartitionUuid().equals(polledAfter.getPartitionUuid());
+        return samePartitionUuid && polledBefore.getSequence() > polledAfter.getSequence() ? polledBefore : polledAfter;
+    }
+
+    private static Invalidation first(Invalidation polledBefore, Invalidation polledAfter) {
+        return polledBefore.getSequence() <= polledAfter.getSequence() ? polledBefore : polledAfter;
     }
 
     private void sendInvalidations(String dataStructureName, List<Invalidation> invalidations) {
@@ -16,17 +16,31 @@
 
 package com.hazelcast.internal.nearcache.impl.invalidation;
 
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.UUIDSerializationUtil;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static java.util.Collections.emptyList;
 
-public class BatchNearCacheInvalidation extends Invalidation {
+/**
+ * Represents a batch of key invalidations of a single data structure.
+ * <p>
+ * Starting with 5.4 the batch is written in a compact form: consecutive
+ * invalidations of the same partition share one partition UUID and a base
+ * sequence, and each of them only carries its key, source UUID and sequence
+ * offset. The data structure name is written once for the whole batch.
+ */
+public class BatchNearCacheInvalidation extends Invalidation implements Versioned {
 
     private List<Invalidation> invalidations = emptyList();
 
@@ -47,17 +61,55 @@ public class BatchNearCacheInvalidation extends Invalidation {
         super.writeData(out);
 
         out.writeInt(invalidations.size());
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            writePartitionRuns(out);
+            return;
+        }
         for (Invalidation invalidation : invalidations) {
             out.writeObject(invalidation);
         }
     }
 
+    private void writePartitionRuns(ObjectDataOutput out) throws IOException {
+        int size = invalidations.size();
+        int runStart = 0;
+        while (runStart < size) {
+            Invalidation first = invalidations.get(runStart);
+            UUID partitionUuid = first.getPartitionUuid();
+            long baseSequence = first.getSequence();
+
+            int runEnd = runStart + 1;
+            while (runEnd < size && belongsToRun(invalidations.get(runEnd), partitionUuid, baseSequence)) {
+                runEnd++;
+            }
+
+            UUIDSerializationUtil.writeUUID(out, partitionUuid);
+            out.writeLong(baseSequence);
+            out.writeInt(runEnd - runStart);
+            for (int i = runStart; i < runEnd; i++) {
+                Invalidation invalidation = invalidations.get(i);
+                IOUtil.writeData(out, invalidation.getKey());
+                UUIDSerializationUtil.writeUUID(out, invalidation.getSourceUuid());
+                out.writeInt((int) (invalidation.getSequence() - baseSequence));
+            }
+            runStart = runEnd;
+        }
+    }
+
+    private static boolean belongsToRun(Invalidation invalidation, UUID partitionUuid, long baseSequence) {
+        long offset = invalidation.getSequence() - baseSequence;
+        return partitionUuid.equals(invalidation.getPartitionUuid())
+                && offset >= Integer.MIN_VALUE && offset <= Integer.MAX_VALUE;
+    }
+
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         super.readData(in);
 
         int size = in.readInt();
-        if (size != 0) {
+        if (size != 0 && in.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            readPartitionRuns(in, size);
+        } else if (size != 0) {
             List<Invalidation> invalidations = new ArrayList<Invalidation>(size);
             for (int i = 0; i < size; i++) {
                 Invalidation invalidation = in.readObject();
@@ -67,6 +119,23 @@ public class BatchNearCacheInvalidation extends Invalidation {
         }
     }
 
+    private void readPartitionRuns(ObjectDataInput in, int size) throws IOException {
+        String dataStructureName = getName();
+        List<Invalidation> invalidations = new ArrayList<>(size);
+        while (invalidations.size() < size) {
+            UUID partitionUuid = UUIDSerializationUtil.readUUID(in);
+            long baseSequence = in.readLong();
+            int runLength = in.readInt();
+            for (int i = 0; i < runLength; i++) {
+                Data key = IOUtil.readData(in);
+                UUID sourceUuid = UUIDSerializationUtil.readUUID(in);
+                long sequence = baseSequence + in.readInt();
+                invalidations.add(new SingleNearCacheInvalidation(key, dataStructureName, sourceUuid, partitionUuid, sequence));
+            }
+        }
+        this.invalidations = invalidations;
+    }
+
     @Override
     public String toString() {
         return "BatchNearCacheInvalidation{"
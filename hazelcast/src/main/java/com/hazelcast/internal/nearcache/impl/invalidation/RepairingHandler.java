@@ -20,6 +20,7 @@ import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.collection.Int2ObjectHashMap;
 
 import java.util.Collection;
 import java.util.Iterator;
@@ -80,6 +81,14 @@ public final class RepairingHandler {
      * Handles a single invalidation
      */
     public void handle(Data key, UUID sourceUuid, UUID partitionUuid, long sequence) {
+        invalidate(key, sourceUuid);
+
+        int partitionId = getPartitionIdOrDefault(key);
+        checkOrRepairUuid(partitionId, partitionUuid);
+        checkOrRepairSequence(partitionId, sequence, false);
+    }
+
+    private void invalidate(Data key, UUID sourceUuid) {
         // apply invalidation if it's not originated by local member/client (because local
         // Near Caches are invalidated immediately there is no need to invalidate them twice)
         if (!localUuid.equals(sourceUuid)) {
@@ -90,10 +99,6 @@ public final class RepairingHandler {
                 nearCache.invalidate(serializeKeys ? key : serializationService.toObject(key));
             }
         }
-
-        int partitionId = getPartitionIdOrDefault(key);
-        checkOrRepairUuid(partitionId, partitionUuid);
-        checkOrRepairSequence(partitionId, sequence, false);
     }
 
     private int getPartitionIdOrDefault(Data key) {
@@ -106,7 +111,14 @@ public final class RepairingHandler {
     }
 
     /**
-     * Handles batch invalidations
+     * Handles batch invalidations.
+     * <p>
+     * The sequences of a batch are tracked per partition as one range: a gap
+     * between the last known sequence and the lowest sequence of the batch is
+     * counted as missed, while gaps inside the range are not. The sender may
+     * have compacted the batch by dropping invalidations that are superseded by
+     * a later invalidation of the same key, but it always keeps the lowest and
+     * the highest sequence of each partition.
      */
     public void handle(Collection<Data> keys, Collection<UUID> sourceUuids,
                        Collection<UUID> partitionUuids, Collection<Long> sequences) {
@@ -115,9 +127,47 @@ public final class RepairingHandler {
         Iterator<UUID> partitionUuidIterator = partitionUuids.iterator();
         Iterator<UUID> sourceUuidsIterator = sourceUuids.iterator();
 
+        // partition ID -> {lowest sequence, highest sequence} seen in this batch
+        Int2ObjectHashMap<long[]> sequenceRanges = new Int2ObjectHashMap<>();
         while (keyIterator.hasNext() && sourceUuidsIterator.hasNext()
                 && partitionUuidIterator.hasNext() && sequenceIterator.hasNext()) {
-            handle(keyIterator.next(), sourceUuidsIterator.next(), partitionUuidIterator.next(), sequenceIterator.next());
+            Data key = keyIterator.next();
+            long sequence = sequenceIterator.next();
+            invalidate(key, sourceUuidsIterator.next());
+
+            int partitionId = getPartitionIdOrDefault(key);
+            checkOrRepairUuid(partitionId, partitionUuidIterator.next());
+
+            long[] range = sequenceRanges.get(partitionId);
+            if (range == null) {
+                sequenceRanges.put(partitionId, new long[]{sequence, sequence});
+            } else {
+                range[0] = Math.min(range[0], sequence);
+                range[1] = Math.max(range[1], sequence);
+            }
+        }
+
+        Int2ObjectHashMap<long[]>.KeyIterator partitionIds = sequenceRanges.keySet().iterator();
+        while (partitionIds.hasNext()) {
+            int partitionId = partitionIds.nextInt();
+            long[] range = sequenceRanges.get(partitionId);
+            checkOrRepairSequence(partitionId, range[0], false);
+            advanceSequence(partitionId, range[1]);
+        }
+    }
+
+    /**
+     * Sets the sequence of the partition to {@code nextSequence} if it is
+     * bigger than the current one, without counting the skipped sequences as
+     * missed.
+     */
+    private void advanceSequence(int partition, long nextSequence) {
+        MetaDataContainer metaData = getMetaDataContainer(partition);
+        while (true) {
+            long currentSequence = metaData.getSequence();
+            if (currentSequence >= nextSequence || metaData.casSequence(currentSequence, nextSequence)) {
+                break;
+            }
         }
     }
 
@@ -22,38 +22,60 @@ import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.serialization.impl.HeapData;
-import com.hazelcast.internal.util.BufferingInputStream;
 import com.hazelcast.internal.util.Timer;
 import com.hazelcast.internal.util.collection.InflatableSet;
 import com.hazelcast.internal.util.collection.InflatableSet.Builder;
+import com.hazelcast.internal.util.collection.Long2LongHashMap;
+import com.hazelcast.internal.util.collection.Long2LongHashMap.LongLongCursor;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.memory.MemoryUnit;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
 
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
-import static com.hazelcast.internal.nio.Bits.readIntB;
-import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.IOUtil.closeResource;
 import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
-import static com.hazelcast.internal.nio.IOUtil.readFullyOrNothing;
 import static com.hazelcast.internal.nio.IOUtil.rename;
 import static com.hazelcast.internal.nio.IOUtil.toFileName;
-import static com.hazelcast.internal.util.JVMUtil.upcast;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
 import static java.lang.String.format;
-import static java.nio.ByteBuffer.allocate;
 
 /**
  * Loads and stores the keys from a Near Cache into a file.
+ * <p>
+ * The keys are stored as a key log: the first store writes all keys, the
+ * subsequent stores only append the keys which were added since the previous
+ * store and the 64-bit hashes of the keys which were removed. The key log is
+ * compacted into a new file once it has more than {@value #COMPACTION_FACTOR}
+ * times as many records as keys.
+ * <p>
+ * Keys are identified only by their 64-bit hash, see {@link Data#hash64()},
+ * so the preloader keeps no key bytes on the heap. This is lossy: of two
+ * keys with the same hash only one is stored and preloaded. Since the keys
+ * are only used to warm up the Near Cache, a collision costs a cache miss
+ * after the restart, and with 64-bit hashes it is very unlikely.
+ * <p>
+ * The loaded keys are grouped by their partition, so every {@code getAll()}
+ * batch of the warm-up only targets a few partitions.
  *
  * @param <K> type of the {@link com.hazelcast.internal.nearcache.NearCacheRecord} keys
  */
@@ -63,7 +85,15 @@ public class NearCachePreloader<K> {
      * File format for the file header.
      */
     private enum FileFormat {
-        INTERLEAVED_LENGTH_FIELD
+        /**
+         * Length prefixed keys.
+         */
+        INTERLEAVED_LENGTH_FIELD,
+        /**
+         * Length prefixed added keys and {@link #REMOVED_KEY_MARKER} prefixed
+         * hashes of removed keys.
+         */
+        KEY_LOG
     }
 
     /**
@@ -71,6 +101,11 @@ public class NearCachePreloader<K> {
      */
     private static final int MAGIC_BYTES = 0xEA3CAC4E;
 
+    /**
+     * Length field of a key log record of a removed key.
+     */
+    private static final int REMOVED_KEY_MARKER = -1;
+
     /**
      * Base-2 logarithm of buffer size.
      */
@@ -83,10 +118,19 @@ public class NearCachePreloader<K> {
     /**
      * Batch size for the pre-loader.
      */
-    private static final int LOAD_BATCH_SIZE = 100;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * The key log is compacted when it has more than this many records per key.
+     */
+    private static final int COMPACTION_FACTOR = 2;
+
+    /**
+     * Missing value of {@link #storedKeys}, a key hash is never equal to it.
+     */
+    private static final long MISSING = Long.MIN_VALUE;
 
     private final ILogger logger = Logger.getLogger(NearCachePreloader.class);
-    private final byte[] tmpBytes = new byte[INT_SIZE_IN_BYTES];
 
     private final String nearCacheName;
     private final NearCacheStatsImpl nearCacheStats;
@@ -96,7 +140,14 @@ public class NearCachePreloader<K> {
     private final File storeFile;
     private final File tmpStoreFile;
 
-    private ByteBuffer buf;
+    /**
+     * The hashes of the keys in the key log, mapped to the number of the
+     * last store which found them in the Near Cache. {@code null} if the
+     * store file has to be rewritten on the next store.
+     */
+    private Long2LongHashMap storedKeys;
+    private long storeCount;
+    private long logRecordCount;
     private int lastWrittenBytes;
     private int lastKeyCount;
 
@@ -122,6 +173,17 @@ public class NearCachePreloader<K> {
      * @param adapter the {@link DataStructureAdapter} to load the values from
      */
     public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        loadKeys(adapter, null);
+    }
+
+    /**
+     * Loads the values via a stored key file into the supplied {@link DataStructureAdapter}.
+     * The keys are loaded in batches of keys of the same or adjacent partitions.
+     *
+     * @param adapter             the {@link DataStructureAdapter} to load the values from
+     * @param partitionIdFunction returns the partition ID of a key, if {@code null} the keys are not grouped
+     */
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, ToIntFunction<Data> partitionIdFunction) {
         if (!storeFile.exists()) {
             logger.info(format("Skipped loading keys of Near Cache %s since storage file doesn't exist (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
@@ -129,78 +191,148 @@ public class NearCachePreloader<K> {
         }
 
         long startedNanos = Timer.nanos();
-        BufferingInputStream bis = null;
+        DataInputStream in = null;
         try {
-            bis = new BufferingInputStream(new FileInputStream(storeFile), BUFFER_SIZE);
-            if (!checkHeader(bis)) {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(storeFile), BUFFER_SIZE));
+            FileFormat fileFormat = checkHeader(in);
+            if (fileFormat == null) {
                 return;
             }
 
-            int loadedKeys = loadKeySet(bis, adapter);
+            Long2ObjectHashMap<Data> keys = readKeyLog(in, fileFormat, storeFile.length());
+            int loadedKeys = loadKeySet(keys.values(), adapter, partitionIdFunction);
 
             long elapsedMillis = Timer.millisElapsed(startedNanos);
             logger.info(format("Loaded %d keys of Near Cache %s in %d ms", loadedKeys, nearCacheName, elapsedMillis));
         } catch (Exception e) {
             logger.warning(format("Could not pre-load Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
         } finally {
-            closeResource(bis);
+            closeResource(in);
         }
     }
 
-    private boolean checkHeader(BufferingInputStream bis) throws IOException {
-        int magicBytes = readInt(bis);
+    private FileFormat checkHeader(DataInputStream in) throws IOException {
+        int magicBytes;
+        int fileFormat;
+        try {
+            magicBytes = in.readInt();
+            fileFormat = in.readInt();
+        } catch (EOFException e) {
+            magicBytes = 0;
+            fileFormat = -1;
+        }
         if (magicBytes != MAGIC_BYTES) {
             logger.warning(format("Found invalid header for Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        int fileFormat = readInt(bis);
         if (fileFormat < 0 || fileFormat > FileFormat.values().length - 1) {
             logger.warning(format("Found invalid file format for Near Cache %s (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        return true;
+        return FileFormat.values()[fileFormat];
     }
 
     /**
-     * Stores the Near Cache keys from the supplied iterator.
-     *
-     * @param iterator {@link Iterator} over the key set of a {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
+     * Replays the key log. A truncated record at the end of the file, e.g.
+     * after a crash during a store, is ignored.
      */
-    public void storeKeys(Iterator<K> iterator) {
-        long startedNanos = Timer.nanos();
-        FileOutputStream fos = null;
+    private Long2ObjectHashMap<Data> readKeyLog(DataInputStream in, FileFormat fileFormat, long fileSize)
+            throws IOException {
+        Long2ObjectHashMap<Data> keys = new Long2ObjectHashMap<>();
+        long recordCount = 0;
         try {
-            buf = allocate(BUFFER_SIZE);
-            lastWrittenBytes = 0;
-            lastKeyCount = 0;
+            while (hasNextRecord(in)) {
+                int dataSize = in.readInt();
+                if (dataSize == REMOVED_KEY_MARKER) {
+                    keys.remove(in.readLong());
+                } else {
+                    if (dataSize < 0 || dataSize > fileSize) {
+                        return keys;
+                    }
+                    byte[] payload = new byte[dataSize];
+                    in.readFully(payload);
+                    Data key = new HeapData(payload);
+                    keys.put(hash(key), key);
+                }
+                recordCount++;
+            }
+        } catch (EOFException e) {
+            return keys;
+        }
 
-            fos = new FileOutputStream(tmpStoreFile, false);
+        if (fileFormat == FileFormat.KEY_LOG) {
+            // the whole key log was read, the next store can append to it
+            storedKeys = new Long2LongHashMap(MISSING);
+            for (long hash : keys.keySet()) {
+                storedKeys.put(hash, storeCount);
+            }
+            logRecordCount = recordCount;
+        }
+        return keys;
+    }
 
-            // write header and keys
-            writeInt(fos, MAGIC_BYTES);
-            writeInt(fos, FileFormat.INTERLEAVED_LENGTH_FIELD.ordinal());
-            writeKeySet(fos, fos.getChannel(), iterator);
+    private static boolean hasNextRecord(DataInputStream in) throws IOException {
+        in.mark(1);
+        boolean hasNext = in.read() != -1;
+        in.reset();
+        return hasNext;
+    }
 
-            // cleanup if no keys have been written
-            if (lastKeyCount == 0) {
-                deleteQuietly(storeFile);
-                updatePersistenceStats(startedNanos);
-                return;
+    private int loadKeySet(Collection<Data> keys, DataStructureAdapter<Object, ?> adapter,
+                           ToIntFunction<Data> partitionIdFunction) {
+        int loadedKeys = 0;
+
+        Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+        for (Collection<Data> partitionKeys : groupByPartition(keys, partitionIdFunction)) {
+            for (Data key : partitionKeys) {
+                builder.add(serializationService.toObject(key));
+                if (builder.size() == LOAD_BATCH_SIZE) {
+                    adapter.getAll(builder.build());
+                    builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+                }
+                loadedKeys++;
             }
+        }
+        if (builder.size() > 0) {
+            adapter.getAll(builder.build());
+        }
+        return loadedKeys;
+    }
 
-            fos.flush();
-            closeResource(fos);
-            rename(tmpStoreFile, storeFile);
+    private static Collection<? extends Collection<Data>> groupByPartition(Collection<Data> keys,
+                                                                           ToIntFunction<Data> partitionIdFunction) {
+        if (partitionIdFunction == null) {
+            return List.of(keys);
+        }
+        Map<Integer, List<Data>> keysByPartition = new TreeMap<>();
+        for (Data key : keys) {
+            keysByPartition.computeIfAbsent(partitionIdFunction.applyAsInt(key), k -> new ArrayList<>()).add(key);
+        }
+        return keysByPartition.values();
+    }
 
+    /**
+     * Stores the Near Cache keys from the supplied iterator.
+     *
+     * @param iterator {@link Iterator} over the key set of a {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
+     */
+    public void storeKeys(Iterator<K> iterator) {
+        long startedNanos = Timer.nanos();
+        try {
+            storeCount++;
+            if (storedKeys == null || !storeFile.exists() || logRecordCount > COMPACTION_FACTOR * (long) storedKeys.size()) {
+                writeKeySet(iterator);
+            } else {
+                appendKeyLog(iterator);
+            }
             updatePersistenceStats(startedNanos);
         } catch (Exception e) {
             logger.warning(format("Could not store keys of Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
 
+            // the store file is rewritten on the next store
+            storedKeys = null;
             nearCacheStats.addPersistenceFailure(e);
-        } finally {
-            closeResource(fos);
-            deleteQuietly(tmpStoreFile);
         }
     }
 
@@ -212,83 +344,112 @@ public class NearCachePreloader<K> {
                 MemoryUnit.BYTES.toKiloBytes(lastWrittenBytes)));
     }
 
-    private int loadKeySet(BufferingInputStream bis, DataStructureAdapter<Object, ?> adapter) throws IOException {
-        int loadedKeys = 0;
+    /**
+     * Writes all keys to a new store file, which replaces the current one.
+     */
+    private void writeKeySet(Iterator<K> iterator) throws IOException {
+        storedKeys = new Long2LongHashMap(MISSING);
+        logRecordCount = 0;
+        lastWrittenBytes = 0;
+        lastKeyCount = 0;
 
-        Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
-        while (readFullyOrNothing(bis, tmpBytes)) {
-            int dataSize = readIntB(tmpBytes, 0);
-            byte[] payload = new byte[dataSize];
-            if (!readFullyOrNothing(bis, payload)) {
-                break;
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpStoreFile, false), BUFFER_SIZE));
+            out.writeInt(MAGIC_BYTES);
+            out.writeInt(FileFormat.KEY_LOG.ordinal());
+            while (iterator.hasNext()) {
+                Data key = serializationService.toData(iterator.next());
+                if (key != null && storedKeys.put(hash(key), storeCount) == MISSING) {
+                    writeAddedKey(out, key);
+                }
             }
-            Data key = new HeapData(payload);
-            builder.add(serializationService.toObject(key));
-            if (builder.size() == LOAD_BATCH_SIZE) {
-                adapter.getAll(builder.build());
-                builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+
+            // cleanup if no keys have been written
+            if (storedKeys.isEmpty()) {
+                deleteQuietly(storeFile);
+                lastWrittenBytes = 0;
+                return;
             }
-            loadedKeys++;
-        }
-        if (builder.size() > 0) {
-            adapter.getAll(builder.build());
+
+            out.flush();
+            closeResource(out);
+            rename(tmpStoreFile, storeFile);
+            lastKeyCount = storedKeys.size();
+        } finally {
+            closeResource(out);
+            deleteQuietly(tmpStoreFile);
         }
-        return loadedKeys;
     }
 
-    private void writeKeySet(FileOutputStream fos, FileChannel outChannel, Iterator<K> iterator) throws IOException {
-        while (iterator.hasNext()) {
-            K key = iterator.next();
-            Data dataKey = serializationService.toData(key);
-            if (dataKey != null) {
-                int dataSize = dataKey.totalSize();
-                writeInt(fos, dataSize);
-
-                int position = 0;
-                int remaining = dataSize;
-                while (remaining > 0) {
-                    int transferredCount = Math.min(BUFFER_SIZE - buf.position(), remaining);
-                    ensureBufHasRoom(fos, transferredCount);
-                    buf.put(dataKey.toByteArray(), position, transferredCount);
-                    position += transferredCount;
-                    remaining -= transferredCount;
+    /**
+     * Appends the keys added since the previous store and the hashes of the
+     * keys removed since then to the store file.
+     */
+    private void appendKeyLog(Iterator<K> iterator) throws IOException {
+        lastWrittenBytes = 0;
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(storeFile, true), BUFFER_SIZE));
+            int presentKeyCount = 0;
+            while (iterator.hasNext()) {
+                Data key = serializationService.toData(iterator.next());
+                if (key == null) {
+                    continue;
+                }
+                long previousStoreCount = storedKeys.put(hash(key), storeCount);
+                if (previousStoreCount == MISSING) {
+                    writeAddedKey(out, key);
+                }
+                if (previousStoreCount != storeCount) {
+                    presentKeyCount++;
                 }
-
-                lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
-                lastKeyCount++;
             }
-            flushLocalBuffer(outChannel);
+            for (long removedKey : removedKeys(storedKeys.size() - presentKeyCount)) {
+                storedKeys.remove(removedKey);
+                out.writeInt(REMOVED_KEY_MARKER);
+                out.writeLong(removedKey);
+                lastWrittenBytes += INT_SIZE_IN_BYTES + LONG_SIZE_IN_BYTES;
+                logRecordCount++;
+            }
+            out.flush();
+        } finally {
+            closeResource(out);
         }
-    }
 
-    private int readInt(BufferingInputStream bis) throws IOException {
-        readFullyOrNothing(bis, tmpBytes);
-        return readIntB(tmpBytes, 0);
+        lastKeyCount = storedKeys.size();
+        if (lastKeyCount == 0) {
+            deleteQuietly(storeFile);
+            lastWrittenBytes = 0;
+        }
     }
 
-    private void writeInt(FileOutputStream fos, int dataSize) throws IOException {
-        ensureBufHasRoom(fos, INT_SIZE_IN_BYTES);
-        writeIntB(tmpBytes, 0, dataSize);
-        buf.put(tmpBytes);
+    private void writeAddedKey(DataOutputStream out, Data key) throws IOException {
+        int dataSize = key.totalSize();
+        out.writeInt(dataSize);
+        out.write(key.toByteArray(), 0, dataSize);
+        lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
+        logRecordCount++;
     }
 
-    private void ensureBufHasRoom(FileOutputStream fos, int expectedSize) throws IOException {
-        if (buf.position() < BUFFER_SIZE - expectedSize) {
-            return;
+    /**
+     * Returns the hashes of the stored keys which were not found by the current store.
+     */
+    private long[] removedKeys(int removedKeyCount) {
+        long[] removedKeys = new long[removedKeyCount];
+        int count = 0;
+        LongLongCursor cursor = storedKeys.cursor();
+        while (count < removedKeyCount && cursor.advance()) {
+            if (cursor.value() != storeCount) {
+                removedKeys[count++] = cursor.key();
+            }
         }
-        fos.write(buf.array());
-        upcast(buf).position(0);
+        return removedKeys;
     }
 
-    private void flushLocalBuffer(FileChannel outChannel) throws IOException {
-        if (buf.position() == 0) {
-            return;
-        }
-        upcast(buf).flip();
-        while (buf.hasRemaining()) {
-            outChannel.write(buf);
-        }
-        upcast(buf).clear();
+    private static long hash(Data key) {
+        long hash = key.hash64();
+        return hash == MISSING ? hash + 1 : hash;
     }
 
     private static String getFilename(String directory, String nearCacheName) {
@@ -19,10 +19,15 @@ package com.hazelcast.internal.nearcache.impl.store;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCacheConfig.AdmissionPolicy;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.eviction.EvictionCandidate;
 import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.nearcache.NearCache.UpdateSemantic;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.admission.FrequencySketch;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
 import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
 import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
 import com.hazelcast.internal.serialization.Data;
@@ -33,10 +38,17 @@ import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
 import static java.lang.String.format;
 
 /**
  * Base implementation of {@link AbstractNearCacheRecordStore} for on-heap Near Caches.
+ * <p>
+ * With the {@link AdmissionPolicy#TINY_LFU} admission policy, the accesses of the keys
+ * are counted in a {@link FrequencySketch}. Once the Near Cache is full, a new key is
+ * only admitted if it was accessed more frequently than the entry the eviction policy
+ * picks from a sample, which is then evicted for it.
  *
  * @param <K> the type of the key stored in Near Cache
  * @param <V> the type of the value stored in Near Cache
@@ -46,8 +58,14 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         extends AbstractNearCacheRecordStore<K, V, K, R, HeapNearCacheRecordMap<K, R>> {
 
     private static final int DEFAULT_INITIAL_CAPACITY = 1000;
+    private static final int ADMISSION_SAMPLE_COUNT = 15;
 
     private final NearCachePreloader<K> nearCachePreloader;
+    /**
+     * Estimates the access frequencies of the keys, {@code null} unless
+     * the TinyLFU admission policy is used
+     */
+    private final FrequencySketch frequencySketch;
     private final BiFunction<? super K, ? super R, ? extends R> invalidatorFunction = createInvalidatorFunction();
 
     BaseHeapNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
@@ -57,6 +75,8 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
         this.nearCachePreloader = preloaderConfig.isEnabled()
                 ? new NearCachePreloader<>(name, preloaderConfig, nearCacheStats, serializationService) : null;
+        this.frequencySketch = nearCacheConfig.getAdmissionPolicy() == AdmissionPolicy.TINY_LFU && !evictionDisabled
+                ? new FrequencySketch(nearCacheConfig.getEvictionConfig().getSize()) : null;
     }
 
     @Override
@@ -76,6 +96,55 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         return new HeapNearCacheRecordMap<>(serializationService, DEFAULT_INITIAL_CAPACITY);
     }
 
+    @Override
+    public V get(K key) {
+        if (frequencySketch != null) {
+            // misses are counted too, so a key is admitted once it's accessed frequently enough
+            frequencySketch.increment(key.hashCode());
+        }
+        return super.get(key);
+    }
+
+    @Override
+    public boolean doEviction(boolean withoutMaxSizeCheck) {
+        if (frequencySketch == null || withoutMaxSizeCheck) {
+            return super.doEviction(withoutMaxSizeCheck);
+        }
+        // the entries are evicted when a new key is admitted, see admit()
+        checkAvailable();
+        return true;
+    }
+
+    @Override
+    public long tryReserveForUpdate(K key, Data keyData, UpdateSemantic updateSemantic) {
+        if (frequencySketch != null && !admit(key)) {
+            return NOT_RESERVED;
+        }
+        return super.tryReserveForUpdate(key, keyData, updateSemantic);
+    }
+
+    /**
+     * Decides whether the key can be added to the Near Cache. If the Near Cache
+     * is full and the key is new, the key is only admitted if its estimated
+     * access frequency is higher than the one of the eviction candidate, which
+     * is evicted then.
+     */
+    private boolean admit(K key) {
+        checkAvailable();
+        if (!evictionChecker.isEvictionRequired() || records.containsKey(key)) {
+            return true;
+        }
+        EvictionCandidate<K, R> candidate = evictionPolicyEvaluator.evaluate(records.sample(ADMISSION_SAMPLE_COUNT));
+        if (candidate == null) {
+            return true;
+        }
+        if (frequencySketch.frequency(key.hashCode()) <= frequencySketch.frequency(candidate.getAccessor().hashCode())) {
+            return false;
+        }
+        records.tryEvict(candidate, this);
+        return true;
+    }
+
     @Override
     public R getRecord(K key) {
         return records.get(key);
@@ -120,7 +189,9 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     @Override
     public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
         if (nearCachePreloader != null) {
-            nearCachePreloader.loadKeys(adapter);
+            // the keys are grouped by partition, if the partition service is available
+            StaleReadDetector detector = staleReadDetector;
+            nearCachePreloader.loadKeys(adapter, detector == ALWAYS_FRESH ? null : detector::getPartitionId);
         }
     }
 
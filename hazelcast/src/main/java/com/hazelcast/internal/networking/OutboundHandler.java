@@ -78,6 +78,21 @@ public abstract class OutboundHandler<S, D> extends ChannelHandler<OutboundHandl
      */
     public abstract HandlerStatus onWrite() throws Exception;
 
+    /**
+     * Checks if the dst ByteBuffer of this OutboundHandler can be replaced by
+     * another ByteBuffer in between calls to {@link #onWrite()}.
+     *
+     * This is the case for handlers that only encode frames to the dst and
+     * don't keep any state about the dst themselves. It allows the pipeline to
+     * let the handler encode into multiple buffers that are written to the
+     * socket using a single gathering write.
+     *
+     * @return true if the dst can be replaced, false otherwise.
+     */
+    public boolean isDstReplaceable() {
+        return false;
+    }
+
     /**
      * Initializes the dst ByteBuffer with the value for {@link ChannelOption#SO_SNDBUF}.
      *
@@ -53,4 +53,14 @@ public interface MigratablePipeline {
      * @return total load recorded by this pipeline
      */
     long load();
+
+    /**
+     * Get the (estimated) CPU time in nanoseconds the owning {@link NioThread}s
+     * spent processing this pipeline. It can be used together with the {@link #load()}
+     * to judge the real cost of a pipeline, e.g. a few connections carrying large
+     * payloads.
+     *
+     * @return the total CPU time spent on this pipeline or 0 when not measured
+     */
+    long cpuTimeNanos();
 }
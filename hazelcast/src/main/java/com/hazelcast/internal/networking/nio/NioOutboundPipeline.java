@@ -39,12 +39,15 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_GATHERING_WRITE_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_NORMAL_FRAMES_WRITTEN;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_PENDING_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_PENDING_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
@@ -53,12 +56,15 @@ import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.IOUtil.newByteBuffer;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.JVMUtil.upcast;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.collection.ArrayUtils.append;
 import static com.hazelcast.internal.util.collection.ArrayUtils.replaceFirst;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
 import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_WRITE;
@@ -107,6 +113,8 @@ public final class NioOutboundPipeline
         RESCHEDULE
     }
 
+    private static final int MAX_GATHER_BUFFERS = 16;
+
     @SuppressWarnings("checkstyle:visibilitymodifier")
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_SIZE, level = INFO)
     public final Queue<OutboundFrame> writeQueue = new ConcurrentLinkedQueue<>();
@@ -124,6 +132,10 @@ public final class NioOutboundPipeline
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN, level = DEBUG)
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_COUNT, level = DEBUG)
+    private final SwCounter writeCount = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_GATHERING_WRITE_COUNT, level = DEBUG)
+    private final SwCounter gatheringWriteCount = newSwCounter();
 
     private volatile long lastWriteTime;
 
@@ -134,6 +146,12 @@ public final class NioOutboundPipeline
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
     private final boolean selectionKeyWakeupEnabled;
+    // the maximum number of bytes written by a single gathering write; 0 if gathering writes are disabled
+    private final int gatheringBudgetBytes;
+    // the buffers of a gathering write. If there is nothing pending, the first buffer is the sendBuffer.
+    private ByteBuffer[] gatherBuffers;
+    // the number of buffers at the head of the gatherBuffers that need to be written before the sendBuffer
+    private int gatherPending;
 
     NioOutboundPipeline(NioChannel channel,
                         NioThread owner,
@@ -142,11 +160,13 @@ public final class NioOutboundPipeline
                         IOBalancer balancer,
                         ConcurrencyDetection concurrencyDetection,
                         boolean writeThroughEnabled,
-                        boolean selectionKeyWakeupEnabled) {
+                        boolean selectionKeyWakeupEnabled,
+                        int gatheringBudgetBytes) {
         super(channel, owner, errorHandler, OP_WRITE, logger, balancer);
         this.concurrencyDetection = concurrencyDetection;
         this.writeThroughEnabled = writeThroughEnabled;
         this.selectionKeyWakeupEnabled = selectionKeyWakeupEnabled;
+        this.gatheringBudgetBytes = gatheringBudgetBytes;
     }
 
     @Override
@@ -199,6 +219,12 @@ public final class NioOutboundPipeline
         return scheduled.get().ordinal();
     }
 
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE, level = DEBUG)
+    private double framesPerWrite() {
+        long writes = writeCount.get();
+        return writes == 0 ? 0 : (double) (normalFramesWritten.get() + priorityFramesWritten.get()) / writes;
+    }
+
     public void write(OutboundFrame frame) {
         if (frame.isUrgent()) {
             priorityWriteQueue.offer(frame);
@@ -301,29 +327,20 @@ public final class NioOutboundPipeline
 
     // is never called concurrently!
     @Override
-    @SuppressWarnings("unchecked")
     public void process() throws Exception {
         processCount.inc();
 
-        OutboundHandler[] localHandlers = handlers;
-        HandlerStatus pipelineStatus = CLEAN;
-        for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
-            OutboundHandler handler = localHandlers[handlerIndex];
-
-            HandlerStatus handlerStatus = handler.onWrite();
-
-            if (localHandlers != handlers) {
-                // change in the pipeline detected, therefor the loop is restarted.
-                localHandlers = handlers;
-                pipelineStatus = CLEAN;
-                handlerIndex = -1;
-            } else if (handlerStatus != CLEAN) {
-                pipelineStatus = handlerStatus;
-            }
+        HandlerStatus pipelineStatus;
+        if (gatherPending > 0 && !flushPendingGathered()) {
+            // the bytes of an earlier gathering write need to be written before anything else
+            pipelineStatus = DIRTY;
+        } else if (isGatheringPossible()) {
+            pipelineStatus = gatherAndFlush();
+        } else {
+            pipelineStatus = processHandlers();
+            flushToSocket();
         }
 
-        flushToSocket();
-
         if (migrationRequested()) {
             startMigration();
             // we leave this method and the NioOutboundPipeline remains scheduled.
@@ -331,7 +348,7 @@ public final class NioOutboundPipeline
             return;
         }
 
-        if (sendBuffer.remaining() > 0) {
+        if (sendBuffer.remaining() > 0 || gatherPending > 0) {
             pipelineStatus = DIRTY;
         }
 
@@ -350,6 +367,146 @@ public final class NioOutboundPipeline
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private HandlerStatus processHandlers() throws Exception {
+        OutboundHandler[] localHandlers = handlers;
+        HandlerStatus pipelineStatus = CLEAN;
+        for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
+            OutboundHandler handler = localHandlers[handlerIndex];
+
+            HandlerStatus handlerStatus = handler.onWrite();
+
+            if (localHandlers != handlers) {
+                // change in the pipeline detected, therefor the loop is restarted.
+                localHandlers = handlers;
+                pipelineStatus = CLEAN;
+                handlerIndex = -1;
+            } else if (handlerStatus != CLEAN) {
+                pipelineStatus = handlerStatus;
+            }
+        }
+        return pipelineStatus;
+    }
+
+    private boolean isGatheringPossible() {
+        OutboundHandler[] localHandlers = handlers;
+        return gatheringBudgetBytes > 0
+                && localHandlers.length > 0
+                && localHandlers[localHandlers.length - 1].isDstReplaceable();
+    }
+
+    /**
+     * Processes the handlers as long as the last handler fills its dst buffer
+     * completely and has more to write. After every round the dst of the last
+     * handler is replaced by the next gather buffer. All filled buffers are
+     * written to the socket with a single gathering write.
+     */
+    @SuppressWarnings("unchecked")
+    private HandlerStatus gatherAndFlush() throws Exception {
+        ByteBuffer[] buffers = gatherBuffers();
+        OutboundHandler[] localHandlers = handlers;
+        OutboundHandler lastHandler = localHandlers[localHandlers.length - 1];
+        long gatheredBytes = 0;
+        int count = 0;
+        for (; ; ) {
+            HandlerStatus pipelineStatus = processHandlers();
+            ByteBuffer buffer = buffers[count++];
+
+            if (localHandlers != handlers) {
+                // the pipeline changed; the gathered buffers are written and the dst of
+                // the new last handler will be written on the next call to process.
+                gatherPending = count - flushGathered(buffers, count, count);
+                return DIRTY;
+            }
+
+            gatheredBytes += buffer.remaining();
+            if (pipelineStatus != DIRTY
+                    || buffer.limit() != buffer.capacity()
+                    || gatheredBytes >= gatheringBudgetBytes
+                    || count == buffers.length) {
+                int shift = flushGathered(buffers, count, count - 1);
+                gatherPending = count - 1 - shift;
+                // the buffer with the last gathered bytes becomes the sendBuffer
+                sendBuffer = buffers[gatherPending];
+                lastHandler.dst(sendBuffer);
+                return pipelineStatus;
+            }
+
+            // the buffer is full and the handler has more to write.
+            sendBuffer = nextGatherBuffer(buffers, count);
+            lastHandler.dst(sendBuffer);
+        }
+    }
+
+    private ByteBuffer[] gatherBuffers() {
+        ByteBuffer[] buffers = gatherBuffers;
+        if (buffers == null || buffers[0] != sendBuffer) {
+            // first gathering write or the dst of the last handler changed
+            int bufferCount = min(MAX_GATHER_BUFFERS, max(1, gatheringBudgetBytes / sendBuffer.capacity()));
+            buffers = new ByteBuffer[bufferCount];
+            buffers[0] = sendBuffer;
+            gatherBuffers = buffers;
+        }
+        return buffers;
+    }
+
+    private ByteBuffer nextGatherBuffer(ByteBuffer[] buffers, int index) {
+        ByteBuffer buffer = buffers[index];
+        if (buffer == null) {
+            // the buffers are in reading mode, just like the dst created by the handler
+            buffer = newByteBuffer(sendBuffer.capacity(), sendBuffer.isDirect());
+            upcast(buffer).flip();
+            buffers[index] = buffer;
+        }
+        return buffer;
+    }
+
+    private boolean flushPendingGathered() throws IOException {
+        gatherPending -= flushGathered(gatherBuffers, gatherPending, gatherPending);
+        return gatherPending == 0;
+    }
+
+    /**
+     * Writes the first count gather buffers to the socket. The completely
+     * written buffers, up to maxShift, are rotated to the end of the gather
+     * buffers so they can be reused.
+     *
+     * @return the number of buffers that got rotated.
+     */
+    private int flushGathered(ByteBuffer[] buffers, int count, int maxShift) throws IOException {
+        lastWriteTime = currentTimeMillis();
+        long written = socketChannel.write(buffers, 0, count);
+        bytesWritten.inc(written);
+        writeCount.inc();
+        if (count > 1) {
+            gatheringWriteCount.inc();
+        }
+
+        int shift = 0;
+        while (shift < maxShift && !buffers[shift].hasRemaining()) {
+            shift++;
+        }
+        rotateLeft(buffers, shift);
+        return shift;
+    }
+
+    private static void rotateLeft(Object[] array, int distance) {
+        if (distance == 0) {
+            return;
+        }
+        reverse(array, 0, distance);
+        reverse(array, distance, array.length);
+        reverse(array, 0, array.length);
+    }
+
+    private static void reverse(Object[] array, int from, int to) {
+        for (int left = from, right = to - 1; left < right; left++, right--) {
+            Object tmp = array[left];
+            array[left] = array[right];
+            array[right] = tmp;
+        }
+    }
+
     private void postProcessBlocked() throws IOException {
         // pipeline is blocked; no point in receiving OP_WRITE events.
         unregisterOp(OP_WRITE);
@@ -439,6 +596,7 @@ public final class NioOutboundPipeline
         lastWriteTime = currentTimeMillis();
         int written = socketChannel.write(sendBuffer);
         bytesWritten.inc(written);
+        writeCount.inc();
         //System.out.println(channel + " bytes written:" + written);
     }
 
@@ -451,6 +609,10 @@ public final class NioOutboundPipeline
         return bytesWritten.get();
     }
 
+    long gatheringWriteCount() {
+        return gatheringWriteCount.get();
+    }
+
     @Override
     protected void publishMetrics() {
         if (currentThread() != owner) {
@@ -24,6 +24,8 @@ import com.hazelcast.internal.networking.nio.iobalancer.IOBalancer;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
@@ -31,12 +33,14 @@ import java.nio.channels.SocketChannel;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_COMPLETED_MIGRATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_CPU_TIME_NANOS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_OPS_INTERESTED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_OPS_READY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Thread.currentThread;
 
@@ -46,6 +50,8 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
     protected static final int LOAD_BALANCING_BYTE = 1;
     protected static final int LOAD_BALANCING_FRAME = 2;
 
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
     // for the time being we configure using an int until we have decided which load strategy to use.
     protected final int loadType = Integer.getInteger("hazelcast.io.load", LOAD_BALANCING_BYTE);
 
@@ -73,6 +79,12 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
     private final SwCounter startedMigrations = newSwCounter();
     @Probe(name = NETWORKING_METRIC_NIO_PIPELINE_COMPLETED_MIGRATIONS, level = DEBUG)
     private final SwCounter completedMigrations = newSwCounter();
+    // the estimated CPU time spent in the NioPipeline.process() method by the owning NioThread(s).
+    @Probe(name = NETWORKING_METRIC_NIO_PIPELINE_CPU_TIME_NANOS, unit = NS, level = DEBUG)
+    private final SwCounter cpuTimeNanos = newSwCounter();
+    // only every n-th process call is measured, 0 disables measuring.
+    private final int cpuTimeSampleInterval;
+    private int cpuTimeSampleCountdown;
     private volatile NioThread newOwner;
 
     NioPipeline(NioChannel channel,
@@ -89,6 +101,8 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
         this.initialOps = initialOps;
         this.ioBalancer = ioBalancer;
         this.errorHandler = errorHandler;
+        this.cpuTimeSampleInterval = ioBalancer == null ? 0 : ioBalancer.cpuTimeSampleInterval();
+        this.cpuTimeSampleCountdown = cpuTimeSampleInterval;
     }
 
     public Channel getChannel() {
@@ -120,11 +134,16 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
         return owner;
     }
 
+    @Override
+    public long cpuTimeNanos() {
+        return cpuTimeNanos.get();
+    }
+
     void start() {
         owner.addTaskAndWakeup(() -> {
             try {
                 initSelectionKey();
-                process();
+                processAndSample();
             } catch (Throwable t) {
                 onError(t);
             }
@@ -165,6 +184,34 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
      */
     abstract void process() throws Exception;
 
+    /**
+     * Calls {@link #process()} and samples the CPU time it takes. To keep the
+     * overhead low, only every n-th call is measured and the measurement is
+     * extrapolated to the calls in between.
+     * <p>
+     * This method should only be called by the current {@link NioThread owner}.
+     *
+     * @throws Exception
+     * @see IOBalancer#cpuTimeSampleInterval()
+     */
+    final void processAndSample() throws Exception {
+        if (cpuTimeSampleInterval == 0 || --cpuTimeSampleCountdown > 0) {
+            process();
+            return;
+        }
+
+        cpuTimeSampleCountdown = cpuTimeSampleInterval;
+        long startCpuTimeNanos = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        try {
+            process();
+        } finally {
+            long elapsed = THREAD_MX_BEAN.getCurrentThreadCpuTime() - startCpuTimeNanos;
+            if (elapsed > 0) {
+                cpuTimeNanos.inc(elapsed * cpuTimeSampleInterval);
+            }
+        }
+    }
+
     /**
      * Adds a task to be executed on the {@link NioThread owner}.
      * <p>
@@ -227,7 +274,7 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
     public final void run() {
         if (owner == currentThread()) {
             try {
-                process();
+                processAndSample();
             } catch (Throwable t) {
                 onError(t);
             }
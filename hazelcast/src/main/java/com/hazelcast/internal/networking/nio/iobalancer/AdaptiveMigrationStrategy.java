@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio.iobalancer;
+
+import com.hazelcast.internal.networking.nio.MigratablePipeline;
+
+import java.util.Set;
+
+/**
+ * {@link MigrationStrategy} used by the adaptive {@link IOBalancer}. It is meant to
+ * be combined with a CPU aware {@link LoadTracker}, where the load of a pipeline
+ * reflects both the bytes it processed and the CPU time spent on it.
+ *
+ * To prevent pipelines from bouncing between NioThreads when the load fluctuates,
+ * it applies hysteresis:
+ * <ul>
+ * <li>an imbalance is entered when the ratio between the least busy and the busiest
+ * NioThread drops below {@link #ENTER_IMBALANCE_RATIO} and is only left again once
+ * the ratio reaches {@link #EXIT_IMBALANCE_RATIO}</li>
+ * <li>a migration is only triggered once the imbalance has been observed for
+ * {@link #MIN_IMBALANCED_ROUNDS} consecutive rounds</li>
+ * </ul>
+ * The pipeline to migrate is selected the same way as by the {@link LoadMigrationStrategy}.
+ */
+class AdaptiveMigrationStrategy implements MigrationStrategy {
+
+    /**
+     * An imbalance is entered when the least busy NioThread receives less load
+     * than (ENTER_IMBALANCE_RATIO * load received by the busiest NioThread).
+     */
+    static final double ENTER_IMBALANCE_RATIO = 0.7;
+
+    /**
+     * An entered imbalance is left once the least busy NioThread receives at least
+     * (EXIT_IMBALANCE_RATIO * load received by the busiest NioThread).
+     */
+    static final double EXIT_IMBALANCE_RATIO = 0.85;
+
+    /**
+     * The number of consecutive rounds an imbalance has to be observed before
+     * a migration is attempted.
+     */
+    static final int MIN_IMBALANCED_ROUNDS = 2;
+
+    /**
+     * You can use this property to tune a selection process for pipeline migration.
+     * The higher number is the more aggressive migration process is.
+     */
+    private static final double MAXIMUM_LOAD_AFTER_MIGRATION_COEFFICIENT = 0.9;
+
+    /**
+     * Checks if an imbalance was detected in the system for long enough
+     *
+     * @param imbalance
+     * @return <code>true</code> if the imbalance has been observed for at least
+     * {@link #MIN_IMBALANCED_ROUNDS} consecutive rounds and migration should be attempted
+     */
+    @Override
+    public boolean imbalanceDetected(LoadImbalance imbalance) {
+        long min = imbalance.minimumLoad;
+        long max = imbalance.maximumLoad;
+
+        if (min == Long.MIN_VALUE || max == Long.MAX_VALUE || imbalance.srcOwner == null) {
+            imbalance.imbalancedRounds = 0;
+            return false;
+        }
+
+        double ratio = imbalance.imbalancedRounds > 0 ? EXIT_IMBALANCE_RATIO : ENTER_IMBALANCE_RATIO;
+        long lowerBound = (long) (ratio * max);
+        if (min >= lowerBound) {
+            imbalance.imbalancedRounds = 0;
+            return false;
+        }
+
+        imbalance.imbalancedRounds++;
+        return imbalance.imbalancedRounds >= MIN_IMBALANCED_ROUNDS;
+    }
+
+    /**
+     * Attempt to find a pipeline to migrate to a new NioThread. When a pipeline
+     * is found, the imbalance has to be observed for {@link #MIN_IMBALANCED_ROUNDS}
+     * rounds again before a next migration is attempted, so the effect of
+     * the migration can be measured first.
+     *
+     * @param imbalance describing a snapshot of NioThread load
+     * @return the pipeline to migrate to a new NioThread or null if no
+     * pipeline needs to be migrated.
+     */
+    @Override
+    public MigratablePipeline findPipelineToMigrate(LoadImbalance imbalance) {
+        Set<? extends MigratablePipeline> candidates = imbalance.getPipelinesOwnedBy(imbalance.srcOwner);
+        long migrationThreshold = (long) ((imbalance.maximumLoad - imbalance.minimumLoad)
+                * MAXIMUM_LOAD_AFTER_MIGRATION_COEFFICIENT);
+        MigratablePipeline candidate = null;
+        long loadInSelectedPipeline = 0;
+        for (MigratablePipeline pipeline : candidates) {
+            long load = imbalance.getLoad(pipeline);
+            if (load > loadInSelectedPipeline && load < migrationThreshold) {
+                loadInSelectedPipeline = load;
+                candidate = pipeline;
+            }
+        }
+        if (candidate != null) {
+            imbalance.imbalancedRounds = 0;
+        }
+        return candidate;
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.nio.MigratablePipeline;
 import com.hazelcast.internal.networking.nio.NioInboundPipeline;
 import com.hazelcast.internal.networking.nio.NioOutboundPipeline;
+import com.hazelcast.internal.networking.nio.NioPipeline;
 import com.hazelcast.internal.networking.nio.NioThread;
 import com.hazelcast.internal.nio.ConnectionListener;
 import com.hazelcast.internal.server.ServerConnectionManager;
@@ -29,12 +30,17 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
 import com.hazelcast.spi.properties.ClusterProperty;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_IO_BALANCER_IMBALANCE_DETECTED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_IO_BALANCER_INPUT_IMBALANCE_PERCENT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_IO_BALANCER_MIGRATION_COMPLETED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_IO_BALANCER_OUTPUT_IMBALANCE_PERCENT;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
+import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_BALANCER_INTERVAL_SECONDS;
@@ -58,6 +64,10 @@ import static com.hazelcast.spi.properties.ClusterProperty.IO_THREAD_COUNT;
  *
  * Measuring interval can be customized via {@link ClusterProperty#IO_BALANCER_INTERVAL_SECONDS}
  *
+ * When the <code>hazelcast.io.balancer.adaptive</code> property is set, the load of a pipeline
+ * is derived from both the bytes it processed and the sampled CPU time its owner spent
+ * on it, and the {@link AdaptiveMigrationStrategy} is used to decide on migrations.
+ *
  * It doesn't leverage {@link ConnectionListener} capability
  * provided by {@link ServerConnectionManager} to observe connections
  * as it has to be notified right after a physical TCP connection is created whilst
@@ -66,9 +76,13 @@ import static com.hazelcast.spi.properties.ClusterProperty.IO_THREAD_COUNT;
  */
 public class IOBalancer {
     private static final String PROP_MONKEY_BALANCER = "hazelcast.io.balancer.monkey";
+    private static final String PROP_ADAPTIVE_BALANCER = "hazelcast.io.balancer.adaptive";
+    private static final String PROP_CPU_TIME_SAMPLE_INTERVAL = "hazelcast.io.balancer.cpu.sample.interval";
+    private static final int DEFAULT_CPU_TIME_SAMPLE_INTERVAL = 16;
     private final ILogger logger;
 
     private final int balancerIntervalSeconds;
+    private final int cpuTimeSampleInterval;
     private final MigrationStrategy strategy;
 
     private final LoadTracker inLoadTracker;
@@ -86,6 +100,12 @@ public class IOBalancer {
     @Probe(name = NETWORKING_METRIC_NIO_IO_BALANCER_MIGRATION_COMPLETED_COUNT, level = DEBUG)
     private final MwCounter migrationCompletedCount = newMwCounter();
 
+    // only IOBalancerThread will write to these fields.
+    @Probe(name = NETWORKING_METRIC_NIO_IO_BALANCER_INPUT_IMBALANCE_PERCENT, unit = PERCENT, level = DEBUG)
+    private volatile long inputImbalancePercent;
+    @Probe(name = NETWORKING_METRIC_NIO_IO_BALANCER_OUTPUT_IMBALANCE_PERCENT, unit = PERCENT, level = DEBUG)
+    private volatile long outputImbalancePercent;
+
     public IOBalancer(NioThread[] inputThreads,
                       NioThread[] outputThreads,
                       String hzName,
@@ -96,10 +116,13 @@ public class IOBalancer {
         this.strategy = createMigrationStrategy();
         this.hzName = hzName;
 
-        this.inLoadTracker = new LoadTracker(inputThreads, logger);
-        this.outLoadTracker = new LoadTracker(outputThreads, logger);
-
         this.enabled = isEnabled(inputThreads, outputThreads);
+        this.cpuTimeSampleInterval = enabled && strategy instanceof AdaptiveMigrationStrategy
+                ? createCpuTimeSampleInterval() : 0;
+
+        boolean cpuAware = cpuTimeSampleInterval > 0;
+        this.inLoadTracker = new LoadTracker(inputThreads, logger, cpuAware);
+        this.outLoadTracker = new LoadTracker(outputThreads, logger, cpuAware);
     }
 
     // just for testing
@@ -117,6 +140,24 @@ public class IOBalancer {
         return workQueue;
     }
 
+    /**
+     * Returns the interval at which the {@link NioPipeline}s sample the CPU time
+     * spent on processing them: only every n-th processing is measured.
+     *
+     * @return the sample interval or 0 if the CPU time should not be sampled
+     */
+    public int cpuTimeSampleInterval() {
+        return cpuTimeSampleInterval;
+    }
+
+    public long inputImbalancePercent() {
+        return inputImbalancePercent;
+    }
+
+    public long outputImbalancePercent() {
+        return outputImbalancePercent;
+    }
+
     public void channelAdded(MigratablePipeline inboundPipeline, MigratablePipeline outboundPipeline) {
         // if not enabled, then don't schedule tasks that will not get processed.
         // See https://github.com/hazelcast/hazelcast/issues/11501
@@ -147,11 +188,11 @@ public class IOBalancer {
     }
 
     void rebalance() {
-        scheduleMigrationIfNeeded(inLoadTracker);
-        scheduleMigrationIfNeeded(outLoadTracker);
+        inputImbalancePercent = scheduleMigrationIfNeeded(inLoadTracker);
+        outputImbalancePercent = scheduleMigrationIfNeeded(outLoadTracker);
     }
 
-    private void scheduleMigrationIfNeeded(LoadTracker loadTracker) {
+    private long scheduleMigrationIfNeeded(LoadTracker loadTracker) {
         LoadImbalance loadImbalance = loadTracker.updateImbalance();
         if (strategy.imbalanceDetected(loadImbalance)) {
             imbalanceDetectedCount.inc();
@@ -168,6 +209,7 @@ public class IOBalancer {
                 }
             }
         }
+        return loadImbalance.imbalancePercent();
     }
 
     private MigrationStrategy createMigrationStrategy() {
@@ -175,12 +217,25 @@ public class IOBalancer {
             logger.warning("Using Monkey IO Balancer Strategy. This is for stress tests only. Do not user in production! "
                     + "Disable by not setting the property '" + PROP_MONKEY_BALANCER + "' to true.");
             return new MonkeyMigrationStrategy();
+        } else if (Boolean.getBoolean(PROP_ADAPTIVE_BALANCER)) {
+            logger.finest("Using adaptive IO Balancer Strategy.");
+            return new AdaptiveMigrationStrategy();
         } else {
             logger.finest("Using normal IO Balancer Strategy.");
             return new LoadMigrationStrategy();
         }
     }
 
+    private int createCpuTimeSampleInterval() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!threadMXBean.isCurrentThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+            logger.warning("Thread CPU time measurement is not available, the adaptive I/O Balancer will only use "
+                    + "the processed bytes to determine the load of the pipelines.");
+            return 0;
+        }
+        return Math.max(Integer.getInteger(PROP_CPU_TIME_SAMPLE_INTERVAL, DEFAULT_CPU_TIME_SAMPLE_INTERVAL), 0);
+    }
+
     private boolean isEnabled(NioThread[] inputThreads, NioThread[] outputThreads) {
         if (balancerIntervalSeconds <= 0) {
             logger.warning("I/O Balancer is disabled as the '" + IO_BALANCER_INTERVAL_SECONDS + "' property is set to "
@@ -31,6 +31,8 @@ import java.util.Set;
  * {@link NioPipeline} should be migrated.
  */
 class LoadImbalance {
+    private static final int HUNDRED = 100;
+
     //load recorded by the busiest NioThread
     long maximumLoad;
     //load recorded by the least busy NioThread
@@ -39,6 +41,9 @@ class LoadImbalance {
     NioThread srcOwner;
     //least busy NioThread
     NioThread dstOwner;
+    //number of consecutive rounds an imbalance has been observed,
+    //maintained by strategies which apply hysteresis
+    int imbalancedRounds;
 
     private final Map<NioThread, Set<MigratablePipeline>> ownerToPipelines;
     private final ItemCounter<MigratablePipeline> pipelineLoadCounter;
@@ -64,4 +69,18 @@ class LoadImbalance {
     long getLoad(MigratablePipeline pipeline) {
         return pipelineLoadCounter.get(pipeline);
     }
+
+    /**
+     * @return the difference between the busiest and the least busy NioThread
+     * as a percentage of the load of the busiest one, or 0 when there is nothing
+     * to balance
+     */
+    long imbalancePercent() {
+        long min = minimumLoad;
+        long max = maximumLoad;
+        if (max <= 0 || min == Long.MAX_VALUE || min < 0) {
+            return 0;
+        }
+        return Math.max(max - min, 0) * HUNDRED / max;
+    }
 }
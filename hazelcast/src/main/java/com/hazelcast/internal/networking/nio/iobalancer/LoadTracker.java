@@ -31,12 +31,21 @@ import static com.hazelcast.internal.util.StringUtil.LINE_SEPARATOR;
 /**
  * Tracks the load of of NioThread(s) and creates a mapping between NioThread -> NioPipeline.
  * <p>
+ * When CPU aware, the load of a pipeline in an interval is the average of its share
+ * in the total {@link MigratablePipeline#load()} and its share in the total
+ * {@link MigratablePipeline#cpuTimeNanos()} of all pipelines, scaled to
+ * {@link #CPU_AWARE_LOAD_SCALE}. So a pipeline processing few large payloads
+ * and a pipeline processing many small ones can both be judged by their real cost.
+ * <p>
  * This class is not thread-safe with the exception of
  * {@link #addPipeline(MigratablePipeline)}   and
  * {@link #removePipeline(MigratablePipeline)}
  */
 class LoadTracker {
+    static final long CPU_AWARE_LOAD_SCALE = 1_000_000;
+
     private final ILogger logger;
+    private final boolean cpuAware;
 
     //all known IO ioThreads. we assume no. of ioThreads is constant during a lifespan of a member
     private final NioThread[] ioThreads;
@@ -50,13 +59,23 @@ class LoadTracker {
     //load per pipeline since last calculation
     private final ItemCounter<MigratablePipeline> pipelineLoadCount = new ItemCounter<MigratablePipeline>();
 
+    //cpu time per pipeline since an instance started, only used when cpu aware
+    private final ItemCounter<MigratablePipeline> lastCpuTimeCounter = new ItemCounter<MigratablePipeline>();
+    //cpu time per pipeline since last calculation, only used when cpu aware
+    private final ItemCounter<MigratablePipeline> pipelineCpuTimeCount = new ItemCounter<MigratablePipeline>();
+
     //contains all known pipelines
     private final Set<MigratablePipeline> pipelines = new HashSet<MigratablePipeline>();
 
     private final LoadImbalance imbalance;
 
     LoadTracker(NioThread[] ioThreads, ILogger logger) {
+        this(ioThreads, logger, false);
+    }
+
+    LoadTracker(NioThread[] ioThreads, ILogger logger, boolean cpuAware) {
         this.logger = logger;
+        this.cpuAware = cpuAware;
 
         this.ioThreads = new NioThread[ioThreads.length];
         System.arraycopy(ioThreads, 0, this.ioThreads, 0, ioThreads.length);
@@ -122,14 +141,49 @@ class LoadTracker {
     }
 
     private void updateNewWorkingImbalance() {
+        if (cpuAware) {
+            updateCpuAwarePipelineLoads();
+        }
         for (MigratablePipeline pipeline : pipelines) {
             updatePipelineState(pipeline);
         }
     }
 
+    private void updateCpuAwarePipelineLoads() {
+        long totalLoad = 0;
+        long totalCpuTime = 0;
+        for (MigratablePipeline pipeline : pipelines) {
+            long load = getLoadSinceLastCheck(pipeline);
+            long cpuTime = getCpuTimeSinceLastCheck(pipeline);
+            pipelineLoadCount.set(pipeline, load);
+            pipelineCpuTimeCount.set(pipeline, cpuTime);
+            totalLoad += load;
+            totalCpuTime += cpuTime;
+        }
+
+        for (MigratablePipeline pipeline : pipelines) {
+            long loadShare = share(pipelineLoadCount.get(pipeline), totalLoad);
+            if (totalCpuTime > 0) {
+                long cpuTimeShare = share(pipelineCpuTimeCount.get(pipeline), totalCpuTime);
+                pipelineLoadCount.set(pipeline, (loadShare + cpuTimeShare) / 2);
+            } else {
+                pipelineLoadCount.set(pipeline, loadShare);
+            }
+        }
+    }
+
+    private static long share(long value, long total) {
+        return total <= 0 ? 0 : Math.round((double) value * CPU_AWARE_LOAD_SCALE / total);
+    }
+
     private void updatePipelineState(MigratablePipeline pipeline) {
-        long pipelineLoad = getLoadSinceLastCheck(pipeline);
-        pipelineLoadCount.set(pipeline, pipelineLoad);
+        long pipelineLoad;
+        if (cpuAware) {
+            pipelineLoad = pipelineLoadCount.get(pipeline);
+        } else {
+            pipelineLoad = getLoadSinceLastCheck(pipeline);
+            pipelineLoadCount.set(pipeline, pipelineLoad);
+        }
         NioThread owner = pipeline.owner();
         if (owner == null) {
             // the pipeline is currently being migrated - owner is null
@@ -145,8 +199,15 @@ class LoadTracker {
         return load - lastLoad;
     }
 
+    private long getCpuTimeSinceLastCheck(MigratablePipeline pipeline) {
+        long cpuTime = pipeline.cpuTimeNanos();
+        long lastCpuTime = lastCpuTimeCounter.getAndSet(pipeline, cpuTime);
+        return cpuTime - lastCpuTime;
+    }
+
     private void clearWorkingImbalance() {
         pipelineLoadCount.reset();
+        pipelineCpuTimeCount.reset();
         ownerLoad.reset();
         for (Set<MigratablePipeline> pipelines : ownerToPipelines.values()) {
             pipelines.clear();
@@ -161,6 +222,8 @@ class LoadTracker {
         pipelines.remove(pipeline);
         pipelineLoadCount.remove(pipeline);
         lastLoadCounter.remove(pipeline);
+        pipelineCpuTimeCount.remove(pipeline);
+        lastCpuTimeCounter.remove(pipeline);
     }
 
     private void printDebugTable() {
@@ -73,4 +73,20 @@ public interface BufferObjectDataOutput extends ObjectDataOutput, Closeable,
     void position(int newPos);
 
     void clear();
+
+    /**
+     * Hands the written bytes over to the caller, the caller owns the returned
+     * array. Only the first {@link #position()} bytes of the array are valid,
+     * so the position must be read before calling this method.
+     * <p>
+     * If the buffer of this output has grown so large that {@link #clear()}
+     * would discard it anyway and only a small part of it is unused, the
+     * buffer itself is returned and replaced with a new one. This avoids
+     * copying large serialized values without making the caller retain a
+     * buffer much larger than the written bytes. Otherwise, a copy of the
+     * written bytes is returned, like {@link #toByteArray()}.
+     *
+     * @return an array holding the written bytes at its beginning.
+     */
+    byte[] handOverBuffer();
 }
@@ -20,6 +20,8 @@ import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.serialization.impl.HeapData;
 
+import java.util.Arrays;
+
 import static com.hazelcast.internal.nio.PacketIOHelper.HEADER_SIZE;
 
 /**
@@ -108,6 +110,9 @@ public final class Packet extends HeapData implements OutboundFrame {
     private char flags;
 
     private int partitionId;
+    // the number of valid bytes at the beginning of the payload, the payload
+    // may be longer if it's a buffer handed over by the serialization
+    private int payloadLength;
     private transient ServerConnection conn;
 
     public Packet() {
@@ -119,7 +124,19 @@ public final class Packet extends HeapData implements OutboundFrame {
     }
 
     public Packet(byte[] payload, int partitionId) {
+        this(payload, payload != null ? payload.length : 0, partitionId);
+    }
+
+    /**
+     * Creates a packet of the first {@code payloadLength} bytes of the given
+     * payload. It allows sending the buffer a value is serialized to without
+     * copying it, see {@link BufferObjectDataOutput#handOverBuffer()}.
+     */
+    public Packet(byte[] payload, int payloadLength, int partitionId) {
         super(payload);
+        assert payload == null ? payloadLength == 0 : payloadLength <= payload.length
+                : "Invalid payload length: " + payloadLength;
+        this.payloadLength = payloadLength;
         this.partitionId = partitionId;
         raiseFlags(FLAG_4_0);
     }
@@ -226,6 +243,28 @@ public final class Packet extends HeapData implements OutboundFrame {
         return (payload != null ? totalSize() : 0) + HEADER_SIZE;
     }
 
+    @Override
+    public int totalSize() {
+        return payload != null ? payloadLength : 0;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        if (payload != null && payload.length != payloadLength) {
+            // trim the handed over buffer once, the packet is used as a Data
+            payload = Arrays.copyOf(payload, payloadLength);
+        }
+        return payload;
+    }
+
+    /**
+     * @return the payload without trimming it, only the first {@link
+     * #totalSize()} bytes of it are valid.
+     */
+    byte[] payloadBuffer() {
+        return payload;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
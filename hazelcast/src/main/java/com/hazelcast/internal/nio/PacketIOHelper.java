@@ -94,7 +94,7 @@ public class PacketIOHelper {
                 done = false;
             }
 
-            byte[] byteArray = packet.toByteArray();
+            byte[] byteArray = packet.payloadBuffer();
             dst.put(byteArray, valueOffset, bytesWrite);
             valueOffset += bytesWrite;
 
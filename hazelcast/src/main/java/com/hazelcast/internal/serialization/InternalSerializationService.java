@@ -69,6 +69,27 @@ public interface InternalSerializationService extends SerializationService, Disp
      */
     byte[] toBytes(Object obj, int leftPadding, boolean insertPartitionHash);
 
+    /**
+     * Writes an object like {@link #toBytes(Object)} if {@code
+     * bigEndianTypeId} is {@code true} or like {@link #toBytes(Object, int,
+     * boolean)} otherwise, and hands the bytes over to the given factory.
+     * <p>
+     * Unlike the other methods, this one usually doesn't copy the serialized
+     * bytes of large objects: the output buffer they are written to is handed
+     * over to the factory as is, see {@link BufferObjectDataOutput#handOverBuffer()}.
+     * The factory is called after the output is returned to the pool.
+     *
+     * @param obj                 object to write
+     * @param leftPadding         offset from beginning of byte array to start writing the object's bytes
+     * @param insertPartitionHash {@code true} to include the partition hash in the byte array, otherwise {@code false}
+     * @param bigEndianTypeId     {@code true} to write the serializer type ID in {@link ByteOrder#BIG_ENDIAN},
+     *                            {@code false} to write it in the configured byte order
+     * @param factory             the factory to create the result of the serialized bytes
+     * @return the object created by the factory
+     */
+    <T> T toBytes(Object obj, int leftPadding, boolean insertPartitionHash, boolean bigEndianTypeId,
+                  SerializedBytesFactory<T> factory);
+
     <B extends Data> B toData(Object obj, DataType type);
 
     <B extends Data> B toData(Object obj, DataType type, PartitioningStrategy strategy);
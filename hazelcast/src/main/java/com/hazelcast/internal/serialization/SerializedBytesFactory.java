@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization;
+
+/**
+ * Creates an object, e.g. a packet, of the bytes an object is serialized
+ * to, see {@link InternalSerializationService#toBytes(Object, int, boolean,
+ * boolean, SerializedBytesFactory)}.
+ *
+ * @param <T> the type of the created object
+ */
+@FunctionalInterface
+public interface SerializedBytesFactory<T> {
+
+    /**
+     * @param bytes  the array holding the serialized bytes at its beginning,
+     *               owned by the factory from now on
+     * @param length the number of the serialized bytes, may be less than
+     *               the length of the array
+     * @return the created object
+     */
+    T create(byte[] bytes, int length);
+}
@@ -24,6 +24,7 @@ import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InputOutputFactory;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.SerializedBytesFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPool;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactoryImpl;
@@ -49,6 +50,7 @@ import com.hazelcast.nio.serialization.Serializer;
 import com.hazelcast.partition.PartitioningStrategy;
 
 import java.io.Externalizable;
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteOrder;
 import java.util.IdentityHashMap;
@@ -225,23 +227,52 @@ public abstract class AbstractSerializationService implements InternalSerializat
         BufferPool pool = bufferPoolThreadLocal.get();
         BufferObjectDataOutput out = pool.takeOutputBuffer();
         try {
-            out.position(leftPadding);
-
-            SerializerAdapter serializer = serializerFor(obj, includeSchema);
-            if (writeHash) {
-                int partitionHash = calculatePartitionHash(obj, strategy);
-                out.writeInt(partitionHash, BIG_ENDIAN);
-            }
+            writeBytes(out, obj, leftPadding, writeHash, strategy, serializerTypeIdByteOrder, includeSchema);
+            return out.toByteArray();
+        } catch (Throwable e) {
+            throw handleSerializeException(obj, e);
+        } finally {
+            pool.returnOutputBuffer(out);
+        }
+    }
 
-            out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+    @Override
+    public <T> T toBytes(Object obj, int leftPadding, boolean insertPartitionHash, boolean bigEndianTypeId,
+                         SerializedBytesFactory<T> factory) {
+        checkNotNull(obj);
+        checkNotNull(factory);
 
-            serializer.write(out, obj);
-            return out.toByteArray();
+        BufferPool pool = bufferPoolThreadLocal.get();
+        BufferObjectDataOutput out = pool.takeOutputBuffer();
+        byte[] bytes;
+        int length;
+        try {
+            writeBytes(out, obj, leftPadding, insertPartitionHash, globalPartitioningStrategy,
+                    bigEndianTypeId ? BIG_ENDIAN : getByteOrder(), false);
+            length = out.position();
+            bytes = out.handOverBuffer();
         } catch (Throwable e) {
             throw handleSerializeException(obj, e);
         } finally {
             pool.returnOutputBuffer(out);
         }
+        return factory.create(bytes, length);
+    }
+
+    private void writeBytes(BufferObjectDataOutput out, Object obj, int leftPadding, boolean writeHash,
+                            PartitioningStrategy strategy, ByteOrder serializerTypeIdByteOrder,
+                            boolean includeSchema) throws IOException {
+        out.position(leftPadding);
+
+        SerializerAdapter serializer = serializerFor(obj, includeSchema);
+        if (writeHash) {
+            int partitionHash = calculatePartitionHash(obj, strategy);
+            out.writeInt(partitionHash, BIG_ENDIAN);
+        }
+
+        out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+
+        serializer.write(out, obj);
     }
 
     @Override
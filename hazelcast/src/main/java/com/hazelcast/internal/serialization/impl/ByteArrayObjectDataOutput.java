@@ -38,6 +38,12 @@ import static com.hazelcast.version.Version.UNKNOWN;
 
 public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements BufferObjectDataOutput {
 
+    /**
+     * The buffer is handed over only if at most 1/2^N of it is unused, so
+     * the receiver doesn't retain much more memory than the written bytes.
+     */
+    private static final int HAND_OVER_MAX_UNUSED_SHIFT = 3;
+
     final int initialSize;
 
     final int firstGrowthSize;
@@ -456,6 +462,17 @@ public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput impleme
         return newBuffer;
     }
 
+    @Override
+    public byte[] handOverBuffer() {
+        if (buffer == null || buffer.length <= initialSize * 8
+                || buffer.length - pos > buffer.length >>> HAND_OVER_MAX_UNUSED_SHIFT) {
+            return toByteArray();
+        }
+        byte[] handedOver = buffer;
+        buffer = new byte[initialSize * 8];
+        return handedOver;
+    }
+
     @Override
     public void clear() {
         pos = 0;
@@ -68,7 +68,7 @@ public class HeapData implements Data {
     @Override
     public void copyTo(byte[] dest, int destPos) {
         if (totalSize() > 0) {
-            System.arraycopy(payload, 0, dest, destPos, payload.length);
+            System.arraycopy(payload, 0, dest, destPos, totalSize());
         }
     }
 
@@ -127,7 +127,7 @@ public class HeapData implements Data {
             return false;
         }
 
-        return dataSize == 0 || equals(this.payload, data.toByteArray());
+        return dataSize == 0 || equals(toByteArray(), data.toByteArray());
     }
 
     // Same as Arrays.equals(byte[] a, byte[] a2) but loop order is reversed.
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+
+/**
+ * Reads and writes an instance field of objects for the {@link
+ * ReflectiveCompactSerializer}.
+ * <p>
+ * When the memory accessor is available, the field is accessed directly
+ * through its offset, which avoids the access checks, the type checks and
+ * the boxing done by {@link Field} on each access. Otherwise, the field is
+ * accessed through reflection.
+ */
+abstract class FieldAccessor {
+
+    /**
+     * Creates an accessor for the given instance field, making it accessible
+     * if needed.
+     */
+    static FieldAccessor of(Field field) {
+        assert !Modifier.isStatic(field.getModifiers()) : "Static field: " + field;
+        field.setAccessible(true);
+        if (MEM_AVAILABLE) {
+            try {
+                return new OffsetFieldAccessor(field, MEM.objectFieldOffset(field));
+            } catch (UnsupportedOperationException e) {
+                // e.g. fields of hidden classes, fall back to reflection
+                ignore(e);
+            }
+        }
+        return new ReflectiveFieldAccessor(field);
+    }
+
+    abstract boolean getBoolean(Object o) throws IllegalAccessException;
+
+    abstract void setBoolean(Object o, boolean value) throws IllegalAccessException;
+
+    abstract byte getByte(Object o) throws IllegalAccessException;
+
+    abstract void setByte(Object o, byte value) throws IllegalAccessException;
+
+    abstract char getChar(Object o) throws IllegalAccessException;
+
+    abstract void setChar(Object o, char value) throws IllegalAccessException;
+
+    abstract short getShort(Object o) throws IllegalAccessException;
+
+    abstract void setShort(Object o, short value) throws IllegalAccessException;
+
+    abstract int getInt(Object o) throws IllegalAccessException;
+
+    abstract void setInt(Object o, int value) throws IllegalAccessException;
+
+    abstract long getLong(Object o) throws IllegalAccessException;
+
+    abstract void setLong(Object o, long value) throws IllegalAccessException;
+
+    abstract float getFloat(Object o) throws IllegalAccessException;
+
+    abstract void setFloat(Object o, float value) throws IllegalAccessException;
+
+    abstract double getDouble(Object o) throws IllegalAccessException;
+
+    abstract void setDouble(Object o, double value) throws IllegalAccessException;
+
+    abstract Object get(Object o) throws IllegalAccessException;
+
+    abstract void set(Object o, Object value) throws IllegalAccessException;
+
+    private static final class OffsetFieldAccessor extends FieldAccessor {
+
+        private final Field field;
+        private final long offset;
+
+        OffsetFieldAccessor(Field field, long offset) {
+            this.field = field;
+            this.offset = offset;
+        }
+
+        @Override
+        boolean getBoolean(Object o) {
+            return MEM.getBoolean(o, offset);
+        }
+
+        @Override
+        void setBoolean(Object o, boolean value) {
+            MEM.putBoolean(o, offset, value);
+        }
+
+        @Override
+        byte getByte(Object o) {
+            return MEM.getByte(o, offset);
+        }
+
+        @Override
+        void setByte(Object o, byte value) {
+            MEM.putByte(o, offset, value);
+        }
+
+        @Override
+        char getChar(Object o) {
+            return MEM.getChar(o, offset);
+        }
+
+        @Override
+        void setChar(Object o, char value) {
+            MEM.putChar(o, offset, value);
+        }
+
+        @Override
+        short getShort(Object o) {
+            return MEM.getShort(o, offset);
+        }
+
+        @Override
+        void setShort(Object o, short value) {
+            MEM.putShort(o, offset, value);
+        }
+
+        @Override
+        int getInt(Object o) {
+            return MEM.getInt(o, offset);
+        }
+
+        @Override
+        void setInt(Object o, int value) {
+            MEM.putInt(o, offset, value);
+        }
+
+        @Override
+        long getLong(Object o) {
+            return MEM.getLong(o, offset);
+        }
+
+        @Override
+        void setLong(Object o, long value) {
+            MEM.putLong(o, offset, value);
+        }
+
+        @Override
+        float getFloat(Object o) {
+            return MEM.getFloat(o, offset);
+        }
+
+        @Override
+        void setFloat(Object o, float value) {
+            MEM.putFloat(o, offset, value);
+        }
+
+        @Override
+        double getDouble(Object o) {
+            return MEM.getDouble(o, offset);
+        }
+
+        @Override
+        void setDouble(Object o, double value) {
+            MEM.putDouble(o, offset, value);
+        }
+
+        @Override
+        Object get(Object o) {
+            return MEM.getObject(o, offset);
+        }
+
+        @Override
+        void set(Object o, Object value) throws IllegalAccessException {
+            // a write through the offset skips the type check, so a value
+            // that the field can't hold directly, e.g. a boxed primitive or
+            // a value of a wrong type, goes through the reflective setter,
+            // which unboxes it or throws
+            Class<?> type = field.getType();
+            if (value == null ? type.isPrimitive() : !type.isInstance(value)) {
+                field.set(o, value);
+                return;
+            }
+            MEM.putObject(o, offset, value);
+        }
+    }
+
+    private static final class ReflectiveFieldAccessor extends FieldAccessor {
+
+        private final Field field;
+
+        ReflectiveFieldAccessor(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        boolean getBoolean(Object o) throws IllegalAccessException {
+            return field.getBoolean(o);
+        }
+
+        @Override
+        void setBoolean(Object o, boolean value) throws IllegalAccessException {
+            field.setBoolean(o, value);
+        }
+
+        @Override
+        byte getByte(Object o) throws IllegalAccessException {
+            return field.getByte(o);
+        }
+
+        @Override
+        void setByte(Object o, byte value) throws IllegalAccessException {
+            field.setByte(o, value);
+        }
+
+        @Override
+        char getChar(Object o) throws IllegalAccessException {
+            return field.getChar(o);
+        }
+
+        @Override
+        void setChar(Object o, char value) throws IllegalAccessException {
+            field.setChar(o, value);
+        }
+
+        @Override
+        short getShort(Object o) throws IllegalAccessException {
+            return field.getShort(o);
+        }
+
+        @Override
+        void setShort(Object o, short value) throws IllegalAccessException {
+            field.setShort(o, value);
+        }
+
+        @Override
+        int getInt(Object o) throws IllegalAccessException {
+            return field.getInt(o);
+        }
+
+        @Override
+        void setInt(Object o, int value) throws IllegalAccessException {
+            field.setInt(o, value);
+        }
+
+        @Override
+        long getLong(Object o) throws IllegalAccessException {
+            return field.getLong(o);
+        }
+
+        @Override
+        void setLong(Object o, long value) throws IllegalAccessException {
+            field.setLong(o, value);
+        }
+
+        @Override
+        float getFloat(Object o) throws IllegalAccessException {
+            return field.getFloat(o);
+        }
+
+        @Override
+        void setFloat(Object o, float value) throws IllegalAccessException {
+            field.setFloat(o, value);
+        }
+
+        @Override
+        double getDouble(Object o) throws IllegalAccessException {
+            return field.getDouble(o);
+        }
+
+        @Override
+        void setDouble(Object o, double value) throws IllegalAccessException {
+            field.setDouble(o, value);
+        }
+
+        @Override
+        Object get(Object o) throws IllegalAccessException {
+            return field.get(o);
+        }
+
+        @Override
+        void set(Object o, Object value) throws IllegalAccessException {
+            field.set(o, value);
+        }
+    }
+}
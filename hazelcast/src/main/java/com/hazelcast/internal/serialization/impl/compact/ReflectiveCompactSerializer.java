@@ -26,6 +26,7 @@ import com.hazelcast.nio.serialization.compact.CompactWriter;
 import javax.annotation.Nonnull;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -63,10 +64,14 @@ import static java.util.stream.Collectors.toList;
  * For any other class as the field type, it will work recursively and try to de/serialize a sub-class.
  * Thus, if any sub-fields does not have an accessible empty constructor, deserialization fails with
  * HazelcastSerializationException.
+ * <p>
+ * The reader-writers of the fields are created once per class. Fields are
+ * accessed through their offsets when possible, see {@link FieldAccessor},
+ * and the fields to read are resolved once per schema the class is read with.
  */
 public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
 
-    private final Map<Class, ReaderWriter[]> readerWritersCache = new ConcurrentHashMap<>();
+    private final Map<Class, ClassReaderWriters> readerWritersCache = new ConcurrentHashMap<>();
     private final CompactStreamSerializer compactStreamSerializer;
 
     public ReflectiveCompactSerializer(CompactStreamSerializer compactStreamSerializer) {
@@ -96,11 +101,11 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
     }
 
     private boolean writeFast(Class clazz, CompactWriter compactWriter, Object object) {
-        ReaderWriter[] readerWriters = readerWritersCache.get(clazz);
-        if (readerWriters == null) {
+        ClassReaderWriters classReaderWriters = readerWritersCache.get(clazz);
+        if (classReaderWriters == null) {
             return false;
         }
-        for (ReaderWriter readerWriter : readerWriters) {
+        for (ReaderWriter readerWriter : classReaderWriters.readerWriters) {
             try {
                 readerWriter.write(compactWriter, object);
             } catch (Exception e) {
@@ -111,13 +116,13 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
     }
 
     private boolean readFast(Class clazz, DefaultCompactReader compactReader, Object object) {
-        ReaderWriter[] readerWriters = readerWritersCache.get(clazz);
-        if (readerWriters == null) {
+        ClassReaderWriters classReaderWriters = readerWritersCache.get(clazz);
+        if (classReaderWriters == null) {
             return false;
         }
 
         Schema schema = compactReader.getSchema();
-        for (ReaderWriter readerWriter : readerWriters) {
+        for (ReaderWriter readerWriter : classReaderWriters.readersFor(schema)) {
             try {
                 readerWriter.read(compactReader, schema, object);
             } catch (Exception e) {
@@ -175,7 +180,7 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
 
         int index = 0;
         for (Field field : allFields) {
-            field.setAccessible(true);
+            FieldAccessor accessor = FieldAccessor.of(field);
             Class<?> type = field.getType();
             String name = field.getName();
 
@@ -183,114 +188,138 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
             // Use normal reader-writers for the primitive types to avoid boxing-unboxing
             if (Byte.TYPE.equals(type)) {
                 readerWriters[index] = new ReaderWriter() {
+                    @Override
+                    public boolean isReadable(Schema schema) {
+                        return isFieldExist(schema, name, INT8, NULLABLE_INT8);
+                    }
+
                     @Override
                     public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-                        if (isFieldExist(schema, name, INT8, NULLABLE_INT8)) {
-                            field.setByte(o, reader.readInt8(name));
-                        }
+                        accessor.setByte(o, reader.readInt8(name));
                     }
 
                     @Override
                     public void write(CompactWriter writer, Object o) throws Exception {
-                        writer.writeInt8(name, field.getByte(o));
+                        writer.writeInt8(name, accessor.getByte(o));
                     }
                 };
             } else if (Character.TYPE.equals(type)) {
                 readerWriters[index] = new ReaderWriter() {
+                    @Override
+                    public boolean isReadable(Schema schema) {
+                        return isFieldExist(schema, name, INT16, NULLABLE_INT16);
+                    }
+
                     @Override
                     public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-                        if (isFieldExist(schema, name, INT16, NULLABLE_INT16)) {
-                            field.setChar(o, (char) reader.readInt16(name));
-                        }
+                        accessor.setChar(o, (char) reader.readInt16(name));
                     }
 
                     @Override
                     public void write(CompactWriter writer, Object o) throws Exception {
-                        writer.writeInt16(name, (short) field.getChar(o));
+                        writer.writeInt16(name, (short) accessor.getChar(o));
                     }
                 };
             } else if (Short.TYPE.equals(type)) {
                 readerWriters[index] = new ReaderWriter() {
+                    @Override
+                    public boolean isReadable(Schema schema) {
+                        return isFieldExist(schema, name, INT16, NULLABLE_INT16);
+                    }
+
                     @Override
                     public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-                        if (isFieldExist(schema, name, INT16, NULLABLE_INT16)) {
-                            field.setShort(o, reader.readInt16(name));
-                        }
+                        accessor.setShort(o, reader.readInt16(name));
                     }
 
                     @Override
                     public void write(CompactWriter writer, Object o) throws Exception {
-                        writer.writeInt16(name, field.getShort(o));
+                        writer.writeInt16(name, accessor.getShort(o));
                     }
                 };
             } else if (Integer.TYPE.equals(type)) {
                 readerWriters[index] = new ReaderWriter() {
+                    @Override
+                    public boolean isReadable(Schema schema) {
+                        return isFieldExist(schema, name, INT32, NULLABLE_INT32);
+                    }
+
                     @Override
                     public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-                        if (isFieldExist(schema, name, INT32, NULLABLE_INT32)) {
-                            field.setInt(o, reader.readInt32(name));
-                        }
+                        accessor.setInt(o, reader.readInt32(name));
                     }
 
                     @Override
                     public void write(CompactWriter writer, Object o) throws Exception {
-                        writer.writeInt32(name, field.getInt(o));
+                        writer.writeInt32(name, accessor.getInt(o));
                     }
                 };
             } else if (Long.TYPE.equals(type)) {
                 readerWriters[index] = new ReaderWriter() {
+                    @Override
+                    public boolean isReadable(Schema schema) {
+                        return isFieldExist(schema, name, INT64, NULLABLE_INT64);
+                    }
+
                     @Override
                     public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-                        if (isFieldExist(schema, name, INT64, NULLABLE_INT64)) {
-                            field.setLong(o, reader.readInt64(name));
-                        }
+                        accessor.setLong(o, reader.readInt64(name));
                     }
 
                     @Override
                     public void write(CompactWriter writer, Object o) throws Exception {
-                        writer.writeInt64(name, field.getLong(o));
+                        writer.writeInt64(name, accessor.getLong(o));
                     }
                 };
             } else if (Float.TYPE.equals(type)) {
                 readerWriters[index] = new ReaderWriter() {
+                    @Override
+                    public boolean isReadable(Schema schema) {
+                        return isFieldExist(schema, name, FLOAT32, NULLABLE_FLOAT32);
+                    }
+
                     @Override
                     public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-                        if (isFieldExist(schema, name, FLOAT32, NULLABLE_FLOAT32)) {
-                            field.setFloat(o, reader.readFloat32(name));
-                        }
+                        accessor.setFloat(o, reader.readFloat32(name));
                     }
 
                     @Override
                     public void write(CompactWriter writer, Object o) throws Exception {
-                        writer.writeFloat32(name, field.getFloat(o));
+                        writer.writeFloat32(name, accessor.getFloat(o));
                     }
                 };
             } else if (Double.TYPE.equals(type)) {
                 readerWriters[index] = new ReaderWriter() {
+                    @Override
+                    public boolean isReadable(Schema schema) {
+                        return isFieldExist(schema, name, FLOAT64, NULLABLE_FLOAT64);
+                    }
+
                     @Override
                     public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-                        if (isFieldExist(schema, name, FLOAT64, NULLABLE_FLOAT64)) {
-                            field.setDouble(o, reader.readFloat64(name));
-                        }
+                        accessor.setDouble(o, reader.readFloat64(name));
                     }
 
                     @Override
                     public void write(CompactWriter writer, Object o) throws Exception {
-                        writer.writeFloat64(name, field.getDouble(o));
+                        writer.writeFloat64(name, accessor.getDouble(o));
                     }
                 };
             } else if (Boolean.TYPE.equals(type)) {
                 readerWriters[index] = new ReaderWriter() {
+                    @Override
+                    public boolean isReadable(Schema schema) {
+                        return isFieldExist(schema, name, BOOLEAN, NULLABLE_BOOLEAN);
+                    }
+
                     @Override
                     public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-                        if (isFieldExist(schema, name, BOOLEAN, NULLABLE_BOOLEAN)) {
-                            field.setBoolean(o, reader.readBoolean(name));
-                        }
+                        accessor.setBoolean(o, reader.readBoolean(name));
                     }
 
                     @Override
                     public void write(CompactWriter writer, Object o) throws Exception {
-                        writer.writeBoolean(name, field.getBoolean(o));
+                        writer.writeBoolean(name, accessor.getBoolean(o));
                     }
                 };
             } else {
@@ -298,39 +327,92 @@ public class ReflectiveCompactSerializer<T> implements CompactSerializer<T> {
                 readerWriters[index] = new ReaderWriterAdapter(
                         ValueReaderWriters.readerWriterFor(compactStreamSerializer, clazz, type,
                                 field.getGenericType(), name),
-                        field
+                        accessor
                 );
             }
 
             index++;
         }
 
-        readerWritersCache.put(clazz, readerWriters);
+        readerWritersCache.put(clazz, new ClassReaderWriters(readerWriters));
+    }
+
+    /**
+     * The reader-writers of all the fields of a class, along with the readers
+     * of the fields present in the last schema the class is read with.
+     */
+    private static final class ClassReaderWriters {
+
+        private final ReaderWriter[] readerWriters;
+        private volatile SchemaReaders lastSchemaReaders;
+
+        ClassReaderWriters(ReaderWriter[] readerWriters) {
+            this.readerWriters = readerWriters;
+        }
+
+        ReaderWriter[] readersFor(Schema schema) {
+            SchemaReaders schemaReaders = lastSchemaReaders;
+            if (schemaReaders == null || schemaReaders.schemaId != schema.getSchemaId()) {
+                // the readers are resolved once per schema instead of looking up
+                // each field in the schema on every read
+                List<ReaderWriter> readers = new ArrayList<>(readerWriters.length);
+                for (ReaderWriter readerWriter : readerWriters) {
+                    if (readerWriter.isReadable(schema)) {
+                        readers.add(readerWriter);
+                    }
+                }
+                schemaReaders = new SchemaReaders(schema.getSchemaId(), readers.toArray(new ReaderWriter[0]));
+                lastSchemaReaders = schemaReaders;
+            }
+            return schemaReaders.readers;
+        }
+    }
+
+    private static final class SchemaReaders {
+
+        private final long schemaId;
+        private final ReaderWriter[] readers;
+
+        SchemaReaders(long schemaId, ReaderWriter[] readers) {
+            this.schemaId = schemaId;
+            this.readers = readers;
+        }
     }
 
     private static final class ReaderWriterAdapter implements ReaderWriter {
 
         private final ValueReaderWriter readerWriter;
-        private final Field field;
+        private final FieldAccessor accessor;
 
-
-        ReaderWriterAdapter(ValueReaderWriter readerWriter, Field field) {
+        ReaderWriterAdapter(ValueReaderWriter readerWriter, FieldAccessor accessor) {
             this.readerWriter = readerWriter;
-            this.field = field;
+            this.accessor = accessor;
+        }
+
+        @Override
+        public boolean isReadable(Schema schema) {
+            // value reader-writers check the schema themselves and read the
+            // default value of the type if the field is missing
+            return true;
         }
 
         @Override
         public void read(CompactReader reader, Schema schema, Object o) throws Exception {
-            field.set(o, readerWriter.read(reader, schema));
+            accessor.set(o, readerWriter.read(reader, schema));
         }
 
         @Override
         public void write(CompactWriter writer, Object o) throws Exception {
-            readerWriter.write(writer, field.get(o));
+            readerWriter.write(writer, accessor.get(o));
         }
     }
 
     private interface ReaderWriter {
+        /**
+         * @return {@code true} if the field should be read from data of the given schema
+         */
+        boolean isReadable(Schema schema);
+
         void read(CompactReader reader, Schema schema, Object o) throws Exception;
 
         void write(CompactWriter writer, Object o) throws Exception;
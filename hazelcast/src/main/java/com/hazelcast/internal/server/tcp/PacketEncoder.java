@@ -51,6 +51,11 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
         initDstBuffer();
     }
 
+    @Override
+    public boolean isDstReplaceable() {
+        return true;
+    }
+
     @Override
     public HandlerStatus onWrite() {
         compactOrClear(dst);
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.tpc;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.LatencyDistribution;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TPC_METRIC_CLIENT_ROUTING_HOP_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TPC_METRIC_CLIENT_ROUTING_INLINE_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TPC_METRIC_CLIENT_ROUTING_INLINE_LATENCY_AVG_MICROS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TPC_METRIC_CLIENT_ROUTING_INLINE_LATENCY_MAX_MICROS;
+import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.metrics.ProbeUnit.US;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Metrics for the routing of partition bound client messages received on a
+ * TPC reactor.
+ * <p>
+ * A message that is received on the reactor owning its partition is executed
+ * inline and the time spent is recorded in the {@link #inlineLatency()}
+ * distribution. A message received on any other reactor is handed over to
+ * the owning partition thread, which costs a thread hop. A high hop count
+ * means clients don't route their messages to the owning reactor.
+ */
+public final class TpcClientRoutingMetrics {
+
+    @Probe(name = TPC_METRIC_CLIENT_ROUTING_INLINE_COUNT, level = MANDATORY)
+    private final MwCounter inlineCount = newMwCounter();
+
+    @Probe(name = TPC_METRIC_CLIENT_ROUTING_HOP_COUNT, level = MANDATORY)
+    private final MwCounter hopCount = newMwCounter();
+
+    private final LatencyDistribution inlineLatency = new LatencyDistribution();
+
+    /**
+     * Records a message that was executed inline on the owning reactor.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the execution started
+     */
+    public void inline(long startNanos) {
+        inlineCount.inc();
+        inlineLatency.done(startNanos);
+    }
+
+    /**
+     * Records a message that was handed over to another thread.
+     */
+    public void hop() {
+        hopCount.inc();
+    }
+
+    public long inlineCount() {
+        return inlineCount.get();
+    }
+
+    public long hopCount() {
+        return hopCount.get();
+    }
+
+    public LatencyDistribution inlineLatency() {
+        return inlineLatency;
+    }
+
+    @Probe(name = TPC_METRIC_CLIENT_ROUTING_INLINE_LATENCY_AVG_MICROS, unit = US)
+    private long inlineLatencyAvgMicros() {
+        return inlineLatency.avgMicros();
+    }
+
+    @Probe(name = TPC_METRIC_CLIENT_ROUTING_INLINE_LATENCY_MAX_MICROS, unit = US)
+    private long inlineLatencyMaxMicros() {
+        return inlineLatency.maxMicros();
+    }
+}
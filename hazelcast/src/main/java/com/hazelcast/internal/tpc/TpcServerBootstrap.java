@@ -53,6 +53,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TPC_PREFIX_CLIENT_ROUTING;
 import static com.hazelcast.internal.server.ServerContext.KILO_BYTE;
 import static com.hazelcast.internal.tpcengine.net.AsyncSocketOptions.SO_KEEPALIVE;
 import static com.hazelcast.internal.tpcengine.net.AsyncSocketOptions.SO_RCVBUF;
@@ -95,6 +96,7 @@ public class TpcServerBootstrap {
     private final Map<Reactor, Supplier<? extends AsyncSocketReader>> readHandlerSuppliers = new HashMap<>();
     private final List<AsyncServerSocket> serverSockets = new ArrayList<>();
     private final Config config;
+    private final TpcClientRoutingMetrics clientRoutingMetrics = new TpcClientRoutingMetrics();
     private volatile List<Integer> clientPorts;
 
     public TpcServerBootstrap(NodeEngineImpl nodeEngine) {
@@ -129,6 +131,10 @@ public class TpcServerBootstrap {
         return clientPorts;
     }
 
+    public TpcClientRoutingMetrics getClientRoutingMetrics() {
+        return clientRoutingMetrics;
+    }
+
     private TpcEngine newTpcEngine() {
         TpcEngineBuilder tpcEngineBuilder = new TpcEngineBuilder();
         NioReactorBuilder reactorBuilder = new NioReactorBuilder();
@@ -171,6 +177,7 @@ public class TpcServerBootstrap {
             return;
         }
         logger.info("Starting TpcServerBootstrap");
+        nodeEngine.getMetricsRegistry().registerStaticMetrics(clientRoutingMetrics, TPC_PREFIX_CLIENT_ROUTING);
 
         this.tpcEngine = newTpcEngine();
 
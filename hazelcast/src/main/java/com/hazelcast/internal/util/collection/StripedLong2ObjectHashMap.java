@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.QuickMath.log2;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * Concurrent map specialised for {@code long} keys which are handed out by
+ * a sequence, such as the call IDs of the invocations. The keys are spread
+ * over a power-of-two number of stripes by their lowest bits and the rest
+ * of the key is used as the slot index in the open-addressed table of the
+ * stripe, so the keys which are alive at the same time map to neighbouring
+ * slots and rarely need to be probed for.
+ * <p>
+ * Lookups and iteration are lock-free, updates are serialized per stripe.
+ * Neither the keys nor the entries are boxed. Removed entries leave a
+ * tombstone behind, which is cleaned up as soon as it ends a probe chain,
+ * or when the table of the stripe is rehashed.
+ * <p>
+ * The iterator is weakly consistent, like the iterators of the {@link
+ * java.util.concurrent.ConcurrentHashMap}: it never throws {@link
+ * java.util.ConcurrentModificationException} and it may or may not reflect
+ * the updates made after it was created.
+ *
+ * @param <V> type of the values
+ */
+public final class StripedLong2ObjectHashMap<V> implements Iterable<V> {
+
+    static final float LOAD_FACTOR = 0.5f;
+
+    private static final int MIN_STRIPE_CAPACITY = 16;
+    private static final Object TOMBSTONE = new Object();
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * @param stripeCount     the number of the stripes, rounded up to the
+     *                        next power of two
+     * @param initialCapacity the expected number of entries
+     */
+    public StripedLong2ObjectHashMap(int stripeCount, int initialCapacity) {
+        checkPositive("stripeCount", stripeCount);
+        int stripeCountPow2 = nextPowerOfTwo(stripeCount);
+        int stripeCapacity = nextPowerOfTwo(Math.max(MIN_STRIPE_CAPACITY,
+                (int) (initialCapacity / LOAD_FACTOR / stripeCountPow2)));
+
+        this.stripes = new Stripe[stripeCountPow2];
+        for (int i = 0; i < stripeCountPow2; i++) {
+            stripes[i] = new Stripe(stripeCapacity, log2(stripeCountPow2));
+        }
+        this.stripeMask = stripeCountPow2 - 1;
+    }
+
+    /**
+     * Returns the value mapped to the given key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if there is no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Stripe stripe = stripeOf(key);
+        Table table = stripe.table;
+        int mask = table.mask;
+        for (int slot = stripe.slotOf(key, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            Object value = table.values.get(slot);
+            if (value == null) {
+                return null;
+            }
+            // the value is read again after the key: the key of a slot is
+            // only replaced while the slot holds no value
+            if (value != TOMBSTONE && table.keys.get(slot) == key && table.values.get(slot) == value) {
+                return (V) value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps the given key to the given value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the value previously mapped to the key, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkNotNull(value, "value can't be null");
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            return (V) stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Removes the mapping of the given key.
+     *
+     * @param key the key
+     * @return the value previously mapped to the key, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        Stripe stripe = stripeOf(key);
+        synchronized (stripe) {
+            return (V) stripe.remove(key);
+        }
+    }
+
+    /**
+     * Returns the number of the mappings. The result is an estimate while
+     * the map is being updated concurrently.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (Stripe stripe : stripes) {
+            if (stripe.size > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the values. The iterator
+     * doesn't support {@link Iterator#remove()}.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new ValueIterator();
+    }
+
+    private Stripe stripeOf(long key) {
+        return stripes[(int) key & stripeMask];
+    }
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicReferenceArray<Object> values;
+        final int mask;
+        final int resizeThreshold;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+        }
+    }
+
+    private static final class Stripe {
+        // the bits of the key which select the stripe
+        final int keyShift;
+        volatile Table table;
+        // written only while holding the lock of the stripe
+        volatile int size;
+        int tombstones;
+
+        Stripe(int capacity, int keyShift) {
+            this.keyShift = keyShift;
+            this.table = new Table(capacity);
+        }
+
+        int slotOf(long key, int mask) {
+            return (int) (key >>> keyShift) & mask;
+        }
+
+        Object put(long key, Object value) {
+            Table table = this.table;
+            int mask = table.mask;
+            int freeSlot = -1;
+            for (int slot = slotOf(key, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                Object current = table.values.get(slot);
+                if (current == null) {
+                    if (freeSlot == -1) {
+                        freeSlot = slot;
+                    }
+                    break;
+                } else if (current == TOMBSTONE) {
+                    if (freeSlot == -1) {
+                        freeSlot = slot;
+                    }
+                } else if (table.keys.get(slot) == key) {
+                    table.values.set(slot, value);
+                    return current;
+                }
+            }
+
+            // the threshold keeps free slots in the table, so freeSlot is found
+            if (table.values.get(freeSlot) == TOMBSTONE) {
+                tombstones--;
+            }
+            table.keys.set(freeSlot, key);
+            table.values.set(freeSlot, value);
+            size++;
+            if (size + tombstones > table.resizeThreshold) {
+                rehash(table);
+            }
+            return null;
+        }
+
+        Object remove(long key) {
+            Table table = this.table;
+            int mask = table.mask;
+            for (int slot = slotOf(key, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                Object current = table.values.get(slot);
+                if (current == null) {
+                    return null;
+                } else if (current != TOMBSTONE && table.keys.get(slot) == key) {
+                    table.values.set(slot, TOMBSTONE);
+                    size--;
+                    tombstones++;
+                    if (table.values.get((slot + 1) & mask) == null) {
+                        cleanUpTombstones(table, slot);
+                    }
+                    return current;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Frees the tombstones ending at the given slot, which precedes a
+         * free slot, so no probe chain passes through them.
+         */
+        private void cleanUpTombstones(Table table, int lastSlot) {
+            for (int slot = lastSlot; table.values.get(slot) == TOMBSTONE; slot = (slot - 1) & table.mask) {
+                table.values.set(slot, null);
+                tombstones--;
+            }
+        }
+
+        /**
+         * Copies the entries to a new table, which is twice as large if the
+         * entries alone fill most of the current one. The current table isn't
+         * modified afterwards, so the concurrent readers still see the entries.
+         */
+        private void rehash(Table table) {
+            int capacity = table.mask + 1;
+            Table newTable = new Table(size > table.resizeThreshold / 2 ? capacity << 1 : capacity);
+            int newMask = newTable.mask;
+            for (int slot = 0; slot < capacity; slot++) {
+                Object value = table.values.get(slot);
+                if (value == null || value == TOMBSTONE) {
+                    continue;
+                }
+                long key = table.keys.get(slot);
+                int newSlot = slotOf(key, newMask);
+                while (newTable.values.get(newSlot) != null) {
+                    newSlot = (newSlot + 1) & newMask;
+                }
+                newTable.keys.set(newSlot, key);
+                newTable.values.set(newSlot, value);
+            }
+            tombstones = 0;
+            this.table = newTable;
+        }
+    }
+
+    private final class ValueIterator implements Iterator<V> {
+        private int stripeIndex;
+        private Table table = stripes[0].table;
+        private int slot;
+        private Object next;
+
+        ValueIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            Object current = next;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return (V) current;
+        }
+
+        private void advance() {
+            for (;;) {
+                while (slot <= table.mask) {
+                    Object value = table.values.get(slot++);
+                    if (value != null && value != TOMBSTONE) {
+                        next = value;
+                        return;
+                    }
+                }
+                if (++stripeIndex == stripes.length) {
+                    next = null;
+                    return;
+                }
+                table = stripes[stripeIndex].table;
+                slot = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Idling strategy that spins, then {@link Thread#yield() yields} and then
+ * parks on an exponential backoff like {@link BackoffIdleStrategy}, but adapts
+ * the number of spins to the observed idle periods.
+ * <p>
+ * If the previous idle period ended before parking, the work arrived soon
+ * enough for spinning to pay off and the spin limit is doubled, up to {@code
+ * maxSpins}. If the thread had to park, the spin limit is halved, so that
+ * a thread that is mostly idle doesn't waste CPU time.
+ * <p>
+ * The strategy is stateful, each thread must use its own instance.
+ */
+public class AdaptiveIdleStrategy implements IdleStrategy {
+
+    static final int MAX_YIELDS = 16;
+
+    private final long maxSpins;
+    private final BackoffIdleStrategy parker;
+
+    private long spinLimit;
+    private long lastIdleCount;
+
+    /**
+     * @param maxSpins        the upper bound of the spin limit
+     * @param minParkPeriodNs to use when initiating parking
+     * @param maxParkPeriodNs to use when parking
+     */
+    public AdaptiveIdleStrategy(long maxSpins, long minParkPeriodNs, long maxParkPeriodNs) {
+        this(maxSpins, new BackoffIdleStrategy(0, 0, minParkPeriodNs, maxParkPeriodNs));
+    }
+
+    /**
+     * @param maxSpins the upper bound of the spin limit
+     * @param parker   the strategy to park with, it must neither spin nor
+     *                 yield. It can be shared, since {@link
+     *                 BackoffIdleStrategy} is stateless.
+     */
+    public AdaptiveIdleStrategy(long maxSpins, BackoffIdleStrategy parker) {
+        checkNotNegative(maxSpins, "maxSpins must be positive or zero");
+        assert parker.parkThreshold == 0 : "the parker must neither spin nor yield";
+        this.maxSpins = maxSpins;
+        this.parker = parker;
+        this.spinLimit = maxSpins;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean idle(long n) {
+        if (n <= 1) {
+            adapt();
+        }
+        lastIdleCount = n;
+        if (n <= spinLimit) {
+            Thread.onSpinWait();
+            return false;
+        }
+        if (n <= spinLimit + MAX_YIELDS) {
+            Thread.yield();
+            return false;
+        }
+        return parker.idle(n - spinLimit - MAX_YIELDS);
+    }
+
+    private void adapt() {
+        if (lastIdleCount == 0) {
+            return;
+        }
+        spinLimit = lastIdleCount <= spinLimit + MAX_YIELDS
+                ? min(maxSpins, 2 * spinLimit + 1)
+                : max(0, spinLimit / 2);
+    }
+
+    long spinLimit() {
+        return spinLimit;
+    }
+}
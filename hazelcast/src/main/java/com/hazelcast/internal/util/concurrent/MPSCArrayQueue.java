@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * Multi producer single consumer queue backed by a {@link ManyToOneConcurrentArrayQueue}, so
+ * offering an item doesn't allocate a node like the {@link MPSCQueue} does. Like the {@link MPSCQueue},
+ * this queue has a configurable {@link IdleStrategy} so if there is nothing to take, the thread can
+ * idle and eventually can do the more expensive blocking.
+ * <p>
+ * The queue is unbounded: the items which don't fit in the array are put in an overflow queue. Once
+ * an item has overflowed, all items are put in the overflow queue until the consumer has taken the
+ * overflowed items, so the order of the items offered by the same thread is preserved.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public final class MPSCArrayQueue<E> extends AbstractQueue<E> implements MPSCBlockingQueue<E> {
+
+    private final ManyToOneConcurrentArrayQueue<E> array;
+    private final Queue<E> overflow = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger overflowSize = new AtomicInteger();
+    private final IdleStrategy idleStrategy;
+
+    private Thread consumerThread;
+    private volatile boolean consumerParked;
+
+    /**
+     * Creates a new {@link MPSCArrayQueue}.
+     *
+     * @param capacity     the capacity of the array, rounded up to the next power of two.
+     * @param idleStrategy the idleStrategy. If null, the consumer will block.
+     */
+    public MPSCArrayQueue(int capacity, IdleStrategy idleStrategy) {
+        this.array = new ManyToOneConcurrentArrayQueue<>(capacity);
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Sets the consumer thread.
+     *
+     * The consumer thread is needed for blocking, so that an offering thread knows which thread
+     * to wakeup. There can only be a single consumerThread and this method should be called
+     * before the queue is safely published.
+     *
+     * @param consumerThread the consumer thread.
+     * @throws NullPointerException when consumerThread null.
+     */
+    @Override
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    @Override
+    public boolean offer(E item) {
+        checkNotNull(item, "item can't be null");
+
+        if (overflowSize.get() > 0 || !array.offer(item)) {
+            overflowSize.incrementAndGet();
+            overflow.offer(item);
+        }
+
+        // the consumer sets the flag before it checks for items, so either
+        // it sees the item or this thread sees the flag
+        if (consumerParked) {
+            unpark(consumerThread);
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}.
+     *
+     * This method should only be called by the consumer thread.
+     */
+    @Override
+    public E poll() {
+        E item = array.poll();
+        if (item != null || overflowSize.get() == 0) {
+            return item;
+        }
+
+        item = overflow.poll();
+        if (item != null) {
+            overflowSize.decrementAndGet();
+        }
+        return item;
+    }
+
+    /**
+     * {@inheritDoc}.
+     *
+     * This method should only be called by the consumer thread.
+     */
+    @Override
+    public E take() throws InterruptedException {
+        E item = poll();
+        if (item != null) {
+            return item;
+        }
+
+        for (long iteration = 0; ; iteration++) {
+            if (consumerThread.isInterrupted()) {
+                throw new InterruptedException();
+            }
+
+            item = poll();
+            if (item != null) {
+                return item;
+            }
+
+            if (idleStrategy != null) {
+                idleStrategy.idle(iteration);
+                continue;
+            }
+
+            consumerParked = true;
+            // an offering thread may have claimed a slot without having
+            // set the item yet, in that case the consumer spins on poll()
+            if (isEmpty()) {
+                park();
+            }
+            consumerParked = false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}.
+     *
+     * This method should only be called by the consumer thread.
+     */
+    @Override
+    public E peek() {
+        E item = array.peek();
+        return item != null || overflowSize.get() == 0 ? item : overflow.peek();
+    }
+
+    /**
+     * {@inheritDoc}.
+     *
+     * Best effort implementation.
+     */
+    @Override
+    public int size() {
+        return array.size() + overflowSize.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return array.addedCount() == array.removedCount() && overflowSize.get() == 0;
+    }
+
+    @Override
+    public void put(E e) {
+        offer(e);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) {
+        return offer(e);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException();
+    }
+}
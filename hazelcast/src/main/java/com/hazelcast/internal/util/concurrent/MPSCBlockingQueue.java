@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.util.concurrent;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A {@link BlockingQueue} with multiple producers and a single consumer
+ * thread.
+ *
+ * @param <E> the type of elements held in this collection
+ * @see MPSCQueue
+ * @see MPSCArrayQueue
+ */
+public interface MPSCBlockingQueue<E> extends BlockingQueue<E> {
+
+    /**
+     * Sets the consumer thread.
+     * <p>
+     * The consumer thread is needed for blocking, so that an offering thread knows which thread
+     * to wakeup. There can only be a single consumerThread and this method should be called
+     * before the queue is safely published.
+     *
+     * @param consumerThread the consumer thread.
+     * @throws NullPointerException when consumerThread null.
+     */
+    void setConsumerThread(Thread consumerThread);
+}
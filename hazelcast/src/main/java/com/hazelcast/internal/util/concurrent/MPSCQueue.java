@@ -19,7 +19,6 @@ package com.hazelcast.internal.util.concurrent;
 import java.util.AbstractQueue;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -41,7 +40,7 @@ import static java.util.concurrent.locks.LockSupport.unpark;
  *
  * @param <E> the type of elements held in this collection
  */
-public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+public final class MPSCQueue<E> extends AbstractQueue<E> implements MPSCBlockingQueue<E> {
     static final int INITIAL_ARRAY_SIZE = 512;
     static final Node BLOCKED = new Node();
 
@@ -85,6 +84,7 @@ public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueu
      * @param consumerThread the consumer thread.
      * @throws NullPointerException when consumerThread null.
      */
+    @Override
     public void setConsumerThread(Thread consumerThread) {
         this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
     }
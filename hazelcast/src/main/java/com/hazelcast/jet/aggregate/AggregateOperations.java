@@ -40,6 +40,8 @@ import com.hazelcast.jet.datamodel.Tuple2;
 import com.hazelcast.jet.datamodel.Tuple3;
 import com.hazelcast.jet.function.TriFunction;
 import com.hazelcast.jet.impl.aggregate.AggregateOpAggregator;
+import com.hazelcast.jet.impl.aggregate.DoubleSumAccumulateFn;
+import com.hazelcast.jet.impl.aggregate.LongSumAccumulateFn;
 import com.hazelcast.jet.pipeline.BatchStage;
 import com.hazelcast.jet.pipeline.BatchStageWithKey;
 import com.hazelcast.jet.pipeline.GeneralStage;
@@ -94,7 +96,7 @@ public final class AggregateOperations {
     public static <T> AggregateOperation1<T, LongAccumulator, Long> counting() {
         return AggregateOperation
                 .withCreate(LongAccumulator::new)
-                .andAccumulate((LongAccumulator a, T item) -> a.add(1))
+                .andAccumulate(new LongSumAccumulateFn<T>(null))
                 .andCombine(LongAccumulator::add)
                 .andDeduct(LongAccumulator::subtractAllowingOverflow)
                 .andExportFinish(LongAccumulator::get);
@@ -129,7 +131,7 @@ public final class AggregateOperations {
         checkSerializable(getLongValueFn, "getLongValueFn");
         return AggregateOperation
                 .withCreate(LongAccumulator::new)
-                .andAccumulate((LongAccumulator a, T item) -> a.add(getLongValueFn.applyAsLong(item)))
+                .andAccumulate(new LongSumAccumulateFn<T>(getLongValueFn))
                 .andCombine(LongAccumulator::add)
                 .andDeduct(LongAccumulator::subtract)
                 .andExportFinish(LongAccumulator::get);
@@ -161,7 +163,7 @@ public final class AggregateOperations {
         checkSerializable(getDoubleValueFn, "getDoubleValueFn");
         return AggregateOperation
                 .withCreate(DoubleAccumulator::new)
-                .andAccumulate((DoubleAccumulator a, T item) -> a.accumulate(getDoubleValueFn.applyAsDouble(item)))
+                .andAccumulate(new DoubleSumAccumulateFn<T>(getDoubleValueFn))
                 .andCombine(DoubleAccumulator::combine)
                 .andDeduct(DoubleAccumulator::deduct)
                 .andExportFinish(DoubleAccumulator::export);
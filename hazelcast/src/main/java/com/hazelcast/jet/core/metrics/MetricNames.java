@@ -195,6 +195,32 @@ public final class MetricNames {
      */
     public static final String DISTRIBUTED_BYTES_OUT = "distributedBytesOut";
 
+    /**
+     * Tracks the data volume (bytes) coming in over the network for
+     * DISTRIBUTED input {@link Edge}s before their packets were compressed.
+     * Divide {@link #DISTRIBUTED_BYTES_IN} by this value to get the
+     * compression ratio. The value equals {@link #DISTRIBUTED_BYTES_IN} if
+     * {@linkplain com.hazelcast.jet.config.EdgeConfig#setCompressionEnabled
+     * compression} is disabled. The tags are the same as for {@link
+     * #DISTRIBUTED_BYTES_IN}.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_UNCOMPRESSED_BYTES_IN = "distributedUncompressedBytesIn";
+
+    /**
+     * Tracks the data volume (bytes) going out over the network for
+     * DISTRIBUTED output {@link Edge}s before their packets were compressed.
+     * Divide {@link #DISTRIBUTED_BYTES_OUT} by this value to get the
+     * compression ratio. The value equals {@link #DISTRIBUTED_BYTES_OUT} if
+     * {@linkplain com.hazelcast.jet.config.EdgeConfig#setCompressionEnabled
+     * compression} is disabled. The tags are the same as for {@link
+     * #DISTRIBUTED_BYTES_OUT}.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_UNCOMPRESSED_BYTES_OUT = "distributedUncompressedBytesOut";
+
     /**
      * {@linkplain JobStatus#getId() Numerical ID} of the job's status.
      *
@@ -25,27 +25,79 @@ import com.hazelcast.jet.impl.execution.BroadcastEntry;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTerminator;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTombstone;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Stream;
 
+import static com.hazelcast.jet.Traversers.traverseStream;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 
+/**
+ * Reads the chunks of a snapshot and emits the saved entries to the ordinal
+ * of the vertex that saved them.
+ * <p>
+ * When restoring an incremental snapshot, the chunks of the incremental
+ * snapshots from {@code baseSnapshotId + 1} to {@code expectedSnapshotId}
+ * arrive to ordinal 0, which has a higher priority, and the chunks of the
+ * full snapshot they're based on arrive to ordinal 1. The latest value of
+ * each key wins, a {@link SnapshotDataValueTombstone} removes the key. The
+ * entries of the incremental snapshots are emitted in {@link #complete()}.
+ */
 public class ExplodeSnapshotP extends AbstractProcessor {
 
     private final Map<String, FlatMapper<byte[], Object>> vertexToFlatMapper = new HashMap<>();
+    private final Map<String, Integer> vertexToOrdinal;
+    private final long baseSnapshotId;
     private final long expectedSnapshotId;
     private InternalSerializationService serializationService;
 
+    // used only when restoring an incremental snapshot, indexed by the outbox ordinal
+    private final List<Map<Object, IncrementalValue>> incrementalValues = new ArrayList<>();
+    private final List<List<Object>> broadcastEntries = new ArrayList<>();
+    private int completeOrdinal;
+    private Traverser<Object> completeTraverser;
+
     ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long expectedSnapshotId) {
+        this(vertexToOrdinal, expectedSnapshotId, expectedSnapshotId);
+    }
+
+    ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long baseSnapshotId, long expectedSnapshotId) {
+        this.vertexToOrdinal = vertexToOrdinal;
+        this.baseSnapshotId = baseSnapshotId;
         this.expectedSnapshotId = expectedSnapshotId;
         for (Entry<String, Integer> en : vertexToOrdinal.entrySet()) {
-            Object oldValue = vertexToFlatMapper.put(en.getKey(), flatMapper(en.getValue(), this::traverser));
+            FlatMapper<byte[], Object> flatMapper = isIncremental()
+                    ? flatMapper(en.getValue(), data -> baseTraverser(en.getValue(), data))
+                    : flatMapper(en.getValue(), this::traverser);
+            Object oldValue = vertexToFlatMapper.put(en.getKey(), flatMapper);
             assert oldValue == null : "Duplicate ordinal: " + en.getValue();
         }
+        if (isIncremental()) {
+            for (int i = 0; i < vertexToOrdinal.size(); i++) {
+                incrementalValues.add(new HashMap<>());
+                broadcastEntries.add(new ArrayList<>());
+            }
+        }
+    }
+
+    /**
+     * Returns the key by which the chunks are partitioned when restoring an
+     * incremental snapshot. All the chunks with the entries of a key have the
+     * same partition key.
+     */
+    static Object chunkPartitionKey(Object chunk) {
+        return ((SnapshotDataKey) ((Entry<?, ?>) chunk).getKey()).getPartitionKey();
+    }
+
+    private boolean isIncremental() {
+        return baseSnapshotId != expectedSnapshotId;
     }
 
     @Override
@@ -73,6 +125,17 @@ public class ExplodeSnapshotP extends AbstractProcessor {
         });
     }
 
+    /**
+     * Returns a traverser over the entries of a chunk of the full snapshot an
+     * incremental one is based on. It skips the keys present in the
+     * incremental snapshots and the broadcast entries, the latest ones are in
+     * the incremental snapshots.
+     */
+    private Traverser<Object> baseTraverser(int ordinal, byte[] data) {
+        Map<Object, IncrementalValue> values = incrementalValues.get(ordinal);
+        return traverser(data).filter(e -> !(e instanceof BroadcastEntry) && !values.containsKey(((Entry<?, ?>) e).getKey()));
+    }
+
     @Override
     protected boolean tryProcess0(@Nonnull Object item) {
         if (((Entry) item).getKey() instanceof SnapshotValidationRecord.SnapshotValidationKey) {
@@ -81,16 +144,15 @@ public class ExplodeSnapshotP extends AbstractProcessor {
         }
         Entry<SnapshotDataKey, byte[]> castItem = (Entry<SnapshotDataKey, byte[]>) item;
         String vertexName = castItem.getKey().vertexName();
-        FlatMapper<byte[], Object> flatMapper = vertexToFlatMapper.get(vertexName);
+        FlatMapper<byte[], Object> flatMapper = flatMapper(vertexName);
         if (flatMapper == null) {
-            if (!vertexToFlatMapper.containsKey(vertexName)) {
-                // log only once
-                vertexToFlatMapper.put(vertexName, null);
-                getLogger().warning("Data for unknown vertex found in the snapshot, ignoring. Vertex=" + vertexName);
-            }
             return true;
         }
         long snapshotId = castItem.getKey().snapshotId();
+        if (isIncremental()) {
+            readIncrementalChunk(vertexToOrdinal.get(vertexName), snapshotId, castItem.getValue());
+            return true;
+        }
         if (snapshotId != expectedSnapshotId) {
             getLogger().warning("Data for unexpected snapshot ID encountered, ignoring. Expected="
                     + expectedSnapshotId + ", found=" + snapshotId);
@@ -99,8 +161,80 @@ public class ExplodeSnapshotP extends AbstractProcessor {
         return flatMapper.tryProcess(castItem.getValue());
     }
 
+    @Override
+    protected boolean tryProcess1(@Nonnull Object item) {
+        // the chunks of the full snapshot an incremental one is based on
+        Entry<SnapshotDataKey, byte[]> castItem = (Entry<SnapshotDataKey, byte[]>) item;
+        FlatMapper<byte[], Object> flatMapper = flatMapper(castItem.getKey().vertexName());
+        return flatMapper == null || flatMapper.tryProcess(castItem.getValue());
+    }
+
+    private FlatMapper<byte[], Object> flatMapper(String vertexName) {
+        FlatMapper<byte[], Object> flatMapper = vertexToFlatMapper.get(vertexName);
+        if (flatMapper == null && !vertexToFlatMapper.containsKey(vertexName)) {
+            // log only once
+            vertexToFlatMapper.put(vertexName, null);
+            getLogger().warning("Data for unknown vertex found in the snapshot, ignoring. Vertex=" + vertexName);
+        }
+        return flatMapper;
+    }
+
+    /**
+     * Reads all the entries of a chunk of an incremental snapshot, keeping the
+     * latest value of each key. Of the broadcast entries, only those of the
+     * restored snapshot are kept: each snapshot contains all of them.
+     */
+    private void readIncrementalChunk(int ordinal, long snapshotId, byte[] data) {
+        Map<Object, IncrementalValue> values = incrementalValues.get(ordinal);
+        Traverser<Object> entries = traverser(data);
+        for (Object item; (item = entries.next()) != null; ) {
+            if (item instanceof BroadcastEntry) {
+                if (snapshotId == expectedSnapshotId) {
+                    broadcastEntries.get(ordinal).add(item);
+                }
+                continue;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) item;
+            IncrementalValue value = values.get(entry.getKey());
+            if (value == null || value.snapshotId < snapshotId) {
+                values.put(entry.getKey(), new IncrementalValue(snapshotId, entry.getValue()));
+            }
+        }
+    }
+
+    @Override
+    public boolean complete() {
+        if (!isIncremental()) {
+            return true;
+        }
+        for (; completeOrdinal < incrementalValues.size(); completeOrdinal++) {
+            if (completeTraverser == null) {
+                completeTraverser = traverseStream(Stream.concat(
+                        incrementalValues.get(completeOrdinal).entrySet().stream()
+                                .filter(e -> e.getValue().value != SnapshotDataValueTombstone.INSTANCE)
+                                .map(e -> entry(e.getKey(), e.getValue().value)),
+                        broadcastEntries.get(completeOrdinal).stream()));
+            }
+            if (!emitFromTraverser(completeOrdinal, completeTraverser)) {
+                return false;
+            }
+            completeTraverser = null;
+        }
+        return true;
+    }
+
     @Override
     public boolean closeIsCooperative() {
         return true;
     }
+
+    private static final class IncrementalValue {
+        final long snapshotId;
+        final Object value;
+
+        IncrementalValue(long snapshotId, Object value) {
+            this.snapshotId = snapshotId;
+            this.value = value;
+        }
+    }
 }
@@ -162,7 +162,7 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
 
     public SnapshotStats ongoingSnapshotDone(
             long numBytes, long numKeys, long numChunks, @Nullable String failureText,
-            boolean isTerminal
+            boolean isTerminal, boolean isIncremental
     ) {
         lastSnapshotFailure = failureText;
         SnapshotStats res = new SnapshotStats(
@@ -172,8 +172,9 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
             boolean isExport = ongoingExportedSnapshotName != null;
             boolean isExportOnly = isExport && !isTerminal;
 
-            if (!isExport) {
-                // switch dataMapIndex only if the snapshot was successful, and it wasn't an exported one
+            if (!isExport && !isIncremental) {
+                // switch dataMapIndex only if the snapshot was successful, and it wasn't an exported one.
+                // An incremental snapshot is appended to the map of the snapshot it's based on.
                 dataMapIndex = ongoingDataMapIndex();
             }
 
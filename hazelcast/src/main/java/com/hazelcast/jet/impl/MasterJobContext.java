@@ -53,12 +53,15 @@ import com.hazelcast.jet.impl.operation.GetLocalExecutionMetricsOperation;
 import com.hazelcast.jet.impl.operation.InitExecutionOperation;
 import com.hazelcast.jet.impl.operation.StartExecutionOperation;
 import com.hazelcast.jet.impl.operation.TerminateExecutionOperation;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.jet.impl.util.ExceptionUtil;
 import com.hazelcast.jet.impl.util.LoggingUtil;
 import com.hazelcast.jet.impl.util.NonCompletableFuture;
 import com.hazelcast.jet.impl.util.Util;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.version.Version;
@@ -93,6 +96,7 @@ import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.Util.idToString;
 import static com.hazelcast.jet.config.ProcessingGuarantee.NONE;
 import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.Edge.from;
 import static com.hazelcast.jet.core.JobStatus.COMPLETED;
 import static com.hazelcast.jet.core.JobStatus.FAILED;
 import static com.hazelcast.jet.core.JobStatus.NOT_RUNNING;
@@ -103,6 +107,7 @@ import static com.hazelcast.jet.core.JobStatus.SUSPENDED_EXPORTING_SNAPSHOT;
 import static com.hazelcast.jet.core.processor.SourceProcessors.readMapP;
 import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
 import static com.hazelcast.jet.impl.JobClassLoaderService.JobPhase.COORDINATOR;
+import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
 import static com.hazelcast.jet.impl.JobRepository.exportedSnapshotMapName;
 import static com.hazelcast.jet.impl.SnapshotValidator.validateSnapshot;
 import static com.hazelcast.jet.impl.TerminationMode.ActionAfterTerminate.RESTART;
@@ -518,8 +523,10 @@ public class MasterJobContext {
         // snapshot map is not updated here, so it does not need to be
         // configured with failOnIndeterminateOperationState
         IMap<Object, Object> snapshotMap = mc.nodeEngine().getHazelcastInstance().getMap(mapName);
-        long resolvedSnapshotId = validateSnapshot(
+        SnapshotValidationRecord validationRecord = validateSnapshot(
                 snapshotId, snapshotMap, mc.jobIdString(), snapshotName);
+        long resolvedSnapshotId = snapshotId != NO_SNAPSHOT ? snapshotId : validationRecord.snapshotId();
+        long baseSnapshotId = validationRecord.baseSnapshotId();
         logger.info(String.format(
                 "About to restore the state of %s from snapshot %d, mapName = %s",
                 mc.jobIdString(), resolvedSnapshotId, mapName));
@@ -527,11 +534,35 @@ public class MasterJobContext {
         dag.iterator().forEachRemaining(originalVertices::add);
 
         Map<String, Integer> vertexToOrdinal = new HashMap<>();
-        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+        if (baseSnapshotId == validationRecord.snapshotId()) {
+            Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+            Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
+                    () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId));
+            dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
+            addSnapshotRestoreEdges(dag, originalVertices, explodeVertex, vertexToOrdinal);
+            return;
+        }
+
+        // The map contains a full snapshot followed by incremental ones. The chunks of the incremental
+        // snapshots are consumed first, so that their entries replace the entries of the full snapshot.
+        // The chunks of a partition are always routed to the same processor.
+        Vertex readIncrementalVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "readIncremental",
+                readMapP(mapName, snapshotIdBetween(baseSnapshotId + 1, resolvedSnapshotId), Projections.identity()));
+        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read",
+                readMapP(mapName, snapshotIdBetween(baseSnapshotId, baseSnapshotId), Projections.identity()));
         Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
-                () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId));
-        dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
+                () -> new ExplodeSnapshotP(vertexToOrdinal, baseSnapshotId, resolvedSnapshotId));
+        dag.edge(from(readIncrementalVertex).to(explodeVertex, 0)
+                .partitioned(ExplodeSnapshotP::chunkPartitionKey)
+                .priority(-1));
+        dag.edge(from(readSnapshotVertex).to(explodeVertex, 1)
+                .partitioned(ExplodeSnapshotP::chunkPartitionKey));
+        addSnapshotRestoreEdges(dag, originalVertices, explodeVertex, vertexToOrdinal);
+    }
 
+    private static void addSnapshotRestoreEdges(
+            DAG dag, List<Vertex> originalVertices, Vertex explodeVertex, Map<String, Integer> vertexToOrdinal
+    ) {
         int index = 0;
         // add the edges
         for (Vertex userVertex : originalVertices) {
@@ -542,6 +573,12 @@ public class MasterJobContext {
         }
     }
 
+    private static Predicate<Object, Object> snapshotIdBetween(long fromSnapshotId, long toSnapshotId) {
+        return e -> e.getKey() instanceof SnapshotDataKey
+                && ((SnapshotDataKey) e.getKey()).snapshotId() >= fromSnapshotId
+                && ((SnapshotDataKey) e.getKey()).snapshotId() <= toSnapshotId;
+    }
+
     private boolean scheduleRestartIfQuorumAbsent() {
         int quorumSize = mc.jobExecutionRecord().getQuorumSize();
         if (mc.coordinationService().isQuorumPresent(quorumSize)) {
@@ -26,6 +26,7 @@ import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation.SnapshotPhase1Result;
 import com.hazelcast.jet.impl.operation.SnapshotPhase2Operation;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.jet.impl.util.LoggingUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
@@ -53,6 +54,7 @@ import static com.hazelcast.jet.impl.JobRepository.snapshotDataMapName;
 import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
 import static com.hazelcast.jet.impl.util.Util.jobNameAndExecutionId;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_FULL_SNAPSHOT_INTERVAL;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
@@ -77,6 +79,19 @@ class MasterSnapshotContext {
     @Nonnull
     private volatile CompletableFuture<Void> terminalSnapshotFuture = completedFuture(null);
 
+    /**
+     * The ID of the execution whose last regular snapshot was successful, or
+     * {@link Long#MIN_VALUE}. Only such an execution can take incremental
+     * snapshots: the members track the changes since their last snapshot,
+     * which must be the snapshot the incremental one is based on.
+     */
+    private long incrementalExecutionId = Long.MIN_VALUE;
+
+    /**
+     * The number of incremental snapshots taken since the last full one.
+     */
+    private int incrementalSnapshotCount;
+
     private class SnapshotRequest {
         /**
          * User-specified name of the snapshot or null, if no name is specified
@@ -93,6 +108,12 @@ class MasterSnapshotContext {
          * be null.
          */
         final CompletableFuture<Void> future;
+        /**
+         * If true, the snapshot contains only the changes since the previous
+         * one, see {@link SnapshotFlags#isIncremental(int)}. Decided when the
+         * snapshot begins.
+         */
+        boolean isIncremental;
 
         SnapshotRequest(@Nullable String snapshotName, boolean isTerminal, @Nullable CompletableFuture<Void> future) {
             this.snapshotName = snapshotName;
@@ -112,12 +133,18 @@ class MasterSnapshotContext {
         }
 
         public int snapshotFlags() {
-            return SnapshotFlags.create(isTerminal, isExport());
+            return SnapshotFlags.create(isTerminal, isExport(), isIncremental);
         }
 
         public String mapName() {
-            return isExport() ? exportedSnapshotMapName(snapshotName)
-                    : snapshotDataMapName(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
+            if (isExport()) {
+                return exportedSnapshotMapName(snapshotName);
+            }
+            // an incremental snapshot is appended to the map of the snapshot it's based on
+            JobExecutionRecord jobExecutionRecord = mc.jobExecutionRecord();
+            return snapshotDataMapName(mc.jobId(), isIncremental
+                    ? jobExecutionRecord.dataMapIndex()
+                    : jobExecutionRecord.ongoingDataMapIndex());
         }
 
         /**
@@ -202,6 +229,7 @@ class MasterSnapshotContext {
                     return;
                 }
                 snapshotInProgress = true;
+                requestedSnapshot.isIncremental = !requestedSnapshot.isExport() && canTakeIncrementalSnapshot();
                 mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName);
                 localExecutionId = mc.executionId();
             } finally {
@@ -214,7 +242,9 @@ class MasterSnapshotContext {
 
             try {
                 mc.writeJobExecutionRecordSafe(false);
-                mc.nodeEngine().getHazelcastInstance().getMap(mapName).clear();
+                if (!requestedSnapshot.isIncremental) {
+                    mc.nodeEngine().getHazelcastInstance().getMap(mapName).clear();
+                }
             } catch (Exception e) {
                 logger.warning(String.format("Failed to start snapshot %d for %s",
                         newSnapshotId, jobNameAndExecutionId(mc.jobName(), localExecutionId)),
@@ -239,6 +269,38 @@ class MasterSnapshotContext {
         });
     }
 
+    /**
+     * Returns true if the next regular snapshot can contain only the changes
+     * since the previous one. Must be called under the {@link MasterContext}
+     * lock.
+     */
+    private boolean canTakeIncrementalSnapshot() {
+        int fullSnapshotInterval = mc.nodeEngine().getProperties().getInteger(JET_SNAPSHOT_FULL_SNAPSHOT_INTERVAL);
+        return fullSnapshotInterval > 1
+                && incrementalExecutionId == mc.executionId()
+                && incrementalSnapshotCount + 1 < fullSnapshotInterval;
+    }
+
+    /**
+     * Creates the validation record of a successful incremental snapshot from
+     * the record of the snapshot it's based on.
+     */
+    private SnapshotValidationRecord incrementalValidationRecord(
+            IMap<Object, Object> snapshotMap, long snapshotId, SnapshotPhase1Result mergedResult
+    ) {
+        SnapshotValidationRecord previousRecord = (SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY);
+        long previousSnapshotId = mc.jobExecutionRecord().snapshotId();
+        if (previousRecord == null || previousRecord.snapshotId() != previousSnapshotId) {
+            throw new JetException("Validation record of snapshot " + previousSnapshotId + " not found in '"
+                    + snapshotMap.getName() + "' for " + mc.jobIdString() + ", found: " + previousRecord);
+        }
+        return new SnapshotValidationRecord(snapshotId, previousRecord.baseSnapshotId(),
+                previousRecord.numChunks() + mergedResult.getNumChunks(),
+                previousRecord.numBytes() + mergedResult.getNumBytes(),
+                mc.jobExecutionRecord().ongoingSnapshotStartTime(), mc.jobId(), mc.jobName(),
+                mc.jobRecord().getDagJson());
+    }
+
     /**
      * @param responses collected responses from the members
      */
@@ -330,34 +392,43 @@ class MasterSnapshotContext {
                 // to have failOnIndeterminateOperationState enabled.
                 IMap<Object, Object> snapshotMap = safeImap(mc.nodeEngine().getHazelcastInstance().getMap(mapName));
                 try {
-                    SnapshotValidationRecord validationRecord = new SnapshotValidationRecord(snapshotId,
-                            mergedResult.getNumChunks(), mergedResult.getNumBytes(),
-                            mc.jobExecutionRecord().ongoingSnapshotStartTime(), mc.jobId(), mc.jobName(),
-                            mc.jobRecord().getDagJson());
-
-                    // The decision moment for _exported_ snapshots: after this the snapshot is valid to be restored
-                    // from, however it will be not listed by JetInstance.getJobStateSnapshots unless the validation
-                    // record is inserted into the cache below.
-                    //
-                    // Error during update for JobExecutionRecord does not invalidate the _exported_ snapshot.
-                    // JobExecutionRecord data in IMap becomes stale (indicates that the exported snapshot is in progress)
-                    // but it should not cause problems. They may be overwritten later (in-memory values will be correct)
-                    // or ignored when JobExecutionRecord is loaded from IMap.
-                    //
-                    // Terminal exported snapshot is formally valid from this point on, but it is safe to use it
-                    // to restore from only after and only if the job was cleanly terminated due to _this_ snapshot request.
-                    // On API level, using this snapshot is not safe if cancelAndExportSnapshot throws exception
-                    // and the job will not be cancelled but restarted.
-                    Object oldValue = snapshotMap.put(SnapshotValidationRecord.KEY, validationRecord);
-
-                    if (requestedSnapshot.isExport()) {
-                        assert requestedSnapshot.snapshotName != null;
-                        // update also for failed snapshots because the map may have contained different snapshot before
-                        mc.jobRepository().cacheValidationRecord(requestedSnapshot.snapshotName, validationRecord);
-                    }
-                    if (oldValue != null) {
-                        logger.severe("SnapshotValidationRecord overwritten after writing to '" + mapName
-                                + "' for " + mc.jobIdString() + ": snapshot data might be corrupted");
+                    if (requestedSnapshot.isIncremental) {
+                        // The record of an incremental snapshot replaces the record of the snapshot it's based on,
+                        // so it's written only if the snapshot succeeded. This is the decision moment for it.
+                        if (mergedResult.getError() == null) {
+                            snapshotMap.put(SnapshotValidationRecord.KEY,
+                                    incrementalValidationRecord(snapshotMap, snapshotId, mergedResult));
+                        }
+                    } else {
+                        SnapshotValidationRecord validationRecord = new SnapshotValidationRecord(snapshotId,
+                                mergedResult.getNumChunks(), mergedResult.getNumBytes(),
+                                mc.jobExecutionRecord().ongoingSnapshotStartTime(), mc.jobId(), mc.jobName(),
+                                mc.jobRecord().getDagJson());
+
+                        // The decision moment for _exported_ snapshots: after this the snapshot is valid to be restored
+                        // from, however it will be not listed by JetInstance.getJobStateSnapshots unless the validation
+                        // record is inserted into the cache below.
+                        //
+                        // Error during update for JobExecutionRecord does not invalidate the _exported_ snapshot.
+                        // JobExecutionRecord data in IMap becomes stale (indicates that the exported snapshot is in progress)
+                        // but it should not cause problems. They may be overwritten later (in-memory values will be correct)
+                        // or ignored when JobExecutionRecord is loaded from IMap.
+                        //
+                        // Terminal exported snapshot is formally valid from this point on, but it is safe to use it
+                        // to restore from only after and only if the job was cleanly terminated due to _this_ snapshot request.
+                        // On API level, using this snapshot is not safe if cancelAndExportSnapshot throws exception
+                        // and the job will not be cancelled but restarted.
+                        Object oldValue = snapshotMap.put(SnapshotValidationRecord.KEY, validationRecord);
+
+                        if (requestedSnapshot.isExport()) {
+                            assert requestedSnapshot.snapshotName != null;
+                            // update also for failed snapshots because the map may have contained different snapshot before
+                            mc.jobRepository().cacheValidationRecord(requestedSnapshot.snapshotName, validationRecord);
+                        }
+                        if (oldValue != null) {
+                            logger.severe("SnapshotValidationRecord overwritten after writing to '" + mapName
+                                    + "' for " + mc.jobIdString() + ": snapshot data might be corrupted");
+                        }
                     }
                 } catch (Exception e) {
                     mergedResult.merge(new SnapshotPhase1Result(0, 0, 0, e));
@@ -367,7 +438,16 @@ class MasterSnapshotContext {
                 // update snapshot state in memory after success or failure
                 stats = mc.jobExecutionRecord().ongoingSnapshotDone(
                         mergedResult.getNumBytes(), mergedResult.getNumKeys(), mergedResult.getNumChunks(),
-                        mergedResult.getError(), requestedSnapshot.isTerminal);
+                        mergedResult.getError(), requestedSnapshot.isTerminal, requestedSnapshot.isIncremental);
+                if (!requestedSnapshot.isExport()) {
+                    if (isSuccess) {
+                        incrementalExecutionId = executionId;
+                        incrementalSnapshotCount = requestedSnapshot.isIncremental ? incrementalSnapshotCount + 1 : 0;
+                    } else {
+                        // the members might have tracked the changes of the failed snapshot
+                        incrementalExecutionId = Long.MIN_VALUE;
+                    }
+                }
 
                 // There is no need to restart job in case of a failed snapshot:
                 // - ongoingSnapshotId is safe in IMap, because it was written at the beginning
@@ -416,8 +496,14 @@ class MasterSnapshotContext {
                     try {
                         // Clear data of failed snapshot (automatic or exported) to decrease memory usage.
                         // This can be done regardless of skipPhase2 because failed snapshot
-                        // can never be used for restore.
-                        snapshotMap.clear();
+                        // can never be used for restore. A failed incremental snapshot shares the map
+                        // with the snapshot it's based on, only its own chunks are removed.
+                        if (requestedSnapshot.isIncremental) {
+                            snapshotMap.removeAll(e -> e.getKey() instanceof SnapshotDataKey
+                                    && ((SnapshotDataKey) e.getKey()).snapshotId() == snapshotId);
+                        } else {
+                            snapshotMap.clear();
+                        }
                     } catch (Exception e) {
                         logger.warning(mc.jobIdString() + ": failed to clear snapshot map '" + mapName
                                 + "' after a failure", e);
@@ -426,7 +512,7 @@ class MasterSnapshotContext {
 
                 // Do not clear snapshot data when JobExecutionRecord update was indeterminate.
                 // It may turn out that this will be a correct snapshot after all.
-                if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport()) {
+                if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport() && !requestedSnapshot.isIncremental) {
                     // clear IMap for next automatic snapshot early to decrease memory usage
                     mc.jobRepository().clearSnapshotData(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
                 }
@@ -37,9 +37,9 @@ final class SnapshotValidator {
      * @param jobIdString name and ID of the job, for debug output
      * @param snapshotName user-supplied snapshot name for debug output,
      *                     null if it's not an exported snapshot
-     * @return the snapshot ID of the snapshot being validated
+     * @return the validation record of the snapshot being validated
      */
-    static long validateSnapshot(
+    static SnapshotValidationRecord validateSnapshot(
             long snapshotId, IMap<Object, Object> snapshotMap, String jobIdString, String snapshotName
     ) {
         SnapshotValidationRecord validationRecord =
@@ -52,21 +52,28 @@ final class SnapshotValidator {
         }
         if (validationRecord.numChunks() != snapshotMap.size() - 1) {
             // fallback validation that counts using aggregate(), ignoring different snapshot IDs
+            long baseSnapshotId = validationRecord.baseSnapshotId();
+            long lastSnapshotId = validationRecord.snapshotId();
             long filteredCount = snapshotMap.aggregate(
                     Aggregators.count(),
                     e -> e.getKey() instanceof SnapshotDataKey
-                            && ((SnapshotDataKey) e.getKey()).snapshotId() == snapshotId);
+                            && ((SnapshotDataKey) e.getKey()).snapshotId() >= baseSnapshotId
+                            && ((SnapshotDataKey) e.getKey()).snapshotId() <= lastSnapshotId);
             if (validationRecord.numChunks() != filteredCount) {
                 throw new JetException(String.format(
                         "State for %s in IMap '%s' is corrupted: it should have %,d entries, but has %,d",
                         jobIdString, snapshotMap.getName(), validationRecord.numChunks(), snapshotMap.size() - 1));
             }
         }
-        if (snapshotId != NO_SNAPSHOT && snapshotId != validationRecord.snapshotId()) {
+        // The map of an incremental snapshot contains also the snapshots from the base one to the previous
+        // one, any of them can be restored. The JobExecutionRecord might refer to an earlier one than
+        // the validation record if its update after the last snapshot was indeterminate.
+        if (snapshotId != NO_SNAPSHOT
+                && (snapshotId < validationRecord.baseSnapshotId() || snapshotId > validationRecord.snapshotId())) {
             throw new JetException(String.format(
                     "%s: IMap '%s' was supposed to contain snapshotId %d, but it contains snapshotId %d",
                     jobIdString, snapshotMap.getName(), snapshotId, validationRecord.snapshotId()));
         }
-        return validationRecord.snapshotId();
+        return validationRecord;
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.aggregate;
+
+import com.hazelcast.function.BiConsumerEx;
+import com.hazelcast.function.ToDoubleFunctionEx;
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The accumulate function of {@link
+ * com.hazelcast.jet.aggregate.AggregateOperations#summingDouble
+ * summingDouble()}, see {@link LongSumAccumulateFn}.
+ *
+ * @param <T> type of the input item
+ */
+public final class DoubleSumAccumulateFn<T> implements BiConsumerEx<DoubleAccumulator, T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ToDoubleFunctionEx<? super T> getDoubleValueFn;
+
+    public DoubleSumAccumulateFn(@Nonnull ToDoubleFunctionEx<? super T> getDoubleValueFn) {
+        this.getDoubleValueFn = getDoubleValueFn;
+    }
+
+    /**
+     * Returns the value the item adds to the sum.
+     */
+    public double valueOf(T item) {
+        return getDoubleValueFn.applyAsDouble(item);
+    }
+
+    @Override
+    public void acceptEx(DoubleAccumulator acc, T item) {
+        acc.accumulate(valueOf(item));
+    }
+}
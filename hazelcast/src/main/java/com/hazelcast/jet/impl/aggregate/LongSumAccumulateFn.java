@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.aggregate;
+
+import com.hazelcast.function.BiConsumerEx;
+import com.hazelcast.function.ToLongFunctionEx;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+
+import javax.annotation.Nullable;
+
+/**
+ * The accumulate function of {@link
+ * com.hazelcast.jet.aggregate.AggregateOperations#counting() counting()} and
+ * {@link com.hazelcast.jet.aggregate.AggregateOperations#summingLong
+ * summingLong()}. It's a named class so that window processors can recognize
+ * it and keep the sums in a primitive table instead of one {@link
+ * LongAccumulator} per key and frame.
+ *
+ * @param <T> type of the input item
+ */
+public final class LongSumAccumulateFn<T> implements BiConsumerEx<LongAccumulator, T> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nullable
+    private final ToLongFunctionEx<? super T> getLongValueFn;
+
+    /**
+     * @param getLongValueFn the function returning the value to add, {@code
+     *                       null} to count the items
+     */
+    public LongSumAccumulateFn(@Nullable ToLongFunctionEx<? super T> getLongValueFn) {
+        this.getLongValueFn = getLongValueFn;
+    }
+
+    /**
+     * Returns the value the item adds to the sum.
+     */
+    public long valueOf(T item) {
+        return getLongValueFn == null ? 1 : getLongValueFn.applyAsLong(item);
+    }
+
+    @Override
+    public void acceptEx(LongAccumulator acc, T item) {
+        acc.add(valueOf(item));
+    }
+}
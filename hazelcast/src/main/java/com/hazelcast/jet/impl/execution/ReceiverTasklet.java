@@ -27,9 +27,11 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.RestartableException;
+import com.hazelcast.jet.config.EdgeConfig;
 import com.hazelcast.jet.config.InstanceConfig;
 import com.hazelcast.jet.core.metrics.MetricNames;
 import com.hazelcast.jet.core.metrics.MetricTags;
+import com.hazelcast.jet.impl.util.Lz4BlockCodec;
 import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.jet.impl.util.ProgressTracker;
@@ -43,7 +45,9 @@ import java.util.Objects;
 import java.util.Queue;
 
 import static com.hazelcast.jet.impl.Networking.PACKET_HEADER_SIZE;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+import static com.hazelcast.jet.impl.execution.SenderTasklet.UNCOMPRESSED;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.PrefixedLogger.prefixedLogger;
@@ -83,6 +87,7 @@ public class ReceiverTasklet implements Tasklet {
      * flow-control period multiplied by this number.
      */
     private final int rwinMultiplier;
+    private final boolean compressionEnabled;
     private final double flowControlPeriodNs;
     private final ILogger logger;
 
@@ -98,6 +103,7 @@ public class ReceiverTasklet implements Tasklet {
     private final OutboundCollector collector;
     private final InternalSerializationService serializationService;
 
+    private byte[] decompressBuffer;
     private boolean receptionDone;
 
     @Probe(name = MetricNames.DISTRIBUTED_ITEMS_IN)
@@ -106,6 +112,9 @@ public class ReceiverTasklet implements Tasklet {
     @Probe(name = MetricNames.DISTRIBUTED_BYTES_IN, unit = ProbeUnit.BYTES)
     private final Counter bytesInCounter = SwCounter.newSwCounter();
 
+    @Probe(name = MetricNames.DISTRIBUTED_UNCOMPRESSED_BYTES_IN, unit = ProbeUnit.BYTES)
+    private final Counter uncompressedBytesInCounter = SwCounter.newSwCounter();
+
     //                    FLOW-CONTROL STATE
     //            All arrays are indexed by sender ID.
 
@@ -123,13 +132,14 @@ public class ReceiverTasklet implements Tasklet {
 
     public ReceiverTasklet(
             OutboundCollector collector, InternalSerializationService serializationService,
-            int rwinMultiplier, int flowControlPeriodMs, LoggingService loggingService,
+            EdgeConfig edgeConfig, int flowControlPeriodMs, LoggingService loggingService,
             Address sourceAddress, int ordinal, String destinationVertexName,
             Connection memberConnection, String jobPrefix
     ) {
         this.collector = collector;
         this.serializationService = serializationService;
-        this.rwinMultiplier = rwinMultiplier;
+        this.rwinMultiplier = edgeConfig.getReceiveWindowMultiplier();
+        this.compressionEnabled = edgeConfig.isCompressionEnabled();
         this.flowControlPeriodNs = (double) MILLISECONDS.toNanos(flowControlPeriodMs);
         this.sourceAddressString = sourceAddress.toString();
         this.ordinalString = "" + ordinal;
@@ -299,10 +309,19 @@ public class ReceiverTasklet implements Tasklet {
     private void tryFillInbox() {
         try {
             long totalBytes = 0;
+            long totalUncompressedBytes = 0;
             long totalItems = 0;
             for (byte[] payload; (payload = incoming.poll()) != null; ) {
                 BufferObjectDataInput input = serializationService.createObjectDataInput(payload, PACKET_HEADER_SIZE);
                 final int itemCount = input.readInt();
+                int uncompressedLength = payload.length;
+                if (compressionEnabled) {
+                    final int itemsLength = input.readInt();
+                    if (itemsLength != UNCOMPRESSED) {
+                        input = decompressItems(payload, input.position(), itemsLength);
+                        uncompressedLength = PACKET_HEADER_SIZE + 2 * INT_SIZE_IN_BYTES + itemsLength;
+                    }
+                }
                 for (int i = 0; i < itemCount; i++) {
                     final int mark = input.position();
                     final Object item = input.readObject();
@@ -311,16 +330,30 @@ public class ReceiverTasklet implements Tasklet {
                     inbox.add(new ObjWithPtionIdAndSize(item, partitionId, itemSize));
                 }
                 totalItems += itemCount;
-                totalBytes += input.position();
+                totalBytes += payload.length;
+                totalUncompressedBytes += uncompressedLength;
                 tracker.madeProgress();
             }
             bytesInCounter.inc(totalBytes);
+            uncompressedBytesInCounter.inc(totalUncompressedBytes);
             itemsInCounter.inc(totalItems);
         } catch (IOException e) {
             throw rethrow(e);
         }
     }
 
+    /**
+     * Decompresses the items of a packet sent over a compressed edge into a
+     * reusable buffer and returns an input positioned at the first item.
+     */
+    private BufferObjectDataInput decompressItems(byte[] payload, int itemsStart, int itemsLength) {
+        if (decompressBuffer == null || decompressBuffer.length < itemsLength) {
+            decompressBuffer = new byte[itemsLength];
+        }
+        Lz4BlockCodec.decompress(payload, itemsStart, payload.length - itemsStart, decompressBuffer, 0, itemsLength);
+        return serializationService.createObjectDataInput(decompressBuffer);
+    }
+
     public void initIncomingQueue(Queue<byte[]> incomingQueue) {
         incoming = incomingQueue;
     }
@@ -29,8 +29,10 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.RestartableException;
+import com.hazelcast.jet.config.EdgeConfig;
 import com.hazelcast.jet.core.metrics.MetricNames;
 import com.hazelcast.jet.core.metrics.MetricTags;
+import com.hazelcast.jet.impl.util.Lz4BlockCodec;
 import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.jet.impl.util.ProgressTracker;
@@ -39,6 +41,7 @@ import com.hazelcast.spi.impl.NodeEngine;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Queue;
 import java.util.function.Consumer;
 
@@ -51,8 +54,21 @@ import static com.hazelcast.jet.impl.util.Util.uncheckRun;
 
 /**
  * The tasklet that sends the data associated with a single edge through network.
+ * <p>
+ * A packet consists of the packet header, the item count and the items, each
+ * followed by its partition ID. If compression is enabled for the edge, the
+ * item count is followed by the length of the items before compression and
+ * the items are compressed with {@link Lz4BlockCodec}. The length is {@value
+ * #UNCOMPRESSED} if the items didn't get smaller and are sent as they are.
  */
 public class SenderTasklet implements Tasklet {
+
+    /**
+     * The length written in place of the uncompressed length when the
+     * items of a packet on a compressed edge are not compressed.
+     */
+    static final int UNCOMPRESSED = -1;
+
     private static final int BUFFER_INITIAL_SIZE = 1 << 10;
     private static final int BUFFER_FIRST_GROWTH_SIZE = 1 << 15;
 
@@ -63,6 +79,8 @@ public class SenderTasklet implements Tasklet {
     private final BufferObjectDataOutput outputBuffer;
     private final int bufPosPastHeader;
     private final int packetSizeLimit;
+    private final Lz4BlockCodec codec;
+    private byte[] compressBuffer;
 
     /* Used for metrics */
     private final String destinationAddressString;
@@ -75,6 +93,9 @@ public class SenderTasklet implements Tasklet {
     @Probe(name = MetricNames.DISTRIBUTED_BYTES_OUT, unit = ProbeUnit.BYTES)
     private final Counter bytesOutCounter = SwCounter.newSwCounter();
 
+    @Probe(name = MetricNames.DISTRIBUTED_UNCOMPRESSED_BYTES_OUT, unit = ProbeUnit.BYTES)
+    private final Counter uncompressedBytesOutCounter = SwCounter.newSwCounter();
+
     private boolean instreamExhausted;
     // read and written by Jet thread
     private long sentSeq;
@@ -88,7 +109,7 @@ public class SenderTasklet implements Tasklet {
             NodeEngine nodeEngine,
             Address destinationAddress,
             Connection connection,
-            int destinationVertexId, int packetSizeLimit, long executionId,
+            int destinationVertexId, EdgeConfig edgeConfig, long executionId,
             String sourceVertexName, int sourceOrdinal,
             InternalSerializationService serializationService
     ) {
@@ -96,7 +117,8 @@ public class SenderTasklet implements Tasklet {
         this.destinationAddressString = destinationAddress.toString();
         this.sourceVertexName = sourceVertexName;
         this.sourceOrdinalString = "" + sourceOrdinal;
-        this.packetSizeLimit = packetSizeLimit;
+        this.packetSizeLimit = edgeConfig.getPacketSizeLimit();
+        this.codec = edgeConfig.isCompressionEnabled() ? new Lz4BlockCodec() : null;
         // we use Connection directly because we rely on packets not being transparently skipped or reordered
         this.connection = connection;
         this.outputBuffer = serializationService.createObjectDataOutput(BUFFER_INITIAL_SIZE, BUFFER_FIRST_GROWTH_SIZE);
@@ -114,7 +136,7 @@ public class SenderTasklet implements Tasklet {
         }
         if (tryFillOutputBuffer()) {
             progTracker.madeProgress();
-            if (!connection.write(new Packet(outputBuffer.toByteArray()).setPacketType(Packet.Type.JET))) {
+            if (!connection.write(new Packet(packetBytes()).setPacketType(Packet.Type.JET))) {
                 throw new RestartableException("Connection write failed in " + toString());
             }
         }
@@ -140,8 +162,8 @@ public class SenderTasklet implements Tasklet {
 
     private boolean tryFillOutputBuffer() {
         try {
-            // header size + slot for writtenCount
-            outputBuffer.position(bufPosPastHeader + Bits.INT_SIZE_IN_BYTES);
+            // header size + slot for writtenCount (+ slot for uncompressed length)
+            outputBuffer.position(itemsStart());
             int writtenCount = 0;
             for (Object item;
                  outputBuffer.position() < packetSizeLimit
@@ -157,7 +179,7 @@ public class SenderTasklet implements Tasklet {
                 outputBuffer.writeInt(itemWithPId.getPartitionId());
             }
             outputBuffer.writeInt(bufPosPastHeader, writtenCount);
-            bytesOutCounter.inc(outputBuffer.position());
+            uncompressedBytesOutCounter.inc(outputBuffer.position());
             itemsOutCounter.inc(writtenCount);
             return writtenCount > 0;
         } catch (IOException e) {
@@ -165,6 +187,42 @@ public class SenderTasklet implements Tasklet {
         }
     }
 
+    private int itemsStart() {
+        return bufPosPastHeader + (codec != null ? 2 : 1) * Bits.INT_SIZE_IN_BYTES;
+    }
+
+    /**
+     * Returns the bytes of the packet in the output buffer, compressing the
+     * items if compression is enabled.
+     */
+    private byte[] packetBytes() {
+        byte[] packet = codec == null ? outputBuffer.toByteArray() : compressedPacketBytes();
+        bytesOutCounter.inc(packet.length);
+        return packet;
+    }
+
+    private byte[] compressedPacketBytes() {
+        try {
+            int itemsStart = itemsStart();
+            int itemsLength = outputBuffer.position() - itemsStart;
+            outputBuffer.writeInt(itemsStart - Bits.INT_SIZE_IN_BYTES, itemsLength);
+            byte[] uncompressed = outputBuffer.toByteArray();
+            int maxLength = itemsStart + Lz4BlockCodec.maxCompressedLength(itemsLength);
+            if (compressBuffer == null || compressBuffer.length < maxLength) {
+                compressBuffer = new byte[maxLength];
+            }
+            int compressedLength = codec.compress(uncompressed, itemsStart, itemsLength, compressBuffer, itemsStart);
+            if (compressedLength >= itemsLength) {
+                outputBuffer.writeInt(itemsStart - Bits.INT_SIZE_IN_BYTES, UNCOMPRESSED);
+                return outputBuffer.toByteArray();
+            }
+            System.arraycopy(uncompressed, 0, compressBuffer, 0, itemsStart);
+            return Arrays.copyOf(compressBuffer, itemsStart + compressedLength);
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
     /**
      * Updates the upper limit on {@link #sentSeq}, which constrains how much more data this tasklet can send.
      *
@@ -169,10 +169,22 @@ public class SnapshotContext {
         return SnapshotFlags.isTerminal(snapshotFlags);
     }
 
+    public boolean isExport() {
+        return SnapshotFlags.isExport(snapshotFlags);
+    }
+
     public boolean isExportOnly() {
         return SnapshotFlags.isExportOnly(snapshotFlags);
     }
 
+    /**
+     * Tells whether the current snapshot is incremental, see {@link
+     * SnapshotFlags#isIncremental(int)}.
+     */
+    public boolean isIncremental() {
+        return SnapshotFlags.isIncremental(snapshotFlags);
+    }
+
     boolean isLastPhase1Successful() {
         return lastPhase1Successful;
     }
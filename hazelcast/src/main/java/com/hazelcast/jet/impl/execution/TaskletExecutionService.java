@@ -19,7 +19,9 @@ package com.hazelcast.jet.impl.execution;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.ProbeUnit;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.concurrent.AdaptiveIdleStrategy;
 import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
 import com.hazelcast.internal.util.concurrent.IdleStrategy;
 import com.hazelcast.internal.util.counters.Counter;
@@ -54,6 +56,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
@@ -66,7 +69,9 @@ import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MAX_MICROSECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MAX_SPINS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MIN_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATIVE_MIN_MICROSECONDS;
@@ -92,8 +97,12 @@ public class TaskletExecutionService {
     private final Counter blockingWorkerCount = MwCounter.newMwCounter();
     private volatile boolean isShutdown;
     private final Object lock = new Object();
-    private final IdleStrategy idlerCooperative;
+    private final BackoffIdleStrategy idlerCooperative;
     private final IdleStrategy idlerNonCooperative;
+    private final int cooperativeMaxSpins;
+    private final boolean workStealing;
+    // the number of cooperative workers waiting for a tasklet from another worker
+    private final AtomicInteger stealRequestCount = new AtomicInteger();
 
     public TaskletExecutionService(NodeEngineImpl nodeEngine, int threadCount, HazelcastProperties properties) {
         hzExecutionService = nodeEngine.getExecutionService();
@@ -110,6 +119,8 @@ public class TaskletExecutionService {
         idlerNonCooperative = createIdler(
             properties, JET_IDLE_NONCOOPERATIVE_MIN_MICROSECONDS, JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS
         );
+        cooperativeMaxSpins = properties.getInteger(JET_IDLE_COOPERATIVE_MAX_SPINS);
+        workStealing = properties.getBoolean(JET_COOPERATIVE_WORK_STEALING);
 
         Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker());
         Arrays.setAll(cooperativeThreadPool, i -> new CooperativeWorkerThread(cooperativeWorkers[i],
@@ -338,24 +349,40 @@ public class TaskletExecutionService {
 
     private final class CooperativeWorker implements Runnable {
         private static final int COOPERATIVE_LOGGING_THRESHOLD = 5;
+        // the number of idle iterations after which the worker asks for a tasklet of another worker
+        private static final int STEAL_IDLE_THRESHOLD = 8;
 
         @Probe(name = "taskletCount")
         private final CopyOnWriteArrayList<TaskletTracker> trackers;
         @Probe(name = "iterationCount")
         private final Counter iterationCount = SwCounter.newSwCounter();
+        // incremented by the workers that hand the tasklets over
+        @Probe(name = "stealCount")
+        private final Counter stealCount = MwCounter.newMwCounter();
+        @Probe(name = "idleTime", unit = ProbeUnit.NS)
+        private final Counter idleTime = SwCounter.newSwCounter();
 
         private final ProgressTracker progressTracker = new ProgressTracker();
         // prevent lambda allocation on each iteration
         private final Consumer<TaskletTracker> runTasklet = this::runTasklet;
 
         private final Semaphore newTaskletSemaphore = new Semaphore(0);
+        private final IdleStrategy idler;
+        // true while the worker waits for a tasklet from another worker
+        private final AtomicBoolean stealRequested = new AtomicBoolean();
 
         private boolean finestLogEnabled;
         private Thread myThread;
         private Contexts.Container contextContainer;
+        // the number of tasklets that made progress in the current iteration and the last of them
+        private int progressedTaskletCount;
+        private TaskletTracker lastProgressedTracker;
 
         CooperativeWorker() {
             this.trackers = new CopyOnWriteArrayList<>();
+            this.idler = cooperativeMaxSpins > 0
+                    ? new AdaptiveIdleStrategy(cooperativeMaxSpins, idlerCooperative)
+                    : idlerCooperative;
         }
 
         @Override
@@ -363,12 +390,12 @@ public class TaskletExecutionService {
             myThread = currentThread();
             contextContainer = Contexts.container();
 
-            IdleStrategy idlerLocal = idlerCooperative;
             long idleCount = 0;
 
             while (!isShutdown) {
                 finestLogEnabled = logger.isFinestEnabled();
                 progressTracker.reset();
+                progressedTaskletCount = 0;
                 // garbage-free iteration -- relies on implementation in COWArrayList that doesn't use an Iterator
                 trackers.forEach(runTasklet);
                 iterationCount.inc();
@@ -377,8 +404,17 @@ public class TaskletExecutionService {
                 }
                 if (progressTracker.isMadeProgress()) {
                     idleCount = 0;
+                    if (workStealing) {
+                        cancelStealRequest();
+                        if (progressedTaskletCount > 1) {
+                            // other busy tasklets keep this thread busy, another thread can take this one
+                            handOver(lastProgressedTracker);
+                        }
+                    }
                 } else {
+                    long idleStart = System.nanoTime();
                     if (trackers.isEmpty()) {
+                        requestSteal();
                         newTaskletSemaphore.drainPermits();
                         if (trackers.isEmpty() && !isShutdown) {
                             try {
@@ -389,14 +425,57 @@ public class TaskletExecutionService {
                             }
                         }
                     } else {
-                        idlerLocal.idle(++idleCount);
+                        if (idleCount >= STEAL_IDLE_THRESHOLD) {
+                            requestSteal();
+                        }
+                        idler.idle(++idleCount);
                     }
+                    idleTime.inc(System.nanoTime() - idleStart);
                 }
+                lastProgressedTracker = null;
             }
+            cancelStealRequest();
             trackers.forEach(t -> t.executionTracker.taskletDone());
             trackers.clear();
         }
 
+        private void requestSteal() {
+            if (workStealing && stealRequested.compareAndSet(false, true)) {
+                stealRequestCount.incrementAndGet();
+            }
+        }
+
+        private void cancelStealRequest() {
+            if (stealRequested.compareAndSet(true, false)) {
+                stealRequestCount.decrementAndGet();
+            }
+        }
+
+        /**
+         * Hands the tasklet over to a worker that requested one. It's called
+         * between two calls of the tasklet, so the tasklet is never called by
+         * two threads at the same time. Adding it to the copy-on-write list of
+         * the other worker makes its state visible to the other thread.
+         */
+        private void handOver(TaskletTracker t) {
+            if (stealRequestCount.get() == 0) {
+                return;
+            }
+            for (CooperativeWorker worker : cooperativeWorkers) {
+                if (worker != this && worker.stealRequested.compareAndSet(true, false)) {
+                    stealRequestCount.decrementAndGet();
+                    if (trackers.remove(t)) {
+                        worker.trackers.add(t);
+                        worker.stealCount.inc();
+                        logFinest(logger, "Tasklet %s handed over to another cooperative thread", t.tasklet);
+                        worker.newTaskletSemaphore.release();
+                        LockSupport.unpark(worker.myThread);
+                    }
+                    return;
+                }
+            }
+        }
+
         private void runTasklet(TaskletTracker t) {
             long start = 0;
             if (finestLogEnabled) {
@@ -408,6 +487,9 @@ public class TaskletExecutionService {
                 final ProgressState result = t.tasklet.call();
                 if (result.isDone()) {
                     dismissTasklet(t);
+                } else if (result.isMadeProgress()) {
+                    progressedTaskletCount++;
+                    lastProgressedTracker = t;
                 }
                 progressTracker.mergeWith(result);
             } catch (Throwable e) {
@@ -51,6 +51,8 @@ import com.hazelcast.jet.impl.execution.StoreSnapshotTasklet;
 import com.hazelcast.jet.impl.execution.Tasklet;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcSupplierCtx;
+import com.hazelcast.jet.impl.memory.SpillContext;
+import com.hazelcast.jet.impl.memory.SpillingProcessor;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
 import com.hazelcast.jet.impl.util.ImdgUtil;
 import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
@@ -264,6 +266,13 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                             processorClassLoader
                     );
 
+                    if (processor instanceof SpillingProcessor) {
+                        SpillContext spillContext = SpillContext.create(context);
+                        if (spillContext != null) {
+                            ((SpillingProcessor) processor).setSpillContext(spillContext);
+                        }
+                    }
+
                     List<OutboundEdgeStream> outboundStreams = createOutboundEdgeStreams(
                             vertex, localProcessorIdx);
                     List<InboundEdgeStream> inboundStreams = createInboundEdgeStreams(
@@ -694,8 +703,8 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                     adaptedComparator);
             SenderTasklet t = new SenderTasklet(inboundEdgeStream, nodeEngine, destAddr,
                     memberConnections.get(destAddr),
-                    destVertexId, edge.getConfig().getPacketSizeLimit(), executionId,
-                    edge.sourceVertex().name(), edge.sourceOrdinal(), jobSerializationService
+                    destVertexId, edge.getConfig(),
+                    executionId, edge.sourceVertex().name(), edge.sourceOrdinal(), jobSerializationService
             );
             senderMap.computeIfAbsent(destVertexId, xx -> new HashMap<>())
                     .computeIfAbsent(edge.destOrdinal(), xx -> new HashMap<>())
@@ -787,7 +796,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                         final OutboundCollector collector = compositeCollector(collectors, edge, totalPtionCount, true, false);
                         ReceiverTasklet receiverTasklet = new ReceiverTasklet(
                                 collector, jobSerializationService,
-                                edge.getConfig().getReceiveWindowMultiplier(),
+                                edge.getConfig(),
                                 getJetConfig().getFlowControlPeriodMs(),
                                 nodeEngine.getLoggingService(), addr, edge.destOrdinal(), edge.destVertex().name(),
                                 memberConnections.get(addr), jobPrefix);
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.jet.Traverser;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts items using an in-memory priority queue and spills the queue as a
+ * sorted run to a {@link SpillFile} whenever it reaches the {@linkplain
+ * SpillContext#thresholdRecords() threshold}. The result is an external
+ * merge of the spilled runs and the items left in memory.
+ * <p>
+ * A run is written in chunks of {@value #SPILL_CHUNK_SIZE} items so that the
+ * processor can handle cancellation in between: {@link #tryAdd} returns
+ * {@code false} until the run is complete and must be called again with the
+ * same item. The runs are written and read with blocking I/O, so the
+ * processor must not be cooperative.
+ */
+public final class ExternalSorter<T> {
+
+    static final int SPILL_CHUNK_SIZE = 1024;
+
+    private final PriorityQueue<T> priorityQueue;
+    private final Comparator<? super T> comparator;
+    private final SpillContext spillContext;
+    private final List<SpillFile> runs = new ArrayList<>();
+
+    private SpillFile currentRun;
+
+    @SuppressWarnings("unchecked")
+    public ExternalSorter(@Nonnull PriorityQueue<T> priorityQueue, @Nonnull SpillContext spillContext) {
+        this.priorityQueue = priorityQueue;
+        this.comparator = priorityQueue.comparator() != null
+                ? priorityQueue.comparator()
+                : (left, right) -> ((Comparable<? super T>) left).compareTo(right);
+        this.spillContext = spillContext;
+    }
+
+    /**
+     * Adds the item, or spills a chunk of the in-memory items and returns
+     * {@code false} if the in-memory budget is exhausted.
+     */
+    public boolean tryAdd(@Nonnull T item) {
+        if (currentRun != null || priorityQueue.size() >= spillContext.thresholdRecords()) {
+            if (!spillChunk()) {
+                return false;
+            }
+        }
+        priorityQueue.add(item);
+        return true;
+    }
+
+    private boolean spillChunk() {
+        if (currentRun == null) {
+            currentRun = spillContext.newFile();
+        }
+        for (int i = 0; i < SPILL_CHUNK_SIZE && !priorityQueue.isEmpty(); i++) {
+            currentRun.write(priorityQueue.poll());
+        }
+        if (!priorityQueue.isEmpty()) {
+            return false;
+        }
+        currentRun.finishWriting();
+        runs.add(currentRun);
+        currentRun = null;
+        return true;
+    }
+
+    /**
+     * Returns the number of sorted runs spilled to disk.
+     */
+    public int spilledRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Returns a traverser over all the added items in sorted order. The spill
+     * files are deleted as soon as they are fully read.
+     */
+    @Nonnull
+    public Traverser<T> traverser() {
+        assert currentRun == null : "a run is still being spilled";
+        if (runs.isEmpty()) {
+            return priorityQueue::poll;
+        }
+        return new MergingTraverser();
+    }
+
+    private final class MergingTraverser implements Traverser<T> {
+
+        private final PriorityQueue<Cursor> cursors = new PriorityQueue<>(runs.size() + 1,
+                (left, right) -> comparator.compare(left.head, right.head));
+
+        MergingTraverser() {
+            for (SpillFile run : runs) {
+                addIfNotExhausted(new RunCursor(run));
+            }
+            runs.clear();
+            addIfNotExhausted(new QueueCursor());
+        }
+
+        private void addIfNotExhausted(Cursor cursor) {
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+
+        @Override
+        public T next() {
+            Cursor cursor = cursors.poll();
+            if (cursor == null) {
+                return null;
+            }
+            T item = cursor.head;
+            addIfNotExhausted(cursor);
+            return item;
+        }
+    }
+
+    private abstract class Cursor {
+        T head;
+
+        /**
+         * Moves {@link #head} to the next item, returns {@code false} if
+         * there is none.
+         */
+        abstract boolean advance();
+    }
+
+    private final class QueueCursor extends Cursor {
+
+        @Override
+        boolean advance() {
+            head = priorityQueue.poll();
+            return head != null;
+        }
+    }
+
+    private final class RunCursor extends Cursor {
+
+        private final SpillFile run;
+        private final SpillFile.Reader reader;
+
+        RunCursor(SpillFile run) {
+            this.run = run;
+            this.reader = run.reader();
+        }
+
+        @Override
+        boolean advance() {
+            if (reader.hasNext()) {
+                head = reader.next();
+                return true;
+            }
+            head = null;
+            reader.close();
+            spillContext.delete(run);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+
+/**
+ * Spills the entries of a key-to-state map to hash partitioned {@link
+ * SpillFile}s and loads them back one partition at a time. Loading a
+ * partition combines the states of equal keys, so the entries of a key can be
+ * spilled several times. Each partition must fit in memory when loaded.
+ * <p>
+ * Both spilling and loading proceed in chunks of {@value #CHUNK_SIZE}
+ * entries so that the processor can handle cancellation in between: the
+ * methods return {@code false} until the work is complete and must be called
+ * again. The files are written and read with
+ * blocking I/O, so the processor must not be cooperative.
+ *
+ * @param <K> type of the key
+ * @param <V> type of the state
+ */
+public final class PartitionedSpill<K, V> {
+
+    static final int CHUNK_SIZE = 1024;
+    static final int PARTITION_COUNT = 16;
+
+    private final SpillContext spillContext;
+    private final SpillFile[] partitions = new SpillFile[PARTITION_COUNT];
+
+    private Iterator<Entry<K, V>> spillIterator;
+    private SpillFile.Reader loadReader;
+    private boolean spilled;
+
+    public PartitionedSpill(@Nonnull SpillContext spillContext) {
+        this.spillContext = spillContext;
+    }
+
+    /**
+     * Tells whether any entry was spilled.
+     */
+    public boolean hasSpilled() {
+        return spilled;
+    }
+
+    /**
+     * Tells whether a previous call to {@link #spillChunk} didn't finish
+     * spilling the map.
+     */
+    public boolean isSpilling() {
+        return spillIterator != null;
+    }
+
+    public int partitionCount() {
+        return PARTITION_COUNT;
+    }
+
+    /**
+     * Moves a chunk of the map's entries to the spill files. Returns {@code
+     * true} if the map is empty afterwards. The map must not be modified until
+     * this method returns {@code true}.
+     */
+    public boolean spillChunk(@Nonnull Map<K, V> map) {
+        if (spillIterator == null) {
+            spillIterator = map.entrySet().iterator();
+        }
+        for (int i = 0; i < CHUNK_SIZE && spillIterator.hasNext(); i++) {
+            Entry<K, V> entry = spillIterator.next();
+            SpillFile file = partitionFile(entry.getKey());
+            file.write(entry.getKey());
+            file.write(entry.getValue());
+            spillIterator.remove();
+            spilled = true;
+        }
+        if (spillIterator.hasNext()) {
+            return false;
+        }
+        spillIterator = null;
+        return true;
+    }
+
+    private SpillFile partitionFile(K key) {
+        int partition = (key.hashCode() & Integer.MAX_VALUE) % PARTITION_COUNT;
+        SpillFile file = partitions[partition];
+        if (file == null) {
+            file = spillContext.newFile();
+            partitions[partition] = file;
+        }
+        return file;
+    }
+
+    /**
+     * Loads a chunk of the spilled entries of the given partition into the
+     * map, combining the states of keys already present with the {@code
+     * combineFn}, which must accumulate its right argument into its left one.
+     * Returns {@code true} if the partition is fully loaded, its spill file is
+     * deleted then.
+     */
+    public boolean loadChunk(int partition, @Nonnull Map<K, V> map, @Nonnull BiConsumer<? super V, ? super V> combineFn) {
+        SpillFile file = partitions[partition];
+        if (file == null) {
+            return true;
+        }
+        if (loadReader == null) {
+            loadReader = file.reader();
+        }
+        for (int i = 0; i < CHUNK_SIZE && loadReader.hasNext(); i++) {
+            K key = loadReader.next();
+            V value = loadReader.next();
+            V existing = map.putIfAbsent(key, value);
+            if (existing != null) {
+                combineFn.accept(existing, value);
+            }
+        }
+        if (loadReader.hasNext()) {
+            return false;
+        }
+        loadReader.close();
+        loadReader = null;
+        partitions[partition] = null;
+        spillContext.delete(file);
+        return true;
+    }
+}
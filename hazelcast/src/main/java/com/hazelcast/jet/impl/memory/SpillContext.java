@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_DIR;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SPILL_THRESHOLD_RECORDS;
+
+/**
+ * The spill settings of a single processor and the spill files it created.
+ * Closing the context deletes all the files that are still present.
+ *
+ * @see com.hazelcast.spi.properties.ClusterProperty#JET_SPILL_THRESHOLD_RECORDS
+ */
+public final class SpillContext implements AutoCloseable {
+
+    private final Path directory;
+    private final String filePrefix;
+    private final long thresholdRecords;
+    private final InternalSerializationService serializationService;
+    private final List<SpillFile> files = new ArrayList<>();
+
+    public SpillContext(
+            @Nonnull Path directory,
+            @Nonnull String filePrefix,
+            long thresholdRecords,
+            @Nonnull InternalSerializationService serializationService
+    ) {
+        this.directory = directory;
+        this.filePrefix = filePrefix;
+        this.thresholdRecords = thresholdRecords;
+        this.serializationService = serializationService;
+    }
+
+    /**
+     * Creates the spill context of the processor with the given context.
+     * Returns {@code null} if spilling is disabled or the processor doesn't run
+     * in a Jet job, for example in a unit test.
+     */
+    @Nullable
+    public static SpillContext create(@Nonnull Processor.Context context) {
+        if (!(context instanceof ProcCtx)) {
+            return null;
+        }
+        ProcCtx procCtx = (ProcCtx) context;
+        HazelcastProperties properties = procCtx.nodeEngine().getProperties();
+        long thresholdRecords = properties.getLong(JET_SPILL_THRESHOLD_RECORDS);
+        if (thresholdRecords <= 0) {
+            return null;
+        }
+        String dir = properties.getString(JET_SPILL_DIR);
+        Path directory = Paths.get(dir != null ? dir : System.getProperty("java.io.tmpdir"));
+        String filePrefix = "jet-spill-" + idToString(context.executionId()) + '-' + context.globalProcessorIndex() + '-';
+        return new SpillContext(directory, filePrefix, thresholdRecords, procCtx.serializationService());
+    }
+
+    /**
+     * Returns the number of records the processor keeps in memory before it
+     * spills them.
+     */
+    public long thresholdRecords() {
+        return thresholdRecords;
+    }
+
+    /**
+     * Creates a new, empty spill file.
+     */
+    @Nonnull
+    public SpillFile newFile() {
+        try {
+            Files.createDirectories(directory);
+            SpillFile file = new SpillFile(Files.createTempFile(directory, filePrefix, ".spill"), serializationService);
+            files.add(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spill file in " + directory, e);
+        }
+    }
+
+    /**
+     * Deletes the given file which is no longer needed.
+     */
+    public void delete(@Nonnull SpillFile file) {
+        files.remove(file);
+        file.delete();
+    }
+
+    @Override
+    public void close() {
+        for (SpillFile file : files) {
+            file.delete();
+        }
+        files.clear();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An append-only file of serialized records written by a processor that
+ * exceeded its in-memory budget. Each record is stored as {@code [int
+ * length][serialized bytes]}. Once writing is finished, the file is read
+ * sequentially through a buffered stream.
+ * <p>
+ * All the methods do blocking I/O, a processor using spill files must not be
+ * cooperative.
+ */
+public final class SpillFile {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final InternalSerializationService serializationService;
+
+    private DataOutputStream out;
+    private long recordCount;
+
+    SpillFile(@Nonnull Path path, @Nonnull InternalSerializationService serializationService) {
+        this.path = path;
+        this.serializationService = serializationService;
+        try {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spill file " + path, e);
+        }
+    }
+
+    public void write(Object record) {
+        byte[] bytes = serializationService.toBytes(record);
+        try {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to spill file " + path, e);
+        }
+        recordCount++;
+    }
+
+    /**
+     * Returns the number of records written to this file.
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Flushes and closes the output of this file. No records can be written
+     * after this call.
+     */
+    public void finishWriting() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to spill file " + path, e);
+        } finally {
+            out = null;
+        }
+    }
+
+    /**
+     * Finishes writing and returns a reader of the records in the order they
+     * were written.
+     */
+    @Nonnull
+    public Reader reader() {
+        finishWriting();
+        try {
+            return new Reader(new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read spill file " + path, e);
+        }
+    }
+
+    /**
+     * Closes the output and deletes the file.
+     */
+    public void delete() {
+        try {
+            finishWriting();
+        } catch (UncheckedIOException ignored) {
+            // the file is deleted anyway
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete spill file " + path, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile{path=" + path + ", recordCount=" + recordCount + '}';
+    }
+
+    /**
+     * Reads the records of a spill file sequentially.
+     */
+    public final class Reader implements Closeable {
+
+        private final DataInputStream in;
+        private long remainingRecords = recordCount;
+
+        private Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        public boolean hasNext() {
+            return remainingRecords > 0;
+        }
+
+        /**
+         * Returns the next record, the caller must check {@link #hasNext()}
+         * first.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T next() {
+            try {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                remainingRecords--;
+                return (T) serializationService.toObject(new HeapData(bytes));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read spill file " + path, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close spill file " + path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.memory;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A processor which can spill its state to disk. Spilling is blocking I/O,
+ * so such a processor is not cooperative if spilling is enabled. Since
+ * {@link com.hazelcast.jet.core.Processor#isCooperative()} is called before
+ * {@code init()}, the execution plan passes the spill context to the
+ * processor right after creating it.
+ */
+public interface SpillingProcessor {
+
+    /**
+     * Sets the spill context of this processor. Called before {@code
+     * isCooperative()} and {@code init()}, and only if spilling is enabled.
+     */
+    void setSpillContext(@Nonnull SpillContext spillContext);
+}
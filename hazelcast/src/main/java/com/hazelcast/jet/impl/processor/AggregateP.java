@@ -17,6 +17,7 @@
 package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.impl.memory.SpillContext;
 
 import javax.annotation.Nonnull;
 
@@ -27,6 +28,10 @@ import static java.util.Collections.nCopies;
  * items may originate from one or more inbound edges. The supplied
  * aggregate operation must have as many accumulation functions as there
  * are inbound edges.
+ * <p>
+ * The processor never spills: it has a single accumulator, which can't
+ * reach the spill threshold. So it stays cooperative even if spilling is
+ * enabled.
  */
 public class AggregateP<A, R> extends GroupP<String, A, R, R> {
 
@@ -36,4 +41,9 @@ public class AggregateP<A, R> extends GroupP<String, A, R, R> {
         super(nCopies(aggrOp.arity(), t -> CONSTANT_KEY), aggrOp, (k, r) -> r);
         keyToAcc.put(CONSTANT_KEY, aggrOp.createFn().get());
     }
+
+    @Override
+    public void setSpillContext(@Nonnull SpillContext spillContext) {
+        // a single accumulator never reaches the spill threshold
+    }
 }
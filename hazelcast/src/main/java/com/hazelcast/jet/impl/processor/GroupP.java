@@ -23,6 +23,9 @@ import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.PartitionedSpill;
+import com.hazelcast.jet.impl.memory.SpillContext;
+import com.hazelcast.jet.impl.memory.SpillingProcessor;
 
 import javax.annotation.Nonnull;
 import java.util.HashMap;
@@ -41,8 +44,14 @@ import static java.util.Collections.singletonList;
  * aggregate operation on each group. The items may originate from one or
  * more inbound edges. The supplied aggregate operation must have as many
  * accumulation functions as there are inbound edges.
+ * <p>
+ * If {@linkplain com.hazelcast.spi.properties.ClusterProperty#JET_SPILL_THRESHOLD_RECORDS
+ * spilling} is enabled and the aggregate operation has a combine function,
+ * the accumulators are spilled to disk whenever their number reaches the
+ * threshold. On completion, the spilled accumulators are loaded and combined
+ * one hash partition at a time. The processor isn't cooperative then.
  */
-public class GroupP<K, A, R, OUT> extends AbstractProcessor {
+public class GroupP<K, A, R, OUT> extends AbstractProcessor implements SpillingProcessor {
 
     protected final Map<K, A> keyToAcc = new HashMap<>();
 
@@ -52,6 +61,10 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
 
     private long maxEntries;
     private Traverser<OUT> resultTraverser;
+    private SpillContext spillContext;
+    private PartitionedSpill<K, A> spill;
+    private boolean inMemoryAccumulatorsSpilled;
+    private int partitionToLoad;
 
     public GroupP(
             @Nonnull List<FunctionEx<?, ? extends K>> groupKeyFns,
@@ -73,14 +86,34 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
         this(singletonList(groupKeyFn), aggrOp, mapToOutputFn);
     }
 
+    @Override
+    public void setSpillContext(@Nonnull SpillContext spillContext) {
+        // without a combine function the spilled accumulators can't be merged
+        if (aggrOp.combineFn() != null) {
+            this.spillContext = spillContext;
+        }
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return spillContext == null;
+    }
+
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxEntries = context.maxProcessorAccumulatedRecords();
+        if (spillContext != null) {
+            spill = new PartitionedSpill<>(spillContext);
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        if (spill != null && (spill.isSpilling() || keyToAcc.size() >= spillContext.thresholdRecords())
+                && !spill.spillChunk(keyToAcc)) {
+            return false;
+        }
         Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
         K key = keyFn.apply(item);
         A acc = keyToAcc.computeIfAbsent(key, k -> {
@@ -96,17 +129,59 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
 
     @Override
     public boolean complete() {
+        if (spill != null && spill.hasSpilled()) {
+            return completeSpilled();
+        }
         if (resultTraverser == null) {
-            resultTraverser = new ResultTraverser()
-                    // reuse null filtering done by map()
-                    .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
+            resultTraverser = newResultTraverser();
         }
         return emitFromTraverser(resultTraverser);
     }
 
+    private boolean completeSpilled() {
+        // spill the accumulators left in memory too, so that each key's
+        // accumulators are combined within its partition
+        if (!inMemoryAccumulatorsSpilled) {
+            if (!spill.spillChunk(keyToAcc)) {
+                return false;
+            }
+            inMemoryAccumulatorsSpilled = true;
+        }
+        while (true) {
+            if (resultTraverser == null) {
+                if (partitionToLoad == spill.partitionCount()) {
+                    return true;
+                }
+                if (!spill.loadChunk(partitionToLoad, keyToAcc, aggrOp.combineFn())) {
+                    return false;
+                }
+                partitionToLoad++;
+                resultTraverser = newResultTraverser();
+            }
+            if (!emitFromTraverser(resultTraverser)) {
+                return false;
+            }
+            resultTraverser = null;
+        }
+    }
+
+    private Traverser<OUT> newResultTraverser() {
+        return new ResultTraverser()
+                // reuse null filtering done by map()
+                .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
+    }
+
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        // deleting the spill files is blocking I/O
+        return spillContext == null;
+    }
+
+    @Override
+    public void close() {
+        if (spillContext != null) {
+            spillContext.close();
+        }
     }
 
     private class ResultTraverser implements Traverser<Entry<K, A>> {
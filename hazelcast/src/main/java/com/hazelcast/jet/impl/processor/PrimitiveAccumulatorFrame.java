@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+
+/**
+ * A window frame of a keyed aggregation whose accumulator is a single
+ * primitive value, for example a {@link LongAccumulator}. The keys and the
+ * primitive values are held in two flat arrays using open addressing with
+ * linear probing, so accumulating an item neither allocates nor follows
+ * pointers.
+ * <p>
+ * The accumulators returned by the {@link Map} methods are fresh copies of
+ * the stored values: mutating them doesn't change the frame. To update the
+ * frame, use {@link #put}, {@link #merge} or the primitive methods of the
+ * subclasses.
+ *
+ * @param <K> type of the grouping key
+ * @param <A> type of the accumulator
+ */
+abstract class PrimitiveAccumulatorFrame<K, A> extends AbstractMap<K, A> {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private Object[] keys = new Object[MIN_CAPACITY];
+    private long[] values = new long[MIN_CAPACITY];
+    private int size;
+    private int resizeThreshold = (int) (MIN_CAPACITY * LOAD_FACTOR);
+
+    private EntrySet entrySet;
+
+    /**
+     * Creates an accumulator holding the given stored value.
+     */
+    abstract A toAccumulator(long value);
+
+    /**
+     * Returns the stored value of the given accumulator.
+     */
+    abstract long toValue(A accumulator);
+
+    /**
+     * Returns the slot of the key, inserting the key with a zero value if it
+     * is absent. Returns the slot as {@code -slot - 1} if the key was
+     * inserted.
+     */
+    final int slotOrInsert(@Nonnull K key) {
+        int mask = keys.length - 1;
+        int slot = fastIntMix(key.hashCode()) & mask;
+        for (Object k; (k = keys[slot]) != null; slot = (slot + 1) & mask) {
+            if (k.equals(key)) {
+                return slot;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = 0;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+            return -slotOf(key) - 1;
+        }
+        return -slot - 1;
+    }
+
+    final long valueAt(int slot) {
+        return values[slot];
+    }
+
+    final void setValueAt(int slot, long value) {
+        values[slot] = value;
+    }
+
+    private int slotOf(Object key) {
+        int mask = keys.length - 1;
+        int slot = fastIntMix(key.hashCode()) & mask;
+        for (Object k; (k = keys[slot]) != null; slot = (slot + 1) & mask) {
+            if (k.equals(key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new Object[newCapacity];
+        values = new long[newCapacity];
+        resizeThreshold = (int) (newCapacity * LOAD_FACTOR);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int slot = fastIntMix(key.hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && slotOf(key) >= 0;
+    }
+
+    @Override
+    public A get(Object key) {
+        int slot = key == null ? -1 : slotOf(key);
+        return slot < 0 ? null : toAccumulator(values[slot]);
+    }
+
+    @Override
+    public A put(@Nonnull K key, @Nonnull A value) {
+        int slot = slotOrInsert(key);
+        if (slot < 0) {
+            values[-slot - 1] = toValue(value);
+            return null;
+        }
+        A previous = toAccumulator(values[slot]);
+        values[slot] = toValue(value);
+        return previous;
+    }
+
+    @Override
+    public A merge(@Nonnull K key, @Nonnull A value, @Nonnull BiFunction<? super A, ? super A, ? extends A> remappingFn) {
+        int slot = slotOrInsert(key);
+        if (slot < 0) {
+            values[-slot - 1] = toValue(value);
+            return value;
+        }
+        A merged = remappingFn.apply(toAccumulator(values[slot]), value);
+        if (merged == null) {
+            removeAt(slot);
+        } else {
+            values[slot] = toValue(merged);
+        }
+        return merged;
+    }
+
+    @Override
+    public A remove(Object key) {
+        int slot = key == null ? -1 : slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        A removed = toAccumulator(values[slot]);
+        removeAt(slot);
+        return removed;
+    }
+
+    /**
+     * Removes the entry at the slot and shifts back the entries of the
+     * following probe sequence, so that no tombstones are needed.
+     */
+    private void removeAt(int slot) {
+        int mask = keys.length - 1;
+        keys[slot] = null;
+        size--;
+        int gap = slot;
+        for (int i = (slot + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+            int home = fastIntMix(keys[i].hashCode()) & mask;
+            // move the entry into the gap unless its home slot lies
+            // cyclically within (gap, i]
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                keys[i] = null;
+                gap = i;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    @Nonnull
+    @Override
+    public Set<Entry<K, A>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, A>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Nonnull
+        @Override
+        public Iterator<Entry<K, A>> iterator() {
+            return new Iterator<Entry<K, A>>() {
+                private int slot = nextSlot(0);
+
+                private int nextSlot(int from) {
+                    int i = from;
+                    while (i < keys.length && keys[i] == null) {
+                        i++;
+                    }
+                    return i;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return slot < keys.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Entry<K, A> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<K, A> entry = new SimpleImmutableEntry<>((K) keys[slot], toAccumulator(values[slot]));
+                    slot = nextSlot(slot + 1);
+                    return entry;
+                }
+            };
+        }
+    }
+
+    /**
+     * A frame of {@link LongAccumulator}s.
+     */
+    static final class LongFrame<K> extends PrimitiveAccumulatorFrame<K, LongAccumulator> {
+
+        /**
+         * Adds the value to the key's sum. Returns {@code true} if the key was
+         * absent before.
+         */
+        boolean add(@Nonnull K key, long value) {
+            int slot = slotOrInsert(key);
+            boolean inserted = slot < 0;
+            if (inserted) {
+                slot = -slot - 1;
+            }
+            setValueAt(slot, Math.addExact(valueAt(slot), value));
+            return inserted;
+        }
+
+        @Override
+        LongAccumulator toAccumulator(long value) {
+            return new LongAccumulator(value);
+        }
+
+        @Override
+        long toValue(LongAccumulator accumulator) {
+            return accumulator.get();
+        }
+    }
+
+    /**
+     * A frame of {@link DoubleAccumulator}s.
+     */
+    static final class DoubleFrame<K> extends PrimitiveAccumulatorFrame<K, DoubleAccumulator> {
+
+        /**
+         * Adds the value to the key's sum. Returns {@code true} if the key was
+         * absent before.
+         */
+        boolean add(@Nonnull K key, double value) {
+            int slot = slotOrInsert(key);
+            boolean inserted = slot < 0;
+            if (inserted) {
+                slot = -slot - 1;
+            }
+            setValueAt(slot, Double.doubleToRawLongBits(Double.longBitsToDouble(valueAt(slot)) + value));
+            return inserted;
+        }
+
+        @Override
+        DoubleAccumulator toAccumulator(long value) {
+            return new DoubleAccumulator(Double.longBitsToDouble(value));
+        }
+
+        @Override
+        long toValue(DoubleAccumulator accumulator) {
+            return Double.doubleToRawLongBits(accumulator.export());
+        }
+    }
+}
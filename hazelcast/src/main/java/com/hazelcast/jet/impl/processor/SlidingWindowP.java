@@ -23,6 +23,8 @@ import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.Traversers;
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.jet.core.AbstractProcessor;
@@ -31,8 +33,12 @@ import com.hazelcast.jet.core.SlidingWindowPolicy;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.core.function.KeyedWindowResultFunction;
 import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.impl.aggregate.DoubleSumAccumulateFn;
+import com.hazelcast.jet.impl.aggregate.LongSumAccumulateFn;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.processor.PrimitiveAccumulatorFrame.DoubleFrame;
+import com.hazelcast.jet.impl.processor.PrimitiveAccumulatorFrame.LongFrame;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
@@ -107,6 +113,13 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     private ProcessingGuarantee processingGuarantee;
     private final byte windowWatermarkKey;
 
+    // Non-null if the frames are primitive tables of long or double sums,
+    // see PrimitiveAccumulatorFrame. At most one of them is set.
+    @Nullable
+    private final LongSumAccumulateFn<Object> longSumFn;
+    @Nullable
+    private final DoubleSumAccumulateFn<Object> doubleSumFn;
+
     // extracted lambdas to reduce GC litter
     private final LongFunction<Map<K, A>> createMapPerTsFunction;
     private final Function<K, A> createAccFunction;
@@ -167,8 +180,20 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                         .onFirstNull(() -> nextWinToEmit = winPolicy.higherFrameTs(wm.timestamp()))
         );
         this.emptyAcc = aggrOp.createFn().get();
+        this.longSumFn = aggrOp.arity() == 1 && aggrOp.accumulateFn(0) instanceof LongSumAccumulateFn
+                && new LongAccumulator().equals(emptyAcc)
+                ? (LongSumAccumulateFn<Object>) aggrOp.accumulateFn(0) : null;
+        this.doubleSumFn = aggrOp.arity() == 1 && aggrOp.accumulateFn(0) instanceof DoubleSumAccumulateFn
+                && new DoubleAccumulator().equals(emptyAcc)
+                ? (DoubleSumAccumulateFn<Object>) aggrOp.accumulateFn(0) : null;
         this.createMapPerTsFunction = x -> {
             totalFrames.inc();
+            if (longSumFn != null) {
+                return (Map<K, A>) new LongFrame<K>();
+            }
+            if (doubleSumFn != null) {
+                return (Map<K, A>) new DoubleFrame<K>();
+            }
             return new HashMap<>();
         };
         this.createAccFunction = k -> {
@@ -246,14 +271,27 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return true;
         }
         final K key = keyFns.get(ordinal).apply(item);
-        A acc = tsToKeyToAcc
-                .computeIfAbsent(frameTs, createMapPerTsFunction)
-                .computeIfAbsent(key, createAccFunction);
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+        Map<K, A> frame = tsToKeyToAcc.computeIfAbsent(frameTs, createMapPerTsFunction);
+        if (longSumFn != null || doubleSumFn != null) {
+            accumulatePrimitive(frame, key, item);
+        } else {
+            A acc = frame.computeIfAbsent(key, createAccFunction);
+            aggrOp.accumulateFn(ordinal).accept(acc, item);
+        }
         topTs = max(topTs, frameTs);
         return true;
     }
 
+    @SuppressWarnings("unchecked")
+    private void accumulatePrimitive(Map<K, A> frame, K key, Object item) {
+        boolean added = longSumFn != null
+                ? ((LongFrame<K>) frame).add(key, longSumFn.valueOf(item))
+                : ((DoubleFrame<K>) frame).add(key, doubleSumFn.valueOf(item));
+        if (added && totalKeysInFrames.inc() == maxEntries) {
+            throw new AccumulationLimitExceededException();
+        }
+    }
+
     @Override
     public boolean tryProcessWatermark(@Nonnull Watermark wm) {
         // drop all watermarks except for the one we use for timestamps
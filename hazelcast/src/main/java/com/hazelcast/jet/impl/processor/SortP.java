@@ -20,27 +20,44 @@ import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.ExternalSorter;
+import com.hazelcast.jet.impl.memory.SpillContext;
+import com.hazelcast.jet.impl.memory.SpillingProcessor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Comparator;
 import java.util.PriorityQueue;
 
-public class SortP<T> extends AbstractProcessor {
+public class SortP<T> extends AbstractProcessor implements SpillingProcessor {
 
     private final PriorityQueue<T> priorityQueue;
-    private final Traverser<T> resultTraverser;
 
     private long maxItems;
+    private SpillContext spillContext;
+    private ExternalSorter<T> sorter;
+    private Traverser<T> resultTraverser;
 
     public SortP(@Nullable Comparator<T> comparator) {
         this.priorityQueue = new PriorityQueue<>(comparator);
-        this.resultTraverser = priorityQueue::poll;
+    }
+
+    @Override
+    public void setSpillContext(@Nonnull SpillContext spillContext) {
+        this.spillContext = spillContext;
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return spillContext == null;
     }
 
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
         maxItems = context.maxProcessorAccumulatedRecords();
+        if (spillContext != null) {
+            sorter = new ExternalSorter<>(priorityQueue, spillContext);
+        }
     }
 
     @Override
@@ -50,17 +67,31 @@ public class SortP<T> extends AbstractProcessor {
             throw new AccumulationLimitExceededException();
         }
 
+        if (sorter != null) {
+            return sorter.tryAdd((T) item);
+        }
         priorityQueue.add((T) item);
         return true;
     }
 
     @Override
     public boolean complete() {
+        if (resultTraverser == null) {
+            resultTraverser = sorter != null ? sorter.traverser() : priorityQueue::poll;
+        }
         return emitFromTraverser(resultTraverser);
     }
 
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        // deleting the spill files is blocking I/O
+        return spillContext == null;
+    }
+
+    @Override
+    public void close() {
+        if (spillContext != null) {
+            spillContext.close();
+        }
     }
 }
@@ -26,6 +26,7 @@ import com.hazelcast.internal.serialization.impl.SerializationConstants;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.execution.SnapshotContext;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.jet.impl.serialization.SerializerHookConstants;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
 import com.hazelcast.nio.ObjectDataInput;
@@ -33,6 +34,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.partition.PartitionAware;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
@@ -48,14 +50,17 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
+import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.impl.JobRepository.safeImap;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_FULL_SNAPSHOT_INTERVAL;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_INCREMENTAL_COMPARE_VALUES;
 
 public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
     public static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
 
     final int usableChunkCapacity; // this includes the serialization header for byte[], but not the terminator
-    final byte[] serializedByteArrayHeader = new byte[3 * Bits.INT_SIZE_IN_BYTES];
+    final byte[] serializedByteArrayHeader = createSerializedByteArrayHeader();
     final byte[] valueTerminator;
     final AtomicInteger numConcurrentAsyncOps;
 
@@ -75,6 +80,10 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     private final AtomicReference<Throwable> firstError = new AtomicReference<>();
     private final AtomicInteger numActiveFlushes = new AtomicInteger();
 
+    // non-null if incremental snapshots are enabled
+    private final SnapshotChangeTracker changeTracker;
+    private final Data tombstone;
+
     // stats
     private long totalKeys;
     private long totalChunks;
@@ -112,11 +121,6 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
         useBigEndian = serializationService.getByteOrder().equals(ByteOrder.BIG_ENDIAN);
 
-        // outermost typeId should always be serialized with big endian
-        // see InternalSerializationService#getByteOrder()
-        Bits.writeInt(serializedByteArrayHeader, Bits.INT_SIZE_IN_BYTES, SerializationConstants.CONSTANT_TYPE_BYTE_ARRAY,
-                true);
-
         buffers = createAndInitBuffers(chunkSize, partitionService.getPartitionCount(), serializedByteArrayHeader);
         JetServiceBackend jetServiceBackend = nodeEngine.getService(JetServiceBackend.SERVICE_NAME);
         this.partitionKeys = jetServiceBackend.getSharedPartitionKeys();
@@ -124,13 +128,33 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
         this.numConcurrentAsyncOps = jetServiceBackend.numConcurrentAsyncOps();
 
-        byte[] valueTerminatorWithHeader = serializationService.toData(SnapshotDataValueTerminator.INSTANCE).toByteArray();
-        valueTerminator = Arrays.copyOfRange(valueTerminatorWithHeader, HeapData.TYPE_OFFSET,
-                valueTerminatorWithHeader.length);
+        valueTerminator = serializeWithoutHeader(serializationService, SnapshotDataValueTerminator.INSTANCE);
         usableChunkCapacity = chunkSize - valueTerminator.length - serializedByteArrayHeader.length;
         if (usableChunkCapacity <= 0) {
             throw new IllegalArgumentException("too small chunk size: " + chunkSize);
         }
+
+        changeTracker = createChangeTracker(nodeEngine.getProperties());
+        tombstone = serializationService.toData(SnapshotDataValueTombstone.INSTANCE);
+    }
+
+    private static byte[] createSerializedByteArrayHeader() {
+        byte[] header = new byte[3 * Bits.INT_SIZE_IN_BYTES];
+        // outermost typeId should always be serialized with big endian
+        // see InternalSerializationService#getByteOrder()
+        Bits.writeInt(header, Bits.INT_SIZE_IN_BYTES, SerializationConstants.CONSTANT_TYPE_BYTE_ARRAY, true);
+        return header;
+    }
+
+    private static byte[] serializeWithoutHeader(InternalSerializationService serializationService, Object object) {
+        byte[] bytesWithHeader = serializationService.toData(object).toByteArray();
+        return Arrays.copyOfRange(bytesWithHeader, HeapData.TYPE_OFFSET, bytesWithHeader.length);
+    }
+
+    private static SnapshotChangeTracker createChangeTracker(HazelcastProperties properties) {
+        return properties.getInteger(JET_SNAPSHOT_FULL_SNAPSHOT_INTERVAL) > 1
+                ? new SnapshotChangeTracker(properties.getBoolean(JET_SNAPSHOT_INCREMENTAL_COMPARE_VALUES))
+                : null;
     }
 
     private static CustomByteArrayOutputStream[] createAndInitBuffers(
@@ -163,6 +187,23 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     @Override
     @CheckReturnValue
     public boolean offer(Entry<? extends Data, ? extends Data> entry) {
+        if (isTrackingChanges()
+                && entry.getKey().getType() != SerializerHookConstants.BROADCAST_KEY
+                && !changeTracker.track(entry.getKey(), entry.getValue())
+                && snapshotContext.isIncremental()) {
+            // unchanged since the previous snapshot
+            return true;
+        }
+        return write(entry);
+    }
+
+    private boolean isTrackingChanges() {
+        // exported snapshots are always full and don't change the tracked state
+        return changeTracker != null && !snapshotContext.isExport();
+    }
+
+    @CheckReturnValue
+    private boolean write(Entry<? extends Data, ? extends Data> entry) {
         int partitionId = partitionService.getPartitionId(entry.getKey());
         int length = entry.getKey().totalSize() + entry.getValue().totalSize() - 2 * HeapData.TYPE_OFFSET;
 
@@ -297,6 +338,11 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
             return false;
         }
 
+        boolean trackingChanges = isTrackingChanges();
+        if (trackingChanges && snapshotContext.isIncremental() && !writeTombstones()) {
+            return false;
+        }
+
         for (int i = 0; i < buffers.length; i++) {
             if (!flushPartition(i)) {
                 return false;
@@ -305,6 +351,9 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
         // we're done
         currentMap = null;
+        if (trackingChanges) {
+            changeTracker.snapshotDone();
+        }
         if (logger.isFineEnabled()) {
             logger.fine(String.format("Stats for %s: keys=%,d, chunks=%,d, bytes=%,d",
                     vertexName, totalKeys, totalChunks, totalPayloadBytes));
@@ -312,6 +361,20 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         return true;
     }
 
+    /**
+     * Writes a tombstone for each key of the previous snapshot that wasn't
+     * offered to the current incremental snapshot.
+     */
+    @CheckReturnValue
+    private boolean writeTombstones() {
+        for (Data key; (key = changeTracker.removedKey()) != null; changeTracker.advanceRemovedKey()) {
+            if (!write(entry(key, tombstone))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void resetStats() {
         totalKeys = totalChunks = totalPayloadBytes = 0;
@@ -449,6 +512,36 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         }
     }
 
+    /**
+     * The value of a key removed since the previous snapshot, written to
+     * incremental snapshots.
+     */
+    public static final class SnapshotDataValueTombstone implements IdentifiedDataSerializable {
+
+        public static final IdentifiedDataSerializable INSTANCE = new SnapshotDataValueTombstone();
+
+        private SnapshotDataValueTombstone() {
+        }
+
+        @Override
+        public int getFactoryId() {
+            return JetInitDataSerializerHook.FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return JetInitDataSerializerHook.ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_VALUE_TOMBSTONE;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+    }
+
     /**
      * Non-synchronized variant of {@code java.io.ByteArrayOutputStream} with capacity limit.
      */
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.nio.Bits.readIntL;
+
+/**
+ * A compressor and decompressor of the LZ4 block format. The compressor is a
+ * single-pass greedy matcher over a hash table of 4-byte sequences, which
+ * trades some compression ratio for speed. It keeps the table between calls,
+ * therefore an instance must not be used by several threads at the same time.
+ * <p>
+ * The output is a plain LZ4 block without a frame: the caller must store the
+ * uncompressed length to be able to {@linkplain #decompress decompress} it.
+ */
+public final class Lz4BlockCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_LOG = 12;
+    private static final int HASH_MULTIPLIER = -1640531535;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int RUN_MASK = 0x0F;
+    private static final int MATCH_LENGTH_BITS = 4;
+    private static final int MAX_OVERHEAD = 16;
+    private static final int EXTENSION_BYTE = 0xFF;
+    // the last match must start at least this many bytes before the end of input
+    private static final int MF_LIMIT = 12;
+    // the last bytes of input are always encoded as literals
+    private static final int LAST_LITERALS = 5;
+    private static final int SKIP_TRIGGER = 6;
+
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * Returns the maximum length of the compressed form of the given number
+     * of bytes.
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / EXTENSION_BYTE + MAX_OVERHEAD;
+    }
+
+    /**
+     * Compresses {@code length} bytes of {@code src} starting at {@code
+     * srcOffset} into {@code dest} starting at {@code destOffset}. The
+     * destination must have room for {@link #maxCompressedLength} bytes.
+     *
+     * @return the length of the compressed data
+     */
+    public int compress(byte[] src, int srcOffset, int length, byte[] dest, int destOffset) {
+        int srcEnd = srcOffset + length;
+        int matchLimit = srcEnd - LAST_LITERALS;
+        int mfLimit = srcEnd - MF_LIMIT;
+        int anchor = srcOffset;
+        int dp = destOffset;
+        if (length > MF_LIMIT) {
+            Arrays.fill(hashTable, -1);
+            int sp = srcOffset + 1;
+            int searchCount = 1 << SKIP_TRIGGER;
+            while (sp < mfLimit) {
+                int sequence = readIntL(src, sp);
+                int hash = hash(sequence);
+                int ref = hashTable[hash];
+                hashTable[hash] = sp;
+                if (ref < 0 || sp - ref > MAX_OFFSET || readIntL(src, ref) != sequence) {
+                    // the longer we don't find a match, the bigger steps we take
+                    sp += searchCount++ >>> SKIP_TRIGGER;
+                    continue;
+                }
+                searchCount = 1 << SKIP_TRIGGER;
+                while (sp > anchor && ref > srcOffset && src[sp - 1] == src[ref - 1]) {
+                    sp--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (sp + matchLength < matchLimit && src[sp + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                dp = writeSequence(src, anchor, sp - anchor, sp - ref, matchLength, dest, dp);
+                sp += matchLength;
+                anchor = sp;
+            }
+        }
+        dp = writeLiterals(src, anchor, srcEnd - anchor, dest, dp);
+        return dp - destOffset;
+    }
+
+    /**
+     * Decompresses {@code length} bytes of {@code src} starting at {@code
+     * srcOffset} into {@code dest} starting at {@code destOffset}. The
+     * decompressed data must be exactly {@code decompressedLength} bytes long.
+     *
+     * @throws IllegalArgumentException if the compressed data is malformed
+     */
+    public static void decompress(byte[] src, int srcOffset, int length, byte[] dest, int destOffset,
+                                  int decompressedLength) {
+        int srcEnd = srcOffset + length;
+        int destEnd = destOffset + decompressedLength;
+        int sp = srcOffset;
+        int dp = destOffset;
+        while (sp < srcEnd) {
+            int token = src[sp++] & EXTENSION_BYTE;
+            int literalLength = token >>> MATCH_LENGTH_BITS;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    checkMalformed(sp < srcEnd);
+                    b = src[sp++] & EXTENSION_BYTE;
+                    literalLength += b;
+                } while (b == EXTENSION_BYTE);
+            }
+            checkMalformed(literalLength <= srcEnd - sp && literalLength <= destEnd - dp);
+            System.arraycopy(src, sp, dest, dp, literalLength);
+            sp += literalLength;
+            dp += literalLength;
+            if (sp == srcEnd) {
+                // the last sequence has literals only
+                break;
+            }
+            checkMalformed(srcEnd - sp >= 2);
+            int offset = (src[sp++] & EXTENSION_BYTE) | (src[sp++] & EXTENSION_BYTE) << Byte.SIZE;
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int b;
+                do {
+                    checkMalformed(sp < srcEnd);
+                    b = src[sp++] & EXTENSION_BYTE;
+                    matchLength += b;
+                } while (b == EXTENSION_BYTE);
+            }
+            matchLength += MIN_MATCH;
+            int ref = dp - offset;
+            checkMalformed(offset > 0 && ref >= destOffset && matchLength <= destEnd - dp);
+            if (offset >= matchLength) {
+                System.arraycopy(dest, ref, dest, dp, matchLength);
+            } else {
+                // overlapping match repeats the last offset bytes
+                for (int i = 0; i < matchLength; i++) {
+                    dest[dp + i] = dest[ref + i];
+                }
+            }
+            dp += matchLength;
+        }
+        checkMalformed(dp == destEnd);
+    }
+
+    private static int writeSequence(
+            byte[] src, int literalOffset, int literalLength, int matchOffset, int matchLength, byte[] dest, int dp
+    ) {
+        int tokenPos = dp;
+        dp = writeLiterals(src, literalOffset, literalLength, dest, dp);
+        dest[dp++] = (byte) matchOffset;
+        dest[dp++] = (byte) (matchOffset >>> Byte.SIZE);
+        int matchRun = matchLength - MIN_MATCH;
+        if (matchRun >= RUN_MASK) {
+            dest[tokenPos] |= RUN_MASK;
+            dp = writeLengthExtension(matchRun - RUN_MASK, dest, dp);
+        } else {
+            dest[tokenPos] |= matchRun;
+        }
+        return dp;
+    }
+
+    /**
+     * Writes the token and the literals of a sequence, the match length part
+     * of the token is left zero.
+     */
+    private static int writeLiterals(byte[] src, int offset, int length, byte[] dest, int dp) {
+        if (length >= RUN_MASK) {
+            dest[dp++] = (byte) (RUN_MASK << MATCH_LENGTH_BITS);
+            dp = writeLengthExtension(length - RUN_MASK, dest, dp);
+        } else {
+            dest[dp++] = (byte) (length << MATCH_LENGTH_BITS);
+        }
+        System.arraycopy(src, offset, dest, dp, length);
+        return dp + length;
+    }
+
+    private static int writeLengthExtension(int length, byte[] dest, int dp) {
+        for (; length >= EXTENSION_BYTE; length -= EXTENSION_BYTE) {
+            dest[dp++] = (byte) EXTENSION_BYTE;
+        }
+        dest[dp++] = (byte) length;
+        return dp;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * HASH_MULTIPLIER) >>> (Integer.SIZE - HASH_LOG);
+    }
+
+    private static void checkMalformed(boolean condition) {
+        if (!condition) {
+            throw new IllegalArgumentException("Malformed LZ4 block");
+        }
+    }
+}
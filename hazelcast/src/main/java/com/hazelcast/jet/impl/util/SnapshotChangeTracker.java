@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Tracks the snapshot entries of a vertex to support incremental snapshots.
+ * For each key, it remembers a 64-bit hash of the value saved to the
+ * previous snapshot, so that an incremental snapshot can skip the entries
+ * whose value didn't change and write tombstones for the keys that are no
+ * longer saved. If values are compared, the serialized value is kept too
+ * and entries with equal hashes are unchanged only if their values are
+ * equal, otherwise a hash collision hides a change.
+ * <p>
+ * A key must be saved at most once per snapshot, the keys saved by several
+ * processors (such as the {@link com.hazelcast.jet.core.BroadcastKey}s) can't
+ * be tracked.
+ */
+final class SnapshotChangeTracker {
+
+    private static final long MISSING_HASH = Long.MIN_VALUE;
+
+    private Object2LongHashMap<Data> previous = new Object2LongHashMap<>(MISSING_HASH);
+    private Object2LongHashMap<Data> current = new Object2LongHashMap<>(MISSING_HASH);
+
+    // non-null if values are compared
+    private Map<Data, Data> previousValues;
+    private Map<Data, Data> currentValues;
+
+    private Iterator<Data> removedKeys;
+    private Data removedKey;
+
+    SnapshotChangeTracker(boolean compareValues) {
+        if (compareValues) {
+            previousValues = new HashMap<>();
+            currentValues = new HashMap<>();
+        }
+    }
+
+    /**
+     * Records the entry saved to the current snapshot and returns {@code
+     * true} if its value differs from the previous snapshot or if the key is
+     * new.
+     */
+    boolean track(@Nonnull Data key, @Nonnull Data value) {
+        long hash = value.hash64();
+        if (hash == MISSING_HASH) {
+            hash++;
+        }
+        current.put(key, hash);
+        long previousHash = previous.removeKey(key);
+        if (currentValues == null) {
+            return previousHash != hash;
+        }
+        currentValues.put(key, value);
+        Data previousValue = previousValues.remove(key);
+        return previousHash != hash || !value.equals(previousValue);
+    }
+
+    /**
+     * Returns a key saved to the previous snapshot, but not to the current
+     * one, or {@code null} if there are no more such keys. Returns the same
+     * key until {@link #advanceRemovedKey()} is called. Must be called only
+     * after all the entries of the current snapshot were {@linkplain #track
+     * tracked}.
+     */
+    @Nullable
+    Data removedKey() {
+        if (removedKeys == null) {
+            removedKeys = previous.keySet().iterator();
+        }
+        if (removedKey == null && removedKeys.hasNext()) {
+            removedKey = removedKeys.next();
+        }
+        return removedKey;
+    }
+
+    void advanceRemovedKey() {
+        removedKey = null;
+    }
+
+    /**
+     * Makes the current snapshot the previous one.
+     */
+    void snapshotDone() {
+        Object2LongHashMap<Data> tmp = previous;
+        previous = current;
+        current = tmp;
+        current.clear();
+        if (currentValues != null) {
+            Map<Data, Data> tmpValues = previousValues;
+            previousValues = currentValues;
+            currentValues = tmpValues;
+            currentValues.clear();
+        }
+        removedKeys = null;
+        removedKey = null;
+    }
+
+    /**
+     * Returns the number of keys of the previous snapshot.
+     */
+    int size() {
+        return previous.size();
+    }
+}
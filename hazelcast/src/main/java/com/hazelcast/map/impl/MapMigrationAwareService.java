@@ -193,6 +193,8 @@ class MapMigrationAwareService
             recordStore.startLoading();
         }
 
+        updateColumnarProjections(event, partitionContainer);
+
         if (event.getCurrentReplicaIndex() == 0 || event.getNewReplicaIndex() == 0) {
             mapServiceContext.refreshCachedOwnedPartitions();
         }
@@ -232,6 +234,22 @@ class MapMigrationAwareService
         }
     }
 
+    /**
+     * Columnar projections are kept only on primary partitions, since
+     * backups are never queried.
+     */
+    private void updateColumnarProjections(PartitionMigrationEvent event, PartitionContainer partitionContainer) {
+        if (DESTINATION == event.getMigrationEndpoint() && event.getNewReplicaIndex() == 0) {
+            for (RecordStore recordStore : partitionContainer.getAllRecordStores()) {
+                recordStore.createColumnarProjection();
+            }
+        } else if (SOURCE == event.getMigrationEndpoint() && event.getCurrentReplicaIndex() == 0) {
+            for (RecordStore recordStore : partitionContainer.getAllRecordStores()) {
+                recordStore.destroyColumnarProjection();
+            }
+        }
+    }
+
     private void clearPartitionedIndexes(PartitionMigrationEvent event) {
         PartitionContainer container = mapServiceContext.getPartitionContainer(event.getPartitionId());
 
@@ -23,6 +23,7 @@ import com.hazelcast.config.MapStoreConfig;
 import com.hazelcast.config.PartitioningAttributeConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.MemoryAllocator;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.internal.util.comparators.ValueComparator;
@@ -46,6 +47,8 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
 import com.hazelcast.spi.properties.HazelcastProperty;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -95,6 +98,39 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
             = new HazelcastProperty(PROP_MAX_SUCCESSIVE_OFFLOADED_OP_RUN_NANOS,
             DEFAULT_MAX_SUCCESSIVE_OFFLOADED_OP_RUN_NANOS, NANOSECONDS);
 
+    /**
+     * Comma separated list of map names whose record stores use
+     * {@link com.hazelcast.map.impl.recordstore.OpenAddressingStorage}
+     * instead of the default storage. {@code *} selects all maps.
+     */
+    String PROP_OPEN_ADDRESSING_STORAGE_MAPS
+            = "hazelcast.internal.map.open.addressing.storage.maps";
+    HazelcastProperty OPEN_ADDRESSING_STORAGE_MAPS
+            = new HazelcastProperty(PROP_OPEN_ADDRESSING_STORAGE_MAPS, "");
+
+    /**
+     * Comma separated list of {@code BINARY} map names whose values are
+     * kept in native memory, see {@link
+     * com.hazelcast.map.impl.record.NativeValueRecordFactory}. {@code *}
+     * selects all maps. The native memory used by all such maps on a
+     * member is limited by {@link com.hazelcast.config.NativeMemoryConfig#getCapacity()}.
+     */
+    String PROP_NATIVE_VALUE_STORAGE_MAPS
+            = "hazelcast.internal.map.native.value.storage.maps";
+    HazelcastProperty NATIVE_VALUE_STORAGE_MAPS
+            = new HazelcastProperty(PROP_NATIVE_VALUE_STORAGE_MAPS, "");
+
+    /**
+     * Comma separated list of {@code mapName:attribute} pairs selecting the
+     * numeric attributes kept in a {@link
+     * com.hazelcast.map.impl.query.ColumnarProjection} of each partition of
+     * the map. {@code *} as map name selects all maps.
+     */
+    String PROP_COLUMNAR_PROJECTION_ATTRIBUTES
+            = "hazelcast.internal.map.columnar.projection.attributes";
+    HazelcastProperty COLUMNAR_PROJECTION_ATTRIBUTES
+            = new HazelcastProperty(PROP_COLUMNAR_PROJECTION_ATTRIBUTES, "");
+
 
     Object toObject(Object data);
 
@@ -266,6 +302,47 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
      */
     long getMaxSuccessiveOffloadedOpRunNanos();
 
+    /**
+     * @param mapName name of the map
+     * @return {@code true} if record stores of the given map should
+     * use an open addressing storage, otherwise {@code false}.
+     * @see #OPEN_ADDRESSING_STORAGE_MAPS
+     */
+    default boolean isOpenAddressingStorageEnabled(String mapName) {
+        return false;
+    }
+
+    /**
+     * @param mapName name of the map
+     * @return {@code true} if record stores of the given map should
+     * keep their values in native memory, otherwise {@code false}.
+     * @see #NATIVE_VALUE_STORAGE_MAPS
+     */
+    default boolean isNativeValueStorageEnabled(String mapName) {
+        return false;
+    }
+
+    /**
+     * Creates a native memory allocator for the values of a single
+     * record store. All allocators created by this method share the
+     * member-wide native memory limit.
+     *
+     * @return a new allocator
+     */
+    default MemoryAllocator createNativeValueAllocator() {
+        throw new UnsupportedOperationException("Native value storage is not supported");
+    }
+
+    /**
+     * @param mapName name of the map
+     * @return the attributes kept in the columnar projection of the
+     * partitions of the given map, empty if the map has no projection
+     * @see #COLUMNAR_PROJECTION_ATTRIBUTES
+     */
+    default Collection<String> getColumnarProjectionAttributes(String mapName) {
+        return Collections.emptyList();
+    }
+
     Semaphore getNodeWideLoadedKeyLimiter();
 
     /**
@@ -19,9 +19,12 @@ package com.hazelcast.map.impl;
 import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.PartitioningAttributeConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.impl.PowerOfTwoMemoryAllocator;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.DataType;
@@ -82,30 +85,43 @@ import com.hazelcast.spi.impl.eventservice.EventFilter;
 import com.hazelcast.spi.impl.eventservice.EventRegistration;
 import com.hazelcast.spi.impl.eventservice.EventService;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
+import static com.hazelcast.internal.memory.impl.PowerOfTwoMemoryAllocator.DEFAULT_SLAB_SIZE;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
 import static com.hazelcast.internal.util.SetUtil.immutablePartitionIdSet;
+import static com.hazelcast.internal.util.StringUtil.splitByComma;
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapKeyLoader.LOADED_KEY_LIMITER_PER_NODE;
 import static com.hazelcast.map.impl.MapKeyLoader.PROP_LOADED_KEY_LIMITER_PER_NODE;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
 import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.newOptimizer;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.QUERY_EXECUTOR;
 import static com.hazelcast.spi.impl.operationservice.Operation.GENERIC_PARTITION_ID;
@@ -114,6 +130,7 @@ import static com.hazelcast.spi.properties.ClusterProperty.INDEX_COPY_BEHAVIOR;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
 import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
 
 /**
  * Default implementation of {@link MapServiceContext}.
@@ -156,6 +173,10 @@ class MapServiceContextImpl implements MapServiceContext {
     private final Semaphore nodeWideLoadedKeyLimiter;
     private final boolean forceOffloadEnabled;
     private final long maxSuccessiveOffloadedOpRunNanos;
+    private final Set<String> openAddressingStorageMaps;
+    private final Set<String> nativeValueStorageMaps;
+    private final Map<String, Set<String>> columnarProjectionAttributes;
+    private final AtomicLong nativeValueCommittedMemory = new AtomicLong();
 
     private MapService mapService;
 
@@ -189,6 +210,9 @@ class MapServiceContextImpl implements MapServiceContext {
                 .getBoolean(FORCE_OFFLOAD_ALL_OPERATIONS);
         this.maxSuccessiveOffloadedOpRunNanos = nodeEngine.getProperties()
                 .getNanos(MAX_SUCCESSIVE_OFFLOADED_OP_RUN_NANOS);
+        this.openAddressingStorageMaps = getMapNames(nodeEngine.getProperties(), OPEN_ADDRESSING_STORAGE_MAPS);
+        this.nativeValueStorageMaps = getMapNames(nodeEngine.getProperties(), NATIVE_VALUE_STORAGE_MAPS);
+        this.columnarProjectionAttributes = getColumnarProjectionAttributes(nodeEngine.getProperties());
         if (this.forceOffloadEnabled) {
             logger.info("Force offload is enabled for all maps. This "
                     + "means all map operations will run as if they have map-store configured. "
@@ -206,6 +230,56 @@ class MapServiceContextImpl implements MapServiceContext {
         return maxSuccessiveOffloadedOpRunNanos;
     }
 
+    @Override
+    public boolean isOpenAddressingStorageEnabled(String mapName) {
+        return openAddressingStorageMaps.contains("*") || openAddressingStorageMaps.contains(mapName);
+    }
+
+    @Override
+    public boolean isNativeValueStorageEnabled(String mapName) {
+        return nativeValueStorageMaps.contains("*") || nativeValueStorageMaps.contains(mapName);
+    }
+
+    @Override
+    public MemoryAllocator createNativeValueAllocator() {
+        NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
+        int minBlockSize = nextPowerOfTwo(Math.max(nativeMemoryConfig.getMinBlockSize(), LONG_SIZE_IN_BYTES));
+        return new PowerOfTwoMemoryAllocator(minBlockSize, DEFAULT_SLAB_SIZE, nativeValueCommittedMemory,
+                nativeMemoryConfig.getCapacity().bytes());
+    }
+
+    private static Set<String> getMapNames(HazelcastProperties properties, HazelcastProperty property) {
+        return new HashSet<>(asList(splitByComma(properties.getString(property), false)));
+    }
+
+    @Override
+    public Collection<String> getColumnarProjectionAttributes(String mapName) {
+        Set<String> mapAttributes = columnarProjectionAttributes.get(mapName);
+        Set<String> allMapsAttributes = columnarProjectionAttributes.get("*");
+        if (allMapsAttributes == null) {
+            return mapAttributes == null ? Collections.emptySet() : mapAttributes;
+        }
+        Set<String> attributes = new LinkedHashSet<>(allMapsAttributes);
+        if (mapAttributes != null) {
+            attributes.addAll(mapAttributes);
+        }
+        return attributes;
+    }
+
+    private static Map<String, Set<String>> getColumnarProjectionAttributes(HazelcastProperties properties) {
+        Map<String, Set<String>> attributes = new HashMap<>();
+        for (String pair : splitByComma(properties.getString(COLUMNAR_PROJECTION_ATTRIBUTES), false)) {
+            int separator = pair.indexOf(':');
+            if (separator <= 0 || separator == pair.length() - 1) {
+                throw new IllegalArgumentException("Invalid value of " + COLUMNAR_PROJECTION_ATTRIBUTES.getName()
+                        + ", expected mapName:attribute pairs but found: " + pair);
+            }
+            attributes.computeIfAbsent(pair.substring(0, separator), name -> new LinkedHashSet<>())
+                    .add(canonicalizeAttribute(pair.substring(separator + 1)));
+        }
+        return attributes;
+    }
+
     @Override
     public ExecutorStats getOffloadedEntryProcessorExecutorStats() {
         return offloadedExecutorStats;
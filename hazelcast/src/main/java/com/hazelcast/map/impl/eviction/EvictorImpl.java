@@ -69,7 +69,18 @@ public class EvictorImpl implements Evictor {
 
     @Override
     public void forceEvictByPercentage(RecordStore recordStore, double evictionPercentage) {
-        // NOP.
+        assertRunningOnPartitionThread();
+
+        long now = getNow();
+        boolean backup = isBackup(recordStore);
+        int evictionCount = (int) Math.ceil(recordStore.size() * evictionPercentage);
+        for (int i = 0; i < evictionCount; i++) {
+            EntryView entryView = selectEvictableEntry(recordStore, null, now, backup);
+            if (entryView == null) {
+                return;
+            }
+            evictEntry(recordStore, entryView, now, backup);
+        }
     }
 
     @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
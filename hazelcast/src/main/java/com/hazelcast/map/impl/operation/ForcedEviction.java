@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.map.impl.recordstore.NativeValueStorage;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
@@ -102,7 +103,8 @@ public interface ForcedEviction {
      * to apply forced eviction, otherwise return {@code false}
      */
     static boolean isValid(RecordStore recordStore) {
-        return recordStore != null && recordStore.getInMemoryFormat() == NATIVE
+        return recordStore != null
+                && (recordStore.getInMemoryFormat() == NATIVE || recordStore.getStorage() instanceof NativeValueStorage)
                 && recordStore.getEvictionPolicy() != NONE && recordStore.size() > 0;
     }
 
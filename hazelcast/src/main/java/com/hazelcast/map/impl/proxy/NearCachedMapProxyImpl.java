@@ -38,6 +38,7 @@ import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -650,15 +651,27 @@ public class NearCachedMapProxyImpl<K, V> extends MapProxyImpl<K, V> {
             assert invalidation != null;
 
             if (invalidation instanceof BatchNearCacheInvalidation) {
-                List<Invalidation> batch = ((BatchNearCacheInvalidation) invalidation).getInvalidations();
-                for (Invalidation single : batch) {
-                    handleInternal(single);
-                }
+                handleBatch(((BatchNearCacheInvalidation) invalidation).getInvalidations());
             } else {
                 handleInternal(invalidation);
             }
         }
 
+        private void handleBatch(List<Invalidation> batch) {
+            int size = batch.size();
+            List<Data> keys = new ArrayList<>(size);
+            List<UUID> sourceUuids = new ArrayList<>(size);
+            List<UUID> partitionUuids = new ArrayList<>(size);
+            List<Long> sequences = new ArrayList<>(size);
+            for (Invalidation single : batch) {
+                keys.add(single.getKey());
+                sourceUuids.add(single.getSourceUuid());
+                partitionUuids.add(single.getPartitionUuid());
+                sequences.add(single.getSequence());
+            }
+            repairingHandler.handle(keys, sourceUuids, partitionUuids, sequences);
+        }
+
         private void handleInternal(Invalidation single) {
             repairingHandler.handle(single.getKey(), single.getSourceUuid(), single.getPartitionUuid(), single.getSequence());
         }
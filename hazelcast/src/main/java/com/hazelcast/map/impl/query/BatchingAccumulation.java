@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.aggregation.impl.BatchAccumulator;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accumulates entries into an aggregator. If the aggregator is a {@link
+ * BatchAccumulator}, the numeric values of its attribute are extracted
+ * into primitive batches and accumulated batch by batch. {@code null}
+ * values are accumulated entry by entry. Once a value of a type the
+ * aggregator doesn't accumulate in batches is found, the remaining
+ * entries are accumulated entry by entry.
+ */
+final class BatchingAccumulation {
+
+    static final int BATCH_SIZE = 256;
+
+    private static final long[] EMPTY_LONGS = new long[0];
+    private static final double[] EMPTY_DOUBLES = new double[0];
+
+    private final Aggregator aggregator;
+    private final BatchAccumulator accumulator;
+    private final String attributePath;
+    private final Map<Class<?>, Boolean> batchableTypes = new HashMap<>();
+
+    private long[] longs;
+    private double[] doubles;
+    private Class<? extends Number> type;
+    private int length;
+    private boolean batching = true;
+
+    private BatchingAccumulation(Aggregator aggregator, String attributePath) {
+        this.aggregator = aggregator;
+        this.accumulator = (BatchAccumulator) aggregator;
+        this.attributePath = attributePath;
+    }
+
+    /**
+     * Accumulates the entries into the aggregator, does not call {@link
+     * Aggregator#onAccumulationFinished()}.
+     */
+    @SuppressWarnings("unchecked")
+    static void accumulate(Aggregator aggregator, Iterable<QueryableEntry> entries) {
+        String attributePath = aggregator instanceof BatchAccumulator && aggregator instanceof AbstractAggregator
+                ? ((AbstractAggregator) aggregator).getAttributePath() : null;
+        if (attributePath == null) {
+            for (QueryableEntry entry : entries) {
+                aggregator.accumulate(entry);
+            }
+            return;
+        }
+
+        BatchingAccumulation accumulation = new BatchingAccumulation(aggregator, attributePath);
+        for (QueryableEntry entry : entries) {
+            accumulation.add(entry);
+        }
+        accumulation.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(QueryableEntry entry) {
+        if (!batching) {
+            aggregator.accumulate(entry);
+            return;
+        }
+
+        Object value = entry.getAttributeValue(attributePath);
+        if (value == null) {
+            aggregator.accumulate(entry);
+            return;
+        }
+        Class<?> valueType = value.getClass();
+        if (!isBatchable(valueType)) {
+            // e.g. a multi-value or a non-numeric attribute, stop extracting the values twice
+            flush();
+            batching = false;
+            aggregator.accumulate(entry);
+            return;
+        }
+
+        if (valueType != type) {
+            flush();
+            type = (Class<? extends Number>) valueType;
+        }
+        if (isFloatingPoint(valueType)) {
+            if (doubles == null) {
+                doubles = new double[BATCH_SIZE];
+            }
+            doubles[length] = ((Number) value).doubleValue();
+        } else {
+            if (longs == null) {
+                longs = new long[BATCH_SIZE];
+            }
+            longs[length] = ((Number) value).longValue();
+        }
+        if (++length == BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (length == 0) {
+            return;
+        }
+        boolean accepted = isFloatingPoint(type)
+                ? accumulator.accumulateBatch(type, doubles, length)
+                : accumulator.accumulateBatch(type, longs, length);
+        assert accepted : "Batch of " + type + " rejected after a successful probe";
+        length = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isBatchable(Class<?> valueType) {
+        Boolean batchable = batchableTypes.get(valueType);
+        if (batchable == null) {
+            if (isFloatingPoint(valueType)) {
+                batchable = accumulator.accumulateBatch((Class<? extends Number>) valueType, EMPTY_DOUBLES, 0);
+            } else if (isIntegral(valueType)) {
+                batchable = accumulator.accumulateBatch((Class<? extends Number>) valueType, EMPTY_LONGS, 0);
+            } else {
+                batchable = false;
+            }
+            batchableTypes.put(valueType, batchable);
+        }
+        return batchable;
+    }
+
+    private static boolean isFloatingPoint(Class<?> type) {
+        return type == Double.class || type == Float.class;
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == Long.class || type == Integer.class || type == Short.class || type == Byte.class;
+    }
+}
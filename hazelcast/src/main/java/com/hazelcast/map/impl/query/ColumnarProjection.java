@@ -0,0 +1,711 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.AbstractAggregator;
+import com.hazelcast.aggregation.impl.BatchAccumulator;
+import com.hazelcast.aggregation.impl.BigDecimalAverageAggregator;
+import com.hazelcast.aggregation.impl.BigDecimalSumAggregator;
+import com.hazelcast.aggregation.impl.BigIntegerAverageAggregator;
+import com.hazelcast.aggregation.impl.BigIntegerSumAggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.DistinctValuesAggregator;
+import com.hazelcast.aggregation.impl.DoubleAverageAggregator;
+import com.hazelcast.aggregation.impl.DoubleSumAggregator;
+import com.hazelcast.aggregation.impl.FixedSumAggregator;
+import com.hazelcast.aggregation.impl.FloatingPointSumAggregator;
+import com.hazelcast.aggregation.impl.IntegerAverageAggregator;
+import com.hazelcast.aggregation.impl.IntegerSumAggregator;
+import com.hazelcast.aggregation.impl.LongAverageAggregator;
+import com.hazelcast.aggregation.impl.LongSumAggregator;
+import com.hazelcast.aggregation.impl.MaxAggregator;
+import com.hazelcast.aggregation.impl.MinAggregator;
+import com.hazelcast.aggregation.impl.NumberAverageAggregator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+import com.hazelcast.map.impl.LazyMapEntry;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.MutationObserver;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.TruePredicate;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
+import static java.util.Arrays.asList;
+
+/**
+ * A columnar shadow of the numeric attributes of the entries of a single
+ * partition of a map. The values of each projected attribute are kept in a
+ * primitive array, so aggregations whose predicate and aggregated attribute
+ * are covered by the projection are answered without touching the records
+ * and without deserializing the values. The selected values are passed to
+ * {@link BatchAccumulator} aggregators in a single batch.
+ * <p>
+ * The projection is maintained by the partition thread as a {@link
+ * MutationObserver}. Entries are kept densely packed: a removed entry is
+ * replaced by the last one. Readers may run on other threads, they scan the
+ * columns optimistically and validate the scan afterwards, see {@link
+ * #aggregate(Predicate, Aggregator)}.
+ * <p>
+ * A column supports {@code null} values and a single numeric type out of
+ * {@code byte}, {@code short}, {@code int}, {@code long}, {@code float} and
+ * {@code double}. A column becomes unusable when a value can't be
+ * represented, e.g. it has a different type or it can't be extracted, and
+ * stays unusable until the partition is cleared. Queries fall back to the
+ * regular partition scan in this case.
+ */
+public final class ColumnarProjection implements MutationObserver<Record> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long MISSING_SLOT = -1;
+
+    private static final Set<Class<?>> SUPPORTED_AGGREGATORS = new HashSet<>(asList(
+            BigDecimalAverageAggregator.class, BigDecimalSumAggregator.class,
+            BigIntegerAverageAggregator.class, BigIntegerSumAggregator.class,
+            CountAggregator.class, DistinctValuesAggregator.class,
+            DoubleAverageAggregator.class, DoubleSumAggregator.class,
+            FixedSumAggregator.class, FloatingPointSumAggregator.class,
+            IntegerAverageAggregator.class, IntegerSumAggregator.class,
+            LongAverageAggregator.class, LongSumAggregator.class,
+            MaxAggregator.class, MinAggregator.class, NumberAverageAggregator.class));
+
+    private final InternalSerializationService serializationService;
+    private final Extractors extractors;
+    private final Column[] columns;
+    private final Object2LongHashMap<Data> slots = new Object2LongHashMap<>(MISSING_SLOT);
+    private final LazyMapEntry extractionEntry = new LazyMapEntry();
+
+    private Data[] keys = new Data[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Odd while the partition thread mutates the projection, incremented
+     * by each mutation.
+     */
+    private volatile int stamp;
+
+    public ColumnarProjection(Collection<String> attributes, InternalSerializationService serializationService,
+                              Extractors extractors) {
+        this.serializationService = serializationService;
+        this.extractors = extractors;
+        this.columns = attributes.stream()
+                .map(attribute -> new Column(canonicalizeAttribute(attribute)))
+                .toArray(Column[]::new);
+    }
+
+    /**
+     * Accumulates the values of the entries matching the predicate into the
+     * aggregator. Only the columns of the projection are read: the predicate
+     * may only access projected attributes and the aggregator must be a
+     * built-in one accumulating a projected attribute (or a count without
+     * an attribute).
+     * <p>
+     * The matching values are first copied out of the columns and the copy
+     * is accumulated only if no mutation happened in the meantime, so the
+     * aggregator is either updated with a consistent view of the partition
+     * or not at all.
+     *
+     * @return {@code true} if the aggregator has been updated, {@code false}
+     * if the projection can't answer the query and the partition should be
+     * scanned instead
+     */
+    public boolean aggregate(Predicate predicate, Aggregator aggregator) {
+        if (!SUPPORTED_AGGREGATORS.contains(aggregator.getClass())) {
+            return false;
+        }
+        String attributePath = ((AbstractAggregator) aggregator).getAttributePath();
+        Column column = null;
+        if (attributePath != null) {
+            column = getColumn(canonicalizeAttribute(attributePath));
+            if (column == null) {
+                return false;
+            }
+        } else if (!(aggregator instanceof CountAggregator)) {
+            return false;
+        }
+
+        int startStamp = stamp;
+        if ((startStamp & 1) != 0) {
+            return false;
+        }
+        Selection selection;
+        try {
+            selection = select(predicate, column);
+        } catch (RuntimeException e) {
+            if (stamp != startStamp) {
+                // the columns have been mutated concurrently, the failure may be caused by a torn read
+                return false;
+            }
+            throw e;
+        }
+        VarHandle.loadLoadFence();
+        if (selection == null || stamp != startStamp) {
+            return false;
+        }
+        selection.accumulate(aggregator, attributePath);
+        return true;
+    }
+
+    /**
+     * @return the number of entries in the projection
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        put(key, record.getValue());
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        put(key, record.getValue());
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue, Object newValue,
+                               boolean backup) {
+        put(key, newValue);
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record, boolean backup) {
+        remove(key);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        remove(key);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        put(key, record.getValue());
+    }
+
+    @Override
+    public void onReset() {
+        clear();
+    }
+
+    @Override
+    public void onClear() {
+        clear();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        clear();
+    }
+
+    private void put(Data key, Object value) {
+        beginMutation();
+        try {
+            int slot = (int) slots.getValue(key);
+            if (slot == MISSING_SLOT) {
+                ensureCapacity(size + 1);
+                slot = size++;
+                Data heapKey = toHeapData(key);
+                keys[slot] = heapKey;
+                slots.put(heapKey, slot);
+            }
+            extractionEntry.init(serializationService, key, value, extractors);
+            for (Column column : columns) {
+                column.set(slot, extractionEntry);
+            }
+        } finally {
+            // do not retain the key and the value
+            extractionEntry.initWithObjectKeyValue(null, null);
+            endMutation();
+        }
+    }
+
+    private void remove(Data key) {
+        int slot = (int) slots.getValue(key);
+        if (slot == MISSING_SLOT) {
+            return;
+        }
+        beginMutation();
+        try {
+            slots.removeKey(key);
+            int last = --size;
+            if (slot != last) {
+                Data movedKey = keys[last];
+                keys[slot] = movedKey;
+                slots.put(movedKey, slot);
+                for (Column column : columns) {
+                    column.move(last, slot);
+                }
+            }
+            keys[last] = null;
+        } finally {
+            endMutation();
+        }
+    }
+
+    private void clear() {
+        beginMutation();
+        try {
+            slots.clear();
+            keys = new Data[INITIAL_CAPACITY];
+            size = 0;
+            for (Column column : columns) {
+                column.reset();
+            }
+        } finally {
+            endMutation();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) {
+            return;
+        }
+        int newCapacity = keys.length << 1;
+        keys = Arrays.copyOf(keys, newCapacity);
+        for (Column column : columns) {
+            column.grow(newCapacity);
+        }
+    }
+
+    private void beginMutation() {
+        stamp = stamp + 1;
+        // the mutation must not become visible before the odd stamp
+        VarHandle.storeStoreFence();
+    }
+
+    private void endMutation() {
+        stamp = stamp + 1;
+    }
+
+    private Column getColumn(String attribute) {
+        for (Column column : columns) {
+            if (column.attribute.equals(attribute)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the values of the column of the matching entries or
+     * {@code null} if the predicate or the column can't be evaluated on
+     * the projection
+     */
+    private Selection select(Predicate predicate, Column column) {
+        int count = size;
+        if (column != null && column.broken) {
+            return null;
+        }
+        Selection selection = new Selection(column, count);
+        if (predicate instanceof TruePredicate) {
+            for (int slot = 0; slot < count; slot++) {
+                selection.add(slot);
+            }
+            return selection;
+        }
+
+        PredicateEntry entry = new PredicateEntry();
+        for (int slot = 0; slot < count; slot++) {
+            entry.slot = slot;
+            boolean matches;
+            try {
+                matches = predicate.apply(entry);
+            } catch (RuntimeException e) {
+                if (entry.unsupported) {
+                    return null;
+                }
+                throw e;
+            }
+            if (entry.unsupported) {
+                return null;
+            }
+            if (matches) {
+                selection.add(slot);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * The type of the values of a column, defines how a value is encoded
+     * in a {@code long}.
+     */
+    private enum ColumnType {
+        BYTE(Byte.class) {
+            @Override
+            Object decode(long bits) {
+                return (byte) bits;
+            }
+        },
+        SHORT(Short.class) {
+            @Override
+            Object decode(long bits) {
+                return (short) bits;
+            }
+        },
+        INT(Integer.class) {
+            @Override
+            Object decode(long bits) {
+                return (int) bits;
+            }
+        },
+        LONG(Long.class) {
+            @Override
+            Object decode(long bits) {
+                return bits;
+            }
+        },
+        FLOAT(Float.class) {
+            @Override
+            long encode(Number value) {
+                return Float.floatToRawIntBits(value.floatValue());
+            }
+
+            @Override
+            Object decode(long bits) {
+                return Float.intBitsToFloat((int) bits);
+            }
+
+            @Override
+            boolean accumulateBatch(BatchAccumulator accumulator, long[] bits, int length) {
+                double[] values = new double[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = Float.intBitsToFloat((int) bits[i]);
+                }
+                return accumulator.accumulateBatch(Float.class, values, length);
+            }
+        },
+        DOUBLE(Double.class) {
+            @Override
+            long encode(Number value) {
+                return Double.doubleToRawLongBits(value.doubleValue());
+            }
+
+            @Override
+            Object decode(long bits) {
+                return Double.longBitsToDouble(bits);
+            }
+
+            @Override
+            boolean accumulateBatch(BatchAccumulator accumulator, long[] bits, int length) {
+                double[] values = new double[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = Double.longBitsToDouble(bits[i]);
+                }
+                return accumulator.accumulateBatch(Double.class, values, length);
+            }
+        };
+
+        private final Class<? extends Number> javaType;
+
+        ColumnType(Class<? extends Number> javaType) {
+            this.javaType = javaType;
+        }
+
+        long encode(Number value) {
+            return value.longValue();
+        }
+
+        abstract Object decode(long bits);
+
+        /**
+         * Accumulates the encoded values in a single batch.
+         *
+         * @return {@code false} if the accumulator doesn't support batches
+         * of this type
+         */
+        boolean accumulateBatch(BatchAccumulator accumulator, long[] bits, int length) {
+            return accumulator.accumulateBatch(javaType, bits, length);
+        }
+
+        static ColumnType of(Object value) {
+            if (value instanceof Integer) {
+                return INT;
+            } else if (value instanceof Long) {
+                return LONG;
+            } else if (value instanceof Double) {
+                return DOUBLE;
+            } else if (value instanceof Float) {
+                return FLOAT;
+            } else if (value instanceof Short) {
+                return SHORT;
+            } else if (value instanceof Byte) {
+                return BYTE;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The values of a single attribute, indexed by slot. {@code null}
+     * values are tracked in a bitset.
+     */
+    private static final class Column {
+        final String attribute;
+        ColumnType type;
+        boolean broken;
+        long[] values = new long[INITIAL_CAPACITY];
+        long[] nulls = new long[bitsetLength(INITIAL_CAPACITY)];
+
+        Column(String attribute) {
+            this.attribute = attribute;
+        }
+
+        void set(int slot, QueryableEntry entry) {
+            if (broken) {
+                return;
+            }
+            Object value;
+            try {
+                value = entry.getAttributeValue(attribute);
+            } catch (RuntimeException e) {
+                broken = true;
+                return;
+            }
+
+            if (value == null) {
+                values[slot] = 0;
+                setNull(nulls, slot, true);
+                return;
+            }
+            ColumnType valueType = ColumnType.of(value);
+            if (valueType == null || (type != null && type != valueType)) {
+                broken = true;
+                return;
+            }
+            type = valueType;
+            values[slot] = valueType.encode((Number) value);
+            setNull(nulls, slot, false);
+        }
+
+        void move(int from, int to) {
+            values[to] = values[from];
+            setNull(nulls, to, isNull(nulls, from));
+        }
+
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+            nulls = Arrays.copyOf(nulls, bitsetLength(capacity));
+        }
+
+        void reset() {
+            type = null;
+            broken = false;
+            values = new long[INITIAL_CAPACITY];
+            nulls = new long[bitsetLength(INITIAL_CAPACITY)];
+        }
+    }
+
+    /**
+     * The values of a column copied out of the projection for the entries
+     * matching a predicate. Non-{@code null} values are packed into a batch,
+     * {@code null} values are only counted. Without a column only the
+     * matches are counted.
+     */
+    private static final class Selection {
+        private final ColumnType type;
+        private final long[] sourceValues;
+        private final long[] sourceNulls;
+        private final long[] values;
+        private int count;
+        private int nullCount;
+
+        Selection(Column column, int capacity) {
+            if (column != null) {
+                this.type = column.type;
+                this.sourceValues = column.values;
+                this.sourceNulls = column.nulls;
+                this.values = new long[capacity];
+            } else {
+                this.type = null;
+                this.sourceValues = null;
+                this.sourceNulls = null;
+                this.values = null;
+            }
+        }
+
+        void add(int slot) {
+            if (values == null) {
+                count++;
+            } else if (isNull(sourceNulls, slot)) {
+                nullCount++;
+            } else {
+                values[count++] = sourceValues[slot];
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void accumulate(Aggregator aggregator, String attributePath) {
+            SelectionEntry entry = new SelectionEntry(attributePath);
+            if (values == null) {
+                // only a CountAggregator without attribute path, it ignores the value
+                entry.value = Boolean.TRUE;
+                for (int i = 0; i < count; i++) {
+                    aggregator.accumulate(entry);
+                }
+                return;
+            }
+
+            for (int i = 0; i < nullCount; i++) {
+                aggregator.accumulate(entry);
+            }
+            if (count == 0 || aggregator instanceof BatchAccumulator
+                    && type.accumulateBatch((BatchAccumulator) aggregator, values, count)) {
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                entry.value = type.decode(values[i]);
+                aggregator.accumulate(entry);
+            }
+        }
+    }
+
+    private static int bitsetLength(int capacity) {
+        return (capacity + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static boolean isNull(long[] bitset, int index) {
+        return (bitset[index / Long.SIZE] & (1L << index)) != 0;
+    }
+
+    private static void setNull(long[] bitset, int index, boolean isNull) {
+        if (isNull) {
+            bitset[index / Long.SIZE] |= 1L << index;
+        } else {
+            bitset[index / Long.SIZE] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * An entry which exposes only attribute values, accessing anything else
+     * marks the entry as unsupported.
+     */
+    private abstract static class ColumnarEntry extends QueryableEntry<Object, Object> {
+        boolean unsupported;
+
+        @Override
+        public abstract Object getAttributeValue(String attributeName);
+
+        @Override
+        public Object getKey() {
+            throw unsupported();
+        }
+
+        @Override
+        public Data getKeyData() {
+            throw unsupported();
+        }
+
+        @Override
+        public Object getValue() {
+            throw unsupported();
+        }
+
+        @Override
+        public Data getValueData() {
+            throw unsupported();
+        }
+
+        @Override
+        public Object getKeyIfPresent() {
+            throw unsupported();
+        }
+
+        @Override
+        public Data getKeyDataIfPresent() {
+            throw unsupported();
+        }
+
+        @Override
+        public Object getValueIfPresent() {
+            throw unsupported();
+        }
+
+        @Override
+        public Data getValueDataIfPresent() {
+            throw unsupported();
+        }
+
+        @Override
+        protected Object getTargetObject(boolean key) {
+            throw unsupported();
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw unsupported();
+        }
+
+        UnsupportedOperationException unsupported() {
+            unsupported = true;
+            return new UnsupportedOperationException("Not available in a columnar projection");
+        }
+    }
+
+    /**
+     * Exposes the projected attributes of the entry at a given slot to a
+     * predicate.
+     */
+    private final class PredicateEntry extends ColumnarEntry {
+        int slot;
+
+        @Override
+        public Object getAttributeValue(String attributeName) {
+            Column column = getColumn(canonicalizeAttribute(attributeName));
+            if (column == null || column.broken) {
+                throw unsupported();
+            }
+            return isNull(column.nulls, slot) ? null : column.type.decode(column.values[slot]);
+        }
+    }
+
+    /**
+     * Exposes a selected value to an aggregator.
+     */
+    private static final class SelectionEntry extends ColumnarEntry {
+        final String attributePath;
+        Object value;
+
+        SelectionEntry(String attributePath) {
+            this.attributePath = attributePath;
+        }
+
+        @Override
+        public Object getAttributeValue(String attributeName) {
+            assert attributeName.equals(attributePath);
+            return value;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+    }
+}
@@ -36,10 +36,19 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * Implementation of the {@link AccumulationExecutor} that runs the accumulation in a multi-threaded way.
  * Entries are split into chunks and each chunk is sent as a task to the underlying executor.
  * At the end the result is merged to a single AggregationResult.
+ * <p>
+ * Each task accumulates the values of its chunk in primitive batches if the aggregator supports it,
+ * see {@link BatchingAccumulation}.
  */
 public class ParallelAccumulationExecutor implements AccumulationExecutor {
 
-    private static final int THREAD_SPLIT_COUNT = 8;
+    /**
+     * The number of entries accumulated by a single task. It is a multiple
+     * of the batch size of {@link BatchingAccumulation}, so that the
+     * batches of a task are full, and large enough to amortize the cost of
+     * submitting the task and cloning the aggregator for it.
+     */
+    private static final int CHUNK_SIZE = 4 * BatchingAccumulation.BATCH_SIZE;
 
     private final ManagedExecutorService executor;
     private final SerializationService serializationService;
@@ -79,7 +88,7 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
         List<QueryableEntry> buffer = new ArrayList<>();
         for (QueryableEntry entry : entries) {
             buffer.add(entry);
-            if (buffer.size() == THREAD_SPLIT_COUNT) {
+            if (buffer.size() == CHUNK_SIZE) {
                 futures.add(executor.submit(new AccumulatePartitionCallable(clone(aggregator), buffer)));
                 buffer = new ArrayList<>();
             }
@@ -108,9 +117,7 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
         @Override
         public Aggregator call() {
             try {
-                for (QueryableEntry entry : entries) {
-                    aggregator.accumulate(entry);
-                }
+                BatchingAccumulation.accumulate(aggregator, entries);
             } finally {
                 aggregator.onAccumulationFinished();
             }
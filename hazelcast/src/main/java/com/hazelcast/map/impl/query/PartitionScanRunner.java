@@ -79,6 +79,10 @@ public class PartitionScanRunner {
 
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         RecordStore<Record> recordStore = partitionContainer.getRecordStore(mapName);
+        if (aggregateOnColumnarProjection(recordStore, predicate, result)) {
+            return;
+        }
+
         MapContainer mapContainer = recordStore.getMapContainer();
         boolean nativeMemory = recordStore.getInMemoryFormat() == InMemoryFormat.NATIVE;
         boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer, partitionId);
@@ -165,6 +169,26 @@ public class PartitionScanRunner {
         return new QueryableEntriesSegment(resultList, pointers);
     }
 
+    /**
+     * Answers an aggregation from the columnar projection of the partition
+     * if its predicate and aggregated attribute are covered by the projection.
+     * Record stores having entries which may expire are always scanned, since
+     * the scan also expires the entries.
+     *
+     * @return {@code true} if the result has been updated, {@code false} if
+     * the partition must be scanned
+     */
+    private static boolean aggregateOnColumnarProjection(RecordStore<Record> recordStore, Predicate predicate,
+                                                         Result result) {
+        ColumnarProjection projection = recordStore.getColumnarProjection();
+        if (projection == null || !(result instanceof AggregationResult)
+                || !recordStore.getExpirySystem().isEmpty()) {
+            return false;
+        }
+        recordStore.checkIfLoaded();
+        return projection.aggregate(predicate, ((AggregationResult) result).getAggregator());
+    }
+
     protected boolean isUseCachedDeserializedValuesEnabled(MapContainer mapContainer, int partitionId) {
         return mapContainer.isUseCachedDeserializedValuesEnabled(partitionId);
     }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Allocates and frees the native value blocks of the {@link
+ * NativeValueRecord}s of a record store. The block layout is {@code [int
+ * length][bytes]}.
+ * <p>
+ * A block which is released while a reader of its record is active is
+ * deferred. Deferred blocks are freed by {@link #disposeDeferredBlocks()}
+ * once the readers of their records have left. It runs after every map
+ * operation on the record store, see {@link
+ * com.hazelcast.map.impl.recordstore.Storage#disposeDeferredBlocks()}, so
+ * a deferred block doesn't wait for another update of its record and the
+ * partition thread never waits for readers.
+ * <p>
+ * Only accessed by the partition thread owning the record store.
+ */
+public class NativeValueBlocks {
+
+    private final MemoryAllocator malloc;
+    private final List<DeferredBlock> deferredBlocks = new ArrayList<>();
+
+    public NativeValueBlocks(MemoryAllocator malloc) {
+        this.malloc = malloc;
+    }
+
+    /**
+     * Copies the given value into a new block.
+     *
+     * @return the address of the block
+     */
+    long allocate(Data value) {
+        int length = value.totalSize();
+        long address = malloc.allocate(blockSize(length));
+        MEM.putInt(address, length);
+        MEM.copyFromByteArray(value.toByteArray(), 0, address + INT_SIZE_IN_BYTES, length);
+        return address;
+    }
+
+    /**
+     * Frees a block which is no longer published by the given record, or
+     * defers it if a reader of the record may still copy it.
+     */
+    void release(NativeValueRecord record, long address) {
+        if (address == NULL_ADDRESS) {
+            return;
+        }
+        // a reader arriving after the address was replaced reads the new one
+        if (record.isRead()) {
+            deferredBlocks.add(new DeferredBlock(record, address));
+        } else {
+            free(address);
+        }
+    }
+
+    /**
+     * Frees the deferred blocks whose records are not read anymore.
+     */
+    public void disposeDeferredBlocks() {
+        if (deferredBlocks.isEmpty()) {
+            return;
+        }
+        deferredBlocks.removeIf(block -> {
+            if (block.record.isRead()) {
+                return false;
+            }
+            free(block.address);
+            return true;
+        });
+    }
+
+    /**
+     * Returns the number of blocks waiting for their readers to leave.
+     */
+    public int getDeferredBlockCount() {
+        return deferredBlocks.size();
+    }
+
+    /**
+     * Releases all native memory, including the deferred blocks, by
+     * disposing the allocator.
+     */
+    public void dispose() {
+        deferredBlocks.clear();
+        malloc.dispose();
+    }
+
+    private void free(long address) {
+        malloc.free(address, blockSize(MEM.getInt(address)));
+    }
+
+    static Data load(long address) {
+        byte[] bytes = new byte[MEM.getInt(address)];
+        MEM.copyToByteArray(address + INT_SIZE_IN_BYTES, bytes, 0, bytes.length);
+        return new HeapData(bytes);
+    }
+
+    private static long blockSize(int length) {
+        return INT_SIZE_IN_BYTES + (long) length;
+    }
+
+    private static final class DeferredBlock {
+        final NativeValueRecord record;
+        final long address;
+
+        DeferredBlock(NativeValueRecord record, long address) {
+            this.record = record;
+            this.address = address;
+        }
+    }
+}
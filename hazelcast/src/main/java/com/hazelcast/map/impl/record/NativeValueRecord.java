@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.OBJECT_HEADER_SIZE;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * A record which keeps the serialized value in a native memory block
+ * instead of on the heap. The key and the record itself stay on the heap.
+ * <p>
+ * {@link #getValue()} always returns an on-heap copy of the value. Native
+ * memory is only allocated and freed by the partition thread owning the
+ * record, but the value may be read by any thread, so a published block
+ * is never rewritten. Readers register themselves in the {@code readers}
+ * counter before reading the address, and a replaced block is released
+ * to {@link NativeValueBlocks}, which defers freeing it while the counter
+ * is not zero.
+ * <p>
+ * Used when {@link NativeValueRecordFactory} is the record factory of a
+ * map and {@link com.hazelcast.config.MapConfig#isPerEntryStatsEnabled()}
+ * is {@code false}.
+ *
+ * @see NativeValueRecordWithLRUEviction
+ * @see NativeValueRecordWithLFUEviction
+ */
+@SuppressWarnings("VolatileLongOrDoubleField")
+class NativeValueRecord extends SimpleRecord<Data> {
+    private static final AtomicIntegerFieldUpdater<NativeValueRecord> READERS =
+            AtomicIntegerFieldUpdater.newUpdater(NativeValueRecord.class, "readers");
+
+    private final NativeValueBlocks blocks;
+    /**
+     * Address of the native value block, {@link
+     * com.hazelcast.internal.memory.MemoryAllocator#NULL_ADDRESS} when the
+     * value is {@code null} or has been moved to the heap.
+     */
+    private volatile long address;
+    /**
+     * Number of threads currently reading the native value block.
+     */
+    private volatile int readers;
+
+    NativeValueRecord(NativeValueBlocks blocks, Data value) {
+        this.blocks = blocks;
+        setValue(value);
+    }
+
+    @Override
+    public Data getValue() {
+        beginRead();
+        try {
+            while (true) {
+                long currentAddress = address;
+                if (currentAddress != NULL_ADDRESS) {
+                    return NativeValueBlocks.load(currentAddress);
+                }
+                Data heapValue = value;
+                // the value is moved to the heap before the address is cleared
+                // and the address is set before the heap value is cleared
+                if (address == NULL_ADDRESS) {
+                    return heapValue;
+                }
+            }
+        } finally {
+            endRead();
+        }
+    }
+
+    @Override
+    public void setValue(Data value) {
+        long oldAddress = address;
+        address = value != null ? blocks.allocate(value) : NULL_ADDRESS;
+        this.value = null;
+        blocks.release(this, oldAddress);
+    }
+
+    /**
+     * Moves the value from native memory to the heap and releases the
+     * native block. Used when the record leaves the storage but may still
+     * be read, e.g. by the operation which removed it.
+     */
+    void detach() {
+        long currentAddress = address;
+        if (currentAddress != NULL_ADDRESS) {
+            value = NativeValueBlocks.load(currentAddress);
+            address = NULL_ADDRESS;
+            blocks.release(this, currentAddress);
+        }
+    }
+
+    /**
+     * Releases the native block of the value without preserving it.
+     */
+    void dispose() {
+        long currentAddress = address;
+        address = NULL_ADDRESS;
+        value = null;
+        blocks.release(this, currentAddress);
+    }
+
+    void beginRead() {
+        READERS.incrementAndGet(this);
+    }
+
+    void endRead() {
+        READERS.decrementAndGet(this);
+    }
+
+    /**
+     * Returns {@code true} if a thread may be reading a native block of the
+     * record. Checked after the address of the block has been replaced.
+     */
+    boolean isRead() {
+        return readers != 0;
+    }
+
+    /**
+     * Only the heap footprint is reported, the native block is accounted by
+     * the allocator.
+     */
+    @Override
+    public long getCost() {
+        long cost = OBJECT_HEADER_SIZE + 2 * REFERENCE_COST_IN_BYTES + LONG_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+        Data heapValue = value;
+        return heapValue != null ? cost + heapValue.getHeapCost() : cost;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        NativeValueRecord that = (NativeValueRecord) o;
+        return getVersion() == that.getVersion() && Objects.equals(getValue(), that.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+        Data currentValue = getValue();
+        int result = currentValue != null ? currentValue.hashCode() : 0;
+        result = 31 * result + getVersion();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "NativeValueRecord{"
+                + "address=" + address
+                + ", value=" + getValue()
+                + ", version=" + getVersion()
+                + '}';
+    }
+}
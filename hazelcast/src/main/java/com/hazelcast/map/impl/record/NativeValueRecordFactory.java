@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapContainer;
+
+import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
+
+/**
+ * Creates records which keep their serialized values in native memory
+ * allocated from a per record store {@link MemoryAllocator}.
+ * <p>
+ * Deserialized values are never cached, i.e. {@link
+ * MapConfig#getCacheDeserializedValues()} is treated as {@link
+ * com.hazelcast.config.CacheDeserializedValues#NEVER}. When per entry
+ * stats are enabled, on-heap {@link DataRecordWithStats} records are
+ * created.
+ */
+public class NativeValueRecordFactory implements RecordFactory<Data> {
+
+    private final MapContainer mapContainer;
+    private final SerializationService ss;
+    private final NativeValueBlocks blocks;
+
+    public NativeValueRecordFactory(MapContainer mapContainer, SerializationService ss, MemoryAllocator malloc) {
+        this.mapContainer = mapContainer;
+        this.ss = ss;
+        this.blocks = new NativeValueBlocks(malloc);
+    }
+
+    @Override
+    public Record<Data> newRecord(Data key, Object value) {
+        MapConfig mapConfig = mapContainer.getMapConfig();
+        Data valueData = ss.toData(value);
+
+        if (mapConfig.isPerEntryStatsEnabled()) {
+            return new DataRecordWithStats(valueData);
+        }
+
+        if (mapContainer.getEvictor() != NULL_EVICTOR) {
+            EvictionPolicy evictionPolicy = mapConfig.getEvictionConfig().getEvictionPolicy();
+            if (evictionPolicy == EvictionPolicy.LRU) {
+                return new NativeValueRecordWithLRUEviction(blocks, valueData);
+            }
+
+            if (evictionPolicy == EvictionPolicy.LFU) {
+                return new NativeValueRecordWithLFUEviction(blocks, valueData);
+            }
+
+            if (evictionPolicy == EvictionPolicy.RANDOM) {
+                return new NativeValueRecord(blocks, valueData);
+            }
+
+            return new DataRecordWithStats(valueData);
+        }
+
+        return new NativeValueRecord(blocks, valueData);
+    }
+
+    public NativeValueBlocks getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Moves the value of the given record to the heap if it is kept in
+     * native memory, so that the record stays readable after its native
+     * memory is released.
+     */
+    public static void detach(Record record) {
+        if (record instanceof NativeValueRecord) {
+            ((NativeValueRecord) record).detach();
+        }
+    }
+
+    /**
+     * Releases the native memory of the given record's value, if any.
+     */
+    public static void dispose(Record record) {
+        if (record instanceof NativeValueRecord) {
+            ((NativeValueRecord) record).dispose();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.hazelcast.internal.locksupport.LockSupportService;
 import com.hazelcast.internal.monitor.LocalRecordStoreStats;
 import com.hazelcast.internal.monitor.impl.LocalRecordStoreStatsImpl;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.comparators.ValueComparator;
@@ -37,7 +38,9 @@ import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.query.ColumnarProjection;
 import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.NativeValueRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
@@ -46,6 +49,7 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.wan.impl.CallerProvenance;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 
 /**
  * Contains record store common parts.
@@ -68,6 +72,7 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     protected RecordFactory recordFactory;
     protected Storage<Data, Record> storage;
     protected IndexingMutationObserver<Record> indexingObserver;
+    protected volatile ColumnarProjection columnarProjection;
 
     protected AbstractRecordStore(MapContainer mapContainer, int partitionId) {
         this.name = mapContainer.getName();
@@ -89,6 +94,10 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         MapConfig mapConfig = mapContainer.getMapConfig();
         switch (mapConfig.getInMemoryFormat()) {
             case BINARY:
+                if (mapServiceContext.isNativeValueStorageEnabled(name)) {
+                    return new NativeValueRecordFactory(mapContainer, serializationService,
+                            mapServiceContext.createNativeValueAllocator());
+                }
                 return new DataRecordFactory(mapContainer, serializationService);
             case OBJECT:
                 return new ObjectRecordFactory(mapContainer, serializationService);
@@ -130,12 +139,45 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         // Add observer for indexing
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
+
+        // Add observer for columnar projection, backups are never queried
+        if (mapServiceContext.getNodeEngine().getPartitionService().isPartitionOwner(partitionId)) {
+            createColumnarProjection();
+        }
+    }
+
+    @Override
+    public void createColumnarProjection() {
+        Collection<String> columnarAttributes = mapServiceContext.getColumnarProjectionAttributes(name);
+        if (columnarProjection != null || columnarAttributes.isEmpty()) {
+            return;
+        }
+        ColumnarProjection projection = new ColumnarProjection(columnarAttributes,
+                (InternalSerializationService) serializationService, mapServiceContext.getExtractors(name));
+        forEach((key, record) -> projection.onReplicationPutRecord(key, record, false), false, true);
+        mutationObserver.add(projection);
+        columnarProjection = projection;
+    }
+
+    @Override
+    public void destroyColumnarProjection() {
+        ColumnarProjection projection = columnarProjection;
+        if (projection != null) {
+            columnarProjection = null;
+            mutationObserver.remove(projection);
+            projection.onDestroy(false, true);
+        }
     }
 
     public IndexingMutationObserver<Record> getIndexingObserver() {
         return indexingObserver;
     }
 
+    @Override
+    public ColumnarProjection getColumnarProjection() {
+        return columnarProjection;
+    }
+
     @Override
     public InMemoryFormat getInMemoryFormat() {
         return inMemoryFormat;
@@ -175,6 +217,13 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (recordFactory instanceof NativeValueRecordFactory) {
+            return new NativeValueStorage(memoryFormat, getExpirySystem(), serializationService,
+                    ((NativeValueRecordFactory) recordFactory).getBlocks());
+        }
+        if (mapServiceContext.isOpenAddressingStorageEnabled(name)) {
+            return new OpenAddressingStorage(memoryFormat, getExpirySystem(), serializationService);
+        }
         return new StorageImpl(memoryFormat, getExpirySystem(), serializationService);
     }
 
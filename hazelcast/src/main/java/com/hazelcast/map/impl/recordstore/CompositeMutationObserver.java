@@ -42,6 +42,10 @@ class CompositeMutationObserver<R extends Record> implements MutationObserver<R>
         mutationObservers.add(mutationObserver);
     }
 
+    public void remove(MutationObserver<R> mutationObserver) {
+        mutationObservers.remove(mutationObserver);
+    }
+
     @Override
     public void onClear() {
         Throwable throwable = null;
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.record.NativeValueBlocks;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.hazelcast.map.impl.record.NativeValueRecordFactory.detach;
+import static com.hazelcast.map.impl.record.NativeValueRecordFactory.dispose;
+
+/**
+ * An {@link OpenAddressingStorage} whose records keep their values in
+ * native memory, see {@link com.hazelcast.map.impl.record.NativeValueRecordFactory}.
+ * <p>
+ * Records leaving the storage get their values moved back to the heap,
+ * since callers may still read them. On {@link #clear} and {@link #destroy}
+ * native memory is released without copying and the allocator is
+ * disposed on {@link #destroy}. Blocks which were still being read when
+ * they were released are freed by {@link #disposeDeferredBlocks()}.
+ */
+public class NativeValueStorage<R extends Record> extends OpenAddressingStorage<R> {
+
+    private final NativeValueBlocks blocks;
+
+    NativeValueStorage(InMemoryFormat inMemoryFormat, ExpirySystem expirySystem,
+                       SerializationService serializationService, NativeValueBlocks blocks) {
+        super(inMemoryFormat, expirySystem, serializationService);
+        this.blocks = blocks;
+    }
+
+    @Override
+    public void put(Data key, R record) {
+        R previousRecord = get(key);
+        super.put(key, record);
+        if (previousRecord != null && previousRecord != record) {
+            detach(previousRecord);
+        }
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, @Nonnull R record) {
+        super.removeRecord(dataKey, record);
+        detach(record);
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        Iterator<Map.Entry<Data, R>> iterator = mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            dispose(iterator.next().getValue());
+        }
+        super.clear(isDuringShutdown);
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        super.destroy(isDuringShutdown);
+        blocks.dispose();
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        blocks.disposeDeferredBlocks();
+    }
+}
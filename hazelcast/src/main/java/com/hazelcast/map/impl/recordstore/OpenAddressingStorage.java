@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.QuickMath;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
+
+/**
+ * A {@link Storage} backed by a single-writer, linear-probing open
+ * addressing table. Spread key hashes, keys and records live in
+ * parallel arrays, so an entry costs no extra node object as it does
+ * with {@link StorageImpl}.
+ * <p>
+ * Only the partition thread owning the record store may mutate this
+ * storage, but lookups may come from any thread and take no lock:
+ * <ul>
+ * <li>A slot is published by release stores of its record and key, in
+ * this order, and read by acquire loads, so a lookup which finds a key
+ * also sees its record.
+ * <li>A delete shifts back the following entries of the probe chain, so
+ * a concurrent lookup could miss a moved entry. Deletes are bracketed by
+ * the {@code shiftSequence} seqlock, which is odd while entries move,
+ * and lookups retry when the sequence changed under them.
+ * <li>A resize builds a new table and publishes it by a volatile write,
+ * the old table isn't written to anymore.
+ * </ul>
+ * <p>
+ * Iteration is performed per home bucket (the slot a key hashes to)
+ * from the highest bucket to the lowest. Since backward-shift deletion
+ * never moves an entry in front of its home bucket, removing entries
+ * while iterating neither skips nor repeats entries, and {@link
+ * IterationPointer} based fetching has the same semantics as the one
+ * of {@link StorageSCHM}. The {@link #mutationTolerantIterator()} uses
+ * the same fetching, so it also follows the table through resizes.
+ *
+ * @param <R> the value type to be put in this storage.
+ */
+public class OpenAddressingStorage<R extends Record> implements Storage<Data, R> {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 256;
+    static final float LOAD_FACTOR = 0.6f;
+
+    private static final VarHandle RECORDS = MethodHandles.arrayElementVarHandle(Record[].class);
+
+    private final SerializationService serializationService;
+    private final InMemoryFormat inMemoryFormat;
+    private final ExpirySystem expirySystem;
+
+    private volatile Table table;
+    private volatile int size;
+    /**
+     * Odd while a delete shifts back entries, incremented before and after
+     * every delete. Only written by the partition thread.
+     */
+    private volatile int shiftSequence;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    OpenAddressingStorage(InMemoryFormat inMemoryFormat, ExpirySystem expirySystem,
+                          SerializationService serializationService) {
+        this.entryCostEstimator = createMapSizeEstimator(inMemoryFormat);
+        this.inMemoryFormat = inMemoryFormat;
+        this.expirySystem = expirySystem;
+        this.serializationService = serializationService;
+        this.table = new Table(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    public void put(Data key, R record) {
+        R previousRecord = putInternal(key, record);
+
+        if (previousRecord == null) {
+            updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
+        } else {
+            updateCostEstimate(-entryCostEstimator.calculateValueCost(previousRecord));
+            updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+        }
+    }
+
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+            justification = "Only the owning partition thread changes the volatile field, but multiple threads can read it.")
+    @SuppressWarnings("unchecked")
+    private R putInternal(Data key, R record) {
+        Table t = table;
+        int hash = hashOf(key);
+        int mask = t.mask;
+        int index = hash & mask;
+        Data candidate;
+        while ((candidate = t.keys[index]) != null) {
+            if (t.hashes[index] == hash && candidate.equals(key)) {
+                R previous = (R) t.records[index];
+                RECORDS.setRelease(t.records, index, record);
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        t.set(index, hash, key, record);
+        if (++size > t.resizeThreshold) {
+            table = t.rehash();
+        }
+        return null;
+    }
+
+    @Override
+    public R updateRecordValue(Data key, R record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+
+        record.setValue(inMemoryFormat == BINARY
+                ? serializationService.toData(value) : serializationService.toObject(value));
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+        return record;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R get(Data key) {
+        int hash = hashOf(key);
+        while (true) {
+            int sequence = shiftSequence;
+            if ((sequence & 1) == 0) {
+                Table t = table;
+                int index = t.indexOf(key, hash);
+                Record record = index == -1 ? null : (Record) RECORDS.getAcquire(t.records, index);
+                // the slot reads must not be reordered after the validation
+                VarHandle.acquireFence();
+                if (shiftSequence == sequence) {
+                    return (R) record;
+                }
+            }
+            // a delete is moving entries, they may have been missed
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public R getIfSameKey(Data key) {
+        throw new UnsupportedOperationException("OpenAddressingStorage#getIfSameKey");
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+            justification = "Only the owning partition thread changes the volatile field, but multiple threads can read it.")
+    public void removeRecord(Data dataKey, @Nonnull R record) {
+        Table t = table;
+        int index = t.indexOf(dataKey, hashOf(dataKey));
+        if (index == -1) {
+            return;
+        }
+        int sequence = shiftSequence;
+        shiftSequence = sequence + 1;
+        // the slot writes of the delete must not be reordered before the odd sequence
+        VarHandle.storeStoreFence();
+        t.delete(index);
+        shiftSequence = sequence + 2;
+        size--;
+
+        updateCostEstimate(-entryCostEstimator.calculateEntryCost(dataKey, record));
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Data, R>> mutationTolerantIterator() {
+        return new MutationTolerantIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        table = new Table(DEFAULT_INITIAL_CAPACITY);
+        size = 0;
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        return new LazySamplingIterableIterator(table, sampleCount);
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, (key, record) -> keys.add(key));
+        return new MapKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, (key, record) -> {
+            Data dataValue = serializationService.toData(record.getValue());
+            entries.add(new AbstractMap.SimpleEntry<>(key, dataValue));
+        });
+        return new MapEntriesWithCursor(entries, newPointers);
+    }
+
+    /**
+     * Fetches at least {@code size} entries starting at the given {@code
+     * pointers}. All entries of a home bucket are fetched together, so
+     * more than {@code size} entries may be returned.
+     *
+     * @see com.hazelcast.internal.util.SampleableConcurrentHashMap#fetchKeys
+     */
+    private IterationPointer[] fetchNext(IterationPointer[] pointers, int size,
+                                         BiConsumer<Data, Record> entryConsumer) {
+        Table t = table;
+        int capacity = t.keys.length;
+
+        pointers = checkPointers(pointers, capacity);
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+
+        int nextBucket = lastPointer.getIndex() >= 0 && lastPointer.getIndex() < capacity
+                ? lastPointer.getIndex() : capacity - 1;
+        int counter = 0;
+        while (nextBucket >= 0 && counter < size) {
+            int bucket = nextBucket--;
+            for (int index = bucket; t.keys[index] != null; index = (index + 1) & t.mask) {
+                if ((t.hashes[index] & t.mask) != bucket) {
+                    continue;
+                }
+                Data key = t.keys[index];
+                if (hasNotBeenObserved(t.hashes[index], pointers)) {
+                    entryConsumer.accept(key, t.records[index]);
+                    counter++;
+                }
+            }
+        }
+        lastPointer.setIndex(nextBucket);
+        return pointers;
+    }
+
+    /**
+     * Clones the given {@code pointers} and appends a fresh pointer when
+     * the table was resized since the previous fetch.
+     */
+    private static IterationPointer[] checkPointers(IterationPointer[] pointers, int currentCapacity) {
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        boolean iterationStarted = lastPointer.getSize() == -1;
+        boolean tableResized = lastPointer.getSize() != currentCapacity;
+        int newLength = !iterationStarted && tableResized ? pointers.length + 1 : pointers.length;
+
+        IterationPointer[] updatedPointers = new IterationPointer[newLength];
+        for (int i = 0; i < pointers.length; i++) {
+            updatedPointers[i] = new IterationPointer(pointers[i]);
+        }
+
+        if (iterationStarted || tableResized) {
+            updatedPointers[updatedPointers.length - 1] = new IterationPointer(Integer.MAX_VALUE, currentCapacity);
+        }
+        return updatedPointers;
+    }
+
+    /**
+     * Returns {@code true} if an entry with the given spread {@code hash}
+     * has not been observed with the iteration state of the earlier,
+     * pre-resize {@code pointers}.
+     */
+    private static boolean hasNotBeenObserved(int hash, IterationPointer[] pointers) {
+        for (int i = 0; i < pointers.length - 1; i++) {
+            IterationPointer pointer = pointers[i];
+            if ((hash & (pointer.getSize() - 1)) > pointer.getIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Data extractDataKeyFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getDataKey();
+    }
+
+    @Override
+    public Data toBackingDataKeyFormat(Data key) {
+        return key;
+    }
+
+    // package-private for testing
+    int capacity() {
+        return table.keys.length;
+    }
+
+    private static int hashOf(Data key) {
+        return fastIntMix(key.hashCode());
+    }
+
+    /**
+     * Parallel arrays of a single table generation. A new instance is
+     * published on every resize, so readers never observe arrays of
+     * different lengths.
+     */
+    private static final class Table {
+
+        private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(Data[].class);
+
+        final int mask;
+        final int resizeThreshold;
+        final int[] hashes;
+        final Data[] keys;
+        final Record[] records;
+
+        Table(int capacity) {
+            assert QuickMath.isPowerOfTwo(capacity) : "capacity must be a power of two: " + capacity;
+            this.mask = capacity - 1;
+            this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+            this.hashes = new int[capacity];
+            this.keys = new Data[capacity];
+            this.records = new Record[capacity];
+        }
+
+        /**
+         * Returns the index of the key or {@code -1}. May be called
+         * concurrently with a delete: the probe is then bounded by the
+         * capacity, and its result is discarded by the caller.
+         */
+        int indexOf(Data key, int hash) {
+            int index = hash & mask;
+            Data candidate;
+            for (int probes = 0; probes <= mask && (candidate = (Data) KEYS.getAcquire(keys, index)) != null; probes++) {
+                if (hashes[index] == hash && candidate.equals(key)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Publishes an entry in the given slot. The key is stored last, so
+         * a reader which finds the key sees the hash and the record.
+         */
+        void set(int index, int hash, Data key, Record record) {
+            hashes[index] = hash;
+            RECORDS.setRelease(records, index, record);
+            KEYS.setRelease(keys, index, key);
+        }
+
+        /**
+         * Removes the entry at {@code deleteIndex} and shifts back the
+         * following entries of the probe chain which may occupy the freed
+         * slot. An entry is never moved in front of its home bucket.
+         */
+        void delete(int deleteIndex) {
+            int gap = deleteIndex;
+            int index = gap;
+            while (true) {
+                index = (index + 1) & mask;
+                if (keys[index] == null) {
+                    break;
+                }
+                int home = hashes[index] & mask;
+                if (((index - home) & mask) >= ((index - gap) & mask)) {
+                    set(gap, hashes[index], keys[index], records[index]);
+                    gap = index;
+                }
+            }
+            KEYS.setRelease(keys, gap, null);
+            records[gap] = null;
+            hashes[gap] = 0;
+        }
+
+        Table rehash() {
+            Table newTable = new Table(keys.length << 1);
+            int newMask = newTable.mask;
+            for (int i = 0; i < keys.length; i++) {
+                Data key = keys[i];
+                if (key == null) {
+                    continue;
+                }
+                int hash = hashes[i];
+                int index = hash & newMask;
+                while (newTable.keys[index] != null) {
+                    index = (index + 1) & newMask;
+                }
+                newTable.hashes[index] = hash;
+                newTable.records[index] = records[i];
+                newTable.keys[index] = key;
+            }
+            return newTable;
+        }
+    }
+
+    /**
+     * Iterates home buckets from the highest to the lowest one and
+     * buffers the entries of a bucket before returning them. Each bucket
+     * is read from the current table with {@link #fetchNext}, so entries
+     * are neither skipped nor repeated when the table is resized during
+     * the iteration. Not thread safe, only to be used by the partition
+     * thread.
+     */
+    private final class MutationTolerantIterator implements Iterator<Map.Entry<Data, R>> {
+
+        private final List<Map.Entry<Data, R>> bucketEntries = new ArrayList<>();
+        private IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        private int bucketEntryIndex;
+
+        @Override
+        public boolean hasNext() {
+            while (bucketEntryIndex == bucketEntries.size()) {
+                if (pointers[pointers.length - 1].getIndex() < 0) {
+                    return false;
+                }
+                loadBucket();
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void loadBucket() {
+            bucketEntries.clear();
+            bucketEntryIndex = 0;
+            pointers = fetchNext(pointers, 1,
+                    (key, record) -> bucketEntries.add(new AbstractMap.SimpleImmutableEntry<>(key, (R) record)));
+        }
+
+        @Override
+        public Map.Entry<Data, R> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return bucketEntries.get(bucketEntryIndex++);
+        }
+    }
+
+    /**
+     * Walks the table slot by slot starting from a random slot and
+     * lazily creates {@link LazyEvictableEntryView} samples.
+     * Not thread safe.
+     */
+    private final class LazySamplingIterableIterator implements Iterable<EntryView>, Iterator<EntryView> {
+
+        private final Table table;
+        private final int maxEntryCount;
+        private final int firstIndex;
+        private int currentIndex;
+        private int returnedEntryCount;
+        private boolean reachedToEnd;
+        private EntryView currentSample;
+
+        LazySamplingIterableIterator(Table table, int maxEntryCount) {
+            this.table = table;
+            this.maxEntryCount = maxEntryCount;
+            this.firstIndex = ThreadLocalRandomProvider.get().nextInt(Integer.MAX_VALUE) & table.mask;
+            this.currentIndex = -1;
+        }
+
+        @Override
+        public Iterator<EntryView> iterator() {
+            return this;
+        }
+
+        private void iterate() {
+            if (returnedEntryCount >= maxEntryCount || reachedToEnd) {
+                currentSample = null;
+                return;
+            }
+
+            Table t = table;
+            while (true) {
+                currentIndex = currentIndex == -1 ? firstIndex : (currentIndex + 1) & t.mask;
+                Data key = t.keys[currentIndex];
+                Record record = t.records[currentIndex];
+                if (key != null && record != null) {
+                    currentSample = new LazyEvictableEntryView<>(key, record,
+                            expirySystem.getExpiryMetadata(key), serializationService);
+                    returnedEntryCount++;
+                    if (((currentIndex + 1) & t.mask) == firstIndex) {
+                        reachedToEnd = true;
+                    }
+                    return;
+                }
+                if (((currentIndex + 1) & t.mask) == firstIndex) {
+                    reachedToEnd = true;
+                    currentSample = null;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (currentSample == null) {
+                iterate();
+            }
+            return currentSample != null;
+        }
+
+        @Override
+        public EntryView next() {
+            if (hasNext()) {
+                EntryView returnValue = currentSample;
+                currentSample = null;
+                return returnValue;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Removing is not supported");
+        }
+    }
+}
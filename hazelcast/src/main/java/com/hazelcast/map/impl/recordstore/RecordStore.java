@@ -34,6 +34,7 @@ import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.query.ColumnarProjection;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
@@ -529,6 +530,26 @@ public interface RecordStore<R extends Record> {
 
     Storage getStorage();
 
+    /**
+     * @return the columnar projection of this record store or {@code null}
+     * if no attributes of the map are projected
+     * @see com.hazelcast.map.impl.MapServiceContext#COLUMNAR_PROJECTION_ATTRIBUTES
+     */
+    ColumnarProjection getColumnarProjection();
+
+    /**
+     * Creates the columnar projection of this record store from its current
+     * records, if the map has projected attributes and the projection
+     * doesn't exist yet. Called when the partition becomes a primary one.
+     */
+    void createColumnarProjection();
+
+    /**
+     * Destroys the columnar projection of this record store, if any. Called
+     * when the partition stops being a primary one.
+     */
+    void destroyColumnarProjection();
+
     void sampleAndForceRemoveEntries(int entryCountToRemove);
 
     /**
@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.BiPredicate;
+
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+
+/**
+ * An in-memory B+tree keeping its keys and values in array based pages.
+ * Leaves are doubly linked, so range scans walk adjacent array slots
+ * instead of chasing a pointer per entry.
+ * <p>
+ * Deletion is lazy: pages are not merged or rebalanced, a page is
+ * unlinked only when it becomes empty. When an entry is appended after
+ * the last key of the tree, the full rightmost page is kept full instead
+ * of being split in halves, so ascending inserts (e.g. index builds
+ * from sorted sources) produce densely filled pages.
+ * <p>
+ * Not thread-safe, updates must be serialized by the caller. Reads may
+ * run concurrently with an update if the caller discards their result
+ * when it detects the update (see {@link BPlusTreeIndexStore}): such a
+ * read may observe a partially updated page and fail or return wrong
+ * entries, but it still terminates since pages are never reused and
+ * leaf links always point to pages holding greater (lower for
+ * {@code prev}) keys.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+@SuppressWarnings("unchecked")
+final class BPlusTree<K, V> {
+
+    /**
+     * Default maximum number of keys in a page.
+     */
+    static final int DEFAULT_PAGE_CAPACITY = 64;
+
+    private static final int MIN_PAGE_CAPACITY = 3;
+
+    private final Comparator<? super K> comparator;
+    private final int pageCapacity;
+
+    private Node root;
+    private Leaf head;
+    private Leaf tail;
+    private int size;
+
+    // result of the last page split: new right sibling and its separator key
+    private Node splitNode;
+    private Object splitKey;
+
+    BPlusTree(Comparator<? super K> comparator) {
+        this(comparator, DEFAULT_PAGE_CAPACITY);
+    }
+
+    BPlusTree(Comparator<? super K> comparator, int pageCapacity) {
+        checkTrue(pageCapacity >= MIN_PAGE_CAPACITY, "Page capacity must be at least " + MIN_PAGE_CAPACITY);
+        this.comparator = comparator;
+        this.pageCapacity = pageCapacity;
+        clear();
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Leaf leaf = new Leaf(pageCapacity);
+        root = leaf;
+        head = leaf;
+        tail = leaf;
+        size = 0;
+    }
+
+    V get(K key) {
+        Leaf leaf = findLeaf(key);
+        int index = leaf.search(key, comparator);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    /**
+     * Associates the value with the key, replacing the previous value.
+     *
+     * @return the previous value or {@code null} if there was none
+     */
+    V put(K key, V value) {
+        return insert(key, value, true);
+    }
+
+    /**
+     * Associates the value with the key only if the key is absent.
+     *
+     * @return the current value or {@code null} if the value was inserted
+     */
+    V putIfAbsent(K key, V value) {
+        return insert(key, value, false);
+    }
+
+    /**
+     * @return the removed value or {@code null} if the key was absent
+     */
+    V remove(K key) {
+        V removed = delete(root, key);
+        while (root instanceof Inner) {
+            Inner inner = (Inner) root;
+            if (inner.childCount > 1) {
+                break;
+            }
+            if (inner.childCount == 0) {
+                clear();
+                break;
+            }
+            root = inner.children[0];
+        }
+        return removed;
+    }
+
+    /**
+     * Visits entries in key order starting from the given key until the
+     * visitor returns {@code false} or there are no more entries.
+     *
+     * @param from          the key to start from, {@code null} to start
+     *                      from the first (last if descending) entry
+     * @param fromInclusive whether an entry with key equal to {@code from}
+     *                      should be visited
+     * @param descending    whether to visit the entries in descending order
+     * @param visitor       receives the keys and values, returns
+     *                      {@code false} to stop the traversal
+     * @return {@code true} if the traversal reached the end of the tree,
+     * {@code false} if it was stopped by the visitor
+     */
+    boolean forEach(K from, boolean fromInclusive, boolean descending, BiPredicate<? super K, ? super V> visitor) {
+        if (from == null) {
+            return descending ? visitDescending(tail, tail.size - 1, visitor) : visitAscending(head, 0, visitor);
+        }
+
+        Leaf leaf = findLeaf(from);
+        int index = leaf.search(from, comparator);
+        if (descending) {
+            index = index >= 0 ? (fromInclusive ? index : index - 1) : -(index + 1) - 1;
+            return visitDescending(leaf, index, visitor);
+        } else {
+            index = index >= 0 ? (fromInclusive ? index : index + 1) : -(index + 1);
+            return visitAscending(leaf, index, visitor);
+        }
+    }
+
+    private boolean visitAscending(Leaf leaf, int index, BiPredicate<? super K, ? super V> visitor) {
+        while (leaf != null) {
+            for (; index < leaf.size; index++) {
+                if (!visitor.test((K) leaf.keys[index], (V) leaf.values[index])) {
+                    return false;
+                }
+            }
+            leaf = leaf.next;
+            index = 0;
+        }
+        return true;
+    }
+
+    private boolean visitDescending(Leaf leaf, int index, BiPredicate<? super K, ? super V> visitor) {
+        while (leaf != null) {
+            for (; index >= 0; index--) {
+                if (!visitor.test((K) leaf.keys[index], (V) leaf.values[index])) {
+                    return false;
+                }
+            }
+            leaf = leaf.prev;
+            index = leaf == null ? -1 : leaf.size - 1;
+        }
+        return true;
+    }
+
+    private Leaf findLeaf(K key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[inner.childIndex(key, comparator)];
+        }
+        return (Leaf) node;
+    }
+
+    private V insert(K key, V value, boolean replace) {
+        V previous = insert(root, key, value, replace);
+        if (splitNode != null) {
+            Inner newRoot = new Inner(pageCapacity);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = splitNode;
+            newRoot.childCount = 2;
+            root = newRoot;
+            splitNode = null;
+            splitKey = null;
+        }
+        return previous;
+    }
+
+    private V insert(Node node, K key, V value, boolean replace) {
+        if (node instanceof Leaf) {
+            return insertIntoLeaf((Leaf) node, key, value, replace);
+        }
+
+        Inner inner = (Inner) node;
+        int childIndex = inner.childIndex(key, comparator);
+        V previous = insert(inner.children[childIndex], key, value, replace);
+        if (splitNode != null) {
+            inner.insertChild(childIndex + 1, splitKey, splitNode);
+            splitNode = null;
+            splitKey = null;
+            if (inner.childCount > pageCapacity + 1) {
+                splitInner(inner, childIndex + 1 == inner.childCount - 1);
+            }
+        }
+        return previous;
+    }
+
+    private V insertIntoLeaf(Leaf leaf, K key, V value, boolean replace) {
+        int index = leaf.search(key, comparator);
+        if (index >= 0) {
+            V previous = (V) leaf.values[index];
+            if (replace) {
+                leaf.values[index] = value;
+            }
+            return previous;
+        }
+
+        index = -(index + 1);
+        leaf.insert(index, key, value);
+        size++;
+        if (leaf.size > pageCapacity) {
+            splitLeaf(leaf, leaf == tail && index == leaf.size - 1);
+        }
+        return null;
+    }
+
+    private void splitLeaf(Leaf leaf, boolean appended) {
+        int splitIndex = appended ? leaf.size - 1 : leaf.size >>> 1;
+        Leaf right = new Leaf(pageCapacity);
+        int moved = leaf.size - splitIndex;
+        System.arraycopy(leaf.keys, splitIndex, right.keys, 0, moved);
+        System.arraycopy(leaf.values, splitIndex, right.values, 0, moved);
+        Arrays.fill(leaf.keys, splitIndex, leaf.size, null);
+        Arrays.fill(leaf.values, splitIndex, leaf.size, null);
+        right.size = moved;
+        leaf.size = splitIndex;
+
+        right.prev = leaf;
+        right.next = leaf.next;
+        if (leaf.next != null) {
+            leaf.next.prev = right;
+        } else {
+            tail = right;
+        }
+        leaf.next = right;
+
+        splitNode = right;
+        splitKey = right.keys[0];
+    }
+
+    private void splitInner(Inner inner, boolean appended) {
+        int keyCount = inner.childCount - 1;
+        // the key at splitIndex moves up to the parent
+        int splitIndex = appended ? keyCount - 1 : keyCount >>> 1;
+        Inner right = new Inner(pageCapacity);
+        int movedKeys = keyCount - splitIndex - 1;
+        System.arraycopy(inner.keys, splitIndex + 1, right.keys, 0, movedKeys);
+        System.arraycopy(inner.children, splitIndex + 1, right.children, 0, movedKeys + 1);
+        right.childCount = movedKeys + 1;
+
+        splitKey = inner.keys[splitIndex];
+        splitNode = right;
+
+        Arrays.fill(inner.keys, splitIndex, keyCount, null);
+        Arrays.fill(inner.children, splitIndex + 1, inner.childCount, null);
+        inner.childCount = splitIndex + 1;
+    }
+
+    private V delete(Node node, K key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = leaf.search(key, comparator);
+            if (index < 0) {
+                return null;
+            }
+            V removed = (V) leaf.values[index];
+            leaf.remove(index);
+            size--;
+            return removed;
+        }
+
+        Inner inner = (Inner) node;
+        int childIndex = inner.childIndex(key, comparator);
+        Node child = inner.children[childIndex];
+        V removed = delete(child, key);
+        if (removed != null && child.isEmpty()) {
+            if (child instanceof Leaf) {
+                unlink((Leaf) child);
+            }
+            inner.removeChild(childIndex);
+        }
+        return removed;
+    }
+
+    private void unlink(Leaf leaf) {
+        if (leaf.prev != null) {
+            leaf.prev.next = leaf.next;
+        } else {
+            head = leaf.next;
+        }
+        if (leaf.next != null) {
+            leaf.next.prev = leaf.prev;
+        } else {
+            tail = leaf.prev;
+        }
+    }
+
+    private abstract static class Node {
+        // one extra slot to hold the overflowing key before a split
+        final Object[] keys;
+
+        Node(int pageCapacity) {
+            this.keys = new Object[pageCapacity + 1];
+        }
+
+        abstract boolean isEmpty();
+
+        <K> int search(int keyCount, K key, Comparator<? super K> comparator) {
+            int low = 0;
+            int high = keyCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = comparator.compare((K) keys[mid], key);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] values;
+        int size;
+        Leaf prev;
+        Leaf next;
+
+        Leaf(int pageCapacity) {
+            super(pageCapacity);
+            this.values = new Object[pageCapacity + 1];
+        }
+
+        @Override
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        <K> int search(K key, Comparator<? super K> comparator) {
+            return search(size, key, comparator);
+        }
+
+        void insert(int index, Object key, Object value) {
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            keys[index] = key;
+            values[index] = value;
+            size++;
+        }
+
+        void remove(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            keys[size] = null;
+            values[size] = null;
+        }
+    }
+
+    /**
+     * An inner page, {@code children[i]} holds the keys in the range
+     * {@code [keys[i - 1], keys[i])}.
+     */
+    private static final class Inner extends Node {
+        final Node[] children;
+        int childCount;
+
+        Inner(int pageCapacity) {
+            super(pageCapacity);
+            this.children = new Node[pageCapacity + 2];
+        }
+
+        @Override
+        boolean isEmpty() {
+            return childCount == 0;
+        }
+
+        <K> int childIndex(K key, Comparator<? super K> comparator) {
+            int index = search(childCount - 1, key, comparator);
+            return index >= 0 ? index + 1 : -(index + 1);
+        }
+
+        void insertChild(int childIndex, Object separator, Node child) {
+            int keyCount = childCount - 1;
+            System.arraycopy(keys, childIndex - 1, keys, childIndex, keyCount - childIndex + 1);
+            System.arraycopy(children, childIndex, children, childIndex + 1, childCount - childIndex);
+            keys[childIndex - 1] = separator;
+            children[childIndex] = child;
+            childCount++;
+        }
+
+        void removeChild(int childIndex) {
+            int keyCount = childCount - 1;
+            int keyIndex = childIndex > 0 ? childIndex - 1 : 0;
+            if (keyCount > 0) {
+                System.arraycopy(keys, keyIndex + 1, keys, keyIndex, keyCount - keyIndex - 1);
+                keys[keyCount - 1] = null;
+            }
+            System.arraycopy(children, childIndex + 1, children, childIndex, childCount - childIndex - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.OrderedIndexStore.IteratorFromBatch;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static com.hazelcast.query.impl.OrderedIndexStore.DATA_COMPARATOR;
+import static com.hazelcast.query.impl.OrderedIndexStore.SPECIAL_AWARE_COMPARATOR;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Sorted index store keeping the index values in a {@link BPlusTree}.
+ * <p>
+ * An alternative to {@link OrderedIndexStore} which avoids allocating a
+ * skip list node and a nested map per indexed value: an index value with
+ * a single associated entry keeps the {@link QueryableEntry} directly in
+ * the tree, a nested map is created only when a second entry shares the
+ * same index value.
+ * <p>
+ * Updates are serialized by the write lock of a {@link StampedLock}, readers
+ * don't take the lock: they read the tree optimistically and validate the
+ * stamp afterwards, falling back to the read lock only if the tree was
+ * modified concurrently. Iterators returned by {@code getSqlRecordIterator*}
+ * methods are weakly consistent: they copy batches of tree entries and
+ * continue from the last returned index value, so they never return an
+ * index value twice and don't block concurrent updates in between the
+ * batches.
+ */
+@SuppressWarnings("rawtypes")
+public class BPlusTreeIndexStore extends BaseSingleValueIndexStore {
+
+    static final int ITERATOR_BATCH_SIZE = BPlusTree.DEFAULT_PAGE_CAPACITY;
+
+    private final BPlusTree<Comparable, Object> tree = new BPlusTree<>(SPECIAL_AWARE_COMPARATOR);
+    private final StampedLock lock = new StampedLock();
+
+    private final IndexFunctor<Comparable, QueryableEntry> addFunctor;
+    private final IndexFunctor<Comparable, Data> removeFunctor;
+
+    public BPlusTreeIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn, false);
+        assert copyOn != null;
+        if (copyOn == IndexCopyBehavior.COPY_ON_WRITE) {
+            addFunctor = new CopyOnWriteAddFunctor();
+            removeFunctor = new CopyOnWriteRemoveFunctor();
+        } else {
+            addFunctor = new AddFunctor();
+            removeFunctor = new RemoveFunctor();
+        }
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        return addFunctor.invoke(value, record);
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        return removeFunctor.invoke(value, recordKey);
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        // We still need to canonicalize query arguments for ordered indexes to
+        // support InPredicate queries.
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    public Comparable canonicalizeScalarForStorage(Comparable value) {
+        // Returning the original value since ordered indexes are not supporting
+        // hash lookups on their stored values, so there is no need in providing
+        // canonical representations.
+        return value;
+    }
+
+    @Override
+    void takeWriteLock() {
+        lock.writeLock();
+    }
+
+    @Override
+    void releaseWriteLock() {
+        lock.tryUnlockWrite();
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            tree.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return false;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(@Nonnull Comparable value) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(value, false));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable searchedValue, boolean descending) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(comparison, searchedValue, descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        return new IteratorFromBatch(getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(Comparable value, boolean descending) {
+        Object records = read(() -> tree.get(value));
+
+        if (records == null) {
+            return emptyIterator();
+        } else {
+            return Collections.singletonList(new IndexKeyEntries(value, entryIterator(records, descending))).iterator();
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        return new BatchIterator(null, true, null, true, descending);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparison comparison,
+            Comparable searchedValue,
+            boolean descending
+    ) {
+        switch (comparison) {
+            case LESS:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, false, descending);
+            case LESS_OR_EQUAL:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, true, descending);
+            case GREATER:
+                return getSqlRecordIteratorBatch(searchedValue, false, POSITIVE_INFINITY, true, descending);
+            case GREATER_OR_EQUAL:
+                return getSqlRecordIteratorBatch(searchedValue, true, POSITIVE_INFINITY, true, descending);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            Comparable from,
+            boolean fromInclusive,
+            Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+
+        if (order == 0) {
+            if (!fromInclusive || !toInclusive) {
+                return emptyIterator();
+            }
+            return getSqlRecordIteratorBatch(from, descending);
+        } else if (order > 0) {
+            return emptyIterator();
+        }
+
+        return descending
+                ? new BatchIterator(to, toInclusive, from, fromInclusive, true)
+                : new BatchIterator(from, fromInclusive, to, toInclusive, false);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return toSingleResultSet(toMap(read(() -> tree.get(value))));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        List<Object> found = read(() -> {
+            List<Object> records = new ArrayList<>(values.size());
+            for (Comparable value : values) {
+                Object valueRecords = tree.get(value);
+                if (valueRecords != null) {
+                    records.add(valueRecords);
+                }
+            }
+            return records;
+        });
+        return toMultiResultSet(found);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable searchedValue) {
+        switch (comparison) {
+            case LESS:
+                return getRecords(NULL, false, searchedValue, false);
+            case LESS_OR_EQUAL:
+                return getRecords(NULL, false, searchedValue, true);
+            case GREATER:
+                return getRecords(searchedValue, false, POSITIVE_INFINITY, true);
+            case GREATER_OR_EQUAL:
+                return getRecords(searchedValue, true, POSITIVE_INFINITY, true);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+        if (order == 0) {
+            if (!fromInclusive || !toInclusive) {
+                return emptySet();
+            }
+            return getRecords(from);
+        } else if (order > 0) {
+            return emptySet();
+        }
+        List<Object> found = read(() -> {
+            List<Object> records = new ArrayList<>();
+            tree.forEach(from, fromInclusive, false, (value, valueRecords) -> {
+                int valueOrder = SPECIAL_AWARE_COMPARATOR.compare(value, to);
+                if (valueOrder > 0 || valueOrder == 0 && !toInclusive) {
+                    return false;
+                }
+                records.add(valueRecords);
+                return true;
+            });
+            return records;
+        });
+        return toMultiResultSet(found);
+    }
+
+    /**
+     * @return the number of distinct index values in this store
+     */
+    int valueCount() {
+        return read(tree::size);
+    }
+
+    /**
+     * Runs the reader without locking and returns its result if the tree
+     * was not modified in the meantime, otherwise runs it again under the
+     * read lock. A concurrent update may make the reader observe an
+     * inconsistent tree, fail or return garbage, all of which is discarded.
+     * So the reader may only write to state owned by the calling thread,
+     * and it has to reset that state before writing, since a retry must
+     * overwrite what a discarded run wrote. {@link BatchIterator} fills its
+     * batch this way.
+     */
+    private <R> R read(Supplier<R> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                R result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private MultiResultSet toMultiResultSet(List<Object> found) {
+        MultiResultSet results = createMultiResultSet();
+        for (Object records : found) {
+            copyToMultiResultSet(results, toMap(records));
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Data, QueryableEntry> toMap(Object records) {
+        if (records instanceof QueryableEntry) {
+            QueryableEntry entry = (QueryableEntry) records;
+            return singletonMap(entry.getKeyData(), entry);
+        }
+        return (Map<Data, QueryableEntry>) records;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterator<QueryableEntry> entryIterator(Object records, boolean descending) {
+        if (records instanceof QueryableEntry) {
+            return Collections.singletonList((QueryableEntry) records).iterator();
+        }
+        NavigableMap<Data, QueryableEntry> map = (NavigableMap<Data, QueryableEntry>) records;
+        return (descending ? map.descendingMap() : map).values().iterator();
+    }
+
+    /**
+     * Adds entry to the given index map without copying it.
+     * Needs to be invoked in a thread-safe way.
+     *
+     * @see IndexCopyBehavior
+     */
+    private class AddFunctor implements IndexFunctor<Comparable, QueryableEntry> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Comparable value, QueryableEntry entry) {
+            Object records = tree.putIfAbsent(value, entry);
+            if (records == null) {
+                return null;
+            }
+            if (records instanceof QueryableEntry) {
+                QueryableEntry existing = (QueryableEntry) records;
+                if (existing.getKeyData().equals(entry.getKeyData())) {
+                    tree.put(value, entry);
+                    return existing;
+                }
+                NavigableMap<Data, QueryableEntry> map = new ConcurrentSkipListMap<>(DATA_COMPARATOR);
+                map.put(existing.getKeyData(), existing);
+                map.put(entry.getKeyData(), entry);
+                tree.put(value, map);
+                return null;
+            }
+            return ((NavigableMap<Data, QueryableEntry>) records).put(entry.getKeyData(), entry);
+        }
+    }
+
+    /**
+     * Adds entry to the given index map copying it to secure exclusive access.
+     * Needs to be invoked in a thread-safe way.
+     *
+     * @see IndexCopyBehavior
+     */
+    private class CopyOnWriteAddFunctor implements IndexFunctor<Comparable, QueryableEntry> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Comparable value, QueryableEntry entry) {
+            Object records = tree.putIfAbsent(value, entry);
+            if (records == null) {
+                return null;
+            }
+            if (records instanceof QueryableEntry) {
+                QueryableEntry existing = (QueryableEntry) records;
+                if (existing.getKeyData().equals(entry.getKeyData())) {
+                    tree.put(value, entry);
+                    return existing;
+                }
+            }
+
+            NavigableMap<Data, QueryableEntry> map = new TreeMap<>(DATA_COMPARATOR);
+            map.putAll(toMap(records));
+            Object oldValue = map.put(entry.getKeyData(), entry);
+            tree.put(value, map);
+            return oldValue;
+        }
+    }
+
+    /**
+     * Removes entry from the given index map without copying it.
+     * Needs to be invoked in a thread-safe way.
+     *
+     * @see IndexCopyBehavior
+     */
+    private class RemoveFunctor implements IndexFunctor<Comparable, Data> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Comparable value, Data indexKey) {
+            Object records = tree.get(value);
+            if (records == null) {
+                return null;
+            }
+            if (records instanceof QueryableEntry) {
+                QueryableEntry existing = (QueryableEntry) records;
+                if (existing.getKeyData().equals(indexKey)) {
+                    tree.remove(value);
+                    return existing;
+                }
+                return null;
+            }
+
+            Map<Data, QueryableEntry> map = (Map<Data, QueryableEntry>) records;
+            Object oldValue = map.remove(indexKey);
+            if (map.isEmpty()) {
+                tree.remove(value);
+            }
+            return oldValue;
+        }
+    }
+
+    /**
+     * Removes entry from the given index map copying it to secure exclusive access.
+     * Needs to be invoked in a thread-safe way.
+     *
+     * @see IndexCopyBehavior
+     */
+    private class CopyOnWriteRemoveFunctor implements IndexFunctor<Comparable, Data> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Comparable value, Data indexKey) {
+            Object records = tree.get(value);
+            if (records == null) {
+                return null;
+            }
+            if (records instanceof QueryableEntry) {
+                QueryableEntry existing = (QueryableEntry) records;
+                if (existing.getKeyData().equals(indexKey)) {
+                    tree.remove(value);
+                    return existing;
+                }
+                return null;
+            }
+
+            NavigableMap<Data, QueryableEntry> map = new TreeMap<>((NavigableMap<Data, QueryableEntry>) records);
+            Object oldValue = map.remove(indexKey);
+            if (map.isEmpty()) {
+                tree.remove(value);
+            } else if (map.size() == 1) {
+                tree.put(value, map.firstEntry().getValue());
+            } else {
+                tree.put(value, map);
+            }
+            return oldValue;
+        }
+    }
+
+    /**
+     * Iterates over the index values in a range, fetching them from the
+     * tree in batches.
+     */
+    private final class BatchIterator implements Iterator<IndexKeyEntries> {
+        private final Comparable[] values = new Comparable[ITERATOR_BATCH_SIZE];
+        private final Object[] records = new Object[ITERATOR_BATCH_SIZE];
+        private final Comparable to;
+        private final boolean toInclusive;
+        private final boolean descending;
+
+        private Comparable from;
+        private boolean fromInclusive;
+        private boolean exhausted;
+        private int count;
+        private int position;
+
+        /**
+         * @param from the bound to start from, {@code null} if unbounded
+         * @param to   the bound to stop at, {@code null} if unbounded
+         */
+        BatchIterator(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive, boolean descending) {
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+            this.descending = descending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < count) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            fetchBatch();
+            return position < count;
+        }
+
+        @Override
+        public IndexKeyEntries next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IndexKeyEntries entries = new IndexKeyEntries(values[position], entryIterator(records[position], descending));
+            values[position] = null;
+            records[position] = null;
+            position++;
+            return entries;
+        }
+
+        private void fetchBatch() {
+            position = 0;
+            exhausted = read(() -> {
+                // reset on every run, a run under the read lock redoes a discarded optimistic one
+                count = 0;
+                boolean[] beyondEnd = new boolean[1];
+                boolean reachedEnd = tree.forEach(from, fromInclusive, descending, (value, valueRecords) -> {
+                    if (isBeyondEnd(value)) {
+                        beyondEnd[0] = true;
+                        return false;
+                    }
+                    values[count] = value;
+                    records[count] = valueRecords;
+                    return ++count < ITERATOR_BATCH_SIZE;
+                });
+                return reachedEnd || beyondEnd[0];
+            });
+            if (count > 0) {
+                from = values[count - 1];
+                fromInclusive = false;
+            }
+        }
+
+        private boolean isBeyondEnd(Comparable value) {
+            if (to == null) {
+                return false;
+            }
+            int order = SPECIAL_AWARE_COMPARATOR.compare(value, to);
+            if (descending) {
+                order = -order;
+            }
+            return order > 0 || order == 0 && !toInclusive;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.compact.FieldDescriptor;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Map;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
+
+/**
+ * Compares a top-level fixed-size field of Compact serialized entry values
+ * with a constant directly on the serialized data, without deserializing
+ * the values, creating generic records or boxing the field values.
+ * <p>
+ * The position of the field within the serialized data and the constant
+ * converted to the type of the field are resolved once per {@link Schema}
+ * and cached. Only the resolution for the last seen schema is cached,
+ * entries having other schemas are still supported, but they trigger the
+ * resolution again.
+ * <p>
+ * If the comparison can't be done on the serialized data, e.g. the value is
+ * not in the Compact format, the field is not a fixed-size one or the
+ * constant can't be converted to the type of the field, {@link
+ * #NOT_APPLICABLE} is returned and the callers are expected to fall back to
+ * the regular attribute extraction.
+ */
+public final class CompactFieldComparator {
+
+    /**
+     * The result of {@link #compare} if the comparison can't be done on the
+     * serialized data.
+     */
+    public static final int NOT_APPLICABLE = Integer.MIN_VALUE;
+
+    private static final CompactFieldComparator NOT_APPLICABLE_COMPARATOR = new CompactFieldComparator(null, null);
+
+    // schema id follows the Data header, then the length of the data section
+    // follows if the schema has variable-size fields
+    private static final int SCHEMA_ID_POSITION = HeapData.DATA_OFFSET;
+    private static final int DATA_POSITION = SCHEMA_ID_POSITION + LONG_SIZE_IN_BYTES;
+
+    private final String fieldName;
+    private final Comparable value;
+
+    private volatile ResolvedField lastResolvedField;
+
+    private CompactFieldComparator(String fieldName, Comparable value) {
+        this.fieldName = fieldName;
+        this.value = value;
+    }
+
+    /**
+     * Returns a comparator of the given attribute with the given value.
+     * <p>
+     * The returned comparator always returns {@link #NOT_APPLICABLE} if the
+     * attribute is not a top-level value attribute or the value is {@code
+     * null}.
+     *
+     * @param attributeName the canonical name of the attribute to compare.
+     * @param value         the value to compare with.
+     * @return the comparator, never {@code null}.
+     */
+    public static CompactFieldComparator of(String attributeName, Comparable value) {
+        if (isNull(value) || !isTopLevelValueAttribute(attributeName)) {
+            return NOT_APPLICABLE_COMPARATOR;
+        }
+        return new CompactFieldComparator(attributeName, value);
+    }
+
+    /**
+     * Compares the field of the value of the given entry with the value of
+     * this comparator.
+     *
+     * @param entry the entry to compare the field of.
+     * @return a negative integer, zero, or a positive integer as the field is
+     * less than, equal to, or greater than the value of this comparator;
+     * {@link #NOT_APPLICABLE} if the comparison can't be done on the
+     * serialized data.
+     */
+    public int compare(Map.Entry entry) {
+        // only entries backed by a record hold the serialized value, others
+        // (e.g. columnar or projected entries) are compared by their getters
+        if (fieldName == null || !(entry instanceof QueryEntry || entry instanceof CachedQueryEntry)) {
+            return NOT_APPLICABLE;
+        }
+        QueryableEntry queryableEntry = (QueryableEntry) entry;
+        Data data = queryableEntry.getValueDataIfPresent();
+        if (!(data instanceof HeapData) || !data.isCompact()) {
+            return NOT_APPLICABLE;
+        }
+
+        byte[] bytes = data.toByteArray();
+        InternalSerializationService serializationService = queryableEntry.serializationService;
+        boolean bigEndian = serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
+        long schemaId = Bits.readLong(bytes, SCHEMA_ID_POSITION, bigEndian);
+
+        ResolvedField field = lastResolvedField;
+        if (field == null || field.schemaId != schemaId || field.extractors != queryableEntry.extractors) {
+            field = resolve(schemaId, data, serializationService, queryableEntry.extractors);
+            lastResolvedField = field;
+        }
+        return field.compare(bytes, bigEndian);
+    }
+
+    private ResolvedField resolve(long schemaId, Data data, InternalSerializationService serializationService,
+                                  Extractors extractors) {
+        if (extractors != null && extractors.hasValueExtractor(fieldName)) {
+            return new ResolvedField(schemaId, extractors);
+        }
+
+        Schema schema;
+        try {
+            schema = serializationService.extractSchemaFromData(data);
+        } catch (IOException e) {
+            throw new QueryException(e);
+        }
+
+        FieldDescriptor descriptor = schema.getField(fieldName);
+        Comparable convertedValue = descriptor == null ? null : convertValue(descriptor.getKind());
+        if (convertedValue == null) {
+            return new ResolvedField(schemaId, extractors);
+        }
+
+        int position = DATA_POSITION + descriptor.getOffset();
+        if (schema.getNumberOfVariableSizeFields() != 0) {
+            position += INT_SIZE_IN_BYTES;
+        }
+        return new ResolvedField(schemaId, extractors, descriptor.getKind(), position, descriptor.getBitOffset(),
+                convertedValue);
+    }
+
+    /**
+     * @return the value converted to the type of the field of the given kind,
+     * {@code null} if the field kind is not supported or the conversion fails.
+     */
+    private Comparable convertValue(FieldKind kind) {
+        AttributeType attributeType = attributeType(kind);
+        if (attributeType == null) {
+            return null;
+        }
+        Comparable convertedValue;
+        try {
+            convertedValue = attributeType.getConverter().convert(value);
+        } catch (RuntimeException e) {
+            // let the regular extraction path report the failure
+            return null;
+        }
+        return convertedValue != null && isOfFieldType(convertedValue, kind) ? convertedValue : null;
+    }
+
+    private static boolean isTopLevelValueAttribute(String attributeName) {
+        return attributeName != null
+                && attributeName.indexOf('.') == -1
+                && attributeName.indexOf('[') == -1
+                && !KEY_ATTRIBUTE_NAME.value().equals(attributeName)
+                && !THIS_ATTRIBUTE_NAME.value().equals(attributeName);
+    }
+
+    @SuppressWarnings("checkstyle:returncount")
+    private static AttributeType attributeType(FieldKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return AttributeType.BOOLEAN;
+            case INT8:
+                return AttributeType.BYTE;
+            case INT16:
+                return AttributeType.SHORT;
+            case INT32:
+                return AttributeType.INTEGER;
+            case INT64:
+                return AttributeType.LONG;
+            case FLOAT32:
+                return AttributeType.FLOAT;
+            case FLOAT64:
+                return AttributeType.DOUBLE;
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings("checkstyle:returncount")
+    private static boolean isOfFieldType(Comparable value, FieldKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return value instanceof Boolean;
+            case INT8:
+                return value instanceof Byte;
+            case INT16:
+                return value instanceof Short;
+            case INT32:
+                return value instanceof Integer;
+            case INT64:
+                return value instanceof Long;
+            case FLOAT32:
+                return value instanceof Float;
+            case FLOAT64:
+                return value instanceof Double;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The field resolved for a certain schema along with the value converted
+     * to the type of the field.
+     */
+    private static final class ResolvedField {
+
+        final long schemaId;
+        final Extractors extractors;
+        // null if the comparison is not applicable for the schema
+        final FieldKind kind;
+        final int position;
+        final int bitOffset;
+        final long longValue;
+        final double doubleValue;
+
+        ResolvedField(long schemaId, Extractors extractors) {
+            this(schemaId, extractors, null, 0, 0, null);
+        }
+
+        ResolvedField(long schemaId, Extractors extractors, FieldKind kind, int position, int bitOffset,
+                      Comparable value) {
+            this.schemaId = schemaId;
+            this.extractors = extractors;
+            this.kind = kind;
+            this.position = position;
+            this.bitOffset = bitOffset;
+            if (value instanceof Boolean) {
+                this.longValue = (Boolean) value ? 1 : 0;
+                this.doubleValue = 0;
+            } else if (value instanceof Float || value instanceof Double) {
+                this.longValue = 0;
+                this.doubleValue = ((Number) value).doubleValue();
+            } else {
+                this.longValue = value == null ? 0 : ((Number) value).longValue();
+                this.doubleValue = 0;
+            }
+        }
+
+        @SuppressWarnings("checkstyle:returncount")
+        int compare(byte[] bytes, boolean bigEndian) {
+            if (kind == null) {
+                return NOT_APPLICABLE;
+            }
+            switch (kind) {
+                case BOOLEAN:
+                    return Long.compare(bytes[position] >>> bitOffset & 1, longValue);
+                case INT8:
+                    return Long.compare(bytes[position], longValue);
+                case INT16:
+                    return Long.compare(Bits.readShort(bytes, position, bigEndian), longValue);
+                case INT32:
+                    return Long.compare(Bits.readInt(bytes, position, bigEndian), longValue);
+                case INT64:
+                    return Long.compare(Bits.readLong(bytes, position, bigEndian), longValue);
+                case FLOAT32:
+                    return Float.compare(Float.intBitsToFloat(Bits.readInt(bytes, position, bigEndian)), (float) doubleValue);
+                case FLOAT64:
+                    return Double.compare(Double.longBitsToDouble(Bits.readLong(bytes, position, bigEndian)), doubleValue);
+                default:
+                    return NOT_APPLICABLE;
+            }
+        }
+
+    }
+
+}
@@ -47,6 +47,9 @@ public final class IndexHeapMemoryCostUtil {
     private static final int CONCURRENT_SKIP_LIST_MAP_ENTRY_COST = 24;
     private static final int QUERY_ENTRY_COST = 32;
     private static final int CACHED_QUERYABLE_ENTRY_COST = 40;
+    // HashMap.Node plus its share of the table at the default load factor
+    private static final int HASH_MAP_ENTRY_COST = 32 + 8;
+    private static final int OBJECT_ALIGNMENT_MASK = 7;
 
     private static final Map<Class, Integer> KNOWN_FINAL_CLASSES_COSTS;
 
@@ -150,4 +153,26 @@ public final class IndexHeapMemoryCostUtil {
         return mapCost + queryableEntriesCost;
     }
 
+    /**
+     * Estimates the on-heap memory cost of an array.
+     *
+     * @param length      the length of the array.
+     * @param elementSize the size of the array elements in bytes.
+     * @return the estimated array cost.
+     */
+    public static long estimateArrayCost(int length, int elementSize) {
+        return (BASE_ARRAY_COST + (long) length * elementSize + OBJECT_ALIGNMENT_MASK) & ~OBJECT_ALIGNMENT_MASK;
+    }
+
+    /**
+     * Estimates the on-heap memory cost of a distinct value of a bitmap
+     * index excluding the cost of the bit set associated with the value.
+     *
+     * @param value the value to estimate the cost of.
+     * @return the estimated value cost.
+     */
+    public static long estimateBitmapValueCost(Object value) {
+        return HASH_MAP_ENTRY_COST + estimateValueCost(value);
+    }
+
 }
@@ -22,12 +22,23 @@ import com.hazelcast.internal.monitor.impl.PerIndexStats;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.query.impl.GlobalIndexPartitionTracker.PartitionStamp;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import static com.hazelcast.internal.util.StringUtil.splitByComma;
 
 /**
  * Provides implementation of on-heap indexes.
  */
 public class IndexImpl extends AbstractIndex {
 
+    /**
+     * Comma separated list of sorted index names ({@link IndexConfig#getName()})
+     * which are stored in a {@link BPlusTreeIndexStore} instead of the default
+     * {@link OrderedIndexStore}. {@code *} selects all sorted indexes.
+     */
+    public static final String PROP_BPLUS_TREE_INDEXES = "hazelcast.internal.index.bplus.tree.indexes";
+    public static final HazelcastProperty BPLUS_TREE_INDEXES = new HazelcastProperty(PROP_BPLUS_TREE_INDEXES, "");
+
     private final GlobalIndexPartitionTracker partitionTracker;
 
     public IndexImpl(
@@ -49,7 +60,9 @@ public class IndexImpl extends AbstractIndex {
                                           PerIndexStats stats, String mapName, int ignored) {
         switch (config.getType()) {
             case SORTED:
-                return new OrderedIndexStore(copyBehavior);
+                return isBPlusTreeIndex(node, config)
+                        ? new BPlusTreeIndexStore(copyBehavior)
+                        : new OrderedIndexStore(copyBehavior);
             case HASH:
                 return new UnorderedIndexStore(copyBehavior);
             case BITMAP:
@@ -59,6 +72,19 @@ public class IndexImpl extends AbstractIndex {
         }
     }
 
+    private static boolean isBPlusTreeIndex(Node node, IndexConfig config) {
+        if (node == null) {
+            return false;
+        }
+        String[] indexNames = splitByComma(node.getProperties().getString(BPLUS_TREE_INDEXES), false);
+        for (String indexName : indexNames) {
+            if (indexName.equals("*") || indexName.equals(config.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public final boolean hasPartitionIndexed(int partitionId) {
         return partitionTracker.isIndexed(partitionId);
@@ -101,6 +101,10 @@ public class QueryEntry extends QueryableEntry {
             return value;
         }
 
+        if (record == null) {
+            return null;
+        }
+
         Object possiblyNotData = record.getValue();
 
         return possiblyNotData instanceof Data ? null : possiblyNotData;
@@ -112,6 +116,10 @@ public class QueryEntry extends QueryableEntry {
             return (Data) value;
         }
 
+        if (record == null) {
+            return null;
+        }
+
         Object possiblyData = record.getValue();
 
         return possiblyData instanceof Data ? (Data) possiblyData : null;
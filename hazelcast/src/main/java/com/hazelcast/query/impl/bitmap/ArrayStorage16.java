@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import com.hazelcast.query.impl.bitmap.SparseBitSet.IteratorImpl;
+
+import static com.hazelcast.query.impl.IndexHeapMemoryCostUtil.estimateArrayCost;
+import static com.hazelcast.query.impl.bitmap.BitmapUtils.capacityDeltaShort;
+import static com.hazelcast.query.impl.bitmap.BitmapUtils.toUnsignedInt;
+import static com.hazelcast.query.impl.bitmap.BitmapUtils.unsignedBinarySearch;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_16_COST;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_16_MAX_SIZE;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.INT_PREFIX_SHORT_PREFIX_MASK;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.RUN_STORAGE_16_MIN_MEMBERS_PER_RUN;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.SHORT_POSTFIX_MASK;
+import static java.lang.Long.numberOfTrailingZeros;
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.copyOf;
+
+/**
+ * Manages sorted short array of indexes of set bits.
+ */
+final class ArrayStorage16 implements Storage16 {
+
+    private static final int MIN_CAPACITY = 2;
+
+    private int size;
+    private short[] members;
+
+    ArrayStorage16(short member) {
+        this.size = 1;
+        this.members = new short[MIN_CAPACITY];
+        members[0] = member;
+    }
+
+    /**
+     * Constructs a new storage by downgrading from the given {@link
+     * BitSetStorage16} data.
+     */
+    ArrayStorage16(long[] bits, int size) {
+        assert size == BitSetStorage16.MIN_SIZE;
+        this.size = size;
+
+        short[] members = new short[ARRAY_STORAGE_16_MAX_SIZE];
+        int index = 0;
+        for (int i = 0; i < bits.length; ++i) {
+            long value = bits[i];
+            int base = i << BitSetStorage16.BIT_SET_LONG_SHIFT;
+            while (value != 0) {
+                int offset = numberOfTrailingZeros(value);
+                members[index++] = (short) (base + offset);
+                // zero out the consumed bit
+                value &= value - 1;
+            }
+        }
+        assert index == size;
+
+        this.members = members;
+    }
+
+    /**
+     * Constructs a new storage by converting from the given {@link
+     * RunStorage16} data.
+     */
+    ArrayStorage16(RunStorage16 storage) {
+        assert storage.size <= ARRAY_STORAGE_16_MAX_SIZE;
+        this.size = storage.size;
+
+        short[] members = new short[Math.max(MIN_CAPACITY, size)];
+        int index = 0;
+        for (int i = 0; i < storage.runCount; ++i) {
+            int end = toUnsignedInt(storage.ends[i]);
+            for (int member = toUnsignedInt(storage.starts[i]); member <= end; ++member) {
+                members[index++] = (short) member;
+            }
+        }
+        assert index == size;
+
+        this.members = members;
+    }
+
+    @Override
+    public Storage16 add(short member) {
+        int index = unsignedBinarySearch(members, size, toUnsignedInt(member));
+        if (index >= 0) {
+            // already in the array
+            return this;
+        }
+        index = -(index + 1);
+
+        if (size == members.length) {
+            // No space left: try to convert to a run storage if the
+            // members are dense enough or to grow members array.
+
+            int runCount = countRuns(member, index);
+            if (runCount * RUN_STORAGE_16_MIN_MEMBERS_PER_RUN <= size + 1) {
+                return new RunStorage16(members, size, member, index);
+            }
+
+            if (size == ARRAY_STORAGE_16_MAX_SIZE) {
+                return new BitSetStorage16(members, member, index, runCount);
+            }
+
+            int newCapacity = Math.min(ARRAY_STORAGE_16_MAX_SIZE, size + capacityDeltaShort(members.length));
+            short[] newMembers = new short[newCapacity];
+            arraycopy(members, 0, newMembers, 0, index);
+            arraycopy(members, index, newMembers, index + 1, size - index);
+            members = newMembers;
+        } else {
+            // shift members right to free a slot for the new member
+            arraycopy(members, index, members, index + 1, size - index);
+        }
+        members[index] = member;
+        ++size;
+        return this;
+    }
+
+    @Override
+    public Storage16 remove(short member) {
+        int index = unsignedBinarySearch(members, size, toUnsignedInt(member));
+        if (index < 0) {
+            // not a member
+            return this;
+        }
+
+        --size;
+        if (size == 0) {
+            // emptied
+            return null;
+        }
+
+        int delta = capacityDeltaShort(members.length);
+        int wasted = members.length - size;
+        int newCapacity = members.length - delta;
+        if (wasted >= delta && newCapacity >= MIN_CAPACITY) {
+            // We are wasting too much: shrink the array.
+
+            short[] newMembers = new short[newCapacity];
+            arraycopy(members, 0, newMembers, 0, index);
+            arraycopy(members, index + 1, newMembers, index, size - index);
+            members = newMembers;
+        } else {
+            // shift members left to fill the gap
+            arraycopy(members, index + 1, members, index, size - index);
+        }
+        return this;
+    }
+
+    @Override
+    public void iterate(IteratorImpl iterator) {
+        assert size > 0;
+        iterator.position16 = 1;
+        iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | toUnsignedInt(members[0]);
+    }
+
+    @Override
+    public boolean advance(IteratorImpl iterator) {
+        int index = iterator.position16;
+        if (index < size) {
+            iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | toUnsignedInt(members[index]);
+            iterator.position16 = index + 1;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean iterateAtLeastFrom(short member, IteratorImpl iterator) {
+        int unsignedMember = toUnsignedInt(member);
+        int index = unsignedBinarySearch(members, size, unsignedMember);
+
+        if (index < 0) {
+            index = -(index + 1);
+            if (index == size) {
+                return false;
+            }
+            unsignedMember = toUnsignedInt(members[index]);
+        }
+
+        iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | unsignedMember;
+        iterator.position16 = index + 1;
+        return true;
+    }
+
+    @Override
+    public boolean advanceAtLeastTo(short member, IteratorImpl iterator) {
+        int unsignedMember = toUnsignedInt(member);
+        long current = iterator.index;
+        assert (current & SHORT_POSTFIX_MASK) < unsignedMember;
+
+        int position = iterator.position16;
+        if (position == size) {
+            return false;
+        }
+        position = unsignedBinarySearch(members, position, size, unsignedMember);
+
+        if (position < 0) {
+            position = -(position + 1);
+            if (position == size) {
+                return false;
+            }
+            unsignedMember = toUnsignedInt(members[position]);
+        }
+
+        iterator.index = current & INT_PREFIX_SHORT_PREFIX_MASK | unsignedMember;
+        iterator.position16 = position + 1;
+        return true;
+    }
+
+    @Override
+    public long cost() {
+        return ARRAY_STORAGE_16_COST + estimateArrayCost(members.length, Short.BYTES);
+    }
+
+    /**
+     * Counts the runs of consecutive members this storage would have
+     * after the insertion of the given member at the given index.
+     */
+    private int countRuns(short member, int index) {
+        int runCount = 1;
+        for (int i = 1; i < size; ++i) {
+            if (toUnsignedInt(members[i]) != toUnsignedInt(members[i - 1]) + 1) {
+                ++runCount;
+            }
+        }
+
+        int unsignedMember = toUnsignedInt(member);
+        boolean joinsPrevious = index > 0 && toUnsignedInt(members[index - 1]) + 1 == unsignedMember;
+        boolean joinsNext = index < size && toUnsignedInt(members[index]) == unsignedMember + 1;
+        if (joinsPrevious && joinsNext) {
+            // the member fills the gap between two runs
+            --runCount;
+        } else if (!joinsPrevious && !joinsNext) {
+            // the member forms a new run
+            ++runCount;
+        }
+        return runCount;
+    }
+
+    /**
+     * Appends the given member to this storage. The given member must be
+     * greater than any member already known by this storage.
+     */
+    public void append(short member) {
+        if (size == members.length) {
+            int newCapacity = size + capacityDeltaShort(members.length);
+            assert newCapacity <= ARRAY_STORAGE_16_MAX_SIZE;
+            members = copyOf(members, newCapacity);
+        }
+        members[size] = member;
+        ++size;
+    }
+
+}
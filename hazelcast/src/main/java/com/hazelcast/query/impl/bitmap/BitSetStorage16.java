@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import com.hazelcast.query.impl.bitmap.SparseBitSet.IteratorImpl;
+
+import static com.hazelcast.query.impl.IndexHeapMemoryCostUtil.estimateArrayCost;
+import static com.hazelcast.query.impl.bitmap.BitmapUtils.toUnsignedInt;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_16_COST;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_16_MAX_SIZE;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.INT_PREFIX_SHORT_PREFIX_MASK;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.RUN_STORAGE_16_MIN_MEMBERS_PER_RUN;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.SHORT_POSTFIX_MASK;
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * Manages directly indexable long array of bits.
+ */
+final class BitSetStorage16 implements Storage16 {
+
+    // 2^6 = 64 = number of bits a long can store
+    public static final int BIT_SET_LONG_SHIFT = 6;
+
+    static final int MIN_SIZE = ARRAY_STORAGE_16_MAX_SIZE - 1;
+    private static final int SIZE = 1024;
+    private static final int MAX_BIT_INDEX = SIZE * Long.SIZE - 1;
+    private static final int RUN_STORAGE_MAX_RUNS = ARRAY_STORAGE_16_MAX_SIZE / RUN_STORAGE_16_MIN_MEMBERS_PER_RUN;
+    private static final long COST = ARRAY_STORAGE_16_COST + estimateArrayCost(SIZE, Long.BYTES);
+
+    // masks lower 6 bits
+    private static final long POSTFIX_MASK = 0xFFFFFFFFFFFFFFC0L;
+
+    private final long[] members = new long[SIZE];
+    private int size;
+    // the number of runs of consecutive set bits
+    private int runCount;
+
+    /**
+     * Constructs a new bit set storage for the given sorted members array
+     * and the given member to insert at the given index.
+     */
+    BitSetStorage16(short[] members, short member, int index, int runCount) {
+        for (int i = 0; i < index; ++i) {
+            append(members[i]);
+        }
+        append(member);
+        for (int i = index; i < members.length; ++i) {
+            append(members[i]);
+        }
+        this.size = members.length + 1;
+        this.runCount = runCount;
+    }
+
+    /**
+     * Constructs a new storage by converting from the given {@link
+     * RunStorage16} data.
+     */
+    BitSetStorage16(RunStorage16 storage) {
+        for (int i = 0; i < storage.runCount; ++i) {
+            int end = toUnsignedInt(storage.ends[i]);
+            for (int member = toUnsignedInt(storage.starts[i]); member <= end; ++member) {
+                append((short) member);
+            }
+        }
+        this.size = storage.size;
+        this.runCount = storage.runCount;
+        assert size > MIN_SIZE;
+    }
+
+    @Override
+    public Storage16 add(short member) {
+        int bitIndex = toUnsignedInt(member);
+        int longIndex = bitIndex >>> BIT_SET_LONG_SHIFT;
+
+        long bitSet = members[longIndex];
+        long newBitSet = bitSet | 1L << bitIndex;
+        members[longIndex] = newBitSet;
+
+        if (newBitSet != bitSet) {
+            ++size;
+            // a new run is formed, an existing run is extended or two
+            // runs are merged depending on the neighbour bits
+            runCount += 1 - countNeighbours(bitIndex);
+            if (runCount <= RUN_STORAGE_MAX_RUNS) {
+                return new RunStorage16(members, size, runCount);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Storage16 remove(short member) {
+        int bitIndex = toUnsignedInt(member);
+        int longIndex = bitIndex >>> BIT_SET_LONG_SHIFT;
+
+        long bitSet = members[longIndex];
+        long newBitSet = bitSet & ~(1L << bitIndex);
+        members[longIndex] = newBitSet;
+
+        if (newBitSet != bitSet) {
+            --size;
+            // a run is removed, shrunk or split into two runs depending
+            // on the neighbour bits
+            runCount += countNeighbours(bitIndex) - 1;
+            if (size == MIN_SIZE) {
+                return new ArrayStorage16(members, size);
+            }
+            if (runCount <= RUN_STORAGE_MAX_RUNS) {
+                return new RunStorage16(members, size, runCount);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void iterate(IteratorImpl iterator) {
+        assert size > 0;
+        iterator.position16 = 0;
+        iterator.bitSet16 = members[0];
+        iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK;
+        boolean advanced = advance(iterator);
+        assert advanced;
+    }
+
+    @Override
+    public boolean advance(IteratorImpl iterator) {
+        // Consume bits from the current long until it's empty.
+
+        long bitSet = iterator.bitSet16;
+        if (bitSet != 0) {
+            iterator.index = iterator.index & POSTFIX_MASK | numberOfTrailingZeros(bitSet);
+            // zero out the consumed bit
+            iterator.bitSet16 = bitSet & bitSet - 1;
+            return true;
+        }
+
+        // Try to find the next non-zero long.
+
+        int index = iterator.position16;
+        do {
+            ++index;
+            if (index == members.length) {
+                // nothing left
+                return false;
+            }
+            bitSet = members[index];
+        } while (bitSet == 0);
+
+        iterator.index =
+                iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | index << BIT_SET_LONG_SHIFT | numberOfTrailingZeros(bitSet);
+        iterator.bitSet16 = bitSet & bitSet - 1;
+        iterator.position16 = index;
+        return true;
+    }
+
+    @Override
+    public boolean iterateAtLeastFrom(short member, IteratorImpl iterator) {
+        int bitIndex = toUnsignedInt(member);
+        int longIndex = bitIndex >>> BIT_SET_LONG_SHIFT;
+
+        iterator.position16 = longIndex;
+        // consume all preceding bits by zeroing them out
+        iterator.bitSet16 = members[longIndex] & -(1L << bitIndex);
+        iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | longIndex << BIT_SET_LONG_SHIFT;
+        return advance(iterator);
+    }
+
+    @Override
+    public boolean advanceAtLeastTo(short member, IteratorImpl iterator) {
+        long current = iterator.index;
+        int bitIndex = toUnsignedInt(member);
+        assert (current & SHORT_POSTFIX_MASK) < bitIndex;
+
+        int longIndex = bitIndex >>> BIT_SET_LONG_SHIFT;
+
+        iterator.position16 = longIndex;
+        // consume all preceding bits by zeroing them out
+        iterator.bitSet16 = members[longIndex] & -(1L << bitIndex);
+        iterator.index = current & INT_PREFIX_SHORT_PREFIX_MASK | longIndex << BIT_SET_LONG_SHIFT;
+        return advance(iterator);
+    }
+
+    @Override
+    public long cost() {
+        return COST;
+    }
+
+    private void append(short member) {
+        int bitIndex = toUnsignedInt(member);
+        members[bitIndex >>> BIT_SET_LONG_SHIFT] |= 1L << bitIndex;
+    }
+
+    private int countNeighbours(int bitIndex) {
+        int count = 0;
+        if (bitIndex > 0 && isSet(bitIndex - 1)) {
+            ++count;
+        }
+        if (bitIndex < MAX_BIT_INDEX && isSet(bitIndex + 1)) {
+            ++count;
+        }
+        return count;
+    }
+
+    private boolean isSet(int bitIndex) {
+        return (members[bitIndex >>> BIT_SET_LONG_SHIFT] & 1L << bitIndex) != 0;
+    }
+
+}
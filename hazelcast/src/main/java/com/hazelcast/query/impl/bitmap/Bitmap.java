@@ -19,6 +19,7 @@ package com.hazelcast.query.impl.bitmap;
 import com.hazelcast.core.TypeConverter;
 import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexHeapMemoryCostUtil;
 import com.hazelcast.query.impl.predicates.AndPredicate;
 import com.hazelcast.query.impl.predicates.EqualPredicate;
 import com.hazelcast.query.impl.predicates.InPredicate;
@@ -38,6 +39,10 @@ import java.util.Map;
  * Internally, each bitmap manages a set of sparse bit sets, one for each
  * possible attribute value, and a sparse array to map from unique {@code long}
  * entry keys back to entries.
+ * <p>
+ * The memory cost of the bit sets and of the distinct attribute values is
+ * reported to the index operation stats; the cost of the entries themselves is
+ * not reported since the entries are owned by the record store.
  *
  * @param <E> the type of entries being indexed.
  */
@@ -48,9 +53,9 @@ public final class Bitmap<E> {
 
     private final SparseArray<E> entries = new SparseArray<>();
 
-    // Note! At the moment bitmap index doesn't support memory statistics,
-    // because we cannot produce precise memory estimate.
-    // Instead, we provide zero memory consumption estimation.
+    // The memory cost of the values is reported separately using
+    // IndexOperationStats.onMemoryCostChanged, so the values are accounted
+    // with zero cost while counting the entries.
     private enum ZeroCost { ZERO_COST }
 
     /**
@@ -65,10 +70,7 @@ public final class Bitmap<E> {
         while (values.hasNext()) {
             Object value = values.next();
             assert value != null;
-
-            SparseBitSet bitSet = bitSets.computeIfAbsent(value, x -> new SparseBitSet());
-            operationStats.onEntryAdded(ZeroCost.ZERO_COST);
-            bitSet.add(key);
+            add(value, key, operationStats);
         }
 
         entries.set(key, entry);
@@ -87,21 +89,13 @@ public final class Bitmap<E> {
         while (oldValues.hasNext()) {
             Object value = oldValues.next();
             assert value != null;
-
-            SparseBitSet bitSet = bitSets.get(value);
-            if (bitSet != null) {
-                bitSet.remove(key);
-            }
-            operationStats.onEntryRemoved(ZeroCost.ZERO_COST);
+            remove(value, key, operationStats);
         }
 
         while (newValues.hasNext()) {
             Object value = newValues.next();
             assert value != null;
-
-            SparseBitSet bitSet = bitSets.computeIfAbsent(value, x -> new SparseBitSet());
-            operationStats.onEntryAdded(ZeroCost.ZERO_COST);
-            bitSet.add(key);
+            add(value, key, operationStats);
         }
 
         entries.set(key, entry);
@@ -118,14 +112,7 @@ public final class Bitmap<E> {
         while (values.hasNext()) {
             Object value = values.next();
             assert value != null;
-
-            SparseBitSet bitSet = bitSets.get(value);
-            if (bitSet != null) {
-                if (bitSet.remove(key)) {
-                    bitSets.remove(value);
-                }
-            }
-            operationStats.onEntryRemoved(ZeroCost.ZERO_COST);
+            remove(value, key, operationStats);
         }
 
         entries.clear(key);
@@ -156,6 +143,38 @@ public final class Bitmap<E> {
         return new EntryIterator<>(predicateIterator(predicate, converter), entries.iterator());
     }
 
+    private void add(Object value, long key, IndexOperationStats operationStats) {
+        SparseBitSet bitSet = bitSets.get(value);
+        long memoryCostDelta;
+        if (bitSet == null) {
+            bitSet = new SparseBitSet();
+            bitSets.put(value, bitSet);
+            memoryCostDelta = IndexHeapMemoryCostUtil.estimateBitmapValueCost(value);
+        } else {
+            memoryCostDelta = -bitSet.getMemoryCost();
+        }
+
+        bitSet.add(key);
+        memoryCostDelta += bitSet.getMemoryCost();
+
+        operationStats.onEntryAdded(ZeroCost.ZERO_COST);
+        operationStats.onMemoryCostChanged(memoryCostDelta);
+    }
+
+    private void remove(Object value, long key, IndexOperationStats operationStats) {
+        SparseBitSet bitSet = bitSets.get(value);
+        if (bitSet != null) {
+            long memoryCost = bitSet.getMemoryCost();
+            if (bitSet.remove(key)) {
+                bitSets.remove(value);
+                operationStats.onMemoryCostChanged(-memoryCost - IndexHeapMemoryCostUtil.estimateBitmapValueCost(value));
+            } else {
+                operationStats.onMemoryCostChanged(bitSet.getMemoryCost() - memoryCost);
+            }
+        }
+        operationStats.onEntryRemoved(ZeroCost.ZERO_COST);
+    }
+
     @SuppressWarnings("checkstyle:npathcomplexity")
     private AscendingLongIterator predicateIterator(Predicate predicate, TypeConverter converter) {
         if (predicate instanceof AndPredicate) {
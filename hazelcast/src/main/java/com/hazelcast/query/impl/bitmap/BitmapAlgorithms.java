@@ -34,6 +34,12 @@ final class BitmapAlgorithms {
      * iterators.
      */
     public static AscendingLongIterator and(AscendingLongIterator[] iterators) {
+        for (AscendingLongIterator iterator : iterators) {
+            if (iterator.getIndex() == AscendingLongIterator.END) {
+                // the intersection with an empty set is empty
+                return AscendingLongIterator.EMPTY;
+            }
+        }
         return new AndIterator(iterators);
     }
 
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import com.hazelcast.query.impl.bitmap.SparseBitSet.IteratorImpl;
+
+import static com.hazelcast.query.impl.IndexHeapMemoryCostUtil.estimateArrayCost;
+import static com.hazelcast.query.impl.bitmap.BitmapUtils.capacityDeltaShort;
+import static com.hazelcast.query.impl.bitmap.BitmapUtils.toUnsignedInt;
+import static com.hazelcast.query.impl.bitmap.BitmapUtils.unsignedBinarySearch;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_16_MAX_SIZE;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.INT_PREFIX_SHORT_PREFIX_MASK;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.RUN_STORAGE_16_COST;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.RUN_STORAGE_16_MAX_RUNS;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.SHORT_POSTFIX_MASK;
+import static java.lang.Long.numberOfTrailingZeros;
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.copyOf;
+
+/**
+ * Manages sorted short arrays of starts and ends of runs of consecutive
+ * set bits.
+ */
+final class RunStorage16 implements Storage16 {
+
+    private static final int MIN_CAPACITY = 2;
+
+    int size;
+    int runCount;
+    // inclusive starts and ends of the runs
+    short[] starts;
+    short[] ends;
+
+    /**
+     * Constructs a new run storage for the given sorted members array of
+     * the given size and the given member to insert at the given index.
+     */
+    RunStorage16(short[] members, int size, short member, int index) {
+        this.starts = new short[MIN_CAPACITY];
+        this.ends = new short[MIN_CAPACITY];
+
+        for (int i = 0; i < index; ++i) {
+            append(members[i]);
+        }
+        append(member);
+        for (int i = index; i < size; ++i) {
+            append(members[i]);
+        }
+        assert this.size == size + 1;
+    }
+
+    /**
+     * Constructs a new storage by converting from the given {@link
+     * BitSetStorage16} data.
+     */
+    RunStorage16(long[] bits, int size, int runCount) {
+        this.size = size;
+        this.starts = new short[runCount];
+        this.ends = new short[runCount];
+
+        int start = nextSetBit(bits, 0);
+        while (start != -1) {
+            int end = nextClearBit(bits, start);
+            starts[this.runCount] = (short) start;
+            ends[this.runCount] = (short) (end - 1);
+            ++this.runCount;
+            start = nextSetBit(bits, end);
+        }
+        assert this.runCount == runCount;
+    }
+
+    @Override
+    public Storage16 add(short member) {
+        int unsignedMember = toUnsignedInt(member);
+        int index = unsignedBinarySearch(starts, runCount, unsignedMember);
+        if (index >= 0) {
+            // starts a run
+            return this;
+        }
+        // the index of the first run starting after the member
+        index = -(index + 1);
+
+        int previous = index - 1;
+        if (previous >= 0 && unsignedMember <= toUnsignedInt(ends[previous])) {
+            // within the previous run
+            return this;
+        }
+
+        ++size;
+        boolean joinsPrevious = previous >= 0 && toUnsignedInt(ends[previous]) + 1 == unsignedMember;
+        boolean joinsNext = index < runCount && toUnsignedInt(starts[index]) == unsignedMember + 1;
+        if (joinsPrevious && joinsNext) {
+            // the member fills the gap between the runs: merge them
+            ends[previous] = ends[index];
+            removeRun(index);
+        } else if (joinsPrevious) {
+            ends[previous] = member;
+        } else if (joinsNext) {
+            starts[index] = member;
+        } else {
+            insertRun(index, member, member);
+            return convertIfNeeded();
+        }
+        return this;
+    }
+
+    @Override
+    public Storage16 remove(short member) {
+        int unsignedMember = toUnsignedInt(member);
+        int index = unsignedBinarySearch(starts, runCount, unsignedMember);
+        if (index < 0) {
+            // the index of the last run starting before the member
+            index = -(index + 1) - 1;
+            if (index < 0 || unsignedMember > toUnsignedInt(ends[index])) {
+                // not a member
+                return this;
+            }
+        }
+
+        --size;
+        if (size == 0) {
+            // emptied
+            return null;
+        }
+
+        int start = toUnsignedInt(starts[index]);
+        int end = toUnsignedInt(ends[index]);
+        if (start == end) {
+            removeRun(index);
+            return this;
+        }
+
+        if (unsignedMember == start) {
+            starts[index] = (short) (unsignedMember + 1);
+        } else if (unsignedMember == end) {
+            ends[index] = (short) (unsignedMember - 1);
+        } else {
+            // split the run
+            insertRun(index + 1, (short) (unsignedMember + 1), ends[index]);
+            ends[index] = (short) (unsignedMember - 1);
+        }
+        return convertIfNeeded();
+    }
+
+    @Override
+    public void iterate(IteratorImpl iterator) {
+        assert size > 0;
+        position(0, toUnsignedInt(starts[0]), iterator);
+    }
+
+    @Override
+    public boolean advance(IteratorImpl iterator) {
+        long index = iterator.index;
+        if ((index & SHORT_POSTFIX_MASK) < iterator.bitSet16) {
+            // still within the current run
+            iterator.index = index + 1;
+            return true;
+        }
+
+        int run = iterator.position16 + 1;
+        if (run < runCount) {
+            position(run, toUnsignedInt(starts[run]), iterator);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean iterateAtLeastFrom(short member, IteratorImpl iterator) {
+        return seek(toUnsignedInt(member), 0, iterator);
+    }
+
+    @Override
+    public boolean advanceAtLeastTo(short member, IteratorImpl iterator) {
+        int unsignedMember = toUnsignedInt(member);
+        assert (iterator.index & SHORT_POSTFIX_MASK) < unsignedMember;
+
+        if (unsignedMember <= iterator.bitSet16) {
+            // within the current run
+            iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | unsignedMember;
+            return true;
+        }
+        return seek(unsignedMember, iterator.position16 + 1, iterator);
+    }
+
+    @Override
+    public long cost() {
+        return RUN_STORAGE_16_COST + 2 * estimateArrayCost(starts.length, Short.BYTES);
+    }
+
+    private boolean seek(int unsignedMember, int fromRun, IteratorImpl iterator) {
+        int run = unsignedBinarySearch(starts, fromRun, runCount, unsignedMember);
+        if (run >= 0) {
+            position(run, unsignedMember, iterator);
+            return true;
+        }
+        run = -(run + 1);
+
+        if (run > fromRun && unsignedMember <= toUnsignedInt(ends[run - 1])) {
+            // within the run starting before the member
+            position(run - 1, unsignedMember, iterator);
+            return true;
+        }
+
+        if (run == runCount) {
+            return false;
+        }
+        position(run, toUnsignedInt(starts[run]), iterator);
+        return true;
+    }
+
+    private void position(int run, int unsignedMember, IteratorImpl iterator) {
+        iterator.position16 = run;
+        iterator.bitSet16 = toUnsignedInt(ends[run]);
+        iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | unsignedMember;
+    }
+
+    private Storage16 convertIfNeeded() {
+        if (size < 2 * runCount && size <= ARRAY_STORAGE_16_MAX_SIZE) {
+            // the runs are too short: sorted short array is cheaper
+            return new ArrayStorage16(this);
+        }
+        if (runCount > RUN_STORAGE_16_MAX_RUNS) {
+            return new BitSetStorage16(this);
+        }
+        return this;
+    }
+
+    private void insertRun(int index, short start, short end) {
+        if (runCount == starts.length) {
+            // Grow the arrays.
+
+            int newCapacity = runCount + capacityDeltaShort(starts.length);
+
+            short[] newStarts = new short[newCapacity];
+            arraycopy(starts, 0, newStarts, 0, index);
+            arraycopy(starts, index, newStarts, index + 1, runCount - index);
+            starts = newStarts;
+
+            short[] newEnds = new short[newCapacity];
+            arraycopy(ends, 0, newEnds, 0, index);
+            arraycopy(ends, index, newEnds, index + 1, runCount - index);
+            ends = newEnds;
+        } else {
+            // Shift the arrays right to free a slot.
+
+            arraycopy(starts, index, starts, index + 1, runCount - index);
+            arraycopy(ends, index, ends, index + 1, runCount - index);
+        }
+        starts[index] = start;
+        ends[index] = end;
+        ++runCount;
+    }
+
+    private void removeRun(int index) {
+        --runCount;
+
+        int delta = capacityDeltaShort(starts.length);
+        int wasted = starts.length - runCount;
+        int newCapacity = starts.length - delta;
+        if (wasted >= delta && newCapacity >= MIN_CAPACITY) {
+            // Wasting too much: shrink the arrays.
+
+            short[] newStarts = new short[newCapacity];
+            arraycopy(starts, 0, newStarts, 0, index);
+            arraycopy(starts, index + 1, newStarts, index, runCount - index);
+            starts = newStarts;
+
+            short[] newEnds = new short[newCapacity];
+            arraycopy(ends, 0, newEnds, 0, index);
+            arraycopy(ends, index + 1, newEnds, index, runCount - index);
+            ends = newEnds;
+        } else {
+            // Shift the arrays left to fill the gap.
+
+            arraycopy(starts, index + 1, starts, index, runCount - index);
+            arraycopy(ends, index + 1, ends, index, runCount - index);
+        }
+    }
+
+    /**
+     * Appends the given member to this storage. The given member must be
+     * greater than any member already known by this storage.
+     */
+    private void append(short member) {
+        int unsignedMember = toUnsignedInt(member);
+        if (runCount != 0 && toUnsignedInt(ends[runCount - 1]) + 1 == unsignedMember) {
+            ends[runCount - 1] = member;
+        } else {
+            if (runCount == starts.length) {
+                int newCapacity = runCount + capacityDeltaShort(starts.length);
+                starts = copyOf(starts, newCapacity);
+                ends = copyOf(ends, newCapacity);
+            }
+            starts[runCount] = member;
+            ends[runCount] = member;
+            ++runCount;
+        }
+        ++size;
+    }
+
+    private static int nextSetBit(long[] bits, int fromIndex) {
+        int longIndex = fromIndex >>> BitSetStorage16.BIT_SET_LONG_SHIFT;
+        if (longIndex == bits.length) {
+            return -1;
+        }
+        long word = bits[longIndex] & -1L << fromIndex;
+        while (word == 0) {
+            if (++longIndex == bits.length) {
+                return -1;
+            }
+            word = bits[longIndex];
+        }
+        return longIndex << BitSetStorage16.BIT_SET_LONG_SHIFT | numberOfTrailingZeros(word);
+    }
+
+    private static int nextClearBit(long[] bits, int fromIndex) {
+        int longIndex = fromIndex >>> BitSetStorage16.BIT_SET_LONG_SHIFT;
+        long word = ~bits[longIndex] & -1L << fromIndex;
+        while (word == 0) {
+            if (++longIndex == bits.length) {
+                return bits.length << BitSetStorage16.BIT_SET_LONG_SHIFT;
+            }
+            word = ~bits[longIndex];
+        }
+        return longIndex << BitSetStorage16.BIT_SET_LONG_SHIFT | numberOfTrailingZeros(word);
+    }
+
+}
@@ -16,12 +16,12 @@
 
 package com.hazelcast.query.impl.bitmap;
 
+import static com.hazelcast.query.impl.IndexHeapMemoryCostUtil.estimateArrayCost;
 import static com.hazelcast.query.impl.bitmap.BitmapUtils.capacityDeltaInt;
 import static com.hazelcast.query.impl.bitmap.BitmapUtils.capacityDeltaShort;
 import static com.hazelcast.query.impl.bitmap.BitmapUtils.toUnsignedInt;
 import static com.hazelcast.query.impl.bitmap.BitmapUtils.toUnsignedLong;
 import static com.hazelcast.query.impl.bitmap.BitmapUtils.unsignedBinarySearch;
-import static java.lang.Long.numberOfTrailingZeros;
 import static java.lang.System.arraycopy;
 import static java.util.Arrays.copyOf;
 
@@ -42,18 +42,24 @@ import static java.util.Arrays.copyOf;
  * the low 16 bits.
  * </ul>
  * <p>
- * {@link Storage16 Storage16} also goes in two flavors:
+ * {@link Storage16 Storage16} goes in three flavors:
  * <ul>
  * <li>{@link ArrayStorage16 ArrayStorage16} which manages sorted short array of
  * 16-bit postfixes.
  * <li>{@link BitSetStorage16 BitSetStorage16} which manages directly indexable
  * long array of bits.
+ * <li>{@link RunStorage16 RunStorage16} which manages sorted short arrays of
+ * starts and ends of runs of consecutive 16-bit postfixes.
  * </ul>
  * <p>
  * The implementation (which was inspired by Roaring Bitmap) switches between
- * various storage flavors once certain thresholds on storage size are reached.
+ * various storage flavors once certain thresholds on storage size and on the
+ * number of runs are reached.
  * <p>
  * Empty storages are never stored by the implementation.
+ * <p>
+ * The on-heap memory cost of the bit set is maintained incrementally and
+ * available through {@link #getMemoryCost()}.
  */
 final class SparseBitSet {
 
@@ -71,12 +77,41 @@ final class SparseBitSet {
      */
     public static final int ARRAY_STORAGE_16_MAX_SIZE = 4096;
 
+    /**
+     * The number of runs at which RunStorage16 is converted to
+     * BitSetStorage16. At this number of runs the memory cost of having
+     * sorted short arrays of run starts and ends is equal to the cost of
+     * having directly indexable long array of bits.
+     */
+    public static final int RUN_STORAGE_16_MAX_RUNS = 2048;
+
+    /**
+     * The minimum average number of members per run at which ArrayStorage16
+     * and BitSetStorage16 are converted to RunStorage16. At this density the
+     * run storage costs at most half of the sorted short array and at most
+     * half of the bit set storing the same members.
+     */
+    public static final int RUN_STORAGE_16_MIN_MEMBERS_PER_RUN = 4;
+
+    // The costs below include the object headers and the padding induced by
+    // 8-byte alignment of objects on the heap, compressed pointers are
+    // assumed to be on. The cost of the bit set itself includes the cost of
+    // its SparseIntArray of 32-bit storages.
+
+    static final int ARRAY_STORAGE_16_COST = 24;
+    static final int RUN_STORAGE_16_COST = 32;
+
+    static final long INT_PREFIX_SHORT_PREFIX_MASK = 0xFFFFFFFFFFFF0000L;
+    static final long SHORT_POSTFIX_MASK = 0x000000000000FFFFL;
+
+    private static final int SPARSE_BIT_SET_COST = 64;
+    private static final int ARRAY_STORAGE_32_COST = 24;
+    private static final int PREFIX_STORAGE_32_COST = 40;
+
     private static final long INT_PREFIX_MASK = 0xFFFFFFFF00000000L;
     private static final long INT_POSTFIX_MASK = 0x00000000FFFFFFFFL;
     private static final long SHORT_PREFIX_MASK = 0x00000000FFFF0000L;
     private static final long INT_PREFIX_SHORT_POSTFIX_MASK = 0xFFFFFFFF0000FFFFL;
-    private static final long INT_PREFIX_SHORT_PREFIX_MASK = 0xFFFFFFFFFFFF0000L;
-    private static final long SHORT_POSTFIX_MASK = 0x000000000000FFFFL;
 
     private final SparseIntArray<Storage32> storages = new SparseIntArray<>();
 
@@ -84,6 +119,8 @@ final class SparseBitSet {
     private int lastPrefix = -1;
     private Storage32 lastStorage;
 
+    private long memoryCost = SPARSE_BIT_SET_COST;
+
     /**
      * Adds the given member to this bit set.
      *
@@ -94,7 +131,9 @@ final class SparseBitSet {
         int prefix = (int) (member >>> Integer.SIZE);
 
         if (prefix == lastPrefix) {
+            long cost = lastStorage.cost();
             Storage32 newStorage = lastStorage.add((int) member);
+            memoryCost += newStorage.cost() - cost;
             if (newStorage != lastStorage) {
                 // storage was upgraded
                 lastStorage = newStorage;
@@ -105,10 +144,13 @@ final class SparseBitSet {
             Storage32 storage = storages.get(prefix);
             if (storage == null) {
                 Storage32 createdStorage = new ArrayStorage32((int) member);
+                memoryCost += createdStorage.cost();
                 lastStorage = createdStorage;
                 storages.set(prefix, createdStorage);
             } else {
+                long cost = storage.cost();
                 Storage32 newStorage = storage.add((int) member);
+                memoryCost += newStorage.cost() - cost;
                 if (newStorage == storage) {
                     lastStorage = storage;
                 } else {
@@ -132,11 +174,14 @@ final class SparseBitSet {
         int prefix = (int) (member >>> Integer.SIZE);
 
         if (prefix == lastPrefix) {
+            long cost = lastStorage.cost();
             if (lastStorage.remove((int) member)) {
+                memoryCost -= cost;
                 lastPrefix = -1;
                 lastStorage = null;
                 return storages.clear(prefix);
             } else {
+                memoryCost += lastStorage.cost() - cost;
                 return false;
             }
         } else {
@@ -144,11 +189,14 @@ final class SparseBitSet {
             if (storage == null) {
                 return false;
             }
+            long cost = storage.cost();
             if (storage.remove((int) member)) {
+                memoryCost -= cost;
                 lastPrefix = -1;
                 lastStorage = null;
                 return storages.clear(prefix);
             } else {
+                memoryCost += storage.cost() - cost;
                 lastPrefix = prefix;
                 lastStorage = storage;
                 return false;
@@ -156,6 +204,13 @@ final class SparseBitSet {
         }
     }
 
+    /**
+     * @return the estimated on-heap memory cost of this bit set in bytes.
+     */
+    public long getMemoryCost() {
+        return memoryCost;
+    }
+
     /**
      * @return an iterator that iterates over all the indexes of bits set in
      * this sparse bit set.
@@ -234,6 +289,12 @@ final class SparseBitSet {
          */
         boolean advanceAtLeastTo(int member, IteratorImpl iterator);
 
+        /**
+         * @return the estimated on-heap memory cost of this storage including
+         * the cost of the storages owned by it.
+         */
+        long cost();
+
     }
 
     /**
@@ -376,6 +437,11 @@ final class SparseBitSet {
             return true;
         }
 
+        @Override
+        public long cost() {
+            return ARRAY_STORAGE_32_COST + estimateArrayCost(members.length, Integer.BYTES);
+        }
+
     }
 
     /**
@@ -395,6 +461,9 @@ final class SparseBitSet {
         private int lastPrefix = -1;
         private Storage16 lastStorage;
 
+        // the total cost of the 16-bit postfix storages
+        private long storagesCost;
+
         /**
          * Constructs a new prefix storage for the given sorted members array
          * and the given member to insert at the given index.
@@ -410,6 +479,10 @@ final class SparseBitSet {
             for (int i = index; i < members.length; ++i) {
                 append(members[i]);
             }
+
+            for (int i = 0; i < size; ++i) {
+                storagesCost += storages[i].cost();
+            }
         }
 
         @Override
@@ -423,7 +496,9 @@ final class SparseBitSet {
             if (unsignedPrefix == lastPrefix) {
                 // We are lucky: just add the member to the cached storage.
 
+                long storageCost = lastStorage.cost();
                 Storage16 newStorage = lastStorage.add((short) member);
+                storagesCost += newStorage.cost() - storageCost;
                 // handle potential storage upgrade
                 if (newStorage != lastStorage) {
                     int index = unsignedBinarySearch(prefixes, size, unsignedPrefix);
@@ -439,7 +514,9 @@ final class SparseBitSet {
                 // The storage already exists: just add the member to it.
 
                 Storage16 storage = storages[index];
+                long storageCost = storage.cost();
                 Storage16 newStorage = storage.add((short) member);
+                storagesCost += newStorage.cost() - storageCost;
                 // handle potential storage upgrade
                 if (newStorage != storage) {
                     storages[index] = newStorage;
@@ -475,6 +552,7 @@ final class SparseBitSet {
             }
 
             ArrayStorage16 createdStorage = new ArrayStorage16((short) member);
+            storagesCost += createdStorage.cost();
             prefixes[index] = prefix;
             storages[index] = createdStorage;
             lastPrefix = unsignedPrefix;
@@ -498,7 +576,9 @@ final class SparseBitSet {
                 // We are lucky: just remove the member from the cached storage.
 
                 Storage16 storage = lastStorage;
+                long storageCost = storage.cost();
                 newStorage = storage.remove((short) member);
+                storagesCost += costOf(newStorage) - storageCost;
                 if (newStorage == storage) {
                     return false;
                 }
@@ -514,7 +594,9 @@ final class SparseBitSet {
                 }
 
                 Storage16 storage = storages[index];
+                long storageCost = storage.cost();
                 newStorage = storage.remove((short) member);
+                storagesCost += costOf(newStorage) - storageCost;
                 if (newStorage == storage) {
                     lastStorage = storage;
                     lastPrefix = unsignedPrefix;
@@ -648,6 +730,16 @@ final class SparseBitSet {
             return iterateAtLeastFrom(member, position, iterator);
         }
 
+        @Override
+        public long cost() {
+            return PREFIX_STORAGE_32_COST + estimateArrayCost(prefixes.length, Short.BYTES)
+                    + estimateArrayCost(storages.length, Integer.BYTES) + storagesCost;
+        }
+
+        private static long costOf(Storage16 storage) {
+            return storage == null ? 0 : storage.cost();
+        }
+
         private void append(int member) {
             short prefix = (short) (member >>> Short.SIZE);
 
@@ -709,425 +801,33 @@ final class SparseBitSet {
 
     }
 
-    /**
-     * Defines internal contract of storages responsible for storing of 16-bit
-     * postfixes.
-     */
-    private interface Storage16 {
-
-        /**
-         * Adds the given member to this storage.
-         *
-         * @param member the member to add.
-         * @return a new storage instance if this storage was converted to
-         * another storage flavor; this storage otherwise.
-         */
-        Storage16 add(short member);
-
-        /**
-         * Removes the given member from this storage.
-         *
-         * @param member the member to remove.
-         * @return {@code null} if this storage became empty as a result of the
-         * member removal; a new storage instance if this storage was converted
-         * to another storage flavor; this storage otherwise.
-         */
-        Storage16 remove(short member);
-
-        /**
-         * Starts iteration on this storage using the given iterator.
-         * <p>
-         * Always succeeds since we never keep empty storages.
-         *
-         * @param iterator the iterator to iterate with.
-         */
-        void iterate(IteratorImpl iterator);
-
-        /**
-         * Advances the given iterator on this storage.
-         *
-         * @param iterator the iterator to advance.
-         * @return {@code true} if the iterator is advanced to the next member,
-         * {@code false} if no members to iterate are left in this storage.
-         */
-        boolean advance(IteratorImpl iterator);
-
-        /**
-         * Starts iteration on this storage starting at least from the given
-         * member using the given iterator.
-         *
-         * @param member   the member to start the iteration from.
-         * @param iterator the iterator to iterate with.
-         * @return {@code true} if the iterator is positioned to the given
-         * member; or, if the member is not present in this storage, to a member
-         * immediately following it and present in this storage or {@code false}
-         * if no such member exists in this storage.
-         */
-        boolean iterateAtLeastFrom(short member, IteratorImpl iterator);
-
-        /**
-         * Advances the given iterator to the given member; or, if the member is
-         * not present in this storage, to a member immediately following it and
-         * present in this storage.
-         *
-         * @param member   the member to advance at least to. The member must be
-         *                 greater than the member this iterator is currently at.
-         * @param iterator the iterator to advance.
-         * @return {@code true} if the iterator is advanced to the given
-         * member; or, if the member is not present in this storage, to a member
-         * immediately following it and present in this storage or {@code false}
-         * if no such member exists in this storage.
-         */
-        boolean advanceAtLeastTo(short member, IteratorImpl iterator);
-
-    }
-
-    /**
-     * Manages sorted short array of indexes of set bits.
-     */
-    private static final class ArrayStorage16 implements Storage16 {
-
-        private static final int MIN_CAPACITY = 2;
-
-        private int size;
-        private short[] members;
-
-        ArrayStorage16(short member) {
-            this.size = 1;
-            this.members = new short[MIN_CAPACITY];
-            members[0] = member;
-        }
-
-        /**
-         * Constructs a new storage by downgrading from the given {@link
-         * BitSetStorage16} data.
-         */
-        ArrayStorage16(long[] bits, int size) {
-            assert size == BitSetStorage16.MIN_SIZE;
-            this.size = size;
-
-            short[] members = new short[ARRAY_STORAGE_16_MAX_SIZE];
-            int index = 0;
-            for (int i = 0; i < bits.length; ++i) {
-                long value = bits[i];
-                int base = i << BitSetStorage16.BIT_SET_LONG_SHIFT;
-                while (value != 0) {
-                    int offset = numberOfTrailingZeros(value);
-                    members[index++] = (short) (base + offset);
-                    // zero out the consumed bit
-                    value &= value - 1;
-                }
-            }
-            assert index == size;
-
-            this.members = members;
-        }
-
-        @Override
-        public Storage16 add(short member) {
-            int index = unsignedBinarySearch(members, size, toUnsignedInt(member));
-            if (index >= 0) {
-                // already in the array
-                return this;
-            }
-            index = -(index + 1);
-
-            if (size == members.length) {
-                // No space left: try to grow members array.
-
-                if (size == ARRAY_STORAGE_16_MAX_SIZE) {
-                    return new BitSetStorage16(members, member, index);
-                }
-
-                int newCapacity = Math.min(ARRAY_STORAGE_16_MAX_SIZE, size + capacityDeltaShort(members.length));
-                short[] newMembers = new short[newCapacity];
-                arraycopy(members, 0, newMembers, 0, index);
-                arraycopy(members, index, newMembers, index + 1, size - index);
-                members = newMembers;
-            } else {
-                // shift members right to free a slot for the new member
-                arraycopy(members, index, members, index + 1, size - index);
-            }
-            members[index] = member;
-            ++size;
-            return this;
-        }
-
-        @Override
-        public Storage16 remove(short member) {
-            int index = unsignedBinarySearch(members, size, toUnsignedInt(member));
-            if (index < 0) {
-                // not a member
-                return this;
-            }
-
-            --size;
-            if (size == 0) {
-                // emptied
-                return null;
-            }
-
-            int delta = capacityDeltaShort(members.length);
-            int wasted = members.length - size;
-            int newCapacity = members.length - delta;
-            if (wasted >= delta && newCapacity >= MIN_CAPACITY) {
-                // We are wasting too much: shrink the array.
-
-                short[] newMembers = new short[newCapacity];
-                arraycopy(members, 0, newMembers, 0, index);
-                arraycopy(members, index + 1, newMembers, index, size - index);
-                members = newMembers;
-            } else {
-                // shift members left to fill the gap
-                arraycopy(members, index + 1, members, index, size - index);
-            }
-            return this;
-        }
-
-        @Override
-        public void iterate(IteratorImpl iterator) {
-            assert size > 0;
-            iterator.position16 = 1;
-            iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | toUnsignedInt(members[0]);
-        }
-
-        @Override
-        public boolean advance(IteratorImpl iterator) {
-            int index = iterator.position16;
-            if (index < size) {
-                iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | toUnsignedInt(members[index]);
-                iterator.position16 = index + 1;
-                return true;
-            } else {
-                return false;
-            }
-        }
-
-        @Override
-        public boolean iterateAtLeastFrom(short member, IteratorImpl iterator) {
-            int unsignedMember = toUnsignedInt(member);
-            int index = unsignedBinarySearch(members, size, unsignedMember);
-
-            if (index < 0) {
-                index = -(index + 1);
-                if (index == size) {
-                    return false;
-                }
-                unsignedMember = toUnsignedInt(members[index]);
-            }
-
-            iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | unsignedMember;
-            iterator.position16 = index + 1;
-            return true;
-        }
-
-        @Override
-        public boolean advanceAtLeastTo(short member, IteratorImpl iterator) {
-            int unsignedMember = toUnsignedInt(member);
-            long current = iterator.index;
-            assert (current & SHORT_POSTFIX_MASK) < unsignedMember;
-
-            int position = iterator.position16;
-            if (position == size) {
-                return false;
-            }
-            position = unsignedBinarySearch(members, position, size, unsignedMember);
-
-            if (position < 0) {
-                position = -(position + 1);
-                if (position == size) {
-                    return false;
-                }
-                unsignedMember = toUnsignedInt(members[position]);
-            }
-
-            iterator.index = current & INT_PREFIX_SHORT_PREFIX_MASK | unsignedMember;
-            iterator.position16 = position + 1;
-            return true;
-        }
-
-        /**
-         * Appends the given member to this storage. The given member must be
-         * greater than any member already known by this storage.
-         */
-        public void append(short member) {
-            if (size == members.length) {
-                int newCapacity = size + capacityDeltaShort(members.length);
-                assert newCapacity <= ARRAY_STORAGE_16_MAX_SIZE;
-                members = copyOf(members, newCapacity);
-            }
-            members[size] = member;
-            ++size;
-        }
-
-    }
-
-    /**
-     * Manages directly indexable long array of bits.
-     */
-    private static final class BitSetStorage16 implements Storage16 {
-
-        // 2^6 = 64 = number of bits a long can store
-        public static final int BIT_SET_LONG_SHIFT = 6;
-
-        private static final int MIN_SIZE = ARRAY_STORAGE_16_MAX_SIZE - 1;
-        private static final int SIZE = 1024;
-
-        // masks lower 6 bits
-        private static final long POSTFIX_MASK = 0xFFFFFFFFFFFFFFC0L;
-
-        private final long[] members = new long[SIZE];
-        private int size;
-
-        /**
-         * Constructs a new bit set storage for the given sorted members array
-         * and the given member to insert at the given index.
-         */
-        BitSetStorage16(short[] members, short member, int index) {
-            for (int i = 0; i < index; ++i) {
-                append(members[i]);
-            }
-            append(member);
-            for (int i = index; i < members.length; ++i) {
-                append(members[i]);
-            }
-            this.size = members.length + 1;
-        }
-
-        @Override
-        public Storage16 add(short member) {
-            int bitIndex = toUnsignedInt(member);
-            int longIndex = bitIndex >>> BIT_SET_LONG_SHIFT;
-
-            long bitSet = members[longIndex];
-            long newBitSet = bitSet | 1L << bitIndex;
-            members[longIndex] = newBitSet;
-
-            if (newBitSet != bitSet) {
-                ++size;
-            }
-            return this;
-        }
-
-        @Override
-        public Storage16 remove(short member) {
-            int bitIndex = toUnsignedInt(member);
-            int longIndex = bitIndex >>> BIT_SET_LONG_SHIFT;
-
-            long bitSet = members[longIndex];
-            long newBitSet = bitSet & ~(1L << bitIndex);
-            members[longIndex] = newBitSet;
-
-            if (newBitSet != bitSet) {
-                --size;
-                if (size == MIN_SIZE) {
-                    return new ArrayStorage16(members, size);
-                }
-            }
-            return this;
-        }
-
-        @Override
-        public void iterate(IteratorImpl iterator) {
-            assert size > 0;
-            iterator.position16 = 0;
-            iterator.bitSet16 = members[0];
-            iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK;
-            boolean advanced = advance(iterator);
-            assert advanced;
-        }
-
-        @Override
-        public boolean advance(IteratorImpl iterator) {
-            // Consume bits from the current long until it's empty.
-
-            long bitSet = iterator.bitSet16;
-            if (bitSet != 0) {
-                iterator.index = iterator.index & POSTFIX_MASK | numberOfTrailingZeros(bitSet);
-                // zero out the consumed bit
-                iterator.bitSet16 = bitSet & bitSet - 1;
-                return true;
-            }
-
-            // Try to find the next non-zero long.
-
-            int index = iterator.position16;
-            do {
-                ++index;
-                if (index == members.length) {
-                    // nothing left
-                    return false;
-                }
-                bitSet = members[index];
-            } while (bitSet == 0);
-
-            iterator.index =
-                    iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | index << BIT_SET_LONG_SHIFT | numberOfTrailingZeros(bitSet);
-            iterator.bitSet16 = bitSet & bitSet - 1;
-            iterator.position16 = index;
-            return true;
-        }
-
-        @Override
-        public boolean iterateAtLeastFrom(short member, IteratorImpl iterator) {
-            int bitIndex = toUnsignedInt(member);
-            int longIndex = bitIndex >>> BIT_SET_LONG_SHIFT;
-
-            iterator.position16 = longIndex;
-            // consume all preceding bits by zeroing them out
-            iterator.bitSet16 = members[longIndex] & -(1L << bitIndex);
-            iterator.index = iterator.index & INT_PREFIX_SHORT_PREFIX_MASK | longIndex << BIT_SET_LONG_SHIFT;
-            return advance(iterator);
-        }
-
-        @Override
-        public boolean advanceAtLeastTo(short member, IteratorImpl iterator) {
-            long current = iterator.index;
-            int bitIndex = toUnsignedInt(member);
-            assert (current & SHORT_POSTFIX_MASK) < bitIndex;
-
-            int longIndex = bitIndex >>> BIT_SET_LONG_SHIFT;
-
-            iterator.position16 = longIndex;
-            // consume all preceding bits by zeroing them out
-            iterator.bitSet16 = members[longIndex] & -(1L << bitIndex);
-            iterator.index = current & INT_PREFIX_SHORT_PREFIX_MASK | longIndex << BIT_SET_LONG_SHIFT;
-            return advance(iterator);
-        }
-
-        private void append(short member) {
-            int bitIndex = toUnsignedInt(member);
-            members[bitIndex >>> BIT_SET_LONG_SHIFT] |= 1L << bitIndex;
-        }
-
-    }
-
     /**
      * Iterates over sparse bit sets.
      */
-    private static final class IteratorImpl extends SparseIntArray.Iterator<Storage32> implements AscendingLongIterator {
+    static final class IteratorImpl extends SparseIntArray.Iterator<Storage32> implements AscendingLongIterator {
 
         // The idea: use a single iterator instance to iterate over the entire
         // bit set including all its internal storages. This way we are avoiding
         // frequent sub iterators allocation, producing no heap litter and
         // keeping the iteration state just in a few cache lines.
 
+        // the current Storage16
+        Storage16 storage16;
+        // its position, the current run index for RunStorage16
+        int position16;
+        // the current bit set of BitSetStorage16, the end of the current run
+        // for RunStorage16
+        long bitSet16;
+
+        // the current index (member), constructed cooperatively by all storages
+        long index;
+
         // the root storage mapping 32-bit prefixes to 32-bit postfix storages
         private final SparseIntArray<Storage32> storage64;
 
         // the current position of the current Storage32
         private int position32;
 
-        // the current Storage16
-        private Storage16 storage16;
-        // its position
-        private int position16;
-        // the current bit set of BitSetStorage16
-        private long bitSet16;
-
-        // the current index (member), constructed cooperatively by all storages
-        private long index;
-
         IteratorImpl(SparseIntArray<Storage32> storage64) {
             this.storage64 = storage64;
             long prefix = storage64.iterate(this);
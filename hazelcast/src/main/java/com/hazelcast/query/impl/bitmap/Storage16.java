@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import com.hazelcast.query.impl.bitmap.SparseBitSet.IteratorImpl;
+
+/**
+ * Defines internal contract of storages responsible for storing of 16-bit
+ * postfixes.
+ */
+interface Storage16 {
+
+    /**
+     * Adds the given member to this storage.
+     *
+     * @param member the member to add.
+     * @return a new storage instance if this storage was converted to
+     * another storage flavor; this storage otherwise.
+     */
+    Storage16 add(short member);
+
+    /**
+     * Removes the given member from this storage.
+     *
+     * @param member the member to remove.
+     * @return {@code null} if this storage became empty as a result of the
+     * member removal; a new storage instance if this storage was converted
+     * to another storage flavor; this storage otherwise.
+     */
+    Storage16 remove(short member);
+
+    /**
+     * Starts iteration on this storage using the given iterator.
+     * <p>
+     * Always succeeds since we never keep empty storages.
+     *
+     * @param iterator the iterator to iterate with.
+     */
+    void iterate(IteratorImpl iterator);
+
+    /**
+     * Advances the given iterator on this storage.
+     *
+     * @param iterator the iterator to advance.
+     * @return {@code true} if the iterator is advanced to the next member,
+     * {@code false} if no members to iterate are left in this storage.
+     */
+    boolean advance(IteratorImpl iterator);
+
+    /**
+     * Starts iteration on this storage starting at least from the given
+     * member using the given iterator.
+     *
+     * @param member   the member to start the iteration from.
+     * @param iterator the iterator to iterate with.
+     * @return {@code true} if the iterator is positioned to the given
+     * member; or, if the member is not present in this storage, to a member
+     * immediately following it and present in this storage or {@code false}
+     * if no such member exists in this storage.
+     */
+    boolean iterateAtLeastFrom(short member, IteratorImpl iterator);
+
+    /**
+     * Advances the given iterator to the given member; or, if the member is
+     * not present in this storage, to a member immediately following it and
+     * present in this storage.
+     *
+     * @param member   the member to advance at least to. The member must be
+     *                 greater than the member this iterator is currently at.
+     * @param iterator the iterator to advance.
+     * @return {@code true} if the iterator is advanced to the given
+     * member; or, if the member is not present in this storage, to a member
+     * immediately following it and present in this storage or {@code false}
+     * if no such member exists in this storage.
+     */
+    boolean advanceAtLeastTo(short member, IteratorImpl iterator);
+
+    /**
+     * @return the estimated on-heap memory cost of this storage.
+     */
+    long cost();
+
+}
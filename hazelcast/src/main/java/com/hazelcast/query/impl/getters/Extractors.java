@@ -123,6 +123,14 @@ public final class Extractors {
         return target;
     }
 
+    /**
+     * @return {@code true} if a custom {@link ValueExtractor} is configured for
+     * the given attribute, {@code false} otherwise.
+     */
+    public boolean hasValueExtractor(String attributeName) {
+        return extractors.containsKey(extractAttributeNameNameWithoutArguments(attributeName));
+    }
+
     Getter getGetter(Object targetObject, String attributeName, boolean failOnMissingReflectiveAttribute) {
         Getter getter = getterCache.getGetter(targetObject.getClass(), attributeName);
         if (getter == null) {
@@ -27,6 +27,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.impl.AttributeType;
+import com.hazelcast.query.impl.CompactFieldComparator;
 import com.hazelcast.query.impl.Extractable;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.AbstractJsonGetter;
@@ -51,6 +52,7 @@ public abstract class AbstractPredicate<K, V> implements Predicate<K, V>, Identi
     String attributeName;
 
     private transient volatile AttributeType attributeType;
+    private transient volatile CompactFieldComparator[] compactComparators;
 
     protected AbstractPredicate() {
     }
@@ -105,6 +107,25 @@ public abstract class AbstractPredicate<K, V> implements Predicate<K, V>, Identi
 
     protected abstract boolean applyForSingleAttributeValue(Comparable attributeValue);
 
+    /**
+     * Returns the comparators of the attribute with the given values on
+     * Compact serialized data, in the order of the values. The comparators
+     * are created on the first call and cached, so the values must be the
+     * same on each call.
+     */
+    protected CompactFieldComparator[] compactComparators(Comparable... values) {
+        CompactFieldComparator[] comparators = compactComparators;
+        if (comparators == null) {
+            // benign race: concurrently created comparators are equivalent
+            comparators = new CompactFieldComparator[values.length];
+            for (int i = 0; i < values.length; i++) {
+                comparators[i] = CompactFieldComparator.of(attributeName, values[i]);
+            }
+            compactComparators = comparators;
+        }
+        return comparators;
+    }
+
     /**
      * Converts givenAttributeValue to the type of entryAttributeValue
      * Good practice: do not invoke this method if entryAttributeValue == null
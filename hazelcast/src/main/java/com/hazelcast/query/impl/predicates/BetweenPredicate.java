@@ -21,12 +21,14 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Comparables;
+import com.hazelcast.query.impl.CompactFieldComparator;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.IndexRegistry;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -52,6 +54,22 @@ public class BetweenPredicate extends AbstractIndexAwarePredicate implements Vis
         this.to = to;
     }
 
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        CompactFieldComparator[] comparators = compactComparators(from, to);
+        int fromComparison = comparators[0].compare(mapEntry);
+        if (fromComparison != CompactFieldComparator.NOT_APPLICABLE) {
+            if (fromComparison < 0) {
+                return false;
+            }
+            int toComparison = comparators[1].compare(mapEntry);
+            if (toComparison != CompactFieldComparator.NOT_APPLICABLE) {
+                return toComparison <= 0;
+            }
+        }
+        return super.apply(mapEntry);
+    }
+
     @Override
     protected boolean applyForSingleAttributeValue(Comparable attributeValue) {
         if (attributeValue == null) {
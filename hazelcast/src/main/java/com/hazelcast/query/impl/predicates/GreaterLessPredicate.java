@@ -21,12 +21,14 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Comparables;
+import com.hazelcast.query.impl.CompactFieldComparator;
 import com.hazelcast.query.impl.Comparison;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -56,6 +58,15 @@ public final class GreaterLessPredicate extends AbstractIndexAwarePredicate impl
         this.less = less;
     }
 
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        int comparison = compactComparators(value)[0].compare(mapEntry);
+        if (comparison != CompactFieldComparator.NOT_APPLICABLE) {
+            return matches(comparison);
+        }
+        return super.apply(mapEntry);
+    }
+
     @Override
     protected boolean applyForSingleAttributeValue(Comparable attributeValue) {
         if (attributeValue == null) {
@@ -63,8 +74,11 @@ public final class GreaterLessPredicate extends AbstractIndexAwarePredicate impl
         }
         Comparable givenValue = convert(attributeValue, value);
         attributeValue = (Comparable) convertEnumValue(attributeValue);
-        int result = Comparables.compare(attributeValue, givenValue);
-        return equal && result == 0 || (less ? (result < 0) : (result > 0));
+        return matches(Comparables.compare(attributeValue, givenValue));
+    }
+
+    private boolean matches(int comparison) {
+        return equal && comparison == 0 || (less ? (comparison < 0) : (comparison > 0));
     }
 
     @Override
@@ -21,6 +21,7 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Comparables;
+import com.hazelcast.query.impl.CompactFieldComparator;
 import com.hazelcast.query.impl.IndexRegistry;
 
 import java.io.IOException;
@@ -59,6 +60,10 @@ public class NotEqualPredicate extends AbstractPredicate implements NegatablePre
     @SuppressWarnings("unchecked")
     @Override
     public boolean apply(Map.Entry mapEntry) {
+        int comparison = compactComparators(value)[0].compare(mapEntry);
+        if (comparison != CompactFieldComparator.NOT_APPLICABLE) {
+            return comparison != 0;
+        }
         return !super.apply(mapEntry);
     }
 
@@ -24,6 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.security.SimpleTokenCredentials;
 import com.hazelcast.security.UsernamePasswordCredentials;
 import com.hazelcast.spi.impl.eventservice.impl.EventEnvelope;
+import com.hazelcast.spi.impl.eventservice.impl.EventEnvelopeBatch;
 import com.hazelcast.spi.impl.eventservice.impl.Registration;
 import com.hazelcast.spi.impl.eventservice.impl.TrueEventFilter;
 import com.hazelcast.spi.impl.eventservice.impl.operations.DeregistrationOperation;
@@ -80,6 +81,7 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
     public static final int SIMPLE_TOKEN_CRED = 24;
     public static final int DISTRIBUTED_OBJECT_EVENT_PACKET = 25;
     public static final int APPEND_TENANT_CONTROL_OPERATION = 26;
+    public static final int EVENT_ENVELOPE_BATCH = 27;
 
     private static final DataSerializableFactory FACTORY = createFactoryInternal();
 
@@ -147,6 +149,8 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
                         return new DistributedObjectEventPacket();
                     case APPEND_TENANT_CONTROL_OPERATION:
                         return new TenantControlReplicationOperation();
+                    case EVENT_ENVELOPE_BATCH:
+                        return new EventEnvelopeBatch();
                     default:
                         return null;
                 }
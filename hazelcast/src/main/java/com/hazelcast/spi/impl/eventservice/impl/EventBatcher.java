@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Batches the remote events published for the same listener registration with
+ * the same order key stripe (see {@link #stripeOf(int)}), so they can be sent to
+ * the subscriber in a single packet and processed there by a single event
+ * executor task.
+ * <p>
+ * A batch is sent as soon as it reaches the maximum batch size. Batches which
+ * are not full are sent by {@link #flushAll()}, which is expected to be called
+ * periodically with the linger time as period.
+ * <p>
+ * Since a batch only contains events with the same order key stripe and the
+ * batch is sent while holding its lock, the order of the events with the same
+ * order key is preserved.
+ *
+ * @see EventEnvelopeBatch
+ */
+final class EventBatcher {
+
+    private final EventServiceImpl eventService;
+    private final int maxBatchSize;
+    private final int stripeCount;
+    private final ConcurrentMap<BatchKey, PendingBatch> batches = new ConcurrentHashMap<>();
+    private final MwCounter batchesSent = newMwCounter();
+    private final MwCounter batchedEventsSent = newMwCounter();
+
+    EventBatcher(EventServiceImpl eventService, int maxBatchSize, int stripeCount) {
+        this.eventService = eventService;
+        this.maxBatchSize = maxBatchSize;
+        this.stripeCount = stripeCount;
+    }
+
+    /**
+     * Maps the order key of an event to the order key used for batching and
+     * sending it. Order keys are often derived from the event key, so batching
+     * by the order key itself would hardly ever batch anything. Instead, the
+     * events are batched by the stripe of their order key. Since the stripe is
+     * a deterministic function of the order key, the events with the same
+     * order key are still processed in order on the subscriber.
+     *
+     * @param orderKey the order key of the event
+     * @return the order key stripe
+     */
+    int stripeOf(int orderKey) {
+        return hashToIndex(orderKey, stripeCount);
+    }
+
+    /**
+     * Adds the event to the batch of its registration and order key. If the
+     * batch is full, it is sent to the subscriber.
+     *
+     * @param subscriber    the address of the subscriber
+     * @param eventEnvelope the event to add
+     * @param orderKey      the order key of the event
+     */
+    void add(Address subscriber, EventEnvelope eventEnvelope, int orderKey) {
+        BatchKey key = new BatchKey(subscriber, eventEnvelope.getEventId(), orderKey);
+        for (; ; ) {
+            PendingBatch batch = batches.computeIfAbsent(key, k -> new PendingBatch(k, eventEnvelope.getServiceName()));
+            synchronized (batch) {
+                if (batch.removed) {
+                    // the batch was removed concurrently because it was idle, retry with a new batch
+                    continue;
+                }
+                batch.events.add(eventEnvelope.getEvent());
+                batch.idle = false;
+                if (batch.events.size() >= maxBatchSize) {
+                    send(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends the pending events of the registration and order key, if any. Used
+     * before an event is sent by other means, so the event doesn't overtake
+     * the events already batched.
+     *
+     * @param subscriber     the address of the subscriber
+     * @param registrationId the ID of the listener registration
+     * @param orderKey       the order key
+     */
+    void flush(Address subscriber, UUID registrationId, int orderKey) {
+        PendingBatch batch = batches.get(new BatchKey(subscriber, registrationId, orderKey));
+        if (batch != null) {
+            synchronized (batch) {
+                if (!batch.events.isEmpty()) {
+                    send(batch);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends all pending batches. Batches which didn't receive any event since
+     * the previous call are removed.
+     */
+    void flushAll() {
+        for (PendingBatch batch : batches.values()) {
+            synchronized (batch) {
+                if (!batch.events.isEmpty()) {
+                    send(batch);
+                } else if (batch.idle) {
+                    batch.removed = true;
+                    batches.remove(batch.key, batch);
+                } else {
+                    batch.idle = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the pending batches of the subscriber.
+     *
+     * @param subscriber the address of the subscriber which left the cluster
+     */
+    void onMemberLeft(Address subscriber) {
+        for (PendingBatch batch : batches.values()) {
+            if (batch.key.subscriber.equals(subscriber)) {
+                synchronized (batch) {
+                    batch.removed = true;
+                    batch.events.clear();
+                    batches.remove(batch.key, batch);
+                }
+            }
+        }
+    }
+
+    long batchesSent() {
+        return batchesSent.get();
+    }
+
+    long batchedEventsSent() {
+        return batchedEventsSent.get();
+    }
+
+    private void send(PendingBatch batch) {
+        BatchKey key = batch.key;
+        List<Object> events = batch.events;
+        Object payload;
+        if (events.size() == 1) {
+            payload = new EventEnvelope(key.registrationId, batch.serviceName, events.get(0));
+            events.clear();
+        } else {
+            payload = new EventEnvelopeBatch(key.registrationId, batch.serviceName, events);
+            batch.events = new ArrayList<>();
+            batchesSent.inc();
+            batchedEventsSent.inc(events.size());
+        }
+        eventService.transmitEvent(key.subscriber, payload, key.orderKey);
+    }
+
+    private static final class BatchKey {
+        private final Address subscriber;
+        private final UUID registrationId;
+        private final int orderKey;
+
+        BatchKey(Address subscriber, UUID registrationId, int orderKey) {
+            this.subscriber = subscriber;
+            this.registrationId = registrationId;
+            this.orderKey = orderKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey that = (BatchKey) o;
+            return orderKey == that.orderKey
+                    && registrationId.equals(that.registrationId)
+                    && subscriber.equals(that.subscriber);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subscriber, registrationId, orderKey);
+        }
+    }
+
+    /**
+     * The events of a registration and order key which were not sent yet. All
+     * fields are guarded by the lock of the batch.
+     */
+    private static final class PendingBatch {
+        private final BatchKey key;
+        private final String serviceName;
+        private List<Object> events = new ArrayList<>();
+        // no events have been added since the last flushAll
+        private boolean idle;
+        // the batch has been removed from the batches map and must not be used anymore
+        private boolean removed;
+
+        PendingBatch(BatchKey key, String serviceName) {
+            this.key = key;
+            this.serviceName = serviceName;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import com.hazelcast.spi.impl.eventservice.impl.operations.RegistrationOperation
 import com.hazelcast.spi.impl.eventservice.impl.operations.RegistrationOperationSupplier;
 import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventOperation;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.Nonnull;
@@ -57,12 +58,16 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
 import static com.hazelcast.internal.cluster.Versions.V5_3;
+import static com.hazelcast.internal.cluster.Versions.V5_4;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_DISCRIMINATOR_SERVICE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_BATCHED_EVENTS_SENT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_BATCHES_SENT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_EVENTS_PROCESSED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_EVENT_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_QUEUE_CAPACITY;
@@ -80,6 +85,8 @@ import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.spi.impl.InternalCompletableFuture.newCompletedFuture;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_LINGER_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_MAX_SIZE;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_QUEUE_CAPACITY;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_QUEUE_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_SYNC_TIMEOUT_MILLIS;
@@ -108,6 +115,10 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * This order can still be broken in some cases. This is possible because remote events are asynchronous
  * and we don't wait for the response before publishing the next event. The previously published
  * event can be retransmitted causing it to be received by the target node at a later time.
+ * <p>
+ * When {@link ClusterProperty#EVENT_BATCH_MAX_SIZE} is larger than 1, asynchronous remote events are
+ * batched per listener registration and order key by an {@link EventBatcher} and sent as a single
+ * {@link EventEnvelopeBatch} packet. Until the cluster version is at least 5.4, they are sent one by one.
  */
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
 public class EventServiceImpl implements EventService, StaticMetricsProvider {
@@ -183,6 +194,10 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     private final ConcurrentMap<UUID, Object> listenerCache = new ConcurrentHashMap<>();
 
+    /** Batches the asynchronous remote events, {@code null} if batching is disabled */
+    private final EventBatcher eventBatcher;
+    private final ScheduledFuture<?> eventBatchFlushTask;
+
     public EventServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
         this.serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
@@ -200,6 +215,17 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                 eventThreadCount,
                 eventQueueCapacity);
         this.segments = new ConcurrentHashMap<>();
+
+        int eventBatchMaxSize = hazelcastProperties.getInteger(EVENT_BATCH_MAX_SIZE);
+        if (eventBatchMaxSize > 1) {
+            long lingerMillis = Math.max(hazelcastProperties.getMillis(EVENT_BATCH_LINGER_MILLIS), 1);
+            this.eventBatcher = new EventBatcher(this, eventBatchMaxSize, eventThreadCount);
+            this.eventBatchFlushTask = nodeEngine.getExecutionService()
+                    .scheduleWithRepetition(eventBatcher::flushAll, lingerMillis, lingerMillis, MILLISECONDS);
+        } else {
+            this.eventBatcher = null;
+            this.eventBatchFlushTask = null;
+        }
     }
 
 
@@ -257,6 +283,16 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         return eventExecutor.processedCount();
     }
 
+    @Probe(name = EVENT_METRIC_EVENT_SERVICE_BATCHES_SENT)
+    long batchesSent() {
+        return eventBatcher == null ? 0 : eventBatcher.batchesSent();
+    }
+
+    @Probe(name = EVENT_METRIC_EVENT_SERVICE_BATCHED_EVENTS_SENT)
+    long batchedEventsSent() {
+        return eventBatcher == null ? 0 : eventBatcher.batchedEventsSent();
+    }
+
     @Override
     public EventRegistration registerLocalListener(@Nonnull String serviceName,
                                                    @Nonnull String topic,
@@ -624,13 +660,25 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
      * A synchronous event means that we send the event as an {@link SendEventOperation} and in case of failure
      * we increase the failure count and log the failure (see {@link EventProcessor})
      * Otherwise, we send an asynchronous event. This means that we don't wait to see if the processing failed with an
-     * exception (see {@link RemoteEventProcessor})
+     * exception (see {@link RemoteEventProcessor}). If event batching is enabled, the asynchronous event is added to
+     * the batch of its registration and order key stripe instead (see {@link EventBatcher}).
      */
     private void sendEvent(Address subscriber, EventEnvelope eventEnvelope, int orderKey) {
         String serviceName = eventEnvelope.getServiceName();
         EventServiceSegment segment = getSegment(serviceName, true);
         boolean sync = segment.incrementPublish() % eventSyncFrequency == 0;
 
+        if (eventBatcher != null) {
+            // all events of an order key, batched or not, have to be processed on the same subscriber stripe
+            orderKey = eventBatcher.stripeOf(orderKey);
+            if (!sync && isEventBatchingSupported()) {
+                eventBatcher.add(subscriber, eventEnvelope, orderKey);
+                return;
+            }
+            // the event must not overtake the events which are already batched
+            eventBatcher.flush(subscriber, eventEnvelope.getEventId(), orderKey);
+        }
+
         if (sync) {
             SendEventOperation op = new SendEventOperation(eventEnvelope, orderKey);
             Future f = nodeEngine.getOperationService()
@@ -645,14 +693,31 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                 }
             }
         } else {
-            Packet packet = new Packet(serializationService.toBytes(eventEnvelope), orderKey)
-                    .setPacketType(Packet.Type.EVENT);
+            transmitEvent(subscriber, eventEnvelope, orderKey);
+        }
+    }
 
-            ServerConnectionManager cm = nodeEngine.getNode().getServer().getConnectionManager(MEMBER);
-            if (!cm.transmit(packet, subscriber)) {
-                if (nodeEngine.isRunning()) {
-                    logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
-                }
+    /**
+     * Members older than 5.4 can't read an {@link EventEnvelopeBatch}, so events are batched only once the
+     * cluster version is at least 5.4.
+     */
+    private boolean isEventBatchingSupported() {
+        return nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(V5_4);
+    }
+
+    /**
+     * Sends an {@link EventEnvelope} or {@link EventEnvelopeBatch} to the {@code subscriber} as an event packet.
+     * The packet partition ID is the {@code orderKey} so the event is processed on the subscriber in order with the
+     * other events with the same order key.
+     */
+    void transmitEvent(Address subscriber, Object payload, int orderKey) {
+        Packet packet = serializationService.toBytes(payload, 0, true, true,
+                (bytes, length) -> new Packet(bytes, length, orderKey)).setPacketType(Packet.Type.EVENT);
+
+        ServerConnectionManager cm = nodeEngine.getNode().getServer().getConnectionManager(MEMBER);
+        if (!cm.transmit(packet, subscriber)) {
+            if (nodeEngine.isRunning()) {
+                logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
             }
         }
     }
@@ -768,6 +833,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
     }
 
     public void shutdown() {
+        if (eventBatchFlushTask != null) {
+            eventBatchFlushTask.cancel(false);
+        }
         logger.finest("Stopping event executor...");
         eventExecutor.shutdown();
         for (EventServiceSegment segment : segments.values()) {
@@ -781,6 +849,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         for (EventServiceSegment segment : segments.values()) {
             segment.onMemberLeft(address);
         }
+        if (eventBatcher != null) {
+            eventBatcher.onMemberLeft(address);
+        }
     }
 
     /**
@@ -27,6 +27,8 @@ import static com.hazelcast.internal.util.EmptyStatement.ignore;
  * An extension of the {@link EventProcessor} which logs and swallows any exception while processing the event.
  * The {@link #orderKey} for this processor is equal to the packet partition ID. This means that when running
  * inside a {@link com.hazelcast.internal.util.executor.StripedExecutor}, all events for the same partition ID will be ordered.
+ * The packet can contain a single {@link EventEnvelope} or an {@link EventEnvelopeBatch}, in which case the batched
+ * events are processed in the order they were published in.
  *
  * @see EventServiceImpl#sendEvent(Address, EventEnvelope, int)
  */
@@ -44,14 +46,35 @@ public class RemoteEventProcessor extends EventProcessor implements StripedRunna
     @Override
     public void run() {
         try {
-            EventEnvelope eventEnvelope = eventService.nodeEngine.toObject(packet);
+            Object payload = eventService.nodeEngine.toObject(packet);
+            if (payload instanceof EventEnvelopeBatch) {
+                for (EventEnvelope eventEnvelope : ((EventEnvelopeBatch) payload).toEnvelopes()) {
+                    processSafely(eventEnvelope);
+                }
+            } else {
+                process((EventEnvelope) payload);
+            }
+        } catch (Exception e) {
+            handleFailure(e);
+        }
+    }
+
+    // a failing event of a batch must not prevent the processing of the subsequent ones
+    private void processSafely(EventEnvelope eventEnvelope) {
+        try {
             process(eventEnvelope);
-        } catch (ReplicatedMapCantBeCreatedOnLiteMemberException e) {
+        } catch (Exception e) {
+            handleFailure(e);
+        }
+    }
+
+    private void handleFailure(Exception e) {
+        if (e instanceof ReplicatedMapCantBeCreatedOnLiteMemberException) {
             // this happens when there is a lite member in the cluster
             // and a data member creates a ReplicatedMap proxy
             // (this is totally expected and doesn't need logging)
             ignore(e);
-        } catch (Exception e) {
+        } else {
             eventService.logger.warning("Error while logging processing event", e);
         }
     }
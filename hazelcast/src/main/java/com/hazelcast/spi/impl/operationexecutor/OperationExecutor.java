@@ -159,6 +159,22 @@ public interface OperationExecutor extends Consumer<Packet>, LiveOperationsTrack
      */
     void runOrExecute(Operation op);
 
+    /**
+     * Runs the {@link PartitionSpecificRunnable} on the calling thread if the
+     * calling thread is the partition thread owning the partition of the task
+     * and it isn't already running a task. Otherwise the task is submitted for
+     * execution using {@link #execute(PartitionSpecificRunnable)}.
+     * <p>
+     * This is used to prevent a thread hop when the thread that receives a
+     * request is also the thread that owns the partition, e.g. a TPC reactor.
+     *
+     * @param task the task to run or execute.
+     * @return {@code true} if the task was run on the calling thread,
+     * {@code false} if it was submitted for execution.
+     * @throws java.lang.NullPointerException if task is null.
+     */
+    boolean runInlineOrExecute(PartitionSpecificRunnable task);
+
     /**
      * Checks if the {@link Operation} is allowed to run on the current thread.
      *
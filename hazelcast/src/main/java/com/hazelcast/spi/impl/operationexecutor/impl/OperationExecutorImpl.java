@@ -25,6 +25,8 @@ import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.tpc.TpcServerBootstrap;
 import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.concurrent.MPSCArrayQueue;
+import com.hazelcast.internal.util.concurrent.MPSCBlockingQueue;
 import com.hazelcast.internal.util.concurrent.MPSCQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
@@ -89,10 +91,15 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * </li>
  * </ol>
  */
-@SuppressWarnings("checkstyle:methodcount")
+@SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
 public final class OperationExecutorImpl implements OperationExecutor, StaticMetricsProvider {
     private static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
+    // 'linked' for the MPSCQueue, 'array' for the MPSCArrayQueue
+    private static final HazelcastProperty QUEUE_TYPE
+            = new HazelcastProperty("hazelcast.operation.partitionthread.queue", "linked");
+    private static final HazelcastProperty QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.partitionthread.queue.capacity", 1 << 14);
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
     private final ThreadAffinity threadAffinity = newSystemThreadAffinity("hazelcast.operation.thread.affinity");
     private final ILogger logger;
@@ -175,7 +182,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
             // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<>(idleStrategy);
+            MPSCBlockingQueue<Object> normalQueue = newPartitionQueue(properties, idleStrategy);
 
             OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<>());
 
@@ -197,6 +204,17 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return threads;
     }
 
+    private static MPSCBlockingQueue<Object> newPartitionQueue(HazelcastProperties properties, IdleStrategy idleStrategy) {
+        String queueType = properties.getString(QUEUE_TYPE);
+        if ("array".equals(queueType)) {
+            return new MPSCArrayQueue<>(properties.getInteger(QUEUE_CAPACITY), idleStrategy);
+        } else if ("linked".equals(queueType)) {
+            return new MPSCQueue<>(idleStrategy);
+        } else {
+            throw new IllegalStateException("Unrecognized " + QUEUE_TYPE.getName() + " value=" + queueType);
+        }
+    }
+
     private PartitionOperationThread[] initTpcPartitionThreads(TpcServerBootstrap tpcServerBootstrap,
                                                                String hzName,
                                                                NodeExtension nodeExtension,
@@ -514,6 +532,27 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         }
     }
 
+    @Override
+    public boolean runInlineOrExecute(PartitionSpecificRunnable task) {
+        checkNotNull(task, "task can't be null");
+
+        int partitionId = task.getPartitionId();
+        Thread currentThread = Thread.currentThread();
+        if (partitionId >= 0 && currentThread instanceof PartitionOperationThread) {
+            PartitionOperationThread partitionThread = (PartitionOperationThread) currentThread;
+            // a non null runner means the thread is already processing a task; running the
+            // task nested would break the one-task-at-a-time guarantee of the partition thread
+            if (partitionThread.currentRunner == null
+                    && toPartitionThreadIndex(partitionId) == partitionThread.threadId) {
+                partitionThread.process(task);
+                return true;
+            }
+        }
+
+        execute(task);
+        return false;
+    }
+
     @Override
     public boolean isInvocationAllowed(Operation op, boolean isAsync) {
         checkNotNull(op, "op can't be null");
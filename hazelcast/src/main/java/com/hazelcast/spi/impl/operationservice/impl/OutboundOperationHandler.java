@@ -66,9 +66,9 @@ public class OutboundOperationHandler {
     }
 
     private Packet toPacket(Operation op) {
-        byte[] bytes = serializationService.toBytes(op);
         int partitionId = op.getPartitionId();
-        Packet packet = new Packet(bytes, partitionId).setPacketType(Packet.Type.OPERATION);
+        Packet packet = serializationService.toBytes(op, 0, true, true,
+                (bytes, length) -> new Packet(bytes, length, partitionId)).setPacketType(Packet.Type.OPERATION);
 
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
@@ -113,9 +113,9 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             throw new IllegalArgumentException("Target is this node! -> " + target + ", response: " + response);
         }
 
-        byte[] bytes = serializationService.toBytes(response);
-
-        Packet packet = newResponsePacket(bytes, response.isUrgent());
+        boolean urgent = response.isUrgent();
+        Packet packet = serializationService.toBytes(response, 0, true, true,
+                (bytes, length) -> newResponsePacket(bytes, length, urgent));
 
         return transmit(target, packet, connectionManager);
     }
@@ -149,12 +149,17 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             writeInt(bytes, OFFSET_NOT_DATA, CONSTANT_TYPE_NULL, useBigEndian);
         } else {
             // for regular object we currently can't guess how big the bytes will be; so we just hand it
-            // over to the serializationService to deal with it. The negative part is that this does lead to
-            // an intermediate copy of the data.
-
-            bytes = serializationService.toBytes(value, OFFSET_NOT_DATA, false);
+            // over to the serializationService to deal with it. The output buffer of large objects is
+            // handed over as is, for small ones this does lead to an intermediate copy of the data.
+            return serializationService.toBytes(value, OFFSET_NOT_DATA, false, false,
+                    (buffer, length) -> toNormalResponsePacket(buffer, length, callId, backupAcks, urgent, false));
         }
 
+        return toNormalResponsePacket(bytes, bytes.length, callId, backupAcks, urgent, isData);
+    }
+
+    private Packet toNormalResponsePacket(byte[] bytes, int length, long callId, int backupAcks, boolean urgent,
+                                          boolean isData) {
         writeResponsePrologueBytes(bytes, NORMAL_RESPONSE, callId, urgent);
 
         // backup-acks (will fit in a byte)
@@ -163,7 +168,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         bytes[OFFSET_IS_DATA] = (byte) (isData ? 1 : 0);
         //the remaining part of the byte array is already filled, so we are done.
 
-        return newResponsePacket(bytes, urgent);
+        return newResponsePacket(bytes, length, urgent);
     }
 
     public void sendBackupAck(ServerConnectionManager connectionManager, Address target, long callId, boolean urgent) {
@@ -200,7 +205,11 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     private Packet newResponsePacket(byte[] bytes, boolean urgent) {
-        Packet packet = new Packet(bytes, -1)
+        return newResponsePacket(bytes, bytes.length, urgent);
+    }
+
+    private Packet newResponsePacket(byte[] bytes, int length, boolean urgent) {
+        Packet packet = new Packet(bytes, length, -1)
                 .setPacketType(OPERATION)
                 .raiseFlags(FLAG_OP_RESPONSE);
 
@@ -363,6 +363,30 @@ public final class ClusterProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.io.write.through", true);
 
+    /**
+     * Enables gathering writes for the outbound pipelines of the networking.
+     * <p>
+     * Normally every write to the socket is done from a single buffer. When
+     * gathering writes are enabled and more frames are pending than fit in the
+     * buffer, the frames are encoded into multiple buffers that are written
+     * to the socket with a single gathering write. This reduces the number of
+     * writes when many frames are queued, e.g. for many small responses.
+     * <p>
+     * It is disabled by default.
+     *
+     * @see #IO_WRITE_GATHERING_BUDGET_KB
+     */
+    public static final HazelcastProperty IO_WRITE_GATHERING_ENABLED
+            = new HazelcastProperty("hazelcast.io.write.gathering", false);
+
+    /**
+     * The maximum number of bytes, in kilobytes, that is gathered for a single
+     * gathering write. Only used when {@link #IO_WRITE_GATHERING_ENABLED} is
+     * enabled.
+     */
+    public static final HazelcastProperty IO_WRITE_GATHERING_BUDGET_KB
+            = new HazelcastProperty("hazelcast.io.write.gathering.budget.kb", 512);
+
     /**
      * Property needed for concurrency detection so that write through can be
      * done correctly.
@@ -1283,6 +1307,19 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS
             = new HazelcastProperty("hazelcast.map.invalidation.batchfrequency.seconds", 10, SECONDS);
 
+    /**
+     * Defines whether Near Cache invalidation batches are compacted before they are sent.
+     * <p>
+     * A compacted batch keeps only the latest invalidation of each key plus the
+     * invalidation with the lowest sequence of each partition, so receivers can
+     * still tell which partition sequences the batch covers. Receivers of older
+     * versions count the dropped sequences as missed, which makes them repair
+     * their Near Caches earlier than needed; enable this only when all clients
+     * and members handle invalidation batches as sequence ranges.
+     */
+    public static final HazelcastProperty MAP_INVALIDATION_MESSAGE_BATCH_COMPACTION_ENABLED
+            = new HazelcastProperty("hazelcast.map.invalidation.batch.compaction.enabled", false);
+
     /**
      * Setting this capacity is valid if you set {@code writeCoalescing} to {@code false}
      * (see {@link com.hazelcast.config.MapStoreConfig#setWriteCoalescing(boolean)}).
@@ -1505,6 +1542,19 @@ public final class ClusterProperty {
     public static final HazelcastProperty CACHE_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS
             = new HazelcastProperty("hazelcast.cache.invalidation.batchfrequency.seconds", 10, SECONDS);
 
+    /**
+     * Defines whether cache invalidation batches are compacted before they are sent.
+     * <p>
+     * A compacted batch keeps only the latest invalidation of each key plus the
+     * invalidation with the lowest sequence of each partition, so receivers can
+     * still tell which partition sequences the batch covers. Receivers of older
+     * versions count the dropped sequences as missed, which makes them repair
+     * their Near Caches earlier than needed; enable this only when all clients
+     * and members handle invalidation batches as sequence ranges.
+     */
+    public static final HazelcastProperty CACHE_INVALIDATION_MESSAGE_BATCH_COMPACTION_ENABLED
+            = new HazelcastProperty("hazelcast.cache.invalidation.batch.compaction.enabled", false);
+
     /**
      * Forces the JCache provider, which can have values client or server, to
      * force the provider type. If not provided, the provider will be client or
@@ -1590,6 +1640,30 @@ public final class ClusterProperty {
     public static final HazelcastProperty EVENT_SYNC_TIMEOUT_MILLIS
             = new HazelcastProperty("hazelcast.event.sync.timeout.millis", 5000, MILLISECONDS);
 
+    /**
+     * The maximum number of remote events which are sent to a subscriber in a
+     * single packet. Events are batched per listener registration and order key,
+     * so the order of the events published with the same order key (e.g. the
+     * events of the same map entry) is preserved. Batching reduces the number of
+     * network packets and event executor tasks when many events are published in
+     * a short time, e.g. by a bulk {@code putAll} with listeners.
+     * <p>
+     * The value {@code 1} (the default) disables batching. Batching should only
+     * be enabled when all members of the cluster support it.
+     *
+     * @see #EVENT_BATCH_LINGER_MILLIS
+     */
+    public static final HazelcastProperty EVENT_BATCH_MAX_SIZE
+            = new HazelcastProperty("hazelcast.event.batch.max.size", 1);
+
+    /**
+     * The maximum amount of time a remote event is held back to be batched
+     * with subsequent events when the batch is not full yet. Only used when
+     * {@link #EVENT_BATCH_MAX_SIZE} is larger than {@code 1}.
+     */
+    public static final HazelcastProperty EVENT_BATCH_LINGER_MILLIS
+            = new HazelcastProperty("hazelcast.event.batch.linger.millis", 5, MILLISECONDS);
+
     /**
      * Enable or disable the sending of phone home data to Hazelcast’s phone home
      * server.
@@ -1783,6 +1857,40 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.jet.idle.cooperative.max.microseconds", 500, MICROSECONDS)
             .setDeprecatedName("jet.idle.cooperative.max.microseconds");
 
+    /**
+     * The maximum number of busy-spin iterations of an idle cooperative
+     * worker thread before it yields and then parks for the times configured
+     * by {@link #JET_IDLE_COOPERATIVE_MIN_MICROSECONDS} and {@link
+     * #JET_IDLE_COOPERATIVE_MAX_MICROSECONDS}. Each thread adapts its spin
+     * limit up to this value: it spins longer if new work usually arrives
+     * before it parks and shorter otherwise. Spinning decreases the latency on
+     * machines with spare cores at the cost of a higher idle CPU usage.
+     * <p>
+     * The default value is {@code 0}, the threads park right away.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_IDLE_COOPERATIVE_MAX_SPINS
+            = new HazelcastProperty("hazelcast.jet.idle.cooperative.max.spins", 0);
+
+    /**
+     * If enabled, a cooperative worker thread that is idle asks the other
+     * cooperative threads for a tasklet. A thread that runs more than one
+     * busy tasklet hands one of them over between two tasklet calls, so a
+     * tasklet is still called by a single thread at a time. This improves the
+     * throughput of skewed jobs, whose busy tasklets would otherwise saturate
+     * some threads while the others are idle.
+     * <p>
+     * The number of tasklets a thread took over is reported by the {@code
+     * stealCount} metric of the cooperative worker.
+     * <p>
+     * The default value is {@code false}.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_WORK_STEALING
+            = new HazelcastProperty("hazelcast.jet.cooperative.work.stealing", false);
+
     /**
      * The minimum time in microseconds the non-cooperative worker threads will
      * sleep if none of the tasklets made any progress. Lower values increase
@@ -1839,6 +1947,91 @@ public final class ClusterProperty {
     public static final HazelcastProperty PROCESSOR_CUSTOM_LIB_DIR
             = new HazelcastProperty("hazelcast.jet.custom.lib.dir", "custom-lib");
 
+    /**
+     * The number of records a grouping or sorting Jet processor keeps in
+     * memory before it spills them to a file in the {@linkplain
+     * #JET_SPILL_DIR spill directory}. Spilled records don't count toward
+     * {@link com.hazelcast.jet.config.InstanceConfig#setMaxProcessorAccumulatedRecords
+     * maxProcessorAccumulatedRecords}, so a batch job whose state doesn't fit
+     * the heap completes at the cost of disk I/O instead of failing.
+     * <p>
+     * The threshold is a number of records, not a memory budget: the sizes of
+     * the records are not estimated, so the heap used by a processor before
+     * it spills depends on the size of its keys, accumulators or items. Set
+     * the threshold so that this many records of the expected size, times
+     * the number of grouping and sorting processors on a member, fit the
+     * heap.
+     * <p>
+     * Spilled keys, accumulators and items are stored in serialized form, so
+     * they must be serializable. Grouping spills only if the aggregate
+     * operation has a combine function. A value of zero or less disables
+     * spilling, which is the default.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SPILL_THRESHOLD_RECORDS
+            = new HazelcastProperty("hazelcast.jet.spill.threshold.records", -1L);
+
+    /**
+     * The directory in which Jet processors create their spill files, see
+     * {@link #JET_SPILL_THRESHOLD_RECORDS}. The files are deleted when the
+     * processor is closed. The default is the {@code java.io.tmpdir}
+     * directory.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SPILL_DIR
+            = new HazelcastProperty("hazelcast.jet.spill.dir");
+
+    /**
+     * Enables incremental snapshots of Jet jobs and sets how often a full
+     * snapshot is taken. When set to a value {@code n > 1}, an automatic
+     * snapshot writes only the snapshot entries whose value changed since the
+     * previous snapshot of the execution, and tombstones for the entries that
+     * were removed. Every {@code n}-th snapshot, as well as the first snapshot
+     * of each execution and the snapshot after a failed one, is a full
+     * snapshot that replaces the chain of incremental snapshots. Restoring
+     * reads the full snapshot and the incremental snapshots taken after it.
+     * <p>
+     * Exported snapshots are always full. Entries with keys other than
+     * {@link com.hazelcast.jet.core.BroadcastKey} must be saved by a single
+     * processor of a vertex. All members must be of version 5.4 or newer. A
+     * value of one or less disables incremental snapshots, which is the
+     * default.
+     * <p>
+     * Incremental snapshots trade snapshot size for heap: each processor
+     * keeps an on-heap copy of the serialized key of every entry it saved to
+     * the previous snapshot, and a hash of its value, so that it can detect
+     * the changed entries and write tombstones for the removed ones. With
+     * {@link #JET_SNAPSHOT_INCREMENTAL_COMPARE_VALUES} enabled, a copy of
+     * each serialized value is kept as well, that is, a full serialized copy
+     * of the processor's saved state. When restoring, the latest values of
+     * all the entries in the incremental snapshots are collected in a map on
+     * the heap before the full snapshot is read, so a long chain of
+     * incremental snapshots with many changed keys needs a comparable amount
+     * of memory.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_FULL_SNAPSHOT_INTERVAL
+            = new HazelcastProperty("hazelcast.jet.snapshot.full.snapshot.interval", 0);
+
+    /**
+     * Controls how incremental snapshots (see {@link
+     * #JET_SNAPSHOT_FULL_SNAPSHOT_INTERVAL}) detect the changed snapshot
+     * entries. By default, only a 64-bit hash of each saved value is kept
+     * and an entry whose value has the same hash as in the previous snapshot
+     * is treated as unchanged. A hash collision then makes the incremental
+     * snapshot miss that change, which is very unlikely but not impossible.
+     * When set to {@code true}, the serialized values of the previous
+     * snapshot are kept as well and are compared when the hashes match, at
+     * the cost of keeping a copy of the saved state in memory.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_SNAPSHOT_INCREMENTAL_COMPARE_VALUES
+            = new HazelcastProperty("hazelcast.jet.snapshot.incremental.compare.values", false);
+
     /**
      * Controls whether cluster emojis can be used in log messages. This is just a hint for components calling the logging.
      *
@@ -581,6 +581,7 @@ public class ClientConfigXmlGeneratorTest extends HazelcastTestSupport {
             .setTimeToLiveSeconds(randomInt())
             .setMaxIdleSeconds(randomInt())
             .setLocalUpdatePolicy(CACHE_ON_UPDATE)
+            .setAdmissionPolicy(NearCacheConfig.AdmissionPolicy.TINY_LFU)
             .setName(name);
         return expected;
     }
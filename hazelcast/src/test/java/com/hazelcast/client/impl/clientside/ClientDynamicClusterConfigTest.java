@@ -17,12 +17,16 @@
 package com.hazelcast.client.impl.clientside;
 
 import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.dynamicconfig.DynamicConfigTest;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
 import org.junit.After;
+import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
@@ -47,4 +51,12 @@ public class ClientDynamicClusterConfigTest extends DynamicConfigTest {
     public void tearDown() {
         factory.terminateAll();
     }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testMapConfig_withNearCacheAdmissionPolicy_thenFails() {
+        MapConfig config = new MapConfig(randomName())
+                .setNearCacheConfig(new NearCacheConfig().setAdmissionPolicy(NearCacheConfig.AdmissionPolicy.TINY_LFU));
+
+        getDriver().getConfig().addMapConfig(config);
+    }
 }
@@ -1450,6 +1450,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "      <max-idle-seconds>92</max-idle-seconds>\n"
                 + "      <invalidate-on-change>false</invalidate-on-change>\n"
                 + "      <cache-local-entries>false</cache-local-entries>\n"
+                + "      <admission-policy>TINY_LFU</admission-policy>\n"
                 + "      <eviction eviction-policy=\"LRU\" max-size-policy=\"ENTRY_COUNT\" size=\"3333\"/>\n"
                 + "    </near-cache>\n"
                 + "  </map>\n"
@@ -1467,6 +1468,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
         assertEquals(LRU, nearCacheConfig.getEvictionConfig().getEvictionPolicy());
         assertEquals(ENTRY_COUNT, nearCacheConfig.getEvictionConfig().getMaxSizePolicy());
         assertEquals(3333, nearCacheConfig.getEvictionConfig().getSize());
+        assertEquals(NearCacheConfig.AdmissionPolicy.TINY_LFU, nearCacheConfig.getAdmissionPolicy());
         assertEquals("test", nearCacheConfig.getName());
     }
 
@@ -1445,6 +1445,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "        max-idle-seconds: 92\n"
                 + "        invalidate-on-change: false\n"
                 + "        cache-local-entries: false\n"
+                + "        admission-policy: TINY_LFU\n"
                 + "        eviction:\n"
                 + "          eviction-policy: LRU\n"
                 + "          max-size-policy: ENTRY_COUNT\n"
@@ -1462,6 +1463,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
         assertEquals(LRU, nearCacheConfig.getEvictionConfig().getEvictionPolicy());
         assertEquals(ENTRY_COUNT, nearCacheConfig.getEvictionConfig().getMaxSizePolicy());
         assertEquals(3333, nearCacheConfig.getEvictionConfig().getSize());
+        assertEquals(NearCacheConfig.AdmissionPolicy.TINY_LFU, nearCacheConfig.getAdmissionPolicy());
         assertEquals("test", nearCacheConfig.getName());
     }
 
@@ -41,7 +41,6 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.util.Arrays;
-import java.util.Map;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Future;
 
@@ -450,8 +449,8 @@ public class DemoteDataMemberTest extends HazelcastTestSupport {
         InvocationRegistry invocationRegistry = operationService.getInvocationRegistry();
 
         assertTrueEventually(() -> {
-            for (Map.Entry<Long, Invocation> entry : invocationRegistry.entrySet()) {
-                if (entry.getValue().op instanceof DemoteDataMemberOp) {
+            for (Invocation invocation : invocationRegistry) {
+                if (invocation.op instanceof DemoteDataMemberOp) {
                     return;
                 }
             }
@@ -41,7 +41,6 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
-import java.util.Map;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -417,8 +416,8 @@ public class PromoteLiteMemberTest extends HazelcastTestSupport {
         InvocationRegistry invocationRegistry = operationService.getInvocationRegistry();
 
         assertTrueEventually(() -> {
-            for (Map.Entry<Long, Invocation> entry : invocationRegistry.entrySet()) {
-                if (entry.getValue().op instanceof PromoteLiteMemberOp) {
+            for (Invocation invocation : invocationRegistry) {
+                if (invocation.op instanceof PromoteLiteMemberOp) {
                     return;
                 }
             }
@@ -246,6 +246,7 @@ public abstract class AbstractDynamicConfigGeneratorTest extends HazelcastTestSu
                 .setCacheLocalEntries(true)
                 .setInvalidateOnChange(true)
                 .setLocalUpdatePolicy(NearCacheConfig.LocalUpdatePolicy.INVALIDATE)
+                .setAdmissionPolicy(NearCacheConfig.AdmissionPolicy.TINY_LFU)
                 .setTimeToLiveSeconds(10)
                 .setEvictionConfig(evictionConfig())
                 .setSerializeKeys(true);
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PowerOfTwoMemoryAllocatorTest {
+
+    private static final int MIN_BLOCK_SIZE = 16;
+    private static final int SLAB_SIZE = 1024;
+    private static final int MAX_COMMITTED_MEMORY = 16 * SLAB_SIZE;
+
+    private final AtomicLong committedMemory = new AtomicLong();
+    private PowerOfTwoMemoryAllocator allocator;
+
+    @Before
+    public void setUp() {
+        allocator = new PowerOfTwoMemoryAllocator(MIN_BLOCK_SIZE, SLAB_SIZE, committedMemory, MAX_COMMITTED_MEMORY);
+    }
+
+    @After
+    public void tearDown() {
+        allocator.dispose();
+    }
+
+    @Test
+    public void testAllocate_roundsUpToSizeClass() {
+        allocator.allocate(1);
+        assertEquals(MIN_BLOCK_SIZE, allocator.getUsedMemory());
+
+        allocator.allocate(17);
+        assertEquals(MIN_BLOCK_SIZE + 32, allocator.getUsedMemory());
+        assertEquals(SLAB_SIZE * 2, allocator.getCommittedMemory());
+        assertEquals(SLAB_SIZE * 2, committedMemory.get());
+    }
+
+    @Test
+    public void testAllocate_returnsZeroedMemory() {
+        long address = allocator.allocate(64);
+        MEM.setMemory(address, 64, (byte) 0xFF);
+        allocator.free(address, 64);
+
+        long reused = allocator.allocate(64);
+
+        assertEquals(address, reused);
+        for (int i = 0; i < 64; i++) {
+            assertEquals(0, MEM.getByte(reused + i));
+        }
+    }
+
+    @Test
+    public void testFree_reusesBlocksOfSameSizeClass() {
+        long first = allocator.allocate(100);
+        long second = allocator.allocate(100);
+        allocator.free(first, 100);
+        allocator.free(second, 100);
+
+        assertEquals(second, allocator.allocate(120));
+        assertEquals(first, allocator.allocate(128));
+        assertEquals(256, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testReallocate_sameSizeClass_staysInPlace() {
+        long address = allocator.allocate(40);
+        MEM.putLong(address, 42L);
+
+        assertEquals(address, allocator.reallocate(address, 40, 60));
+        assertEquals(42L, MEM.getLong(address));
+    }
+
+    @Test
+    public void testReallocate_differentSizeClass_copiesContent() {
+        long address = allocator.allocate(16);
+        MEM.putLong(address, 42L);
+
+        long newAddress = allocator.reallocate(address, 16, 200);
+
+        assertNotEquals(address, newAddress);
+        assertEquals(42L, MEM.getLong(newAddress));
+        assertEquals(256, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testLargeBlocks() {
+        long address = allocator.allocate(SLAB_SIZE + 1);
+        MEM.putByte(address + SLAB_SIZE, (byte) 1);
+        assertEquals(SLAB_SIZE + 1, allocator.getCommittedMemory());
+
+        allocator.free(address, SLAB_SIZE + 1);
+
+        assertEquals(0, allocator.getUsedMemory());
+        assertEquals(0, committedMemory.get());
+    }
+
+    @Test
+    public void testLimit_isSharedBetweenAllocators() {
+        PowerOfTwoMemoryAllocator other = new PowerOfTwoMemoryAllocator(MIN_BLOCK_SIZE, SLAB_SIZE,
+                committedMemory, MAX_COMMITTED_MEMORY);
+        try {
+            other.allocate(MAX_COMMITTED_MEMORY - SLAB_SIZE);
+
+            allocator.allocate(SLAB_SIZE);
+            assertThrows(NativeOutOfMemoryError.class, () -> allocator.allocate(MIN_BLOCK_SIZE));
+            assertEquals(MAX_COMMITTED_MEMORY, committedMemory.get());
+        } finally {
+            other.dispose();
+        }
+        assertEquals(SLAB_SIZE, committedMemory.get());
+    }
+
+    @Test
+    public void testDispose_releasesCommittedMemory() {
+        for (int i = 0; i < 100; i++) {
+            allocator.allocate(MIN_BLOCK_SIZE << (i % 4));
+        }
+        allocator.allocate(2 * SLAB_SIZE);
+
+        allocator.dispose();
+
+        assertEquals(0, committedMemory.get());
+        assertEquals(0, allocator.getUsedMemory());
+        assertEquals(0, allocator.getCommittedMemory());
+    }
+}
@@ -37,6 +37,9 @@ import org.junit.runners.Parameterized.UseParametersRunnerFactory;
 import java.util.Collection;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParametrizedRunner.class)
@@ -150,6 +153,60 @@ public class NearCacheRecordStoreTest extends NearCacheRecordStoreTestSupport {
         doEvictionWithEntryCountMaxSizePolicy(inMemoryFormat, null);
     }
 
+    @Test
+    public void evictionTriggeredAndHandledSuccessfullyWithTinyLfuAdmissionPolicy() {
+        int maxSize = DEFAULT_RECORD_COUNT / 2;
+
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, inMemoryFormat)
+                .setAdmissionPolicy(NearCacheConfig.AdmissionPolicy.TINY_LFU)
+                .setEvictionConfig(new EvictionConfig().setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT).setSize(maxSize));
+
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, inMemoryFormat);
+
+        for (int i = 0; i < DEFAULT_RECORD_COUNT; i++) {
+            for (int j = 0; j <= i % 4; j++) {
+                nearCacheRecordStore.get(i);
+            }
+            nearCacheRecordStore.put(i, null, "Record-" + i, null);
+            nearCacheRecordStore.doEviction(false);
+            assertTrue(maxSize >= nearCacheRecordStore.size());
+        }
+    }
+
+    @Test
+    public void tinyLfuAdmissionPolicy_admitsNewKeyOnlyWhenAccessedMoreFrequently() {
+        int maxSize = 100;
+
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, inMemoryFormat)
+                .setAdmissionPolicy(NearCacheConfig.AdmissionPolicy.TINY_LFU)
+                .setEvictionConfig(new EvictionConfig().setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT).setSize(maxSize));
+
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, inMemoryFormat);
+
+        for (int i = 0; i < maxSize; i++) {
+            for (int j = 0; j < 3; j++) {
+                nearCacheRecordStore.get(i);
+            }
+            nearCacheRecordStore.put(i, null, "Record-" + i, null);
+        }
+        assertEquals(maxSize, nearCacheRecordStore.size());
+
+        // a key accessed only once is not admitted
+        int newKey = maxSize;
+        nearCacheRecordStore.get(newKey);
+        nearCacheRecordStore.put(newKey, null, "Record-" + newKey, null);
+        assertNull(nearCacheRecordStore.getRecord(newKey));
+        assertEquals(maxSize, nearCacheRecordStore.size());
+
+        // once it's accessed more frequently than the others, it's admitted and an entry is evicted
+        for (int j = 0; j < 5; j++) {
+            nearCacheRecordStore.get(newKey);
+        }
+        nearCacheRecordStore.put(newKey, null, "Record-" + newKey, null);
+        assertNotNull(nearCacheRecordStore.getRecord(newKey));
+        assertEquals(maxSize, nearCacheRecordStore.size());
+    }
+
     private void doEvictionWithEntryCountMaxSizePolicy(InMemoryFormat inMemoryFormat, EvictionPolicy evictionPolicy) {
         int maxSize = DEFAULT_RECORD_COUNT / 2;
 
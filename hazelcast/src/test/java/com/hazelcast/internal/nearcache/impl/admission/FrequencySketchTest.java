@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.admission;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nearcache.impl.admission.FrequencySketch.MAX_FREQUENCY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FrequencySketchTest {
+
+    @Test
+    public void testFrequency_ofUnknownItem() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        assertEquals(0, sketch.frequency(42));
+    }
+
+    @Test
+    public void testIncrement() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        for (int i = 1; i <= 5; i++) {
+            sketch.increment(42);
+            assertEquals(i, sketch.frequency(42));
+        }
+    }
+
+    @Test
+    public void testIncrement_saturates() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        for (int i = 0; i < 2 * MAX_FREQUENCY; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(MAX_FREQUENCY, sketch.frequency(42));
+    }
+
+    @Test
+    public void testReset_halvesFrequencies() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(42);
+        }
+
+        // other items are incremented until the sample size is reached
+        for (int item = 1000; item < 1000 + sketch.sampleSize(); item++) {
+            sketch.increment(item);
+        }
+
+        assertTrue(sketch.frequency(42) < 10);
+    }
+
+    @Test
+    public void testFrequentItems_areEstimatedHigherThanRareItems() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int item = 0; item < 1000; item++) {
+            int count = item < 100 ? 10 : 1;
+            for (int i = 0; i < count; i++) {
+                sketch.increment(item);
+            }
+        }
+
+        int misestimated = 0;
+        for (int item = 100; item < 1000; item++) {
+            if (sketch.frequency(item) >= sketch.frequency(item % 100)) {
+                misestimated++;
+            }
+        }
+        assertTrue("Misestimated items: " + misestimated, misestimated < 10);
+    }
+}
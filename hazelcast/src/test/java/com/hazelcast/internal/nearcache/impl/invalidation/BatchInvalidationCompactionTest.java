@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.invalidation;
+
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BatchInvalidationCompactionTest {
+
+    private static final String NAME = "test";
+    private static final UUID SOURCE_UUID = UUID.randomUUID();
+    private static final UUID PARTITION_0_UUID = UUID.randomUUID();
+    private static final UUID PARTITION_1_UUID = UUID.randomUUID();
+
+    private InternalSerializationService serializationService;
+    private NearCache nearCache;
+    private RepairingHandler repairingHandler;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        nearCache = mock(NearCache.class);
+        when(nearCache.isSerializeKeys()).thenReturn(true);
+        repairingHandler = new RepairingHandler(Logger.getLogger(getClass()), UUID.randomUUID(), NAME, nearCache,
+                serializationService, new KeyParityPartitionService());
+    }
+
+    @Test
+    public void compact_keepsLatestInvalidationPerKey() {
+        Invalidation first = invalidation(0, PARTITION_0_UUID, 1);
+        Invalidation other = invalidation(2, PARTITION_0_UUID, 2);
+        Invalidation latest = invalidation(0, PARTITION_0_UUID, 3);
+
+        List<Invalidation> compacted = BatchInvalidator.compact(asList(first, other, latest));
+
+        // the first one is kept as it holds the lowest sequence of the partition
+        assertEquals(asList(first, other, latest), compacted);
+
+        Invalidation anchor = invalidation(2, PARTITION_0_UUID, 1);
+        Invalidation superseded = invalidation(0, PARTITION_0_UUID, 2);
+        latest = invalidation(0, PARTITION_0_UUID, 3);
+
+        compacted = BatchInvalidator.compact(asList(anchor, superseded, latest));
+
+        assertEquals(asList(anchor, latest), compacted);
+    }
+
+    @Test
+    public void compact_groupsInvalidationsByPartition() {
+        Invalidation p0s1 = invalidation(0, PARTITION_0_UUID, 1);
+        Invalidation p1s1 = invalidation(1, PARTITION_1_UUID, 1);
+        Invalidation p0s2 = invalidation(2, PARTITION_0_UUID, 2);
+        Invalidation p1s2 = invalidation(1, PARTITION_1_UUID, 2);
+        Invalidation p0s3 = invalidation(2, PARTITION_0_UUID, 3);
+
+        List<Invalidation> compacted = BatchInvalidator.compact(asList(p0s1, p1s1, p0s2, p1s2, p0s3));
+
+        assertEquals(asList(p0s1, p0s3, p1s1, p1s2), compacted);
+    }
+
+    @Test
+    public void compactBatch_survivesSerialization() {
+        List<Invalidation> invalidations = new ArrayList<>();
+        for (int sequence = 1; sequence <= 10; sequence++) {
+            invalidations.add(invalidation(sequence % 4, sequence % 2 == 0 ? PARTITION_0_UUID : PARTITION_1_UUID, sequence));
+        }
+        BatchNearCacheInvalidation batch = new BatchNearCacheInvalidation(NAME, BatchInvalidator.compact(invalidations));
+
+        BatchNearCacheInvalidation copy = serializationService.toObject(serializationService.toData(batch));
+
+        assertEquals(NAME, copy.getName());
+        assertEquals(batch.getInvalidations().size(), copy.getInvalidations().size());
+        for (int i = 0; i < batch.getInvalidations().size(); i++) {
+            Invalidation expected = batch.getInvalidations().get(i);
+            Invalidation actual = copy.getInvalidations().get(i);
+            assertEquals(NAME, actual.getName());
+            assertEquals(expected.getKey(), actual.getKey());
+            assertEquals(expected.getSourceUuid(), actual.getSourceUuid());
+            assertEquals(expected.getPartitionUuid(), actual.getPartitionUuid());
+            assertEquals(expected.getSequence(), actual.getSequence());
+        }
+    }
+
+    @Test
+    public void repairingHandler_doesNotCountCompactedSequencesAsMissed() {
+        List<Invalidation> invalidations = new ArrayList<>();
+        for (int sequence = 1; sequence <= 10; sequence++) {
+            invalidations.add(invalidation(0, PARTITION_0_UUID, sequence));
+        }
+        List<Invalidation> compacted = BatchInvalidator.compact(invalidations);
+        assertEquals(2, compacted.size());
+
+        handle(compacted);
+
+        MetaDataContainer metaData = repairingHandler.getMetaDataContainer(0);
+        assertEquals(10, metaData.getSequence());
+        assertEquals(0, metaData.getMissedSequenceCount());
+        verify(nearCache, times(2)).invalidate(compacted.get(0).getKey());
+    }
+
+    @Test
+    public void repairingHandler_countsGapBeforeBatchAsMissed() {
+        handle(asList(invalidation(0, PARTITION_0_UUID, 1)));
+        handle(asList(invalidation(0, PARTITION_0_UUID, 5), invalidation(2, PARTITION_0_UUID, 8)));
+
+        MetaDataContainer metaData = repairingHandler.getMetaDataContainer(0);
+        assertEquals(8, metaData.getSequence());
+        assertEquals(3, metaData.getMissedSequenceCount());
+    }
+
+    @Test
+    public void repairingHandler_tracksSequenceRangePerPartition() {
+        handle(asList(invalidation(0, PARTITION_0_UUID, 1), invalidation(1, PARTITION_1_UUID, 4),
+                invalidation(2, PARTITION_0_UUID, 3)));
+
+        assertSame(PARTITION_0_UUID, repairingHandler.getMetaDataContainer(0).getUuid());
+        assertEquals(3, repairingHandler.getMetaDataContainer(0).getSequence());
+        assertEquals(0, repairingHandler.getMetaDataContainer(0).getMissedSequenceCount());
+        assertSame(PARTITION_1_UUID, repairingHandler.getMetaDataContainer(1).getUuid());
+        assertEquals(4, repairingHandler.getMetaDataContainer(1).getSequence());
+        assertEquals(3, repairingHandler.getMetaDataContainer(1).getMissedSequenceCount());
+    }
+
+    private void handle(List<Invalidation> invalidations) {
+        List<Data> keys = new ArrayList<>();
+        List<UUID> sourceUuids = new ArrayList<>();
+        List<UUID> partitionUuids = new ArrayList<>();
+        List<Long> sequences = new ArrayList<>();
+        for (Invalidation invalidation : invalidations) {
+            keys.add(invalidation.getKey());
+            sourceUuids.add(invalidation.getSourceUuid());
+            partitionUuids.add(invalidation.getPartitionUuid());
+            sequences.add(invalidation.getSequence());
+        }
+        repairingHandler.handle(keys, sourceUuids, partitionUuids, sequences);
+    }
+
+    private Invalidation invalidation(int key, UUID partitionUuid, long sequence) {
+        Data keyData = serializationService.toData(key);
+        return new SingleNearCacheInvalidation(keyData, NAME, SOURCE_UUID, partitionUuid, sequence);
+    }
+
+    /**
+     * Even keys belong to partition 0, odd keys to partition 1.
+     */
+    private class KeyParityPartitionService implements MinimalPartitionService {
+
+        @Override
+        public int getPartitionId(Data key) {
+            return getPartitionId((Object) key);
+        }
+
+        @Override
+        public int getPartitionId(Object key) {
+            Object object = key instanceof Data ? serializationService.toObject(key) : key;
+            return object instanceof Integer ? (Integer) object % 2 : 0;
+        }
+
+        @Override
+        public int getPartitionCount() {
+            return 2;
+        }
+    }
+}
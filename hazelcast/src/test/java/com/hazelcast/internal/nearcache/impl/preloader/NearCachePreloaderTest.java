@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCachePreloaderTest extends HazelcastTestSupport {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final NearCacheStatsImpl stats = new NearCacheStatsImpl();
+    private final List<Set<Object>> loadedBatches = new ArrayList<>();
+
+    private NearCachePreloaderConfig preloaderConfig;
+    private DataStructureAdapter<Object, Object> adapter;
+    private NearCachePreloader<Data> preloader;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        preloaderConfig = new NearCachePreloaderConfig(folder.getRoot().getAbsolutePath()).setEnabled(true);
+        adapter = mock(DataStructureAdapter.class);
+        when(adapter.getAll(anySet())).thenAnswer(invocation -> {
+            loadedBatches.add(new HashSet<>((Set<Object>) invocation.getArgument(0)));
+            return null;
+        });
+        preloader = newPreloader();
+    }
+
+    @After
+    public void tearDown() {
+        preloader.destroy();
+    }
+
+    @Test
+    public void testStoreAndLoad() {
+        preloader.storeKeys(keys(0, 2500).iterator());
+        assertEquals(2500, stats.getLastPersistenceKeyCount());
+
+        restartAndLoad(null);
+
+        assertEquals(toSet(0, 2500), loadedKeys());
+        assertEquals(3, loadedBatches.size());
+    }
+
+    @Test
+    public void testStoreAndLoad_withEmptyKeySet() {
+        preloader.storeKeys(keys(0, 0).iterator());
+
+        assertEquals(0, stats.getLastPersistenceKeyCount());
+        assertEquals(0, stats.getLastPersistenceWrittenBytes());
+        assertFalse(storeFile().exists());
+    }
+
+    @Test
+    public void testStoreAndLoad_withAddedAndRemovedKeys() {
+        preloader.storeKeys(keys(0, 100).iterator());
+        long fullStoreFileSize = storeFile().length();
+
+        // only the added and removed keys are appended
+        preloader.storeKeys(keys(10, 110).iterator());
+        assertEquals(100, stats.getLastPersistenceKeyCount());
+        assertTrue(storeFile().length() < 2 * fullStoreFileSize);
+
+        restartAndLoad(null);
+
+        assertEquals(toSet(10, 110), loadedKeys());
+    }
+
+    @Test
+    public void testStoreAfterLoad_appendsToKeyLog() {
+        preloader.storeKeys(keys(0, 100).iterator());
+        restartAndLoad(null);
+        long storeFileSize = storeFile().length();
+
+        preloader.storeKeys(keys(0, 100).iterator());
+
+        assertEquals(storeFileSize, storeFile().length());
+    }
+
+    @Test
+    public void testStore_compactsKeyLog() {
+        preloader.storeKeys(keys(0, 100).iterator());
+        long fullStoreFileSize = storeFile().length();
+
+        for (int i = 1; i <= 5; i++) {
+            preloader.storeKeys(keys(100 * i, 100 * i + 100).iterator());
+        }
+
+        assertTrue(storeFile().length() <= 3 * fullStoreFileSize);
+        restartAndLoad(null);
+        assertEquals(toSet(500, 600), loadedKeys());
+    }
+
+    @Test
+    public void testLoad_ignoresTruncatedRecord() throws IOException {
+        preloader.storeKeys(keys(0, 100).iterator());
+        try (FileOutputStream out = new FileOutputStream(storeFile(), true)) {
+            // the length field of a key without the key
+            out.write(new byte[]{0, 0, 0, 42, 1, 2});
+        }
+
+        restartAndLoad(null);
+
+        assertEquals(toSet(0, 100), loadedKeys());
+    }
+
+    @Test
+    public void testLoad_groupsKeysByPartition() {
+        preloader.storeKeys(keys(0, 5000).iterator());
+
+        ToIntFunction<Data> partitionIdFunction = key -> serializationService.<Integer>toObject(key) % 5;
+        restartAndLoad(partitionIdFunction);
+
+        assertEquals(toSet(0, 5000), loadedKeys());
+        for (Set<Object> batch : loadedBatches) {
+            Set<Integer> partitionIds = batch.stream().map(key -> (Integer) key % 5).collect(Collectors.toSet());
+            assertEquals(1, partitionIds.size());
+        }
+    }
+
+    @Test
+    public void testStoreAndLoad_withCollidingKeyHashes_preloadsOneOfTheKeys() {
+        // keys are identified by their 64-bit hash only
+        Data key = new CollidingHashData(serializationService.toData(1));
+        Data collidingKey = new CollidingHashData(serializationService.toData(2));
+        preloader.storeKeys(List.of(key, collidingKey).iterator());
+        assertEquals(1, stats.getLastPersistenceKeyCount());
+
+        restartAndLoad(null);
+
+        assertEquals(Set.of(1), loadedKeys());
+    }
+
+    private void restartAndLoad(ToIntFunction<Data> partitionIdFunction) {
+        preloader.destroy();
+        preloader = newPreloader();
+        preloader.loadKeys(adapter, partitionIdFunction);
+    }
+
+    private NearCachePreloader<Data> newPreloader() {
+        return new NearCachePreloader<>("nearCache", preloaderConfig, stats, serializationService);
+    }
+
+    private File storeFile() {
+        return new File(folder.getRoot(), "nearCache-nearCache.store");
+    }
+
+    private List<Data> keys(int from, int to) {
+        return IntStream.range(from, to).mapToObj(serializationService::toData).map(Data.class::cast)
+                .collect(Collectors.toList());
+    }
+
+    private Set<Object> loadedKeys() {
+        Set<Object> keys = new HashSet<>();
+        loadedBatches.forEach(keys::addAll);
+        return keys;
+    }
+
+    private static Set<Object> toSet(int from, int to) {
+        return IntStream.range(from, to).boxed().collect(Collectors.toSet());
+    }
+
+    private static final class CollidingHashData extends HeapData {
+
+        CollidingHashData(Data data) {
+            super(data.toByteArray());
+        }
+
+        @Override
+        public long hash64() {
+            return 42;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.tcp.TcpServerConnection;
+import com.hazelcast.internal.server.tcp.TcpServerConnection_AbstractBasicTest;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class Gathering_TcpIpConnection_BasicTest extends TcpServerConnection_AbstractBasicTest {
+
+    private static final int PACKET_COUNT = 200;
+    private static final int PAYLOAD_SIZE = 64 * 1024;
+
+    @Before
+    public void setup() throws Exception {
+        networkingFactory = new Gathering_NioNetworkingFactory();
+        super.setup();
+    }
+
+    @Test
+    public void write_whenManyPackets_thenWrittenInOrderWithGatheringWrites() {
+        List<Packet> received = Collections.synchronizedList(new ArrayList<>());
+        serverContextB.packetConsumer = received::add;
+        TcpServerConnection c = connect(tcpServerA, addressB);
+
+        List<Packet> sent = new ArrayList<>(PACKET_COUNT);
+        for (int k = 0; k < PACKET_COUNT; k++) {
+            byte[] payload = new byte[PAYLOAD_SIZE];
+            payload[k % PAYLOAD_SIZE] = (byte) k;
+            Packet packet = new Packet(payload);
+            sent.add(packet);
+            assertTrue(c.write(packet));
+        }
+
+        assertTrueEventually(() -> assertEquals(PACKET_COUNT, received.size()));
+        assertEquals(sent, received);
+
+        NioOutboundPipeline pipeline = ((NioChannel) c.getChannel()).outboundPipeline();
+        assertTrue(pipeline.gatheringWriteCount() > 0);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio.iobalancer;
+
+import com.hazelcast.internal.networking.nio.MigratablePipeline;
+import com.hazelcast.internal.networking.nio.NioThread;
+import com.hazelcast.internal.util.ItemCounter;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.internal.networking.nio.iobalancer.AdaptiveMigrationStrategy.ENTER_IMBALANCE_RATIO;
+import static com.hazelcast.internal.networking.nio.iobalancer.AdaptiveMigrationStrategy.EXIT_IMBALANCE_RATIO;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptiveMigrationStrategyTest extends HazelcastTestSupport {
+
+    private Map<NioThread, Set<MigratablePipeline>> ownerToPipelines;
+    private ItemCounter<MigratablePipeline> loadCounter;
+    private LoadImbalance imbalance;
+
+    private AdaptiveMigrationStrategy strategy;
+
+    @Before
+    public void setUp() {
+        ownerToPipelines = new HashMap<>();
+        loadCounter = new ItemCounter<>();
+        imbalance = new LoadImbalance(ownerToPipelines, loadCounter);
+        imbalance.srcOwner = mock(NioThread.class);
+        imbalance.dstOwner = mock(NioThread.class);
+        strategy = new AdaptiveMigrationStrategy();
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldReturnFalseWhenNoKnownMinimum() {
+        imbalance.minimumLoad = Long.MIN_VALUE;
+
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertFalse(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldReturnFalseWhenNoKnownMaximum() {
+        imbalance.maximumLoad = Long.MAX_VALUE;
+
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertFalse(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldReturnFalseWhenBalanced() {
+        setLoad(1000, (long) (1000 * ENTER_IMBALANCE_RATIO));
+
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertFalse(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldReturnTrueOnlyAfterConsecutiveRounds() {
+        setLoad(1000, (long) (1000 * ENTER_IMBALANCE_RATIO) - 1);
+
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertTrue(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldResetWhenBalancedInBetween() {
+        setLoad(1000, 100);
+        assertFalse(strategy.imbalanceDetected(imbalance));
+
+        setLoad(1000, 1000);
+        assertFalse(strategy.imbalanceDetected(imbalance));
+
+        setLoad(1000, 100);
+        assertFalse(strategy.imbalanceDetected(imbalance));
+    }
+
+    @Test
+    public void testImbalanceDetected_shouldStayImbalancedUntilExitRatioIsReached() {
+        setLoad(1000, 100);
+        assertFalse(strategy.imbalanceDetected(imbalance));
+
+        // above the ratio to enter an imbalance, but below the ratio to leave it
+        setLoad(1000, (long) (1000 * EXIT_IMBALANCE_RATIO) - 1);
+        assertTrue(strategy.imbalanceDetected(imbalance));
+        assertTrue(strategy.imbalanceDetected(imbalance));
+
+        setLoad(1000, (long) (1000 * EXIT_IMBALANCE_RATIO));
+        assertFalse(strategy.imbalanceDetected(imbalance));
+        assertEquals(0, imbalance.imbalancedRounds);
+    }
+
+    @Test
+    public void testFindPipelineToMigrate() {
+        imbalance.minimumLoad = 100;
+        MigratablePipeline pipeline1 = mock(MigratablePipeline.class);
+        loadCounter.set(pipeline1, 100L);
+        ownerToPipelines.put(imbalance.dstOwner, singleton(pipeline1));
+
+        imbalance.maximumLoad = 300;
+        MigratablePipeline pipeline2 = mock(MigratablePipeline.class);
+        MigratablePipeline pipeline3 = mock(MigratablePipeline.class);
+        loadCounter.set(pipeline2, 200L);
+        loadCounter.set(pipeline3, 100L);
+        ownerToPipelines.put(imbalance.srcOwner, Set.of(pipeline2, pipeline3));
+        imbalance.imbalancedRounds = 2;
+
+        MigratablePipeline pipelineToMigrate = strategy.findPipelineToMigrate(imbalance);
+        assertEquals(pipeline3, pipelineToMigrate);
+        // the effect of the migration needs to be observed before migrating again
+        assertEquals(0, imbalance.imbalancedRounds);
+    }
+
+    @Test
+    public void testFindPipelineToMigrate_whenNoCandidate_thenImbalanceRemains() {
+        imbalance.minimumLoad = 0;
+        imbalance.maximumLoad = 1000;
+        MigratablePipeline pipeline = mock(MigratablePipeline.class);
+        loadCounter.set(pipeline, 1000L);
+        ownerToPipelines.put(imbalance.srcOwner, singleton(pipeline));
+        imbalance.imbalancedRounds = 2;
+
+        assertNull(strategy.findPipelineToMigrate(imbalance));
+        assertEquals(2, imbalance.imbalancedRounds);
+    }
+
+    @Test
+    public void testImbalancePercent() {
+        setLoad(1000, 250);
+
+        assertEquals(75, imbalance.imbalancePercent());
+    }
+
+    private void setLoad(long max, long min) {
+        imbalance.maximumLoad = max;
+        imbalance.minimumLoad = min;
+    }
+}
@@ -89,6 +89,32 @@ public class LoadTrackerTest {
         assertEquals(owner2, loadImbalance.srcOwner);
     }
 
+    @Test
+    public void testUpdateImbalance_whenCpuAware_thenCpuTimeIsTakenIntoAccount() {
+        ILogger logger = mock(ILogger.class);
+        loadTracker = new LoadTracker(owner3, logger, true);
+
+        // owner1 processes few bytes, but they are expensive to process
+        MigratablePipeline owner1Pipeline1 = mockPipeline(owner1, 100, 700);
+        MigratablePipeline owner1Pipeline2 = mockPipeline(owner1, 100, 200);
+        // owner2 processes many bytes cheaply
+        MigratablePipeline owner2Pipeline1 = mockPipeline(owner2, 300, 50);
+        MigratablePipeline owner2Pipeline2 = mockPipeline(owner2, 500, 50);
+
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+
+        // the load is the average of the share in the bytes and in the cpu time, scaled to 1_000_000
+        assertEquals((100_000 + 700_000) / 2, loadImbalance.getLoad(owner1Pipeline1));
+        assertEquals((100_000 + 200_000) / 2, loadImbalance.getLoad(owner1Pipeline2));
+        assertEquals((300_000 + 50_000) / 2, loadImbalance.getLoad(owner2Pipeline1));
+        assertEquals((500_000 + 50_000) / 2, loadImbalance.getLoad(owner2Pipeline2));
+        // based on the bytes only, owner2 would be the busiest one
+        assertEquals(550_000, loadImbalance.maximumLoad);
+        assertEquals(450_000, loadImbalance.minimumLoad);
+        assertEquals(owner1, loadImbalance.srcOwner);
+        assertEquals(owner2, loadImbalance.dstOwner);
+    }
+
     // there is no point in selecting a selector with a single handler as source.
     @Test
     public void testUpdateImbalance_notUsingSinglePipelineOwnerAsSource() throws Exception {
@@ -115,4 +141,13 @@ public class LoadTrackerTest {
         assertEquals(owner2, loadImbalance.dstOwner);
         assertEquals(owner2, loadImbalance.srcOwner);
     }
+
+    private MigratablePipeline mockPipeline(NioThread owner, long load, long cpuTimeNanos) {
+        MigratablePipeline pipeline = mock(MigratablePipeline.class);
+        when(pipeline.load()).thenReturn(load);
+        when(pipeline.cpuTimeNanos()).thenReturn(cpuTimeNanos);
+        when(pipeline.owner()).thenReturn(owner);
+        loadTracker.addPipeline(pipeline);
+        return pipeline;
+    }
 }
@@ -39,7 +39,9 @@ import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -398,6 +400,52 @@ public class ByteArrayObjectDataOutputTest {
         assertNull(out.buffer);
     }
 
+    @Test
+    public void testHandOverBuffer_copiesSmallBuffer() throws IOException {
+        out.write(TEST_DATA);
+        byte[] buffer = out.buffer;
+
+        byte[] handedOver = out.handOverBuffer();
+
+        assertArrayEquals(TEST_DATA, handedOver);
+        assertNotSame(buffer, handedOver);
+        assertSame(buffer, out.buffer);
+    }
+
+    @Test
+    public void testHandOverBuffer_copiesLargeBuffer_withLargeUnusedTail() throws IOException {
+        byte[] bytes = new byte[8 * 10];
+        Arrays.fill(bytes, (byte) 1);
+        out.write(bytes, 0, 6 * 10);
+        out.write(bytes, 6 * 10, 2 * 10);
+        byte[] buffer = out.buffer;
+
+        byte[] handedOver = out.handOverBuffer();
+
+        assertArrayEquals(bytes, handedOver);
+        assertNotSame(buffer, handedOver);
+    }
+
+    @Test
+    public void testHandOverBuffer_handsOverLargeBuffer() throws IOException {
+        byte[] bytes = new byte[10 * 10];
+        Arrays.fill(bytes, (byte) 1);
+        out.write(bytes);
+        int length = out.position();
+        byte[] buffer = out.buffer;
+
+        byte[] handedOver = out.handOverBuffer();
+
+        assertSame(buffer, handedOver);
+        assertArrayEquals(bytes, Arrays.copyOf(handedOver, length));
+        assertEquals(10 * 8, out.buffer.length);
+
+        // the output is still usable
+        out.clear();
+        out.write(TEST_DATA);
+        assertArrayEquals(TEST_DATA, out.toByteArray());
+    }
+
     @Test
     public void testClear_bufferLen_lt_initX8() {
         out.ensureAvailable(10 * 10);
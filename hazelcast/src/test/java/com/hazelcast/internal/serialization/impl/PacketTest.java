@@ -24,9 +24,12 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
+
 import static com.hazelcast.internal.nio.Packet.FLAG_4_0;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONTROL;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
@@ -84,4 +87,19 @@ public class PacketTest {
         assertSame(Packet.Type.NULL, packet.getPacketType());
         assertEquals(FLAG_URGENT, packet.getFlags());
     }
+
+    @Test
+    public void payloadLength() {
+        byte[] payload = {0, 0, 0, 0, 0, 0, 0, 1, 2, 3};
+        byte[] buffer = Arrays.copyOf(payload, 64);
+        Packet packet = new Packet(buffer, payload.length, 1);
+        Packet expected = new Packet(payload, 1);
+
+        assertEquals(payload.length, packet.totalSize());
+        assertEquals(2, packet.dataSize());
+        assertEquals(expected.getFrameLength(), packet.getFrameLength());
+        assertEquals(expected.hashCode(), packet.hashCode());
+        assertEquals(expected, packet);
+        assertArrayEquals(payload, packet.toByteArray());
+    }
 }
@@ -59,6 +59,7 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Objects;
 import java.util.UUID;
 
 import static com.hazelcast.internal.serialization.impl.compact.CompactTestUtil.createCompactGenericRecord;
@@ -867,6 +868,75 @@ public class CompactStreamSerializerTest {
         assertNull(actual2.getChild());
     }
 
+    @Test
+    public void testSchemaEvolution_reflectiveSerializer_readsDataOfDifferentSchemas() {
+        SerializationService serializationService = createSerializationService();
+        String typeName = ReflectiveDTO.class.getName();
+
+        Data allFields = serializationService.toData(new ReflectiveDTO('x', 42, 1234567890123L, 0.5, "value"));
+        Data someFields = serializationService.toData(compact(typeName)
+                .setInt32("i", 7)
+                .setNullableFloat64("d", 2.5)
+                .build());
+        Data noFields = serializationService.toData(compact(typeName).build());
+
+        // read alternately to make sure the fields to read are resolved per schema
+        for (int i = 0; i < 3; i++) {
+            ReflectiveDTO all = serializationService.toObject(allFields);
+            assertEquals(new ReflectiveDTO('x', 42, 1234567890123L, 0.5, "value"), all);
+
+            ReflectiveDTO some = serializationService.toObject(someFields);
+            assertEquals(new ReflectiveDTO('c', 7, 1, 2.5, null), some);
+
+            ReflectiveDTO none = serializationService.toObject(noFields);
+            assertEquals(new ReflectiveDTO('c', 1, 1, 1, null), none);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class ReflectiveDTO {
+        private final char c;
+        private int i = 1;
+        private long l = 1;
+        private double d = 1;
+        private String str = "NA";
+
+        ReflectiveDTO() {
+            this.c = 'c';
+        }
+
+        ReflectiveDTO(char c, int i, long l, double d, String str) {
+            this.c = c;
+            this.i = i;
+            this.l = l;
+            this.d = d;
+            this.str = str;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ReflectiveDTO that = (ReflectiveDTO) o;
+            return c == that.c && i == that.i && l == that.l && Double.compare(that.d, d) == 0
+                    && Objects.equals(str, that.str);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(c, i, l, d, str);
+        }
+
+        @Override
+        public String toString() {
+            return "ReflectiveDTO{c=" + c + ", i=" + i + ", l=" + l + ", d=" + d + ", str=" + str + '}';
+        }
+    }
+
     private static class EmptyDTO {
         EmptyDTO() {
         }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FieldAccessorTest {
+
+    @Test
+    public void when_setReference_then_valueIsWritten() throws Exception {
+        Holder holder = new Holder();
+        FieldAccessor accessor = FieldAccessor.of(Holder.class.getDeclaredField("name"));
+
+        accessor.set(holder, "foo");
+        assertEquals("foo", accessor.get(holder));
+
+        accessor.set(holder, null);
+        assertNull(holder.name);
+    }
+
+    @Test
+    public void when_setBoxedPrimitive_then_valueIsUnboxed() throws Exception {
+        Holder holder = new Holder();
+        FieldAccessor accessor = FieldAccessor.of(Holder.class.getDeclaredField("count"));
+
+        accessor.set(holder, 42);
+        assertEquals(42, holder.count);
+        assertEquals(42, accessor.getInt(holder));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_setValueOfWrongType_then_throws() throws Exception {
+        FieldAccessor accessor = FieldAccessor.of(Holder.class.getDeclaredField("name"));
+
+        accessor.set(new Holder(), 42);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_setNullToPrimitive_then_throws() throws Exception {
+        FieldAccessor accessor = FieldAccessor.of(Holder.class.getDeclaredField("count"));
+
+        accessor.set(new Holder(), null);
+    }
+
+    private static class Holder {
+        private String name;
+        private int count;
+    }
+}
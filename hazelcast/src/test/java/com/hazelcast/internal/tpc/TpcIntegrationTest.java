@@ -31,7 +31,9 @@ import org.junit.runner.RunWith;
 
 import static com.hazelcast.internal.tpc.TpcServerBootstrap.TPC_ENABLED;
 import static com.hazelcast.internal.tpc.TpcServerBootstrap.TPC_EVENTLOOP_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 public class TpcIntegrationTest extends HazelcastTestSupport {
@@ -79,5 +81,14 @@ public class TpcIntegrationTest extends HazelcastTestSupport {
         logger.info(">> Throughput:" + throughput + " op/s");
 
         assertEquals(iterations, map.size());
+
+        // the client sends every put on the channel of the reactor owning the partition
+        TpcClientRoutingMetrics routingMetrics = getNodeEngineImpl(server).getTpcServerBootstrap().getClientRoutingMetrics();
+        assertEquals(0, routingMetrics.hopCount());
+        // the response is sent before the inline execution is recorded
+        assertTrueEventually(() -> {
+            assertTrue(routingMetrics.inlineCount() >= iterations);
+            assertEquals(routingMetrics.inlineCount(), routingMetrics.inlineLatency().count());
+        });
     }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class StripedLong2ObjectHashMapTest {
+
+    private final StripedLong2ObjectHashMap<String> map = new StripedLong2ObjectHashMap<>(4, 16);
+
+    @Test
+    public void shouldDoPutAndThenGet() {
+        assertNull(map.put(7, "Seven"));
+
+        assertEquals("Seven", map.get(7));
+        assertNull(map.get(8));
+        assertEquals(1, map.size());
+        assertFalse(map.isEmpty());
+    }
+
+    @Test
+    public void shouldReplaceExistingValueForTheSameKey() {
+        map.put(7, "Seven");
+
+        assertEquals("Seven", map.put(7, "New Seven"));
+        assertEquals("New Seven", map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void shouldRemoveEntry() {
+        map.put(7, "Seven");
+
+        assertEquals("Seven", map.remove(7));
+        assertNull(map.remove(7));
+        assertNull(map.get(7));
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void shouldFindKeysCollidingWithRemovedKeys() {
+        // the stripes have 16 slots, so these keys collide in the first stripe
+        long[] keys = {0, 64, 128, 192};
+        for (long key : keys) {
+            map.put(key, Long.toString(key));
+        }
+        map.remove(64);
+
+        assertNull(map.get(64));
+        assertEquals("128", map.get(128));
+        assertEquals("192", map.get(192));
+
+        map.put(256, "256");
+        assertEquals("256", map.get(256));
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    public void shouldGrowWithSequentialKeys() {
+        for (long key = 0; key < 10_000; key++) {
+            map.put(key, Long.toString(key));
+        }
+
+        assertEquals(10_000, map.size());
+        for (long key = 0; key < 10_000; key++) {
+            assertEquals(Long.toString(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void shouldHandleSlidingWindowOfKeys() {
+        // the call IDs of the pending invocations form a sliding window
+        int window = 100;
+        for (long key = 0; key < 100_000; key++) {
+            map.put(key, Long.toString(key));
+            if (key >= window) {
+                assertEquals(Long.toString(key - window), map.remove(key - window));
+            }
+        }
+
+        assertEquals(window, map.size());
+        for (long key = 100_000 - window; key < 100_000; key++) {
+            assertEquals(Long.toString(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void shouldHandleNegativeAndLargeKeys() {
+        map.put(-1, "minus one");
+        map.put(Long.MIN_VALUE, "min");
+        map.put(Long.MAX_VALUE, "max");
+
+        assertEquals("minus one", map.get(-1));
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    public void shouldIterateValues() {
+        Set<String> expected = new HashSet<>();
+        for (long key = 0; key < 1000; key += 3) {
+            map.put(key, Long.toString(key));
+            expected.add(Long.toString(key));
+        }
+
+        Set<String> actual = new HashSet<>();
+        for (String value : map) {
+            actual.add(value);
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void shouldIterateEmptyMap() {
+        Iterator<String> iterator = map.iterator();
+
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void shouldThrowWhenIteratingPastTheEnd() {
+        map.put(1, "one");
+        Iterator<String> iterator = map.iterator();
+        iterator.next();
+
+        iterator.next();
+    }
+
+    @Test
+    public void shouldRemoveWhileIterating() {
+        for (long key = 0; key < 100; key++) {
+            map.put(key, Long.toString(key));
+        }
+
+        List<String> iterated = new ArrayList<>();
+        for (String value : map) {
+            iterated.add(value);
+            map.remove(Long.parseLong(value));
+        }
+
+        assertEquals(100, iterated.size());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldNotAcceptNullValues() {
+        map.put(1, null);
+    }
+
+    @Test
+    public void shouldFindEntriesWhileConcurrentlyUpdated() throws Exception {
+        int threadCount = 4;
+        int keysPerThread = 50_000;
+        AtomicLong sequence = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(() -> {
+                try {
+                    for (int j = 0; j < keysPerThread; j++) {
+                        long key = sequence.getAndIncrement();
+                        String value = Long.toString(key);
+                        map.put(key, value);
+                        assertEquals(value, map.get(key));
+                        assertEquals(value, map.remove(key));
+                        assertNull(map.get(key));
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        assertNull(failure.get());
+        assertEquals(0, map.size());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.util.concurrent.AdaptiveIdleStrategy.MAX_YIELDS;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptiveIdleStrategyTest {
+
+    private final AdaptiveIdleStrategy strat = new AdaptiveIdleStrategy(100, 1, 2);
+
+    @Test
+    public void when_created_then_spinLimitIsMax() {
+        assertEquals(100, strat.spinLimit());
+    }
+
+    @Test
+    public void when_idlePeriodEndsWhileParking_then_spinLimitHalved() {
+        idlePeriod(100 + MAX_YIELDS + 1);
+        strat.idle(1);
+
+        assertEquals(50, strat.spinLimit());
+    }
+
+    @Test
+    public void when_idlePeriodEndsBeforeParking_then_spinLimitDoubled() {
+        idlePeriod(100 + MAX_YIELDS + 1);
+        idlePeriod(100 + MAX_YIELDS + 1);
+        idlePeriod(10);
+        assertEquals(25, strat.spinLimit());
+
+        strat.idle(1);
+
+        assertEquals(51, strat.spinLimit());
+    }
+
+    @Test
+    public void when_alwaysParking_then_spinLimitDropsToZero() {
+        for (int i = 0; i < 10; i++) {
+            idlePeriod(200);
+        }
+        strat.idle(1);
+
+        assertEquals(0, strat.spinLimit());
+    }
+
+    @Test
+    public void when_neverParking_then_spinLimitCappedAtMax() {
+        for (int i = 0; i < 10; i++) {
+            idlePeriod(1);
+        }
+
+        assertEquals(100, strat.spinLimit());
+    }
+
+    private void idlePeriod(int idleCount) {
+        for (int n = 1; n <= idleCount; n++) {
+            strat.idle(n);
+        }
+    }
+}
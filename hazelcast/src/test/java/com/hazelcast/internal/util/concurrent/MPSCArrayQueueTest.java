@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.concurrent;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MPSCArrayQueueTest extends HazelcastTestSupport {
+
+    private static final int CAPACITY = 16;
+
+    private final MPSCArrayQueue<String> queue = new MPSCArrayQueue<>(CAPACITY, null);
+
+    @Test(expected = NullPointerException.class)
+    public void setOwningThread_whenNull() {
+        queue.setConsumerThread(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void offer_whenNull() {
+        queue.offer(null);
+    }
+
+    @Test
+    public void poll() {
+        queue.setConsumerThread(Thread.currentThread());
+
+        queue.offer("1");
+        queue.offer("2");
+
+        assertEquals(2, queue.size());
+        assertEquals("1", queue.poll());
+        assertEquals("2", queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void poll_preservesOrder_whenOverflowing() {
+        queue.setConsumerThread(Thread.currentThread());
+
+        for (int i = 0; i < CAPACITY * 3; i++) {
+            queue.offer(Integer.toString(i));
+            if (i % 4 == 0) {
+                // the array has free slots, but the overflowed items come first
+                assertEquals(Integer.toString(i / 4), queue.poll());
+            }
+        }
+
+        int expected = CAPACITY * 3 / 4;
+        for (String item; (item = queue.poll()) != null; expected++) {
+            assertEquals(Integer.toString(expected), item);
+        }
+        assertEquals(CAPACITY * 3, expected);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void peek() {
+        queue.setConsumerThread(Thread.currentThread());
+        for (int i = 0; i < CAPACITY + 1; i++) {
+            queue.offer(Integer.toString(i));
+        }
+
+        for (int i = 0; i < CAPACITY + 1; i++) {
+            assertEquals(Integer.toString(i), queue.peek());
+            queue.poll();
+        }
+        assertNull(queue.peek());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void pollWithTimeout_thenUnsupportedOperation() throws InterruptedException {
+        queue.poll(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void take_whenItemAvailable() throws Exception {
+        queue.setConsumerThread(Thread.currentThread());
+
+        queue.offer("1");
+
+        assertEquals("1", queue.take());
+    }
+
+    @Test
+    public void take_whenItemAvailableAfterSomeBlocking() throws Exception {
+        queue.setConsumerThread(Thread.currentThread());
+
+        spawn(() -> {
+            sleepSeconds(2);
+            queue.offer("1");
+        });
+
+        assertEquals("1", queue.take());
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void take_whenInterruptedWhileWaiting() throws Exception {
+        Thread owningThread = Thread.currentThread();
+        queue.setConsumerThread(owningThread);
+
+        spawn(() -> {
+            sleepSeconds(2);
+            owningThread.interrupt();
+        });
+
+        queue.take();
+    }
+
+    @Test
+    public void take_fromMultipleProducers_whenBlocking() throws Exception {
+        take_fromMultipleProducers(new MPSCArrayQueue<>(CAPACITY, null));
+    }
+
+    @Test
+    public void take_fromMultipleProducers_whenSpinning() throws Exception {
+        take_fromMultipleProducers(new MPSCArrayQueue<>(CAPACITY, new BackoffIdleStrategy(1, 1, 1000, 100_000)));
+    }
+
+    private void take_fromMultipleProducers(MPSCArrayQueue<long[]> queue) throws Exception {
+        queue.setConsumerThread(Thread.currentThread());
+        int producerCount = 4;
+        int itemsPerProducer = 100_000;
+        Future[] futures = new Future[producerCount];
+        for (int producer = 0; producer < producerCount; producer++) {
+            long producerId = producer;
+            futures[producer] = spawn(() -> {
+                for (long sequence = 0; sequence < itemsPerProducer; sequence++) {
+                    queue.offer(new long[]{producerId, sequence});
+                    if (sequence % 1000 == 0) {
+                        // let the consumer catch up and park
+                        sleepMillis(1);
+                    }
+                }
+            });
+        }
+
+        long[] nextSequences = new long[producerCount];
+        for (int i = 0; i < producerCount * itemsPerProducer; i++) {
+            long[] item = queue.take();
+            int producerId = (int) item[0];
+            assertEquals(nextSequences[producerId]++, item[1]);
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
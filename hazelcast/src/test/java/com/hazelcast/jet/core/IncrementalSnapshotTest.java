@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.core;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.jet.Job;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.impl.JobExecutionRecord;
+import com.hazelcast.jet.impl.JobRepository;
+import com.hazelcast.jet.impl.SnapshotValidationRecord;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapStoreAdapter;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.annotation.Nonnull;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.jet.Traversers.traverseIterable;
+import static com.hazelcast.jet.core.JobStatus.RUNNING;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_SNAPSHOT_FULL_SNAPSHOT_INTERVAL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IncrementalSnapshotTest extends JetTestSupport {
+
+    private static final int KEY_COUNT = 100;
+
+    private static volatile Map<Integer, Integer> desiredState;
+    private static volatile boolean failValidationRecordStore;
+    private static final Map<Integer, Integer> RESTORED_STATE = new ConcurrentHashMap<>();
+    private static final AtomicInteger DUPLICATE_RESTORED_KEYS = new AtomicInteger();
+
+    private HazelcastInstance instance;
+    private JobRepository jobRepository;
+
+    @Before
+    public void setup() {
+        desiredState = new HashMap<>();
+        failValidationRecordStore = false;
+        RESTORED_STATE.clear();
+        DUPLICATE_RESTORED_KEYS.set(0);
+
+        Config config = smallInstanceConfig();
+        config.setProperty(JET_SNAPSHOT_FULL_SNAPSHOT_INTERVAL.getName(), "1000");
+        // a failing validation record fails the snapshot after all its chunks were written
+        MapConfig mapConfig = new MapConfig(JobRepository.SNAPSHOT_DATA_MAP_PREFIX + '*');
+        mapConfig.getMapStoreConfig().setEnabled(true).setImplementation(new ValidationRecordFailingMapStore());
+        config.addMapConfig(mapConfig);
+
+        instance = createHazelcastInstances(config, 2)[0];
+        jobRepository = new JobRepository(instance);
+    }
+
+    @Test
+    public void when_restoringFromIncrementalChain_then_latestStateRestored() {
+        Map<Integer, Integer> state = new HashMap<>();
+        for (int key = 0; key < KEY_COUNT; key++) {
+            state.put(key, 1);
+        }
+        Job job = startJob(state);
+
+        // incremental snapshots: updates, removals, additions and a key updated twice
+        for (int key = 0; key < 20; key++) {
+            state.put(key, 2);
+        }
+        for (int key = 90; key < KEY_COUNT; key++) {
+            state.remove(key);
+        }
+        applyState(job, state);
+        for (int key = 10; key < 20; key++) {
+            state.put(key, 3);
+        }
+        for (int key = KEY_COUNT; key < KEY_COUNT + 10; key++) {
+            state.put(key, 3);
+        }
+        applyState(job, state);
+
+        SnapshotValidationRecord validationRecord = lastValidationRecord(job);
+        assertNotEquals("not an incremental snapshot", validationRecord.baseSnapshotId(), validationRecord.snapshotId());
+
+        assertRestoredAfterRestart(job, state);
+    }
+
+    @Test
+    public void when_incrementalSnapshotFails_then_chunksRemovedAndNextSnapshotFull() {
+        Map<Integer, Integer> state = new HashMap<>();
+        for (int key = 0; key < KEY_COUNT; key++) {
+            state.put(key, 1);
+        }
+        Job job = startJob(state);
+        state.put(0, 2);
+        applyState(job, state);
+        SnapshotValidationRecord validationRecord = lastValidationRecord(job);
+        assertNotEquals("not an incremental snapshot", validationRecord.baseSnapshotId(), validationRecord.snapshotId());
+
+        failValidationRecordStore = true;
+        state.put(1, 2);
+        desiredState = new HashMap<>(state);
+        assertTrueEventually(() -> assertNotNull(jobRepository.getJobExecutionRecord(job.getId()).lastSnapshotFailure()));
+        JobExecutionRecord record = jobRepository.getJobExecutionRecord(job.getId());
+        IMap<Object, Object> snapshotMap = instance.getMap(JobRepository.snapshotDataMapName(job.getId(),
+                record.dataMapIndex()));
+        long lastSnapshotId = ((SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY)).snapshotId();
+        // the snapshots after the failed one are full, they don't write to the map of the chain
+        assertTrueEventually(() -> {
+            for (Object key : snapshotMap.keySet()) {
+                assertTrue("chunk of a failed snapshot not removed: " + key,
+                        !(key instanceof SnapshotDataKey) || ((SnapshotDataKey) key).snapshotId() <= lastSnapshotId);
+            }
+        });
+
+        failValidationRecordStore = false;
+        waitForNextSnapshot(jobRepository, job.getId(), 30, true);
+        // the first snapshot after the failure is a full one, later ones may be based on it
+        validationRecord = lastValidationRecord(job);
+        assertTrue("no full snapshot after the failure", validationRecord.baseSnapshotId() > lastSnapshotId);
+        assertNotEquals(record.dataMapIndex(), jobRepository.getJobExecutionRecord(job.getId()).dataMapIndex());
+
+        assertRestoredAfterRestart(job, state);
+    }
+
+    private Job startJob(Map<Integer, Integer> state) {
+        desiredState = new HashMap<>(state);
+        DAG dag = new DAG();
+        dag.newVertex("stateful", StatefulP::new).localParallelism(2);
+        JobConfig config = new JobConfig()
+                .setProcessingGuarantee(ProcessingGuarantee.EXACTLY_ONCE)
+                .setSnapshotIntervalMillis(100);
+        Job job = instance.getJet().newJob(dag, config);
+        assertJobStatusEventually(job, RUNNING);
+        waitForFirstSnapshot(jobRepository, job.getId(), 30, true);
+        waitForNextSnapshot(jobRepository, job.getId(), 30, true);
+        return job;
+    }
+
+    /**
+     * Changes the state of the processors and waits until a snapshot
+     * started after the change completes.
+     */
+    private void applyState(Job job, Map<Integer, Integer> state) {
+        desiredState = new HashMap<>(state);
+        waitForNextSnapshot(jobRepository, job.getId(), 30, true);
+        waitForNextSnapshot(jobRepository, job.getId(), 30, true);
+    }
+
+    private SnapshotValidationRecord lastValidationRecord(Job job) {
+        JobExecutionRecord record = jobRepository.getJobExecutionRecord(job.getId());
+        IMap<Object, Object> snapshotMap = instance.getMap(JobRepository.snapshotDataMapName(job.getId(),
+                record.dataMapIndex()));
+        return (SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY);
+    }
+
+    private void assertRestoredAfterRestart(Job job, Map<Integer, Integer> state) {
+        RESTORED_STATE.clear();
+        job.restart();
+        assertTrueEventually(() -> assertEquals(state, RESTORED_STATE));
+        assertEquals(0, DUPLICATE_RESTORED_KEYS.get());
+        job.cancel();
+    }
+
+    /**
+     * Keeps the entries of {@link #desiredState} whose key belongs to the
+     * processor as its state.
+     */
+    private static final class StatefulP extends AbstractProcessor {
+        private final Map<Integer, Integer> state = new HashMap<>();
+        private int globalProcessorIndex;
+        private int totalParallelism;
+        private Traverser<Map.Entry<Integer, Integer>> snapshotTraverser;
+
+        @Override
+        protected void init(@Nonnull Context context) {
+            globalProcessorIndex = context.globalProcessorIndex();
+            totalParallelism = context.totalParallelism();
+        }
+
+        @Override
+        public boolean complete() {
+            state.clear();
+            desiredState.forEach((key, value) -> {
+                if (key % totalParallelism == globalProcessorIndex) {
+                    state.put(key, value);
+                }
+            });
+            return false;
+        }
+
+        @Override
+        public boolean saveToSnapshot() {
+            if (snapshotTraverser == null) {
+                snapshotTraverser = traverseIterable(state.entrySet()).onFirstNull(() -> snapshotTraverser = null);
+            }
+            return emitFromTraverserToSnapshot(snapshotTraverser);
+        }
+
+        @Override
+        protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
+            if (RESTORED_STATE.put((Integer) key, (Integer) value) != null) {
+                DUPLICATE_RESTORED_KEYS.incrementAndGet();
+            }
+        }
+    }
+
+    private static class ValidationRecordFailingMapStore extends MapStoreAdapter<Object, Object> implements Serializable {
+        @Override
+        public void store(Object key, Object value) {
+            if (failValidationRecordStore && value instanceof SnapshotValidationRecord) {
+                throw new UnsupportedOperationException("validation record store failure");
+            }
+        }
+    }
+}
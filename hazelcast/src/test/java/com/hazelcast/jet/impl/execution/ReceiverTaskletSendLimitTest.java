@@ -19,6 +19,7 @@ package com.hazelcast.jet.impl.execution;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.instance.BuildInfoProvider;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.config.EdgeConfig;
 import com.hazelcast.logging.impl.LoggingServiceImpl;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -53,7 +54,7 @@ public class ReceiverTaskletSendLimitTest {
     public void before() {
         tasklet = new ReceiverTasklet(null,
                 new DefaultSerializationServiceBuilder().build(),
-                RWIN_MULTIPLIER, FLOW_CONTROL_PERIOD_MS,
+                new EdgeConfig().setReceiveWindowMultiplier(RWIN_MULTIPLIER), FLOW_CONTROL_PERIOD_MS,
                 new LoggingServiceImpl(null, null, BuildInfoProvider.getBuildInfo(), false, null),
                 new Address(), 0, "", null, "");
     }
@@ -20,6 +20,8 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.config.EdgeConfig;
+import com.hazelcast.jet.impl.util.Lz4BlockCodec;
 import com.hazelcast.logging.LoggingService;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -31,9 +33,12 @@ import org.junit.runner.RunWith;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Queue;
 
+import static com.hazelcast.jet.impl.execution.SenderTasklet.UNCOMPRESSED;
 import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 
@@ -48,11 +53,17 @@ public class ReceiverTaskletTest {
 
     @Before
     public void before() {
-        collector = new MockOutboundCollector(2);
+        collector = new MockOutboundCollector(100);
         serService = new DefaultSerializationServiceBuilder().build();
-        t = new ReceiverTasklet(collector, serService, 3, 100, mock(LoggingService.class),
-                new Address(), 0, "", null, "");
-        t.initIncomingQueue(queue);
+        t = createTasklet(false);
+    }
+
+    private ReceiverTasklet createTasklet(boolean compressionEnabled) {
+        ReceiverTasklet tasklet = new ReceiverTasklet(collector, serService,
+                new EdgeConfig().setReceiveWindowMultiplier(3).setCompressionEnabled(compressionEnabled), 100,
+                mock(LoggingService.class), new Address(), 0, "", null, "");
+        tasklet.initIncomingQueue(queue);
+        return tasklet;
     }
 
     @Test
@@ -62,18 +73,60 @@ public class ReceiverTaskletTest {
         assertEquals(asList(1, 2), collector.getBuffer());
     }
 
-    private void pushObjects(Object... objs) throws IOException {
-        final BufferObjectDataOutput out = serService.createObjectDataOutput();
+    @Test
+    public void when_receiveCompressedObjects_then_emitThem() throws IOException {
+        t = createTasklet(true);
+        Object[] objs = nCopies(50, "item").toArray();
+        pushCompressedObjects(objs);
+        t.call();
+        assertEquals(asList(objs), collector.getBuffer());
+    }
+
+    @Test
+    public void when_receiveUncompressedObjectsOnCompressedEdge_then_emitThem() throws IOException {
+        t = createTasklet(true);
+        BufferObjectDataOutput out = serService.createObjectDataOutput();
+        writeHeaderAndCount(out, 2);
+        out.writeInt(UNCOMPRESSED);
+        writeItems(out, 1, 2);
+        queue.add(out.toByteArray());
+        t.call();
+        assertEquals(asList(1, 2), collector.getBuffer());
+    }
+
+    private void pushCompressedObjects(Object... objs) throws IOException {
+        BufferObjectDataOutput items = serService.createObjectDataOutput();
+        writeItems(items, objs);
+        byte[] itemBytes = items.toByteArray();
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(itemBytes.length)];
+        int compressedLength = new Lz4BlockCodec().compress(itemBytes, 0, itemBytes.length, compressed, 0);
+
+        BufferObjectDataOutput out = serService.createObjectDataOutput();
+        writeHeaderAndCount(out, objs.length);
+        out.writeInt(itemBytes.length);
+        out.write(Arrays.copyOf(compressed, compressedLength));
+        queue.add(out.toByteArray());
+    }
+
+    private static void writeHeaderAndCount(BufferObjectDataOutput out, int count) throws IOException {
         // packet header
         out.writeLong(0);
         out.writeInt(0);
         out.writeInt(0);
-        // the packet
-        out.writeInt(objs.length);
+        out.writeInt(count);
+    }
+
+    private static void writeItems(BufferObjectDataOutput out, Object... objs) throws IOException {
         for (Object obj : objs) {
             out.writeObject(obj);
             out.writeInt(Math.abs(obj.hashCode())); // partition id
         }
+    }
+
+    private void pushObjects(Object... objs) throws IOException {
+        BufferObjectDataOutput out = serService.createObjectDataOutput();
+        writeHeaderAndCount(out, objs.length);
+        writeItems(out, objs);
         queue.add(out.toByteArray());
     }
 }
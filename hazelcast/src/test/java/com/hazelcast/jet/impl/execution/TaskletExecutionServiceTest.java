@@ -40,15 +40,19 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 
@@ -58,6 +62,8 @@ import static com.hazelcast.internal.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_WORK_STEALING;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MAX_SPINS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -86,12 +92,13 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
 
     private TaskletExecutionService tes;
     private ExecutorService executor;
+    private NodeEngineImpl neMock;
     private final ClassLoader classLoader = getClass().getClassLoader();
 
     @Before
     public void before() {
         executor = Executors.newCachedThreadPool();
-        NodeEngineImpl neMock = mock(NodeEngineImpl.class);
+        neMock = mock(NodeEngineImpl.class);
 
         HazelcastInstance hzMock = mock(HazelcastInstance.class);
         when(neMock.getHazelcastInstance()).thenReturn(hzMock);
@@ -243,6 +250,37 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         tasklets.forEach(MockTasklet::assertDone);
     }
 
+    @Test
+    public void when_workStealingEnabledAndSkewedLoad_then_busyTaskletHandedOver() {
+        // Given
+        Properties properties = new Properties();
+        properties.setProperty(JET_COOPERATIVE_WORK_STEALING.getName(), "true");
+        properties.setProperty(JET_IDLE_COOPERATIVE_MAX_SPINS.getName(), "100");
+        tes.shutdown();
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(mock(ILogger.class), ProbeLevel.INFO);
+        when(neMock.getMetricsRegistry()).thenReturn(metricsRegistry);
+        tes = new TaskletExecutionService(neMock, THREAD_COUNT, new HazelcastProperties(properties));
+
+        // tasklets are assigned to the workers round-robin: the first worker gets both busy tasklets
+        List<Tasklet> tasklets = new ArrayList<>();
+        List<ThreadRecordingTasklet> busyTasklets = new ArrayList<>();
+        for (int i = 0; i < 2 * THREAD_COUNT; i++) {
+            if (i % THREAD_COUNT == 0) {
+                ThreadRecordingTasklet busyTasklet = new ThreadRecordingTasklet();
+                busyTasklets.add(busyTasklet);
+                tasklets.add(busyTasklet);
+            } else {
+                tasklets.add(new MockTasklet().callsBeforeDone(1));
+            }
+        }
+
+        // When
+        tes.beginExecute(tasklets, cancellationFuture, classLoader).join();
+
+        // Then
+        assertTrue(busyTasklets.stream().anyMatch(t -> t.threads.size() > 1));
+    }
+
     @Test
     public void when_nonBlockingTaskletIsCancelled_then_completesEarly() throws Exception {
         // Given
@@ -504,6 +542,29 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    /**
+     * A tasklet that always makes progress for a while, it records the threads
+     * that called it and fails if called concurrently.
+     */
+    private static class ThreadRecordingTasklet implements Tasklet {
+
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        private final AtomicBoolean inCall = new AtomicBoolean();
+        private int callCount;
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            assertTrue("called concurrently", inCall.compareAndSet(false, true));
+            threads.add(Thread.currentThread());
+            LockSupport.parkNanos(100_000);
+            callCount++;
+            inCall.set(false);
+            return callCount >= 2000 ? DONE : MADE_PROGRESS;
+        }
+    }
+
     private static class TaskletAssertingThreadLocal implements Tasklet {
 
         private static ThreadLocal<Integer> threadLocal = ThreadLocal.withInitial(() -> 0);
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.impl.processor.SortP;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExternalSorterTest {
+
+    private static final int THRESHOLD = 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SpillContext spillContext;
+
+    @Before
+    public void setUp() throws IOException {
+        spillContext = new SpillContext(folder.newFolder().toPath(), "sort-", THRESHOLD,
+                new DefaultSerializationServiceBuilder().build());
+    }
+
+    @After
+    public void tearDown() {
+        spillContext.close();
+    }
+
+    @Test
+    public void when_belowThreshold_then_nothingSpilled() {
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(new PriorityQueue<>(), spillContext);
+        List<Integer> expected = addShuffled(sorter, THRESHOLD);
+
+        assertThat(sorter.spilledRunCount()).isZero();
+        assertThat(drain(sorter.traverser())).isEqualTo(expected);
+    }
+
+    @Test
+    public void when_aboveThreshold_then_runsMerged() throws IOException {
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(new PriorityQueue<>(), spillContext);
+        List<Integer> expected = addShuffled(sorter, 10 * THRESHOLD + 7);
+
+        assertThat(sorter.spilledRunCount()).isEqualTo(10);
+        assertThat(drain(sorter.traverser())).isEqualTo(expected);
+        assertThat(folder.getRoot().listFiles()[0].listFiles()).isEmpty();
+    }
+
+    @Test
+    public void when_comparator_then_usedForMerge() {
+        ExternalSorter<Integer> sorter = new ExternalSorter<>(new PriorityQueue<Integer>(Comparator.reverseOrder()), spillContext);
+        List<Integer> expected = addShuffled(sorter, 3 * THRESHOLD);
+        expected.sort(Comparator.reverseOrder());
+
+        assertThat(drain(sorter.traverser())).isEqualTo(expected);
+    }
+
+    @Test
+    public void when_spillingEnabled_then_sortPNotCooperative() {
+        SortP<Integer> sortP = new SortP<>(null);
+        assertThat(sortP.isCooperative()).isTrue();
+
+        sortP.setSpillContext(spillContext);
+        assertThat(sortP.isCooperative()).isFalse();
+    }
+
+    /**
+     * Adds the numbers from 0 to {@code count} in random order, retrying the
+     * items rejected while a run is spilled, and returns them sorted.
+     */
+    private static List<Integer> addShuffled(ExternalSorter<Integer> sorter, int count) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+        Collections.shuffle(items, new Random(42));
+        for (Integer item : items) {
+            // the item is retried until the run is spilled, like an inbox does
+            boolean added;
+            do {
+                added = sorter.tryAdd(item);
+            } while (!added);
+        }
+        items.sort(null);
+        return items;
+    }
+
+    private static List<Integer> drain(Traverser<Integer> traverser) {
+        List<Integer> result = new ArrayList<>();
+        Integer item;
+        while ((item = traverser.next()) != null) {
+            result.add(item);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.impl.processor.AggregateP;
+import com.hazelcast.jet.impl.processor.GroupP;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionedSpillTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private SpillContext spillContext;
+    private PartitionedSpill<Integer, AtomicLong> spill;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder();
+        spillContext = new SpillContext(directory.toPath(), "group-", 10, new DefaultSerializationServiceBuilder().build());
+        spill = new PartitionedSpill<>(spillContext);
+    }
+
+    @After
+    public void tearDown() {
+        spillContext.close();
+    }
+
+    @Test
+    public void when_spillingEnabled_then_groupPNotCooperative() {
+        GroupP<Object, LongAccumulator, Long, Long> groupP = new GroupP<>(FunctionEx.identity(), counting(), (k, v) -> v);
+        assertThat(groupP.isCooperative()).isTrue();
+
+        groupP.setSpillContext(spillContext);
+        assertThat(groupP.isCooperative()).isFalse();
+    }
+
+    @Test
+    public void when_spillingEnabled_then_aggregatePStaysCooperative() {
+        AggregateP<LongAccumulator, Long> aggregateP = new AggregateP<>(counting());
+
+        aggregateP.setSpillContext(spillContext);
+        assertThat(aggregateP.isCooperative()).isTrue();
+    }
+
+    @Test
+    public void when_noCombineFn_then_groupPStaysCooperative() {
+        AggregateOperation1<Object, long[], Long> aggrOp = AggregateOperation
+                .withCreate(() -> new long[1])
+                .andAccumulate((long[] acc, Object item) -> acc[0]++)
+                .andExportFinish(acc -> acc[0]);
+        GroupP<Object, long[], Long, Long> groupP = new GroupP<>(FunctionEx.identity(), aggrOp, (k, v) -> v);
+
+        groupP.setSpillContext(spillContext);
+        assertThat(groupP.isCooperative()).isTrue();
+    }
+
+    @Test
+    public void when_keySpilledSeveralTimes_then_statesCombinedOnLoad() {
+        int keyCount = 3 * PartitionedSpill.CHUNK_SIZE;
+        Map<Integer, AtomicLong> map = new HashMap<>();
+        for (int round = 1; round <= 3; round++) {
+            for (int key = 0; key < keyCount; key++) {
+                map.put(key, new AtomicLong(round));
+            }
+            spillFully(map);
+            assertThat(map).isEmpty();
+        }
+        assertThat(spill.hasSpilled()).isTrue();
+
+        Map<Integer, AtomicLong> result = new HashMap<>();
+        for (int partition = 0; partition < spill.partitionCount(); partition++) {
+            Map<Integer, AtomicLong> loaded = new HashMap<>();
+            while (!spill.loadChunk(partition, loaded, (left, right) -> left.addAndGet(right.get()))) {
+                assertThat(loaded).isNotEmpty();
+            }
+            for (Integer key : loaded.keySet()) {
+                assertThat(key.hashCode() % spill.partitionCount()).isEqualTo(partition);
+            }
+            result.putAll(loaded);
+        }
+
+        assertThat(result).hasSize(keyCount);
+        assertThat(result.values()).allSatisfy(sum -> assertThat(sum.get()).isEqualTo(6));
+        assertThat(directory.listFiles()).isEmpty();
+    }
+
+    @Test
+    public void when_nothingSpilled_then_loadCompletesImmediately() {
+        assertThat(spill.hasSpilled()).isFalse();
+        assertThat(spill.loadChunk(0, new HashMap<>(), (left, right) -> { })).isTrue();
+    }
+
+    private void spillFully(Map<Integer, AtomicLong> map) {
+        int calls = 1;
+        while (!spill.spillChunk(map)) {
+            assertThat(spill.isSpilling()).isTrue();
+            calls++;
+        }
+        assertThat(spill.isSpilling()).isFalse();
+        assertThat(calls).isEqualTo(3);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.impl.processor.PrimitiveAccumulatorFrame.DoubleFrame;
+import com.hazelcast.jet.impl.processor.PrimitiveAccumulatorFrame.LongFrame;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveAccumulatorFrameTest {
+
+    @Test
+    public void when_add_then_sumsPerKey() {
+        LongFrame<String> frame = new LongFrame<>();
+
+        assertTrue(frame.add("a", 1));
+        assertTrue(frame.add("b", 10));
+        assertFalse(frame.add("a", 2));
+
+        assertEquals(2, frame.size());
+        assertEquals(new LongAccumulator(3), frame.get("a"));
+        assertEquals(new LongAccumulator(10), frame.get("b"));
+        assertNull(frame.get("c"));
+    }
+
+    @Test
+    public void when_accumulatorMutated_then_frameUnchanged() {
+        LongFrame<String> frame = new LongFrame<>();
+        frame.add("a", 1);
+
+        frame.get("a").add(100);
+        frame.entrySet().iterator().next().getValue().add(100);
+
+        assertEquals(new LongAccumulator(1), frame.get("a"));
+    }
+
+    @Test
+    public void when_merge_then_remappedValueStored() {
+        LongFrame<String> frame = new LongFrame<>();
+        frame.merge("a", new LongAccumulator(5), (o, n) -> o.add(n));
+        frame.merge("a", new LongAccumulator(7), (o, n) -> o.add(n));
+
+        assertEquals(new LongAccumulator(12), frame.get("a"));
+        assertEquals(new LongAccumulator(12), frame.put("a", new LongAccumulator(1)));
+        assertEquals(new LongAccumulator(1), frame.get("a"));
+    }
+
+    @Test
+    public void when_doubleFrame_then_sumsPerKey() {
+        DoubleFrame<Integer> frame = new DoubleFrame<>();
+
+        frame.add(1, 0.5);
+        frame.add(1, 0.25);
+        frame.add(2, -1.5);
+
+        assertEquals(new DoubleAccumulator(0.75), frame.get(1));
+        assertEquals(new DoubleAccumulator(-1.5), frame.get(2));
+    }
+
+    @Test
+    public void when_manyKeysAddedAndRemoved_then_behavesLikeHashMap() {
+        Random random = new Random(42);
+        LongFrame<Integer> frame = new LongFrame<>();
+        Map<Integer, LongAccumulator> expected = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(key), frame.remove(key));
+            } else {
+                long value = random.nextInt(100);
+                assertEquals(!expected.containsKey(key), frame.add(key, value));
+                expected.computeIfAbsent(key, k -> new LongAccumulator()).add(value);
+            }
+        }
+
+        assertEquals(expected, frame);
+        assertEquals(expected.size(), frame.entrySet().size());
+        frame.clear();
+        assertTrue(frame.isEmpty());
+        assertFalse(frame.containsKey(0));
+    }
+}
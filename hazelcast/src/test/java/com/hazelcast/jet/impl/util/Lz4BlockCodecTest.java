@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class Lz4BlockCodecTest {
+
+    private final Lz4BlockCodec codec = new Lz4BlockCodec();
+
+    @Test
+    public void when_emptyInput_then_roundTrips() {
+        assertRoundTrip(new byte[0]);
+    }
+
+    @Test
+    public void when_shortInput_then_roundTrips() {
+        assertRoundTrip("abcabc".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void when_repetitiveInput_then_compressedAndRoundTrips() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"item\"}");
+        }
+        byte[] input = sb.toString().getBytes(StandardCharsets.UTF_8);
+        int compressedLength = assertRoundTrip(input);
+        assertThat(compressedLength).isLessThan(input.length / 4);
+    }
+
+    @Test
+    public void when_longRunOfSameByte_then_roundTrips() {
+        byte[] input = new byte[100_000];
+        Arrays.fill(input, (byte) 7);
+        assertThat(assertRoundTrip(input)).isLessThan(1000);
+    }
+
+    @Test
+    public void when_randomInput_then_roundTrips() {
+        Random random = new Random(42);
+        for (int length : new int[]{13, 100, 4096, 70_000}) {
+            byte[] input = new byte[length];
+            random.nextBytes(input);
+            int compressedLength = assertRoundTrip(input);
+            assertThat(compressedLength).isLessThanOrEqualTo(Lz4BlockCodec.maxCompressedLength(length));
+        }
+    }
+
+    @Test
+    public void when_codecReused_then_roundTrips() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            byte[] input = new byte[random.nextInt(2000)];
+            for (int j = 0; j < input.length; j++) {
+                input[j] = (byte) random.nextInt(4);
+            }
+            assertRoundTrip(input);
+        }
+    }
+
+    @Test
+    public void when_truncatedInput_then_fails() {
+        byte[] input = new byte[1000];
+        Arrays.fill(input, (byte) 7);
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(input.length)];
+        int compressedLength = codec.compress(input, 0, input.length, compressed, 0);
+
+        assertThatThrownBy(() -> Lz4BlockCodec.decompress(compressed, 0, compressedLength - 1,
+                new byte[input.length], 0, input.length))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int assertRoundTrip(byte[] input) {
+        // use non-zero offsets to check the offset arithmetic
+        byte[] source = new byte[input.length + 3];
+        System.arraycopy(input, 0, source, 3, input.length);
+        byte[] compressed = new byte[Lz4BlockCodec.maxCompressedLength(input.length) + 5];
+        int compressedLength = codec.compress(source, 3, input.length, compressed, 5);
+
+        byte[] decompressed = new byte[input.length + 2];
+        Lz4BlockCodec.decompress(compressed, 5, compressedLength, decompressed, 2, input.length);
+        assertThat(Arrays.copyOfRange(decompressed, 2, decompressed.length)).isEqualTo(input);
+        return compressedLength;
+    }
+}
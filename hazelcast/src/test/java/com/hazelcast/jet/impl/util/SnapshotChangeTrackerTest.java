@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SnapshotChangeTrackerTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final SnapshotChangeTracker tracker = new SnapshotChangeTracker(false);
+
+    @Test
+    public void when_firstSnapshot_then_allEntriesChanged() {
+        assertTrue(tracker.track(data("a"), data(1)));
+        assertTrue(tracker.track(data("b"), data(2)));
+        assertNull(tracker.removedKey());
+        tracker.snapshotDone();
+
+        assertThat(tracker.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void when_valueUnchanged_then_notChanged() {
+        tracker.track(data("a"), data(1));
+        tracker.track(data("b"), data(2));
+        tracker.snapshotDone();
+
+        assertFalse(tracker.track(data("a"), data(1)));
+        assertTrue(tracker.track(data("b"), data(3)));
+        assertTrue(tracker.track(data("c"), data(1)));
+        assertNull(tracker.removedKey());
+    }
+
+    @Test
+    public void when_keyNotTracked_then_removed() {
+        tracker.track(data("a"), data(1));
+        tracker.track(data("b"), data(2));
+        tracker.track(data("c"), data(3));
+        tracker.snapshotDone();
+
+        tracker.track(data("b"), data(2));
+        List<Object> removedKeys = new ArrayList<>();
+        for (Data key; (key = tracker.removedKey()) != null; tracker.advanceRemovedKey()) {
+            removedKeys.add(serializationService.toObject(key));
+        }
+        tracker.snapshotDone();
+
+        assertThat(removedKeys).containsExactlyInAnyOrder("a", "c");
+        assertThat(tracker.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void when_removedKeyNotAdvanced_then_sameKeyReturned() {
+        tracker.track(data("a"), data(1));
+        tracker.snapshotDone();
+
+        Data removedKey = tracker.removedKey();
+        assertThat(tracker.removedKey()).isSameAs(removedKey);
+        tracker.advanceRemovedKey();
+        assertNull(tracker.removedKey());
+    }
+
+    @Test
+    public void when_keyRemovedAndAddedAgain_then_changed() {
+        tracker.track(data("a"), data(1));
+        tracker.snapshotDone();
+        tracker.snapshotDone();
+
+        assertTrue(tracker.track(data("a"), data(1)));
+    }
+
+    @Test
+    public void when_hashCollision_then_changeDetectedOnlyWhenComparingValues() {
+        SnapshotChangeTracker comparingTracker = new SnapshotChangeTracker(true);
+        tracker.track(data("a"), collidingData(1));
+        comparingTracker.track(data("a"), collidingData(1));
+        comparingTracker.track(data("b"), collidingData(1));
+        tracker.snapshotDone();
+        comparingTracker.snapshotDone();
+
+        assertFalse(tracker.track(data("a"), collidingData(2)));
+        assertTrue(comparingTracker.track(data("a"), collidingData(2)));
+        assertThat(comparingTracker.removedKey()).isEqualTo(data("b"));
+        comparingTracker.snapshotDone();
+
+        assertThat(comparingTracker.size()).isEqualTo(1);
+        assertFalse(comparingTracker.track(data("a"), collidingData(2)));
+    }
+
+    /**
+     * Returns the serialized value with a fixed 64-bit hash.
+     */
+    private Data collidingData(Object o) {
+        return new HeapData(data(o).toByteArray()) {
+            @Override
+            public long hash64() {
+                return 42;
+            }
+        };
+    }
+
+    private Data data(Object o) {
+        return serializationService.toData(o);
+    }
+}
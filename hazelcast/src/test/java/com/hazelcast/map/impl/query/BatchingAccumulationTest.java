@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BatchingAccumulationTest {
+
+    private static final int ENTRY_COUNT = 3 * BatchingAccumulation.BATCH_SIZE + 17;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+    private final Random random = new Random(42);
+
+    @Test
+    public void testIntegralSums() {
+        List<QueryableEntry> longs = entries(() -> random.nextLong() >> 16);
+        assertSameResult(() -> Aggregators.longSum("this"), longs);
+        assertSameResult(() -> Aggregators.fixedPointSum("this"), longs);
+        assertSameResult(() -> Aggregators.longAvg("this"), longs);
+
+        List<QueryableEntry> integers = entries(random::nextInt);
+        assertSameResult(() -> Aggregators.integerSum("this"), integers);
+        assertSameResult(() -> Aggregators.integerAvg("this"), integers);
+    }
+
+    @Test
+    public void testFloatingPointSums() {
+        List<QueryableEntry> doubles = entries(random::nextDouble);
+        assertSameResult(() -> Aggregators.doubleSum("this"), doubles);
+        assertSameResult(() -> Aggregators.floatingPointSum("this"), doubles);
+        assertSameResult(() -> Aggregators.doubleAvg("this"), doubles);
+        assertSameResult(() -> Aggregators.numberAvg("this"), doubles);
+    }
+
+    @Test
+    public void testMinMax_withNulls() {
+        List<QueryableEntry> longs = entries(() -> random.nextInt(10) == 0 ? null : random.nextLong());
+        assertSameResult(() -> Aggregators.longMax("this"), longs);
+        assertSameResult(() -> Aggregators.longMin("this"), longs);
+
+        List<QueryableEntry> doubles = entries(() -> random.nextInt(10) == 0 ? null : random.nextDouble() - 0.5);
+        assertSameResult(() -> Aggregators.doubleMax("this"), doubles);
+        assertSameResult(() -> Aggregators.doubleMin("this"), doubles);
+    }
+
+    @Test
+    public void testMixedIntegralTypes() {
+        List<QueryableEntry> entries = entries(
+                () -> random.nextBoolean() ? (Object) random.nextInt() : (Object) random.nextLong());
+        assertSameResult(() -> Aggregators.longSum("this"), entries);
+        assertSameResult(() -> Aggregators.count("this"), entries);
+    }
+
+    @Test
+    public void testNonNumericValue_fallsBackToEntryByEntry() {
+        List<QueryableEntry> entries = entries(() -> random.nextInt(100) == 0 ? "value" : random.nextLong());
+        assertSameResult(() -> Aggregators.count("this"), entries);
+    }
+
+    @Test
+    public void testWithoutAttributePath() {
+        List<QueryableEntry> entries = entries(random::nextLong);
+        assertSameResult(Aggregators::longSum, entries);
+    }
+
+    private List<QueryableEntry> entries(Supplier<Object> values) {
+        List<QueryableEntry> entries = new ArrayList<>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries.add(new QueryEntry(ss, ss.toData(i), values.get(), extractors));
+        }
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertSameResult(Supplier<Aggregator> aggregatorSupplier, List<QueryableEntry> entries) {
+        Aggregator expected = aggregatorSupplier.get();
+        for (QueryableEntry entry : entries) {
+            expected.accumulate(entry);
+        }
+        Aggregator actual = aggregatorSupplier.get();
+        BatchingAccumulation.accumulate(actual, entries);
+
+        Object expectedResult = expected.aggregate();
+        Object actualResult = actual.aggregate();
+        if (expectedResult instanceof Double) {
+            assertEquals((Double) expectedResult, (Double) actualResult, 1e-9);
+        } else {
+            assertEquals(expectedResult, actualResult);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.partition.IPartitionService;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.hazelcast.map.impl.MapServiceContext.COLUMNAR_PROJECTION_ATTRIBUTES;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarProjectionTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1_000;
+
+    private InternalSerializationService ss;
+    private ColumnarProjection projection;
+    private final Map<Integer, Item> expected = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        projection = new ColumnarProjection(asList("value", "this.total"), ss, Extractors.newBuilder(ss).build());
+    }
+
+    @Test
+    public void testAggregationsMatchEntries() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10 * ENTRY_COUNT; i++) {
+            int key = random.nextInt(ENTRY_COUNT);
+            if (random.nextInt(4) == 0) {
+                remove(key);
+            } else {
+                Long total = random.nextInt(10) == 0 ? null : (long) random.nextInt(1_000);
+                put(key, new Item(random.nextInt(100), total, "item-" + key));
+            }
+        }
+        assertEquals(expected.size(), projection.size());
+
+        assertAggregation(expectedSum(e -> e.value > 50), Aggregators.integerSum("value"),
+                Predicates.greaterThan("value", 50));
+        assertAggregation((long) expected.size(), Aggregators.count(), Predicates.alwaysTrue());
+        assertAggregation(count(e -> e.total == null), Aggregators.count("total"), Predicates.equal("total", null));
+        assertAggregation(count(e -> e.value >= 10 && e.value <= 20 && e.total != null && e.total < 500),
+                Aggregators.count(),
+                Predicates.and(Predicates.between("value", 10, 20), Predicates.lessThan("total", 500)));
+        assertAggregation(expected.values().stream().mapToInt(e -> e.value).max().getAsInt(),
+                Aggregators.integerMax("value"), Predicates.alwaysTrue());
+    }
+
+    @Test
+    public void testPredicateConstantIsConverted() {
+        put(1, new Item(5, 10L, "a"));
+        put(2, new Item(15, 20L, "b"));
+
+        assertAggregation(15L, Aggregators.longSum("value"), Predicates.sql("value > '10'"));
+    }
+
+    @Test
+    public void testNotProjectedAttributesAreRejected() {
+        put(1, new Item(5, 10L, "a"));
+
+        assertNull(aggregate(Aggregators.count(), Predicates.equal("name", "a")));
+        assertNull(aggregate(Aggregators.count(), Predicates.equal("__key", 1)));
+        assertNull(aggregate(Aggregators.count("name"), Predicates.alwaysTrue()));
+        assertNull(aggregate(Aggregators.maxBy("value"), Predicates.alwaysTrue()));
+        assertNull(aggregate(Aggregators.distinct(), Predicates.alwaysTrue()));
+    }
+
+    @Test
+    public void testColumnWithMixedTypesIsRejectedUntilCleared() {
+        ColumnarProjection thisProjection = new ColumnarProjection(asList("this"), ss, Extractors.newBuilder(ss).build());
+        thisProjection.onUpdateRecord(ss.toData(1), mock(Record.class), null, 1, false);
+        thisProjection.onUpdateRecord(ss.toData(2), mock(Record.class), null, 2L, false);
+
+        Aggregator<Object, Long> aggregator = Aggregators.count("this");
+        assertFalse(thisProjection.aggregate(Predicates.alwaysTrue(), aggregator));
+
+        thisProjection.onClear();
+        thisProjection.onUpdateRecord(ss.toData(1), mock(Record.class), null, 1, false);
+        assertTrue(thisProjection.aggregate(Predicates.alwaysTrue(), aggregator));
+        assertEquals(1L, (long) aggregator.aggregate());
+    }
+
+    @Test
+    public void testAggregationOnMap() {
+        Config config = smallInstanceConfig();
+        config.setProperty(COLUMNAR_PROJECTION_ATTRIBUTES.getName(), "projected:value,projected:total");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Item> projected = instance.getMap("projected");
+        IMap<Integer, Item> scanned = instance.getMap("scanned");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Item item = new Item(i % 100, (long) i, "item-" + i);
+            projected.put(i, item);
+            scanned.put(i, item);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 3) {
+            projected.remove(i);
+            scanned.remove(i);
+        }
+
+        assertEquals(scanned.aggregate(Aggregators.longSum("total"), Predicates.lessThan("value", 30)),
+                projected.aggregate(Aggregators.longSum("total"), Predicates.lessThan("value", 30)));
+        assertEquals(scanned.aggregate(Aggregators.integerAvg("value")),
+                projected.aggregate(Aggregators.integerAvg("value")));
+        assertEquals(scanned.aggregate(Aggregators.count(), Predicates.equal("name", "item-1")),
+                projected.aggregate(Aggregators.count(), Predicates.equal("name", "item-1")));
+
+        int projectedEntries = 0;
+        MapServiceContext mapServiceContext = ((MapService) ((MapProxyImpl) projected).getService()).getMapServiceContext();
+        int partitionCount = mapServiceContext.getNodeEngine().getPartitionService().getPartitionCount();
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId).getRecordStore("projected");
+            projectedEntries += recordStore.getColumnarProjection().size();
+            assertNull(mapServiceContext.getPartitionContainer(partitionId).getRecordStore("scanned").getColumnarProjection());
+        }
+        assertEquals(projected.size(), projectedEntries);
+    }
+
+    @Test
+    public void testProjectionIsKeptOnPrimariesOnly() {
+        Config config = smallInstanceConfig();
+        config.setProperty(COLUMNAR_PROJECTION_ATTRIBUTES.getName(), "projected:value");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance[] instances = factory.newInstances(config);
+        IMap<Integer, Item> map = instances[0].getMap("projected");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, new Item(i % 100, (long) i, "item-" + i));
+        }
+        waitAllForSafeState(instances);
+        assertProjectedOnPrimariesOnly(instances[1]);
+
+        instances[0].shutdown();
+        waitAllForSafeState(instances[1]);
+        assertProjectedOnPrimariesOnly(instances[1]);
+        assertEquals(ENTRY_COUNT, (long) instances[1].<Integer, Item>getMap("projected")
+                .aggregate(Aggregators.count(), Predicates.greaterEqual("value", 0)));
+    }
+
+    private static void assertProjectedOnPrimariesOnly(HazelcastInstance instance) {
+        MapServiceContext mapServiceContext = getNodeEngineImpl(instance).<MapService>getService(MapService.SERVICE_NAME)
+                .getMapServiceContext();
+        IPartitionService partitionService = getPartitionService(instance);
+        for (int partitionId = 0; partitionId < partitionService.getPartitionCount(); partitionId++) {
+            RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId).getRecordStore("projected");
+            ColumnarProjection projection = recordStore.getColumnarProjection();
+            if (partitionService.isPartitionOwner(partitionId)) {
+                assertEquals(recordStore.size(), projection.size());
+            } else {
+                assertNull(projection);
+            }
+        }
+    }
+
+    private void put(int key, Item item) {
+        Data keyData = ss.toData(key);
+        Item previous = expected.put(key, item);
+        if (previous == null) {
+            Record record = mock(Record.class);
+            when(record.getValue()).thenReturn(ss.toData(item));
+            projection.onPutRecord(keyData, record, null, false);
+        } else {
+            projection.onUpdateRecord(keyData, mock(Record.class), ss.toData(previous), ss.toData(item), false);
+        }
+    }
+
+    private void remove(int key) {
+        if (expected.remove(key) != null) {
+            projection.onRemoveRecord(ss.toData(key), mock(Record.class), false);
+        }
+    }
+
+    private <R> R aggregate(Aggregator<?, R> aggregator, Predicate predicate) {
+        return projection.aggregate(predicate, aggregator) ? aggregator.aggregate() : null;
+    }
+
+    private void assertAggregation(Object expectedResult, Aggregator<?, ?> aggregator, Predicate predicate) {
+        assertTrue(projection.aggregate(predicate, aggregator));
+        assertEquals(expectedResult, aggregator.aggregate());
+    }
+
+    private long count(java.util.function.Predicate<Item> filter) {
+        return expected.values().stream().filter(filter).count();
+    }
+
+    private long expectedSum(java.util.function.Predicate<Item> filter) {
+        return expected.values().stream().filter(filter).mapToLong(e -> e.value).sum();
+    }
+
+    public static class Item implements Serializable {
+        public int value;
+        public Long total;
+        public String name;
+
+        public Item(int value, Long total, String name) {
+            this.value = value;
+            this.total = total;
+            this.name = name;
+        }
+    }
+}
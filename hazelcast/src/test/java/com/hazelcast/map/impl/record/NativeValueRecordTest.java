@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.impl.PowerOfTwoMemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeValueRecordTest {
+
+    private static final int MIN_BLOCK_SIZE = 16;
+    private static final int SLAB_SIZE = 1024;
+
+    private final SerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private PowerOfTwoMemoryAllocator allocator;
+    private NativeValueBlocks blocks;
+
+    @Before
+    public void setUp() {
+        allocator = new PowerOfTwoMemoryAllocator(MIN_BLOCK_SIZE, SLAB_SIZE, new AtomicLong(), Long.MAX_VALUE);
+        blocks = new NativeValueBlocks(allocator);
+    }
+
+    @After
+    public void tearDown() {
+        blocks.dispose();
+    }
+
+    @Test
+    public void testSetValue_freesReplacedBlock() {
+        NativeValueRecord record = new NativeValueRecord(blocks, value(100, 1));
+        long usedMemory = allocator.getUsedMemory();
+
+        record.setValue(value(100, 2));
+        assertEquals(usedMemory, allocator.getUsedMemory());
+        assertEquals(value(100, 2), record.getValue());
+
+        record.setValue(null);
+        assertNull(record.getValue());
+        assertEquals(0, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testDetach_movesValueToHeap() {
+        NativeValueRecord record = new NativeValueRecord(blocks, value(2 * SLAB_SIZE, 1));
+
+        record.detach();
+
+        assertEquals(0, allocator.getUsedMemory());
+        assertEquals(value(2 * SLAB_SIZE, 1), record.getValue());
+    }
+
+    @Test
+    public void testSetValue_defersReplacedBlock_whileRead() {
+        NativeValueRecord record = new NativeValueRecord(blocks, value(100, 1));
+        long usedMemory = allocator.getUsedMemory();
+
+        record.beginRead();
+        record.setValue(value(100, 2));
+        blocks.disposeDeferredBlocks();
+        assertEquals(1, blocks.getDeferredBlockCount());
+        assertEquals(2 * usedMemory, allocator.getUsedMemory());
+
+        record.endRead();
+        blocks.disposeDeferredBlocks();
+        assertEquals(0, blocks.getDeferredBlockCount());
+        assertEquals(usedMemory, allocator.getUsedMemory());
+        assertEquals(value(100, 2), record.getValue());
+    }
+
+    @Test
+    public void testDetach_doesNotWaitForReaders() {
+        NativeValueRecord record = new NativeValueRecord(blocks, value(100, 1));
+
+        record.beginRead();
+        record.detach();
+        assertEquals(value(100, 1), record.getValue());
+        assertEquals(1, blocks.getDeferredBlockCount());
+
+        record.endRead();
+        blocks.disposeDeferredBlocks();
+        assertEquals(0, allocator.getUsedMemory());
+        assertEquals(value(100, 1), record.getValue());
+    }
+
+    @Test
+    public void testGetValue_withConcurrentUpdates() throws Exception {
+        // same size class values were rewritten in place, large blocks are freed to the OS
+        List<Data> values = Arrays.asList(value(100, 1), value(110, 2), value(2 * SLAB_SIZE, 3), null);
+        NativeValueRecord record = new NativeValueRecord(blocks, values.get(0));
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (!stop.get()) {
+                record.setValue(values.get(i++ % values.size()));
+                blocks.disposeDeferredBlocks();
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 100_000; i++) {
+                Data value = record.getValue();
+                assertTrue("Torn value: " + value, values.contains(value));
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+
+        record.dispose();
+        blocks.disposeDeferredBlocks();
+        assertEquals(0, blocks.getDeferredBlockCount());
+        assertEquals(0, allocator.getUsedMemory());
+    }
+
+    private Data value(int length, int fill) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) fill);
+        return ss.toData(bytes);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.memory.Capacity;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.config.EvictionPolicy.LRU;
+import static com.hazelcast.map.impl.MapServiceContext.NATIVE_VALUE_STORAGE_MAPS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeValueStorageMapTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 5_000;
+    private static final int VALUE_SIZE = 4_000;
+
+    @Test
+    public void testOnlyBinaryMapsUseNativeValueStorage() {
+        Config config = smallInstanceConfig();
+        config.setProperty(NATIVE_VALUE_STORAGE_MAPS.getName(), "*");
+        config.getMapConfig("object").setInMemoryFormat(InMemoryFormat.OBJECT);
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        IMap<Integer, Integer> binaryMap = instance.getMap("binary");
+        IMap<Integer, Integer> objectMap = instance.getMap("object");
+        binaryMap.put(1, 1);
+        objectMap.put(1, 1);
+
+        assertInstanceOf(NativeValueStorage.class, getRecordStore(binaryMap, 1).getStorage());
+        assertInstanceOf(StorageImpl.class, getRecordStore(objectMap, 1).getStorage());
+    }
+
+    @Test
+    public void testBasicOperations() {
+        Config config = smallInstanceConfig();
+        config.setProperty(NATIVE_VALUE_STORAGE_MAPS.getName(), "*");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, String> map = instance.getMap(randomMapName());
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            assertEquals("value-" + i, map.replace(i, "replaced-" + i));
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 4) {
+            assertEquals("replaced-" + i, map.remove(i));
+        }
+        map.executeOnKey(1, entry -> entry.setValue(entry.getValue() + "-processed"));
+
+        assertEquals(ENTRY_COUNT - ENTRY_COUNT / 4, map.size());
+        assertNull(map.get(0));
+        assertEquals("replaced-2", map.get(2));
+        assertEquals("value-1-processed", map.get(1));
+
+        Set<String> values = new HashSet<>(map.values());
+        assertEquals(map.size(), values.size());
+        assertTrue(values.contains("value-3"));
+    }
+
+    @Test
+    public void testNativeOutOfMemory_withoutEviction() {
+        String mapName = randomMapName();
+        HazelcastInstance instance = createHazelcastInstance(newConfigWithSmallCapacity(mapName));
+        IMap<Integer, byte[]> map = instance.getMap(mapName);
+
+        HazelcastException exception = assertThrows(HazelcastException.class, () -> {
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                map.set(i, new byte[VALUE_SIZE]);
+            }
+        });
+        assertInstanceOf(NativeOutOfMemoryError.class, exception.getCause());
+    }
+
+    @Test
+    public void testNativeOutOfMemory_triggersForcedEviction() {
+        String mapName = randomMapName();
+        Config config = newConfigWithSmallCapacity(mapName);
+        config.getMapConfig(mapName).getEvictionConfig()
+                .setEvictionPolicy(LRU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                .setSize(ENTRY_COUNT);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, byte[]> map = instance.getMap(mapName);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.set(i, new byte[VALUE_SIZE]);
+        }
+
+        assertTrue("Map size " + map.size() + " should be reduced by forced eviction", map.size() < ENTRY_COUNT);
+        assertArrayEquals(new byte[VALUE_SIZE], map.get(ENTRY_COUNT - 1));
+    }
+
+    @Test
+    public void testDestroy_releasesNativeMemory() {
+        String mapName = randomMapName();
+        HazelcastInstance instance = createHazelcastInstance(newConfigWithSmallCapacity(mapName));
+        int entryCount = 100;
+
+        for (int round = 0; round < 3; round++) {
+            IMap<Integer, byte[]> map = instance.getMap(mapName);
+            for (int i = 0; i < entryCount; i++) {
+                map.set(i, new byte[VALUE_SIZE]);
+            }
+            assertEquals(entryCount, map.size());
+            map.destroy();
+        }
+    }
+
+    private static Config newConfigWithSmallCapacity(String mapName) {
+        Config config = smallInstanceConfig();
+        config.setProperty(NATIVE_VALUE_STORAGE_MAPS.getName(), mapName);
+        config.setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1");
+        config.getNativeMemoryConfig().setCapacity(new Capacity(1, MemoryUnit.MEGABYTES));
+        return config;
+    }
+
+    private static RecordStore getRecordStore(IMap<?, ?> map, int key) {
+        MapServiceContext mapServiceContext = ((MapService) ((MapProxyImpl) map).getService()).getMapServiceContext();
+        int partitionId = mapServiceContext.getNodeEngine().getPartitionService().getPartitionId(key);
+        return mapServiceContext.getPartitionContainer(partitionId).getRecordStore(map.getName());
+    }
+}
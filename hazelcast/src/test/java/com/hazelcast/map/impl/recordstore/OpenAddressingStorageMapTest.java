@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.config.EvictionPolicy.LRU;
+import static com.hazelcast.map.impl.MapServiceContext.OPEN_ADDRESSING_STORAGE_MAPS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OpenAddressingStorageMapTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 5_000;
+
+    @Test
+    public void testOnlyConfiguredMapsUseOpenAddressingStorage() {
+        Config config = smallInstanceConfig();
+        config.setProperty(OPEN_ADDRESSING_STORAGE_MAPS.getName(), "flat");
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        IMap<Integer, Integer> flatMap = instance.getMap("flat");
+        IMap<Integer, Integer> defaultMap = instance.getMap("default");
+        flatMap.put(1, 1);
+        defaultMap.put(1, 1);
+
+        assertInstanceOf(OpenAddressingStorage.class, getRecordStore(flatMap, 1).getStorage());
+        assertInstanceOf(StorageImpl.class, getRecordStore(defaultMap, 1).getStorage());
+    }
+
+    @Test
+    public void testBasicOperationsAndIteration() {
+        Config config = smallInstanceConfig();
+        config.setProperty(OPEN_ADDRESSING_STORAGE_MAPS.getName(), "*");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.remove(i);
+        }
+
+        assertEquals(ENTRY_COUNT / 2, map.size());
+        assertNull(map.get(0));
+        assertEquals(1, (int) map.get(1));
+
+        Set<Integer> keys = new HashSet<>();
+        map.iterator().forEachRemaining(entry -> assertTrue(keys.add(entry.getKey())));
+        assertEquals(ENTRY_COUNT / 2, keys.size());
+    }
+
+    @Test
+    public void testEviction() {
+        String mapName = randomMapName();
+        Config config = smallInstanceConfig();
+        config.setProperty(OPEN_ADDRESSING_STORAGE_MAPS.getName(), mapName);
+        config.getMapConfig(mapName).getEvictionConfig()
+                .setEvictionPolicy(LRU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_PARTITION)
+                .setSize(10);
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap(mapName);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        int partitionCount = instance.getPartitionService().getPartitions().size();
+        assertTrue("Map size " + map.size() + " exceeds the max size", map.size() <= 10 * partitionCount);
+    }
+
+    private static RecordStore getRecordStore(IMap<Integer, Integer> map, int key) {
+        MapServiceContext mapServiceContext = ((MapService) ((MapProxyImpl) map).getService()).getMapServiceContext();
+        int partitionId = mapServiceContext.getNodeEngine().getPartitionService().getPartitionId(key);
+        return mapServiceContext.getPartitionContainer(partitionId).getRecordStore(map.getName());
+    }
+}
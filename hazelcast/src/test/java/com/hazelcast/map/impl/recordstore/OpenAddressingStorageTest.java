@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OpenAddressingStorageTest {
+
+    private static final int ENTRY_COUNT = 10_000;
+
+    private SerializationService serializationService;
+    private DataRecordFactory recordFactory;
+    private OpenAddressingStorage<Record> storage;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        MapContainer mapContainer = mock(MapContainer.class);
+        when(mapContainer.getMapConfig()).thenReturn(new MapConfig());
+        recordFactory = new DataRecordFactory(mapContainer, serializationService);
+        ExpirySystem expirySystem = mock(ExpirySystem.class);
+        when(expirySystem.getExpiryMetadata(any())).thenReturn(ExpiryMetadata.NULL);
+        storage = new OpenAddressingStorage<>(InMemoryFormat.BINARY, expirySystem, serializationService);
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i);
+        }
+
+        assertEquals(ENTRY_COUNT, storage.size());
+        assertTrue(storage.capacity() > ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Record record = storage.get(key(i));
+            assertEquals(serializationService.toData(i), record.getValue());
+        }
+
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            Data key = key(i);
+            storage.removeRecord(key, storage.get(key));
+        }
+
+        assertEquals(ENTRY_COUNT / 2, storage.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i % 2 != 0, storage.containsKey(key(i)));
+        }
+    }
+
+    @Test
+    public void testPut_replacesExistingRecord() {
+        put(1);
+        Record record = recordFactory.newRecord(key(1), 2);
+        storage.put(key(1), record);
+
+        assertEquals(1, storage.size());
+        assertSame(record, storage.get(key(1)));
+    }
+
+    @Test
+    public void testRemove_absentKey_doesNotChangeCost() {
+        put(1);
+        long cost = storage.getEntryCostEstimator().getEstimate();
+
+        storage.removeRecord(key(2), recordFactory.newRecord(key(2), 2));
+
+        assertEquals(1, storage.size());
+        assertEquals(cost, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i);
+        }
+
+        storage.clear(false);
+
+        assertTrue(storage.isEmpty());
+        assertNull(storage.get(key(1)));
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testMutationTolerantIterator_removeWhileIterating() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i);
+        }
+
+        Set<Data> seen = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            assertTrue("Entry returned twice: " + entry.getKey(), seen.add(entry.getKey()));
+            storage.removeRecord(entry.getKey(), entry.getValue());
+        }
+
+        assertEquals(ENTRY_COUNT, seen.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testMutationTolerantIterator_resizeWhileIterating() {
+        for (int i = 0; i < 100; i++) {
+            put(i);
+        }
+
+        Set<Data> seen = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        int nextKey = 100;
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            assertTrue("Entry returned twice: " + entry.getKey(), seen.add(entry.getKey()));
+            if (nextKey < ENTRY_COUNT) {
+                put(nextKey++);
+            }
+        }
+
+        assertTrue(storage.capacity() > OpenAddressingStorage.DEFAULT_INITIAL_CAPACITY);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(seen.contains(key(i)));
+        }
+    }
+
+    @Test
+    public void testGet_withConcurrentRemoves() throws Exception {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i);
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        // removes and re-adds odd keys, shifting back the even ones
+        Thread writer = new Thread(() -> {
+            while (!stop.get()) {
+                for (int i = 1; i < ENTRY_COUNT; i += 2) {
+                    Data key = key(i);
+                    storage.removeRecord(key, storage.get(key));
+                }
+                for (int i = 1; i < ENTRY_COUNT; i += 2) {
+                    put(i);
+                }
+            }
+        });
+        writer.start();
+        try {
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < ENTRY_COUNT; i += 2) {
+                    assertNotNull("Missed key " + i, storage.get(key(i)));
+                }
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    public void testGet_withConcurrentInsertsAndResizes() throws Exception {
+        put(0);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i < ENTRY_COUNT && !stop.get(); i++) {
+                put(i);
+                // replaces the record of the first key in place
+                put(0);
+            }
+        });
+        writer.start();
+        try {
+            while (writer.isAlive()) {
+                Record record = storage.get(key(0));
+                assertNotNull("Missed key 0", record);
+                assertNotNull(record.getValue());
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        assertEquals(ENTRY_COUNT, storage.size());
+    }
+
+    @Test
+    public void testFetchKeys_withResizeDuringIteration() {
+        for (int i = 0; i < 100; i++) {
+            put(i);
+        }
+
+        Set<Data> fetched = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        MapKeysWithCursor cursor = storage.fetchKeys(pointers, 10);
+        fetched.addAll(cursor.getBatch());
+        for (int i = 100; i < ENTRY_COUNT; i++) {
+            put(i);
+        }
+
+        do {
+            cursor = storage.fetchKeys(cursor.getIterationPointers(), 100);
+            for (Data key : cursor.getBatch()) {
+                assertTrue("Key fetched twice: " + key, fetched.add(key));
+            }
+        } while (cursor.getIterationPointers()[cursor.getIterationPointers().length - 1].getIndex() >= 0);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(fetched.contains(key(i)));
+        }
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i);
+        }
+
+        Set<Object> sampledKeys = new HashSet<>();
+        for (EntryView view : storage.getRandomSamples(15)) {
+            sampledKeys.add(view.getKey());
+        }
+
+        assertEquals(15, sampledKeys.size());
+    }
+
+    @Test
+    public void testGetRandomSamples_whenFewerEntriesThanSamples() {
+        put(1);
+        put(2);
+
+        int count = 0;
+        for (EntryView ignored : storage.getRandomSamples(15)) {
+            count++;
+        }
+
+        assertEquals(2, count);
+        assertFalse(storage.getRandomSamples(0).iterator().hasNext());
+    }
+
+    private void put(int i) {
+        Data key = key(i);
+        storage.put(key, recordFactory.newRecord(key, i));
+    }
+
+    private Data key(int i) {
+        return serializationService.toData(i);
+    }
+}
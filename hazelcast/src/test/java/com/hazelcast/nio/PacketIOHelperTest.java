@@ -143,6 +143,29 @@ public class PacketIOHelperTest extends HazelcastTestSupport {
         assertPacketEquals(originalPacket, clonedPacket);
     }
 
+    @Test
+    public void largeValue_handedOverBuffer() {
+        InternalSerializationService ss = createSerializationServiceBuilder().build();
+        String value = generateRandomString(100000);
+        Packet originalPacket = ss.toBytes(value, 0, true, true, (bytes, length) -> new Packet(bytes, length, 1));
+
+        Packet clonedPacket;
+        ByteBuffer bb = ByteBuffer.allocate(1000);
+        boolean writeCompleted;
+        do {
+            writeCompleted = packetWriter.writeTo(originalPacket, bb);
+            upcast(bb).flip();
+            clonedPacket = packetReader.readFrom(bb);
+            upcast(bb).clear();
+        } while (!writeCompleted);
+
+        assertNotNull(clonedPacket);
+        assertEquals(1, clonedPacket.getPartitionId());
+        assertEquals(originalPacket.totalSize(), clonedPacket.totalSize());
+        assertEquals(value, ss.toObject(clonedPacket));
+        assertPacketEquals(originalPacket, clonedPacket);
+    }
+
     @Test
     public void lotsOfPackets() {
         List<Packet> originalPackets = new LinkedList<Packet>();
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.internal.monitor.impl.IndexOperationStats.EMPTY;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.OrderedIndexStore.SPECIAL_AWARE_COMPARATOR;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParametrizedRunner.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BPlusTreeIndexStoreTest {
+
+    private static final int ENTRY_COUNT = 3_000;
+    private static final int VALUE_RANGE = 500;
+
+    @Parameter
+    public IndexCopyBehavior copyBehavior;
+
+    private final Random random = new Random(42);
+    private InternalSerializationService ss;
+    private Extractors extractors;
+    private OrderedIndexStore expected;
+    private BPlusTreeIndexStore actual;
+
+    @Parameters(name = "copyBehavior:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{
+                {IndexCopyBehavior.COPY_ON_READ},
+                {IndexCopyBehavior.COPY_ON_WRITE},
+                {IndexCopyBehavior.NEVER},
+        });
+    }
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(ss).build();
+        expected = new OrderedIndexStore(copyBehavior);
+        actual = new BPlusTreeIndexStore(copyBehavior);
+
+        Integer[] values = new Integer[ENTRY_COUNT];
+        for (int key = 0; key < ENTRY_COUNT; key++) {
+            values[key] = randomValue();
+            insert(key, values[key]);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            int key = random.nextInt(ENTRY_COUNT);
+            if (values[key] == null) {
+                continue;
+            }
+            if (random.nextBoolean()) {
+                Integer newValue = randomValue();
+                CachedQueryEntry<?, ?> entry = entry(key, newValue);
+                expected.update(values[key], newValue, entry, entry, EMPTY);
+                actual.update(values[key], newValue, entry, entry, EMPTY);
+                values[key] = newValue;
+            } else {
+                CachedQueryEntry<?, ?> entry = entry(key, values[key]);
+                expected.remove(values[key], entry, EMPTY);
+                actual.remove(values[key], entry, EMPTY);
+                values[key] = null;
+            }
+        }
+    }
+
+    @Test
+    public void testGetRecords() {
+        for (int value = -1; value <= VALUE_RANGE; value++) {
+            assertSameKeys(expected.getRecords(value), actual.getRecords(value));
+        }
+        assertSameKeys(expected.getRecords(NULL), actual.getRecords(NULL));
+
+        Set<Comparable> values = new HashSet<>(asList(1, 10, 100, NULL, VALUE_RANGE + 1));
+        assertSameKeys(expected.getRecords(values), actual.getRecords(values));
+    }
+
+    @Test
+    public void testGetRecords_comparison() {
+        for (Comparison comparison : Comparison.values()) {
+            for (int value = -1; value <= VALUE_RANGE; value += 13) {
+                assertSameKeys(expected.getRecords(comparison, value), actual.getRecords(comparison, value));
+            }
+        }
+    }
+
+    @Test
+    public void testGetRecords_range() {
+        for (int i = 0; i < 200; i++) {
+            Comparable from = random.nextInt(10) == 0 ? NULL : (Comparable) random.nextInt(VALUE_RANGE);
+            Comparable to = random.nextInt(VALUE_RANGE);
+            boolean fromInclusive = random.nextBoolean();
+            boolean toInclusive = random.nextBoolean();
+            assertSameKeys(expected.getRecords(from, fromInclusive, to, toInclusive),
+                    actual.getRecords(from, fromInclusive, to, toInclusive));
+        }
+    }
+
+    @Test
+    public void testSqlRecordIterator() {
+        for (boolean descending : new boolean[]{false, true}) {
+            assertSameSequence(expected.getSqlRecordIterator(descending), actual.getSqlRecordIterator(descending));
+            for (Comparison comparison : Comparison.values()) {
+                int value = random.nextInt(VALUE_RANGE);
+                assertSameSequence(expected.getSqlRecordIterator(comparison, value, descending),
+                        actual.getSqlRecordIterator(comparison, value, descending));
+            }
+            for (int i = 0; i < 100; i++) {
+                Comparable from = random.nextInt(10) == 0 ? NULL : (Comparable) random.nextInt(VALUE_RANGE);
+                Comparable to = random.nextInt(VALUE_RANGE);
+                boolean fromInclusive = random.nextBoolean();
+                boolean toInclusive = random.nextBoolean();
+                assertSameSequence(expected.getSqlRecordIterator(from, fromInclusive, to, toInclusive, descending),
+                        actual.getSqlRecordIterator(from, fromInclusive, to, toInclusive, descending));
+            }
+        }
+        assertSameSequence(expected.getSqlRecordIterator(NULL), actual.getSqlRecordIterator(NULL));
+        assertSameSequence(expected.getSqlRecordIterator(7), actual.getSqlRecordIterator(7));
+    }
+
+    @Test
+    public void testSqlRecordIteratorBatch_withConcurrentInserts() {
+        Iterator<IndexKeyEntries> iterator = actual.getSqlRecordIteratorBatch(false);
+        Comparable previous = null;
+        int key = ENTRY_COUNT;
+        while (iterator.hasNext()) {
+            IndexKeyEntries entries = iterator.next();
+            Comparable indexKey = entries.getIndexKey();
+            assertTrue(previous == null || SPECIAL_AWARE_COMPARATOR.compare(previous, indexKey) < 0);
+            previous = indexKey;
+            // insert both before and after the current position of the iterator
+            insert(key++, random.nextInt(VALUE_RANGE * 2));
+        }
+        // the values inserted after the initial value range were observed
+        assertTrue((Integer) previous >= VALUE_RANGE);
+    }
+
+    @Test
+    public void testReads_withConcurrentUpdates() throws Exception {
+        Set<QueryableEntry> expectedRange = expected.getRecords(0, true, VALUE_RANGE, false);
+        AtomicBoolean stop = new AtomicBoolean();
+        // updates only values outside the checked range, but still split and unlink the pages
+        Thread writer = new Thread(() -> {
+            Random writerRandom = new Random(7);
+            int key = ENTRY_COUNT;
+            while (!stop.get()) {
+                Integer value = VALUE_RANGE + writerRandom.nextInt(VALUE_RANGE);
+                CachedQueryEntry<?, ?> entry = entry(key, value);
+                actual.insert(value, entry, entry, EMPTY);
+                actual.remove(value, entry, EMPTY);
+                if (writerRandom.nextBoolean()) {
+                    actual.insert(value, entry, entry, EMPTY);
+                    key++;
+                }
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                assertSameKeys(expectedRange, actual.getRecords(0, true, VALUE_RANGE, false));
+                int value = random.nextInt(VALUE_RANGE);
+                assertSameKeys(expected.getRecords(value), actual.getRecords(value));
+                assertSameSequence(expected.getSqlRecordIterator(0, true, VALUE_RANGE, false, false),
+                        actual.getSqlRecordIterator(0, true, VALUE_RANGE, false, false));
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    public void testClear() {
+        actual.clear();
+
+        assertTrue(actual.getRecords(NULL, true, VALUE_RANGE, true).isEmpty());
+        assertFalse(actual.getSqlRecordIterator(false).hasNext());
+        assertEquals(0, actual.valueCount());
+    }
+
+    private Integer randomValue() {
+        return random.nextInt(20) == 0 ? null : random.nextInt(VALUE_RANGE);
+    }
+
+    private void insert(int key, Integer value) {
+        CachedQueryEntry<?, ?> entry = entry(key, value);
+        expected.insert(value, entry, entry, EMPTY);
+        actual.insert(value, entry, entry, EMPTY);
+    }
+
+    private CachedQueryEntry<?, ?> entry(int key, Integer value) {
+        return new CachedQueryEntry<>(ss, ss.toData(key), value, extractors);
+    }
+
+    private static void assertSameKeys(Set<QueryableEntry> expectedEntries, Set<QueryableEntry> actualEntries) {
+        Set<Data> expectedKeys = new HashSet<>();
+        expectedEntries.forEach(entry -> expectedKeys.add(entry.getKeyData()));
+        Set<Data> actualKeys = new HashSet<>();
+        actualEntries.forEach(entry -> assertTrue("Duplicate key", actualKeys.add(entry.getKeyData())));
+        assertEquals(expectedKeys, actualKeys);
+        assertEquals(expectedEntries.size(), actualEntries.size());
+    }
+
+    private static void assertSameSequence(Iterator<QueryableEntry> expectedEntries, Iterator<QueryableEntry> actualEntries) {
+        List<Data> expectedKeys = new ArrayList<>();
+        expectedEntries.forEachRemaining(entry -> expectedKeys.add(entry.getKeyData()));
+        List<Data> actualKeys = new ArrayList<>();
+        actualEntries.forEachRemaining(entry -> actualKeys.add(entry.getKeyData()));
+        assertEquals(expectedKeys, actualKeys);
+    }
+}
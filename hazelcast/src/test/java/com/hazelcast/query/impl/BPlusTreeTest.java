@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParametrizedRunner.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BPlusTreeTest {
+
+    private static final int KEY_RANGE = 2_000;
+
+    @Parameter
+    public int pageCapacity;
+
+    private final Random random = new Random(42);
+    private final NavigableMap<Integer, Integer> expected = new TreeMap<>();
+    private BPlusTree<Integer, Integer> tree;
+
+    @Parameters(name = "pageCapacity:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{3}, {4}, {BPlusTree.DEFAULT_PAGE_CAPACITY}});
+    }
+
+    @Before
+    public void setUp() {
+        tree = new BPlusTree<>(Comparator.naturalOrder(), pageCapacity);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(KEY_RANGE);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), tree.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), tree.put(key, i));
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+
+        for (int key = 0; key < KEY_RANGE; key++) {
+            assertEquals(expected.get(key), tree.get(key));
+        }
+        assertEntries(expected, null, true, false);
+        assertEntries(expected.descendingMap(), null, true, true);
+    }
+
+    @Test
+    public void testForEach_fromBound() {
+        for (int key = 0; key < KEY_RANGE; key += 2) {
+            tree.put(key, key);
+            expected.put(key, key);
+        }
+
+        for (int from = -1; from <= KEY_RANGE; from += 7) {
+            assertEntries(expected.tailMap(from, true), from, true, false);
+            assertEntries(expected.tailMap(from, false), from, false, false);
+            assertEntries(expected.headMap(from, true).descendingMap(), from, true, true);
+            assertEntries(expected.headMap(from, false).descendingMap(), from, false, true);
+        }
+    }
+
+    @Test
+    public void testForEach_stoppedByVisitor() {
+        for (int key = 0; key < 100; key++) {
+            tree.put(key, key);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        boolean reachedEnd = tree.forEach(10, true, false, (key, value) -> visited.add(key) && visited.size() < 5);
+
+        assertFalse(reachedEnd);
+        assertEquals(asList(10, 11, 12, 13, 14), visited);
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        assertNull(tree.putIfAbsent(1, 1));
+        assertEquals(1, (int) tree.putIfAbsent(1, 2));
+        assertEquals(1, (int) tree.get(1));
+    }
+
+    @Test
+    public void testRemoveAll_thenReuse() {
+        for (int key = 0; key < KEY_RANGE; key++) {
+            tree.put(key, key);
+        }
+        for (int key = KEY_RANGE - 1; key >= 0; key--) {
+            assertEquals(key, (int) tree.remove(key));
+        }
+
+        assertTrue(tree.isEmpty());
+        assertTrue(tree.forEach(null, true, false, (key, value) -> {
+            throw new AssertionError("Unexpected entry " + key);
+        }));
+
+        tree.put(1, 1);
+        assertEquals(1, (int) tree.get(1));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    public void testAscendingInserts() {
+        for (int key = 0; key < KEY_RANGE; key++) {
+            tree.put(key, key);
+            expected.put(key, key);
+        }
+
+        assertEntries(expected, null, true, false);
+        assertEntries(expected.descendingMap(), null, true, true);
+    }
+
+    private void assertEntries(Map<Integer, Integer> expectedEntries, Integer from, boolean fromInclusive,
+                               boolean descending) {
+        List<Integer> keys = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        assertTrue(tree.forEach(from, fromInclusive, descending, (key, value) -> {
+            keys.add(key);
+            values.add(value);
+            return true;
+        }));
+        assertEquals(new ArrayList<>(expectedEntries.keySet()), keys);
+        assertEquals(new ArrayList<>(expectedEntries.values()), values);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.compact.CompactTestUtil;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.nio.ByteOrder;
+import java.util.Collection;
+
+import static com.hazelcast.query.impl.CompactFieldComparator.NOT_APPLICABLE;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParametrizedRunner.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactFieldComparatorTest {
+
+    @Parameter
+    public ByteOrder byteOrder;
+
+    @Parameter(1)
+    public boolean withVariableSizeFields;
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+
+    @Parameters(name = "byteOrder: {0}, withVariableSizeFields: {1}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{
+                {ByteOrder.BIG_ENDIAN, false},
+                {ByteOrder.BIG_ENDIAN, true},
+                {ByteOrder.LITTLE_ENDIAN, false},
+                {ByteOrder.LITTLE_ENDIAN, true},
+        });
+    }
+
+    @Before
+    public void before() {
+        SerializationConfig config = new SerializationConfig().setByteOrder(byteOrder);
+        serializationService = CompactTestUtil.createSerializationService(config);
+        extractors = Extractors.newBuilder(serializationService).build();
+    }
+
+    @Test
+    public void testCompareFixedSizeFields() {
+        QueryableEntry entry = entry(record(false, (byte) -3, (short) 300, 70000, 5000000000L, 1.5F, -2.5D));
+
+        assertComparison(0, "bool", false, entry);
+        assertComparison(-1, "bool", true, entry);
+
+        assertComparison(0, "int8", (byte) -3, entry);
+        assertComparison(1, "int8", (byte) -4, entry);
+        assertComparison(-1, "int8", 10, entry);
+
+        assertComparison(0, "int16", (short) 300, entry);
+        assertComparison(1, "int16", 299L, entry);
+        assertComparison(-1, "int16", "301", entry);
+
+        assertComparison(0, "int32", 70000, entry);
+        assertComparison(1, "int32", 69999L, entry);
+        assertComparison(-1, "int32", 70001, entry);
+
+        assertComparison(0, "int64", 5000000000L, entry);
+        assertComparison(1, "int64", 4999999999L, entry);
+        assertComparison(-1, "int64", Long.MAX_VALUE, entry);
+
+        assertComparison(0, "float32", 1.5F, entry);
+        assertComparison(1, "float32", 1.25D, entry);
+        assertComparison(-1, "float32", 2, entry);
+
+        assertComparison(0, "float64", -2.5D, entry);
+        assertComparison(1, "float64", -3, entry);
+        assertComparison(-1, "float64", -2.25F, entry);
+    }
+
+    @Test
+    public void testNotApplicable() {
+        QueryableEntry entry = entry(record(true, (byte) 1, (short) 1, 1, 1, 1, 1));
+
+        // not a top-level fixed-size field
+        assertNotApplicable("int32.nested", 1, entry);
+        assertNotApplicable("int32[0]", 1, entry);
+        assertNotApplicable("missing", 1, entry);
+        assertNotApplicable("this", 1, entry);
+        assertNotApplicable("__key", 1, entry);
+
+        // null values
+        assertNotApplicable("int32", null, entry);
+        assertNotApplicable("int32", AbstractIndex.NULL, entry);
+
+        // not a Compact value
+        QueryableEntry objectEntry = new QueryEntry(serializationService, serializationService.toData(1),
+                serializationService.toData(1), extractors);
+        assertNotApplicable("int32", 1, objectEntry);
+
+        // not a fixed-size field
+        GenericRecord record = GenericRecordBuilder.compact("other")
+                .setNullableInt32("int32", 1)
+                .setString("string", "a")
+                .build();
+        assertNotApplicable("int32", 1, entry(record));
+        assertNotApplicable("string", "a", entry(record));
+    }
+
+    @Test
+    public void testMultipleSchemas() {
+        QueryableEntry entry = entry(record(true, (byte) 1, (short) 1, 42, 1, 1, 1));
+        QueryableEntry otherEntry = entry(GenericRecordBuilder.compact("other")
+                .setInt64("l", 1)
+                .setInt32("int32", 43)
+                .build());
+
+        CompactFieldComparator comparator = CompactFieldComparator.of("int32", 42);
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(0, Integer.signum(comparator.compare(entry)));
+            assertEquals(1, Integer.signum(comparator.compare(otherEntry)));
+        }
+    }
+
+    @Test
+    public void testPredicates() {
+        QueryableEntry entry = entry(record(true, (byte) 1, (short) 1, 42, 1, 1, 2.5D));
+
+        assertTrue(Predicates.equal("int32", 42).apply(entry));
+        assertFalse(Predicates.equal("int32", 43).apply(entry));
+        assertTrue(Predicates.notEqual("int32", 43).apply(entry));
+        assertFalse(Predicates.notEqual("int32", 42L).apply(entry));
+        assertTrue(Predicates.greaterThan("int32", 41).apply(entry));
+        assertFalse(Predicates.greaterThan("int32", 42).apply(entry));
+        assertTrue(Predicates.greaterEqual("int32", 42).apply(entry));
+        assertTrue(Predicates.lessThan("float64", 3).apply(entry));
+        assertFalse(Predicates.lessEqual("float64", 2.25D).apply(entry));
+        assertTrue(Predicates.between("float64", 2.5D, 2.5D).apply(entry));
+        assertTrue(Predicates.between("int32", 0, 100).apply(entry));
+        assertFalse(Predicates.between("int32", 43, 100).apply(entry));
+        assertTrue(Predicates.equal("bool", true).apply(entry));
+        assertTrue(Predicates.and(Predicates.equal("int8", 1), Predicates.lessThan("int64", 2L)).apply(entry));
+    }
+
+    @Test
+    public void testPredicatesMatchRegularExtraction() {
+        Predicate[] predicates = {
+                Predicates.equal("int32", 7),
+                Predicates.notEqual("int16", (short) 7),
+                Predicates.greaterThan("int64", 7),
+                Predicates.lessEqual("float32", 7.5F),
+                Predicates.between("float64", 3, 9),
+                Predicates.between("int8", -2, 2),
+        };
+
+        for (int i = -10; i <= 10; ++i) {
+            GenericRecord record = record(i % 2 == 0, (byte) i, (short) i, i, i, i + 0.5F, i);
+            QueryableEntry compactEntry = entry(record);
+            QueryableEntry objectEntry = new QueryEntry(serializationService, serializationService.toData(i),
+                    record, extractors);
+            for (Predicate predicate : predicates) {
+                assertEquals(predicate + " for " + i, predicate.apply(objectEntry), predicate.apply(compactEntry));
+            }
+        }
+    }
+
+    private GenericRecord record(boolean bool, byte int8, short int16, int int32, long int64, float float32,
+                                 double float64) {
+        GenericRecordBuilder builder = GenericRecordBuilder.compact("fixed")
+                .setBoolean("bool", bool)
+                .setInt8("int8", int8)
+                .setInt16("int16", int16)
+                .setInt32("int32", int32)
+                .setInt64("int64", int64)
+                .setFloat32("float32", float32)
+                .setFloat64("float64", float64);
+        if (withVariableSizeFields) {
+            builder.setString("string", "value").setNullableInt32("nullable", null);
+        }
+        return builder.build();
+    }
+
+    private QueryableEntry entry(GenericRecord record) {
+        Data value = serializationService.toData(record);
+        return new QueryEntry(serializationService, serializationService.toData(1), value, extractors);
+    }
+
+    private static void assertComparison(int expected, String attribute, Comparable value, QueryableEntry entry) {
+        int comparison = CompactFieldComparator.of(attribute, value).compare(entry);
+        assertTrue(comparison != NOT_APPLICABLE);
+        assertEquals(expected, Integer.signum(comparison));
+    }
+
+    private static void assertNotApplicable(String attribute, Comparable value, QueryableEntry entry) {
+        assertEquals(NOT_APPLICABLE, CompactFieldComparator.of(attribute, value).compare(entry));
+    }
+
+}
@@ -42,6 +42,7 @@ import static com.hazelcast.query.Predicates.or;
 import static com.hazelcast.query.impl.TypeConverters.INTEGER_CONVERTER;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -145,6 +146,27 @@ public class BitmapTest {
         clear();
     }
 
+    @Test
+    public void testMemoryCost() {
+        for (long i = 0; i < COUNT; ++i) {
+            insert(i, i);
+        }
+        long insertedCost = operationStats.getMemoryCostDelta();
+        assertTrue(insertedCost > 0);
+
+        for (long i = 0; i < COUNT; ++i) {
+            update(i, i, i + 1);
+        }
+        assertTrue(operationStats.getMemoryCostDelta() > 0);
+
+        for (long i = 0; i < COUNT; ++i) {
+            remove(i, i + 1);
+        }
+        verify();
+        assertEquals(0, operationStats.getEntryCountDelta());
+        assertEquals(0, operationStats.getMemoryCostDelta());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testUnexpectedPredicate() {
         bitmap.evaluate(Predicates.like("a", "b"), INTEGER_CONVERTER);
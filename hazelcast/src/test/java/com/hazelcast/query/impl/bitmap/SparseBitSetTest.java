@@ -29,8 +29,10 @@ import java.util.TreeSet;
 
 import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_16_MAX_SIZE;
 import static com.hazelcast.query.impl.bitmap.SparseBitSet.ARRAY_STORAGE_32_MAX_SIZE;
+import static com.hazelcast.query.impl.bitmap.SparseBitSet.RUN_STORAGE_16_MAX_RUNS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -264,6 +266,97 @@ public class SparseBitSetTest {
         }
     }
 
+    @Test
+    public void testRunStorage16SplitsAndMerges() {
+        int size = 4 * RUN_STORAGE_16_MAX_RUNS + 100;
+        long offset = 3 * ((long) Short.MAX_VALUE * 2 + 2) + 7;
+
+        // a single run, upgraded from the array storage
+        for (long i = offset; i < offset + size; ++i) {
+            set(i);
+        }
+        verify();
+        verifyAdvanceAtLeastTo();
+
+        // split the run until the run storage is upgraded to the bit set
+        // storage
+        for (long i = offset + 1; i < offset + size; i += 2) {
+            clear(i);
+            if (i % 97 == 0) {
+                verify();
+            }
+        }
+        verify();
+        verifyAdvanceAtLeastTo();
+
+        // merge the runs back until the bit set storage is downgraded to the
+        // run storage
+        for (long i = offset + 1; i < offset + size; i += 2) {
+            set(i);
+            if (i % 97 == 0) {
+                verify();
+            }
+        }
+        verify();
+        verifyAdvanceAtLeastTo();
+
+        // shrink the run from both sides
+        for (long i = 0; i < size / 2; ++i) {
+            clear(offset + i);
+            clear(offset + size - 1 - i);
+            if (i % 97 == 0) {
+                verify();
+                verifyAdvanceAtLeastTo();
+            }
+        }
+        verify();
+    }
+
+    @Test
+    public void testRunStorage16DowngradeToArray() {
+        // a few long runs
+        for (long i = 0; i < ARRAY_STORAGE_16_MAX_SIZE + 10; ++i) {
+            if (i % 1000 != 999) {
+                set(i);
+            }
+        }
+        verify();
+
+        // break the runs into short ones
+        for (long i = 0; i < ARRAY_STORAGE_16_MAX_SIZE + 10; i += 3) {
+            clear(i);
+            verify();
+            verifyAdvanceAtLeastTo();
+        }
+    }
+
+    @Test
+    public void testMemoryCost() {
+        long emptyCost = actual.getMemoryCost();
+        assertTrue(emptyCost > 0);
+
+        // dense members are stored as runs
+        for (long i = 0; i < 2 * ARRAY_STORAGE_16_MAX_SIZE; ++i) {
+            set(i);
+        }
+        long denseCost = actual.getMemoryCost();
+        assertTrue(denseCost > emptyCost);
+        assertTrue(denseCost < ARRAY_STORAGE_16_MAX_SIZE);
+
+        // sparse members are stored in arrays and bit sets
+        for (long i = 2 * ARRAY_STORAGE_16_MAX_SIZE; i < 16 * ARRAY_STORAGE_16_MAX_SIZE; i += 2) {
+            set(i);
+        }
+        long sparseCost = actual.getMemoryCost();
+        assertTrue(sparseCost > denseCost + ARRAY_STORAGE_16_MAX_SIZE);
+
+        for (long i = 0; i < 16 * ARRAY_STORAGE_16_MAX_SIZE; ++i) {
+            clear(i);
+        }
+        verify();
+        assertEquals(emptyCost, actual.getMemoryCost());
+    }
+
     @Test
     public void testIteratorAdvanceAtLeastTo() {
         // try empty set
@@ -16,6 +16,7 @@
 
 package com.hazelcast.query.impl.predicates;
 
+import com.hazelcast.query.impl.CompactFieldComparator;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -75,6 +76,8 @@ public class BetweenPredicateTest {
     public void testEqualsAndHashCode() {
         EqualsVerifier.forClass(BetweenPredicate.class)
             .suppress(Warning.NONFINAL_FIELDS, Warning.STRICT_INHERITANCE)
+            .withPrefabValues(CompactFieldComparator.class,
+                    CompactFieldComparator.of("a", 1), CompactFieldComparator.of("b", 2))
             .withRedefinedSuperclass()
             .verify();
     }
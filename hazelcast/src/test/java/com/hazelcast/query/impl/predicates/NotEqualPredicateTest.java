@@ -16,6 +16,7 @@
 
 package com.hazelcast.query.impl.predicates;
 
+import com.hazelcast.query.impl.CompactFieldComparator;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -105,6 +106,8 @@ public class NotEqualPredicateTest {
     public void testEqualsAndHashCode() {
         EqualsVerifier.forClass(NotEqualPredicate.class)
             .suppress(Warning.NONFINAL_FIELDS, Warning.STRICT_INHERITANCE)
+            .withPrefabValues(CompactFieldComparator.class,
+                    CompactFieldComparator.of("a", 1), CompactFieldComparator.of("b", 2))
             .withRedefinedSuperclass()
             .verify();
     }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2008-2023, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.version.MemberVersion;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.cluster.Versions.V5_3;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_LINGER_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_MAX_SIZE;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.TestClusterUpgradeUtils.newHazelcastInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class EventServiceImpl_BatchingTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 1000;
+    private static final int ROUNDS = 3;
+    private static final MemberVersion VERSION_5_3_0 = MemberVersion.of(5, 3, 0);
+
+    @Test
+    public void testEventsAreBatched_andOrderedPerKey() {
+        Config config = smallInstanceConfig()
+                .setProperty(EVENT_BATCH_MAX_SIZE.getName(), "64")
+                .setProperty(EVENT_BATCH_LINGER_MILLIS.getName(), "5");
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        HazelcastInstance publisher = instances[0];
+        HazelcastInstance subscriber = instances[1];
+
+        Map<Integer, List<Integer>> receivedValues = new ConcurrentHashMap<>();
+        AtomicInteger eventCount = new AtomicInteger();
+        IMap<Integer, Integer> map = subscriber.getMap(randomMapName());
+        map.addEntryListener(new ValueRecordingListener(receivedValues, eventCount), true);
+
+        IMap<Integer, Integer> publisherMap = publisher.getMap(map.getName());
+        for (int round = 0; round < ROUNDS; round++) {
+            Map<Integer, Integer> entries = new HashMap<>();
+            for (int key = 0; key < KEY_COUNT; key++) {
+                entries.put(key, round);
+            }
+            publisherMap.putAll(entries);
+        }
+
+        assertTrueEventually(() -> assertEquals(KEY_COUNT * ROUNDS, eventCount.get()));
+        for (int key = 0; key < KEY_COUNT; key++) {
+            assertEquals("Events of key " + key + " are not ordered", List.of(0, 1, 2), receivedValues.get(key));
+        }
+
+        EventServiceImpl eventService = (EventServiceImpl) getNodeEngineImpl(publisher).getEventService();
+        assertTrue(eventService.batchesSent() > 0);
+        assertTrue(eventService.batchedEventsSent() > eventService.batchesSent());
+    }
+
+    @Test
+    public void testEventsAreNotBatched_byDefault() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(smallInstanceConfig());
+        HazelcastInstance publisher = instances[0];
+        HazelcastInstance subscriber = instances[1];
+
+        AtomicInteger eventCount = new AtomicInteger();
+        IMap<Integer, Integer> map = subscriber.getMap(randomMapName());
+        map.addEntryListener(new ValueRecordingListener(new ConcurrentHashMap<>(), eventCount), true);
+
+        Map<Integer, Integer> entries = new HashMap<>();
+        for (int key = 0; key < KEY_COUNT; key++) {
+            entries.put(key, key);
+        }
+        publisher.getMap(map.getName()).putAll(entries);
+
+        assertTrueEventually(() -> assertEquals(KEY_COUNT, eventCount.get()));
+        EventServiceImpl eventService = (EventServiceImpl) getNodeEngineImpl(publisher).getEventService();
+        assertEquals(0, eventService.batchesSent());
+    }
+
+    @Test
+    public void testEventsAreNotBatched_beforeClusterVersion54() {
+        Config config = smallInstanceConfig()
+                .setProperty(EVENT_BATCH_MAX_SIZE.getName(), "64")
+                .setProperty(EVENT_BATCH_LINGER_MILLIS.getName(), "5");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance publisher = newHazelcastInstance(factory, VERSION_5_3_0, config);
+        HazelcastInstance subscriber = newHazelcastInstance(factory, VERSION_5_3_0, config);
+        assertEquals(V5_3, publisher.getCluster().getClusterVersion());
+
+        AtomicInteger eventCount = new AtomicInteger();
+        IMap<Integer, Integer> map = subscriber.getMap(randomMapName());
+        map.addEntryListener(new ValueRecordingListener(new ConcurrentHashMap<>(), eventCount), true);
+
+        Map<Integer, Integer> entries = new HashMap<>();
+        for (int key = 0; key < KEY_COUNT; key++) {
+            entries.put(key, key);
+        }
+        publisher.getMap(map.getName()).putAll(entries);
+
+        assertTrueEventually(() -> assertEquals(KEY_COUNT, eventCount.get()));
+        EventServiceImpl eventService = (EventServiceImpl) getNodeEngineImpl(publisher).getEventService();
+        assertEquals(0, eventService.batchesSent());
+    }
+
+    private static final class ValueRecordingListener
+            implements EntryAddedListener<Integer, Integer>, EntryUpdatedListener<Integer, Integer> {
+
+        private final Map<Integer, List<Integer>> receivedValues;
+        private final AtomicInteger eventCount;
+
+        ValueRecordingListener(Map<Integer, List<Integer>> receivedValues, AtomicInteger eventCount) {
+            this.receivedValues = receivedValues;
+            this.eventCount = eventCount;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<Integer, Integer> event) {
+            record(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Integer, Integer> event) {
+            record(event);
+        }
+
+        private void record(EntryEvent<Integer, Integer> event) {
+            receivedValues.computeIfAbsent(event.getKey(), k -> new CopyOnWriteArrayList<>()).add(event.getValue());
+            eventCount.incrementAndGet();
+        }
+    }
+}
@@ -28,6 +28,8 @@ import org.junit.runner.RunWith;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.spi.impl.operationservice.Operation.GENERIC_PARTITION_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 
@@ -247,6 +249,93 @@ public class OperationExecutorImpl_RunOrExecuteTest extends OperationExecutorImp
         });
     }
 
+    // ===================== run inline or execute ========================
+
+    @Test(expected = NullPointerException.class)
+    public void runInlineOrExecute_whenNullTask() {
+        initExecutor();
+
+        executor.runInlineOrExecute(null);
+    }
+
+    @Test
+    public void runInlineOrExecute_whenCallingFromUserThread_thenExecuteOnPartitionThread() {
+        initExecutor();
+
+        final AtomicReference<Thread> executingThread = new AtomicReference<Thread>();
+        boolean inline = executor.runInlineOrExecute(new ThreadCapturingRunnable(executingThread, 0));
+
+        assertFalse(inline);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertInstanceOf(PartitionOperationThread.class, executingThread.get());
+            }
+        });
+    }
+
+    @Test
+    public void runInlineOrExecute_whenCallingFromPartitionThreadRunningTask_thenNotNested() {
+        initExecutor();
+
+        final AtomicReference<Thread> executingThread = new AtomicReference<Thread>();
+        final AtomicReference<Boolean> inline = new AtomicReference<Boolean>();
+        final PartitionSpecificCallable<Thread> task = new PartitionSpecificCallable<Thread>(0) {
+            @Override
+            public Thread call() {
+                inline.set(executor.runInlineOrExecute(new ThreadCapturingRunnable(executingThread, 0)));
+                return Thread.currentThread();
+            }
+        };
+
+        executor.execute(task);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(Boolean.FALSE, inline.get());
+                assertSame(task.getResult(), executingThread.get());
+            }
+        });
+    }
+
+    @Test
+    public void runInlineOrExecute_whenGenericTask_thenExecuteOnGenericThread() {
+        initExecutor();
+
+        final AtomicReference<Thread> executingThread = new AtomicReference<Thread>();
+        boolean inline = executor.runInlineOrExecute(new ThreadCapturingRunnable(executingThread, GENERIC_PARTITION_ID));
+
+        assertFalse(inline);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertInstanceOf(GenericOperationThread.class, executingThread.get());
+            }
+        });
+    }
+
+    private static class ThreadCapturingRunnable implements PartitionSpecificRunnable {
+
+        private final AtomicReference<Thread> executingThread;
+        private final int partitionId;
+
+        ThreadCapturingRunnable(AtomicReference<Thread> executingThread, int partitionId) {
+            this.executingThread = executingThread;
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            executingThread.set(Thread.currentThread());
+        }
+    }
+
     private static class ThreadCapturingOperation extends Operation {
 
         private final AtomicReference<Thread> executingThread;
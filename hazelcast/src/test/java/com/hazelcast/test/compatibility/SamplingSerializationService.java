@@ -22,6 +22,7 @@ import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.DataType;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.SerializedBytesFactory;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.serialization.impl.InternalGenericRecord;
 import com.hazelcast.internal.serialization.impl.compact.CompactGenericRecord;
@@ -38,6 +39,7 @@ import com.hazelcast.test.TestEnvironment;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -144,6 +146,15 @@ public class SamplingSerializationService implements InternalSerializationServic
         return bytes;
     }
 
+    @Override
+    public <T> T toBytes(Object obj, int leftPadding, boolean insertPartitionHash, boolean bigEndianTypeId,
+                         SerializedBytesFactory<T> factory) {
+        return delegate.toBytes(obj, leftPadding, insertPartitionHash, bigEndianTypeId, (bytes, length) -> {
+            sampleObject(obj, Arrays.copyOf(bytes, length));
+            return factory.create(bytes, length);
+        });
+    }
+
     @Override
     public <B extends Data> B toData(Object obj, DataType type) {
         return toData(obj);